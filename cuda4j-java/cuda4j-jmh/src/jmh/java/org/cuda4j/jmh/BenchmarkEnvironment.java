@@ -0,0 +1,85 @@
+package org.cuda4j.jmh;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaContext;
+import org.cuda4j.context.CudaFunction;
+import org.cuda4j.emulator.EmulatedDriver;
+
+import java.nio.charset.StandardCharsets;
+
+import static java.lang.foreign.ValueLayout.*;
+
+/**
+ * Shared setup for every benchmark. The kernels are shipped as PTX so the same code runs on real hardware,
+ * and are registered as host kernels when {@code -Dcuda4j.driver=emulated} is in effect.
+ */
+public final class BenchmarkEnvironment {
+    
+    private static final String PTX = """
+        .version 7.0
+        .target sm_52
+        .address_size 64
+        
+        .visible .entry noop()
+        {
+            ret;
+        }
+        
+        .visible .entry touch(.param .u64 data, .param .f32 value, .param .u32 n)
+        {
+            .reg .pred %p<2>;
+            .reg .b32 %r<3>;
+            .reg .f32 %f<2>;
+            .reg .b64 %rd<3>;
+            
+            ld.param.u64 %rd1, [data];
+            ld.param.f32 %f1, [value];
+            ld.param.u32 %r1, [n];
+            setp.eq.u32 %p1, %r1, 0;
+            @%p1 bra DONE;
+            cvta.to.global.u64 %rd2, %rd1;
+            st.global.f32 [%rd2], %f1;
+        DONE:
+            ret;
+        }
+        """;
+    
+    private static CudaContext context;
+    private static CudaFunction noop;
+    private static CudaFunction touch;
+    
+    private BenchmarkEnvironment() {
+    }
+    
+    public static synchronized void setUp() throws Throwable {
+        if (context == null) {
+            if (CUDA.driver() instanceof EmulatedDriver emulated) {
+                emulated.registerKernel("noop", launch -> {});
+                emulated.registerKernel("touch", launch -> {
+                    if (launch.intArg(2) > 0) launch.pointer(0).set(JAVA_FLOAT, 0, launch.floatArg(1));
+                }, JAVA_LONG, JAVA_FLOAT, JAVA_INT);
+            }
+            
+            context = CUDA.createSystemDevice(0).createContext();
+            
+            byte[] image = (PTX + "\0").getBytes(StandardCharsets.US_ASCII);
+            context.setCurrent();
+            
+            noop = CUDA.loadModule(image).getFunction("noop");
+            touch = CUDA.loadModule(image).getFunction("touch");
+        }
+        
+        context.setCurrent();
+    }
+    
+    public static CudaFunction noop() {
+        return noop;
+    }
+    
+    /**
+     * {@code touch(float* data, float value, int n)}, a kernel with a realistic mix of argument types.
+     */
+    public static CudaFunction touch() {
+        return touch;
+    }
+}
\ No newline at end of file
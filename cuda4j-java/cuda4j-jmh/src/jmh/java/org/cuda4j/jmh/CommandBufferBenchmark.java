@@ -0,0 +1,122 @@
+package org.cuda4j.jmh;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.context.CommandBuffer;
+import org.cuda4j.context.CudaEvent;
+import org.cuda4j.context.CudaFunction;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.context.KernelArgs;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.foreign.ValueLayout.*;
+
+/**
+ * Commands per second for many tiny operations, issued one downcall each versus through a {@link CommandBuffer}.
+ * Each batch mixes launches, a copy in each direction and an event record, then synchronizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandBufferBenchmark {
+    
+    private static final int LAUNCHES = 96;
+    private static final int COMMANDS = LAUNCHES + 3;
+    
+    private Arena arena;
+    private CudaFunction noop;
+    private CudaFunction touch;
+    private CudaStream stream;
+    private CudaBuffer buffer;
+    private CudaEvent event;
+    private KernelArgs args;
+    private MemorySegment host;
+    private CommandBuffer recorded;
+    private CommandBuffer commands;
+    
+    @Setup
+    public void setUp() throws Throwable {
+        BenchmarkEnvironment.setUp();
+        
+        arena = Arena.ofShared();
+        noop = BenchmarkEnvironment.noop();
+        touch = BenchmarkEnvironment.touch();
+        stream = CUDA.createStream();
+        buffer = CUDA.allocateBytes(Float.BYTES);
+        event = CudaEvent.create(false);
+        host = arena.allocate(JAVA_FLOAT);
+        args = new KernelArgs(JAVA_LONG, JAVA_FLOAT, JAVA_INT)
+            .setBuffer(0, buffer)
+            .setFloat(1, 1)
+            .setInt(2, 1);
+        
+        recorded = new CommandBuffer();
+        record(recorded);
+        commands = new CommandBuffer();
+    }
+    
+    @TearDown
+    public void tearDown() throws Throwable {
+        recorded.close();
+        commands.close();
+        args.close();
+        event.destroy();
+        buffer.free();
+        stream.destroy();
+        arena.close();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(COMMANDS)
+    public void perCall() throws Throwable {
+        buffer.copyFromAsync(host, 0, 0, Float.BYTES, stream);
+        
+        for (int i = 0; i < LAUNCHES; i++) {
+            int res = (i & 1) == 0
+                ? noop.launch(1, 1, 1, 1, 1, 1, 0, stream, null)
+                : touch.launch(1, 1, 1, 1, 1, 1, 0, stream, args.pointer());
+            if (res != 0) throw new RuntimeException("cuLaunchKernel failed: " + res);
+        }
+        
+        buffer.copyToAsync(host, 0, 0, Float.BYTES, stream);
+        event.record(stream);
+        stream.sync();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(COMMANDS)
+    public void recordAndSubmit() throws Throwable {
+        commands.reset();
+        record(commands);
+        commands.submit(stream);
+        stream.sync();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(COMMANDS)
+    public void resubmitRecorded() throws Throwable {
+        recorded.submit(stream);
+        stream.sync();
+    }
+    
+    private void record(CommandBuffer target) {
+        target.copyToDevice(buffer, 0, host, 0, Float.BYTES);
+        
+        for (int i = 0; i < LAUNCHES; i++) {
+            if ((i & 1) == 0) {
+                target.launch(noop, 1, 1, 1, 1, 1, 1, 0, null);
+            } else {
+                target.launch(touch, 1, 1, 1, 1, 1, 1, 0, args);
+            }
+        }
+        
+        target.copyToHost(host, 0, buffer, 0, Float.BYTES).record(event);
+    }
+}
\ No newline at end of file
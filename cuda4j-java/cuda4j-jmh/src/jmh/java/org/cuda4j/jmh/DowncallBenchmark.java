@@ -0,0 +1,61 @@
+package org.cuda4j.jmh;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.driver.CudaDriver;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed cost of crossing into the driver for the bindings that sit on hot paths.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DowncallBenchmark {
+    
+    private CudaDriver driver;
+    // kept reachable, or the leak backstop would release the raw handles below
+    private CudaBuffer allocation;
+    private CudaStream created;
+    private MemorySegment buffer;
+    private MemorySegment stream;
+    
+    @Setup
+    public void setUp() throws Throwable {
+        BenchmarkEnvironment.setUp();
+        
+        allocation = CUDA.allocateBytes(1024);
+        created = CUDA.createStream();
+        
+        driver = CUDA.driver();
+        buffer = allocation.handle();
+        stream = created.handle();
+    }
+    
+    @Benchmark
+    public long bufferPtr() throws Throwable {
+        return driver.bufferPtr(buffer);
+    }
+    
+    @Benchmark
+    public int streamQuery() throws Throwable {
+        return driver.streamQuery(stream);
+    }
+    
+    @Benchmark
+    public int deviceCount() throws Throwable {
+        return driver.deviceCount();
+    }
+    
+    @Benchmark
+    public int syncContext() throws Throwable {
+        return driver.syncContext();
+    }
+}
\ No newline at end of file
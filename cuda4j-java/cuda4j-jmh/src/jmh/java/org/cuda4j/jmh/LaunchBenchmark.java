@@ -0,0 +1,73 @@
+package org.cuda4j.jmh;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.context.CudaFunction;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.context.KernelArgs;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.foreign.ValueLayout.*;
+
+/**
+ * Round trip of a launch followed by a stream synchronization, the floor for any dependent host logic.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LaunchBenchmark {
+    
+    private CudaFunction noop;
+    private CudaFunction touch;
+    private CudaStream stream;
+    private CudaBuffer buffer;
+    private KernelArgs args;
+    
+    @Setup
+    public void setUp() throws Throwable {
+        BenchmarkEnvironment.setUp();
+        
+        noop = BenchmarkEnvironment.noop();
+        touch = BenchmarkEnvironment.touch();
+        stream = CUDA.createStream();
+        buffer = CUDA.allocateBytes(Float.BYTES);
+        args = new KernelArgs(JAVA_LONG, JAVA_FLOAT, JAVA_INT)
+            .setBuffer(0, buffer)
+            .setFloat(1, 1)
+            .setInt(2, 1);
+    }
+    
+    @TearDown
+    public void tearDown() throws Throwable {
+        args.close();
+        buffer.free();
+        stream.destroy();
+    }
+    
+    @Benchmark
+    public void launchAndSync() throws Throwable {
+        noop.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+        stream.sync();
+    }
+    
+    @Benchmark
+    public void launchWithArgumentsAndSync() throws Throwable {
+        touch.launch(1, 1, 1, 1, 1, 1, 0, stream, args.pointer());
+        stream.sync();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public void launchBatchAndSync() throws Throwable {
+        for (int i = 0; i < 100; i++) {
+            noop.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+        }
+        
+        stream.sync();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package org.cuda4j.jmh;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.driver.NativeLibrary;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start costs, measured once per fresh JVM: extracting the native library (a cache hit after the first
+ * fork) and the first call into the driver, which includes loading the library and linking the symbol.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+    
+    /**
+     * Extraction only copies and hashes bytes, so the packaged Windows library stands in on other platforms.
+     */
+    private static final String LIBRARY = NativeLibrary.class.getResource(NativeLibrary.resourceName()) != null
+        ? NativeLibrary.resourceName()
+        : "/native/windows-x86_64/libcuda4j.dll";
+    
+    @Benchmark
+    public Path extractLibrary() {
+        return NativeLibrary.extract(LIBRARY);
+    }
+    
+    @Benchmark
+    public int firstDriverCall() throws Throwable {
+        return CUDA.driver().deviceCount();
+    }
+}
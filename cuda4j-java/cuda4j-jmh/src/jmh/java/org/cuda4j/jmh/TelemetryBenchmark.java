@@ -0,0 +1,89 @@
+package org.cuda4j.jmh;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.context.CudaFunction;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.driver.CudaDriver;
+import org.cuda4j.metrics.CudaMetrics;
+import org.cuda4j.metrics.Direction;
+import org.cuda4j.metrics.SimpleMetrics;
+import org.cuda4j.metrics.Telemetry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the telemetry probes. With {@code metrics=none} and no recording running, {@code instrumentedCopy}
+ * and {@code instrumentedLaunchAndSync} should match their {@code raw} counterparts, which call the driver directly,
+ * and {@code probe} should be indistinguishable from an empty method. Run with
+ * {@code -Djmh.jvmArgs=-XX:StartFlightRecording} to measure the cost of the events when they are enabled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TelemetryBenchmark {
+    
+    @Param({ "none", "simple" })
+    public String metrics;
+    
+    private CudaDriver driver;
+    private CudaFunction noop;
+    private CudaStream stream;
+    private CudaBuffer buffer;
+    private Arena arena;
+    private MemorySegment segment;
+    
+    @Setup
+    public void setUp() throws Throwable {
+        BenchmarkEnvironment.setUp();
+        CUDA.useMetrics(metrics.equals("simple") ? new SimpleMetrics() : CudaMetrics.NONE);
+        
+        driver = CUDA.driver();
+        noop = BenchmarkEnvironment.noop();
+        stream = CUDA.createStream();
+        buffer = CUDA.allocateBytes(64);
+        arena = Arena.ofShared();
+        segment = arena.allocate(64);
+    }
+    
+    @TearDown
+    public void tearDown() throws Throwable {
+        CUDA.useMetrics(null);
+        buffer.free();
+        stream.destroy();
+        arena.close();
+    }
+    
+    @Benchmark
+    public void probe() {
+        Telemetry.endCopy(Telemetry.beginCopy(), Direction.HOST_TO_DEVICE, 64, false);
+    }
+    
+    @Benchmark
+    public int rawCopy() throws Throwable {
+        return driver.memcpyHtoD(buffer.handle(), 0, segment, 64);
+    }
+    
+    @Benchmark
+    public void instrumentedCopy() throws Throwable {
+        buffer.copyFrom(segment, 0, 0, 64);
+    }
+    
+    @Benchmark
+    public int rawLaunchAndSync() throws Throwable {
+        driver.launchKernel(noop.handle(), 1, 1, 1, 1, 1, 1, 0, stream.handle(), MemorySegment.NULL);
+        return driver.streamSync(stream.handle());
+    }
+    
+    @Benchmark
+    public void instrumentedLaunchAndSync() throws Throwable {
+        noop.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+        stream.sync();
+    }
+}
\ No newline at end of file
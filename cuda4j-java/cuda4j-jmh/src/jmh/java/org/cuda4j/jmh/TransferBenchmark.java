@@ -0,0 +1,67 @@
+package org.cuda4j.jmh;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Host/device copy throughput from 1 KB to 1 GB, for heap arrays (staged) and native segments (direct).
+ * Bytes per second is {@code size / score}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferBenchmark {
+    
+    @Param({ "1024", "65536", "1048576", "16777216", "268435456", "1073741824" })
+    public int size;
+    
+    private byte[] array;
+    private Arena arena;
+    private MemorySegment segment;
+    private CudaBuffer buffer;
+    
+    @Setup
+    public void setUp() throws Throwable {
+        BenchmarkEnvironment.setUp();
+        
+        array = new byte[size];
+        arena = Arena.ofShared();
+        segment = arena.allocate(size, 4096);
+        buffer = CUDA.allocateBytes(size);
+    }
+    
+    @TearDown
+    public void tearDown() throws Throwable {
+        buffer.free();
+        arena.close();
+        CUDA.stagingPool().clear();
+    }
+    
+    @Benchmark
+    public void copyToDevice() throws Throwable {
+        buffer.copyToDevice(array);
+    }
+    
+    @Benchmark
+    public void copyToHost() throws Throwable {
+        buffer.copyToHost(array);
+    }
+    
+    @Benchmark
+    public void copyFromSegment() throws Throwable {
+        buffer.copyFrom(segment, 0, 0, size);
+    }
+    
+    @Benchmark
+    public void copyToSegment() throws Throwable {
+        buffer.copyTo(segment, 0, 0, size);
+    }
+}
\ No newline at end of file
@@ -1,120 +1,388 @@
 package org.cuda4j;
 
 import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.buffer.CudaManagedBuffer;
+import org.cuda4j.buffer.CudaMemoryPool;
+import org.cuda4j.buffer.CudaPitchedBuffer;
+import org.cuda4j.buffer.StagingBufferPool;
+import org.cuda4j.buffer.TransferEngine;
+import org.cuda4j.context.Autotuner;
+import org.cuda4j.context.CudaFunction;
 import org.cuda4j.context.CudaStream;
+import org.cuda4j.context.KernelArgs;
 import org.cuda4j.device.CudaDevice;
 import org.cuda4j.device.CudaModule;
+import org.cuda4j.device.ModuleCache;
+import org.cuda4j.driver.CudaDriver;
+import org.cuda4j.driver.NativeDriver;
+import org.cuda4j.driver.NativeLibrary;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.cuda4j.metrics.AllocationEvent;
+import org.cuda4j.metrics.CudaMetrics;
+import org.cuda4j.metrics.Telemetry;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.lang.foreign.*;
-import java.lang.invoke.MethodHandle;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.lang.foreign.ValueLayout;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 
 public class CUDA {
     
-    public static final Linker LINKER = Linker.nativeLinker();
-    public static final SymbolLookup LOOKUP = loadFromResources("/libcuda4j.dll");
-    public static final MethodHandle CUDA_INIT = LINKER.downcallHandle(
-        LOOKUP.find("cuda_init").orElse(null),
-        FunctionDescriptor.ofVoid()
-    );
-    public static final MethodHandle CUDA_DEVICE_COUNT = LINKER.downcallHandle(
-        LOOKUP.find("cuda_device_count").orElse(null),
-        FunctionDescriptor.of(ValueLayout.JAVA_INT)
-    );
-    public static final MethodHandle CUDA_CREATE_SYSTEM_DEVICE = LINKER.downcallHandle(
-        LOOKUP.find("cuda_create_system_device").orElse(null),
-        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.JAVA_INT)
-    );
-    public static final MethodHandle CUDA_STREAM_CREATE = LINKER.downcallHandle(
-        LOOKUP.find("cuda_stream_create").orElse(null),
-        FunctionDescriptor.of(ValueLayout.ADDRESS)
-    );
-    public static final MethodHandle CUDA_MODULE_LOAD = LINKER.downcallHandle(
-        LOOKUP.find("cuda_module_load").orElse(null),
-        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
-    );
-    public static final MethodHandle CUDA_MODULE_LOAD_DATA = LINKER.downcallHandle(
-        LOOKUP.find("cuda_module_load_data").orElse(null),
-        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
-    );
-    public static final MethodHandle CUDA_MEM_ALLOC = LINKER.downcallHandle(
-        LOOKUP.find("cuda_mem_alloc").orElse(null),
-        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.JAVA_LONG)
-    );
-    
-    static {
+    private static volatile CudaDriver driver;
+    private static volatile CudaMemoryPool memoryPool;
+    private static volatile StagingBufferPool stagingPool;
+    private static volatile TransferEngine transferEngine;
+    private static volatile ModuleCache moduleCache = defaultModuleCache();
+    private static volatile Autotuner autotuner = defaultAutotuner();
+    private static volatile CudaMetrics metrics = CudaMetrics.NONE;
+    
+    public static CudaDriver driver() {
+        CudaDriver current = driver;
+        
+        if (current == null) {
+            synchronized (CUDA.class) {
+                current = driver;
+                
+                if (current == null) {
+                    current = defaultDriver();
+                    
+                    try {
+                        current.init();
+                    } catch (Throwable e) {
+                        throw new IllegalStateException("Failed to initialize " + current.name() + " CUDA driver", e);
+                    }
+                    
+                    driver = current;
+                }
+            }
+        }
+        
+        return current;
+    }
+    
+    /**
+     * Switches to {@code newDriver}. Cached device blocks and staging buffers belong to the outgoing driver, so they
+     * are freed through it; the memory pool is uninstalled and the staging pool starts over.
+     */
+    public static synchronized void useDriver(CudaDriver newDriver) throws Throwable {
+        newDriver.init();
+        
+        CudaMemoryPool pool = memoryPool;
+        StagingBufferPool staging = stagingPool;
+        memoryPool = null;
+        stagingPool = null;
+        
         try {
-            init();
-        } catch (Throwable e) {
-            throw new ExceptionInInitializerError(e);
+            if (driver != null) {
+                if (pool != null) pool.trim();
+                
+                if (staging != null) {
+                    staging.reclaim();
+                    staging.clear();
+                }
+            }
+        } finally {
+            driver = newDriver;
+            transferEngine = null;
+            CudaModule.clearFunctionCache();
         }
     }
     
+    private static CudaDriver defaultDriver() {
+        String name = System.getProperty("cuda4j.driver", "native");
+        
+        return switch (name) {
+            case "native" -> new NativeDriver();
+            case "emulated" -> new EmulatedDriver();
+            default -> throw new IllegalArgumentException("Unknown cuda4j.driver: " + name);
+        };
+    }
+    
+    public static void useMemoryPool(CudaMemoryPool pool) {
+        memoryPool = pool;
+    }
+    
+    public static CudaMemoryPool memoryPool() {
+        return memoryPool;
+    }
+    
+    public static void useStagingPool(StagingBufferPool pool) {
+        stagingPool = pool;
+    }
+    
+    public static StagingBufferPool stagingPool() {
+        StagingBufferPool current = stagingPool;
+        
+        if (current == null) {
+            synchronized (CUDA.class) {
+                current = stagingPool;
+                
+                if (current == null) {
+                    current = new StagingBufferPool();
+                    stagingPool = current;
+                }
+            }
+        }
+        
+        return current;
+    }
+    
+    public static void useTransferEngine(TransferEngine engine) {
+        transferEngine = engine;
+    }
+    
+    /**
+     * Engine used by synchronous heap copies larger than the biggest staging buffer, created on first use.
+     */
+    public static TransferEngine transferEngine() throws Throwable {
+        TransferEngine current = transferEngine;
+        
+        if (current == null) {
+            synchronized (CUDA.class) {
+                current = transferEngine;
+                
+                if (current == null) {
+                    current = new TransferEngine();
+                    transferEngine = current;
+                }
+            }
+        }
+        
+        return current;
+    }
+    
+    /**
+     * Routes {@link #loadModule(byte[])} and {@code .ptx} paths through {@code cache}, or disables caching
+     * with {@code null}. Defaults to the directory in the {@code cuda4j.moduleCache} system property, if set.
+     */
+    public static void useModuleCache(ModuleCache cache) {
+        moduleCache = cache;
+    }
+    
+    public static ModuleCache moduleCache() {
+        return moduleCache;
+    }
+    
+    private static ModuleCache defaultModuleCache() {
+        String directory = System.getProperty("cuda4j.moduleCache");
+        return directory == null ? null : new ModuleCache(Path.of(directory));
+    }
+    
+    /**
+     * Lets {@link CudaFunction#launch1D(long, KernelArgs, CudaStream)} pick block sizes by timing them, or turns
+     * tuning off with {@code null}. Defaults to a tuner storing its results in the file named by the
+     * {@code cuda4j.autotune} system property, if set.
+     */
+    public static void useAutotuner(Autotuner tuner) {
+        autotuner = tuner;
+    }
+    
+    public static Autotuner autotuner() {
+        return autotuner;
+    }
+    
+    private static Autotuner defaultAutotuner() {
+        String file = System.getProperty("cuda4j.autotune");
+        return file == null ? null : new Autotuner(Path.of(file));
+    }
+    
+    /**
+     * Installs a sink for counters and timings of copies, launches, synchronizations and allocations, or
+     * removes it for {@code null}. Flight Recorder events are emitted independently of this.
+     */
+    public static void useMetrics(CudaMetrics sink) {
+        metrics = sink == null ? CudaMetrics.NONE : sink;
+    }
+    
+    public static CudaMetrics metrics() {
+        return metrics;
+    }
+    
     public static void init() throws Throwable {
-        CUDA_INIT.invokeExact();
+        driver().init();
     }
     
     public static int getDeviceCount() throws Throwable {
-        return (int) CUDA_DEVICE_COUNT.invokeExact();
+        return driver().deviceCount();
     }
     
     public static CudaDevice createSystemDevice(int index) throws Throwable {
-        MemorySegment ptr = (MemorySegment) CUDA_CREATE_SYSTEM_DEVICE.invokeExact(index);
+        MemorySegment ptr = driver().createSystemDevice(index);
         return new CudaDevice(ptr, index);
     }
     
     public static CudaStream createStream() throws Throwable {
-        MemorySegment ptr = (MemorySegment) CUDA_STREAM_CREATE.invoke();
+        ResourceTracker.reclaim();
+        MemorySegment ptr = driver().streamCreate();
         
         if (ptr == null || ptr.address() == 0) {
             throw new RuntimeException("Failed to create CUDA stream");
         }
         
-        return new CudaStream(ptr);
+        return track(new CudaStream(ptr));
     }
     
-    public static CudaModule loadModule(String path) throws Throwable {
+    /**
+     * Creates a stream with the given priority; lower numbers are higher priority, see {@link #getStreamPriorityRange()}.
+     */
+    public static CudaStream createStream(int priority) throws Throwable {
+        ResourceTracker.reclaim();
+        MemorySegment ptr = driver().streamCreateWithPriority(priority);
+        
+        if (ptr == null || ptr.address() == 0) {
+            throw new RuntimeException("Failed to create CUDA stream with priority " + priority);
+        }
+        
+        return track(new CudaStream(ptr));
+    }
+    
+    /**
+     * Returns {@code [least, greatest]} stream priorities supported by the current context.
+     */
+    public static int[] getStreamPriorityRange() throws Throwable {
         try (Arena arena = Arena.ofConfined()) {
-            MemorySegment cPath = arena.allocateFrom(path);
-            MemorySegment moduleHandle = (MemorySegment) CUDA_MODULE_LOAD.invoke(cPath);
+            MemorySegment range = arena.allocate(ValueLayout.JAVA_INT, 2);
+            int res = driver().streamPriorityRange(range);
             
-            if (moduleHandle == null || moduleHandle.address() == 0) {
-                throw new RuntimeException("cuModuleLoad failed for: " + path);
+            if (res != 0) {
+                throw new RuntimeException("cuCtxGetStreamPriorityRange failed: " + res);
             }
             
-            return new CudaModule(moduleHandle);
+            return range.toArray(ValueLayout.JAVA_INT);
+        }
+    }
+    
+    public static CudaModule loadModule(String path) throws Throwable {
+        ModuleCache cache = moduleCache;
+        
+        if (cache != null && path.endsWith(".ptx")) {
+            return track(cache.load(Files.readAllBytes(Path.of(path))));
         }
+        
+        MemorySegment moduleHandle = driver().moduleLoad(path);
+        
+        if (moduleHandle == null || moduleHandle.address() == 0) {
+            throw new RuntimeException("cuModuleLoad failed for: " + path);
+        }
+        
+        return track(new CudaModule(moduleHandle));
     }
     
     public static CudaModule loadModule(byte[] ptx) throws Throwable {
+        ModuleCache cache = moduleCache;
+        
+        if (cache != null) {
+            return track(cache.load(ptx));
+        }
+        
         try (Arena arena = Arena.ofConfined()) {
             MemorySegment data = arena.allocateFrom(ValueLayout.JAVA_BYTE, ptx);
-            MemorySegment moduleHandle = (MemorySegment) CUDA_MODULE_LOAD_DATA.invoke(data);
+            MemorySegment moduleHandle = driver().moduleLoadData(data);
             
             if (moduleHandle == null || moduleHandle.address() == 0) {
                 throw new RuntimeException("cuModuleLoadData failed");
             }
             
-            return new CudaModule(moduleHandle);
+            return track(new CudaModule(moduleHandle));
         }
     }
     
     public static CudaBuffer allocateBytes(long size) throws Throwable {
-        MemorySegment ptr = (MemorySegment) CUDA_MEM_ALLOC.invoke(size);
+        return allocateBytes(size, null);
+    }
+    
+    /**
+     * Allocates {@code size} bytes of device memory, from the memory pool if one is in use. The buffer is tracked
+     * by {@link ResourceTracker} until it is freed; leaked buffers collected since the last allocation are
+     * released first.
+     */
+    public static CudaBuffer allocateBytes(long size, CudaStream stream) throws Throwable {
+        ResourceTracker.reclaim();
+        AllocationEvent event = Telemetry.beginAllocation();
+        CudaMemoryPool pool = memoryPool;
+        
+        if (pool != null) {
+            long misses = event == null ? 0 : pool.stats().misses();
+            CudaBuffer buffer = pool.allocate(size, stream);
+            
+            if (event != null) Telemetry.endAllocation(event, size, true, pool.stats().misses() == misses);
+            return ResourceTracker.track(buffer, size, handle -> pool.release(new CudaBuffer(handle, size)));
+        }
+        
+        return allocateFromDriver(size, event);
+    }
+    
+    /**
+     * Allocates {@code size} bytes in the current context straight from the driver, even if a memory pool is in
+     * use. The pool's free lists do not know which context a block was allocated in, so memory that must live on
+     * a specific device is allocated here. Tracked and freed like any other buffer.
+     */
+    public static CudaBuffer allocateUnpooled(long size) throws Throwable {
+        ResourceTracker.reclaim();
+        return allocateFromDriver(size, Telemetry.beginAllocation());
+    }
+    
+    private static CudaBuffer allocateFromDriver(long size, AllocationEvent event) throws Throwable {
+        MemorySegment ptr = driver().memAlloc(size);
         
         if (ptr == null || ptr.address() == 0) {
             throw new OutOfMemoryError("cuMemAlloc failed: " + ptr);
         }
         
-        return new CudaBuffer(ptr, size);
+        Telemetry.endAllocation(event, size, false, false);
+        return ResourceTracker.track(new CudaBuffer(ptr, size), size, handle -> new CudaBuffer(handle, size).free());
+    }
+    
+    /**
+     * Allocates {@code size} bytes of managed memory, readable and writable from the host without a copy and
+     * never taken from the memory pool.
+     */
+    public static CudaManagedBuffer allocateManaged(long size) throws Throwable {
+        ResourceTracker.reclaim();
+        AllocationEvent event = Telemetry.beginAllocation();
+        MemorySegment ptr = driver().memAllocManaged(size, CudaDriver.CU_MEM_ATTACH_GLOBAL);
+        
+        if (ptr == null || ptr.address() == 0) {
+            throw new OutOfMemoryError("cuMemAllocManaged failed for " + size + " bytes");
+        }
+        
+        Telemetry.endAllocation(event, size, false, false);
+        
+        CudaBuffer buffer = ResourceTracker.track(new CudaBuffer(ptr, size), size, handle -> new CudaBuffer(handle, size).free());
+        MemorySegment segment = MemorySegment.ofAddress(buffer.devicePointer()).reinterpret(size);
+        return new CudaManagedBuffer(buffer, segment);
+    }
+    
+    /**
+     * Allocates {@code height} rows of {@code widthBytes} bytes, each padded by the driver to an aligned pitch.
+     * {@code elementBytes} (4, 8 or 16) is the widest access kernels make into a row. Never taken from the memory
+     * pool.
+     */
+    public static CudaPitchedBuffer allocatePitched(long widthBytes, long height, int elementBytes) throws Throwable {
+        ResourceTracker.reclaim();
+        AllocationEvent event = Telemetry.beginAllocation();
+        
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment pitch = arena.allocate(ValueLayout.JAVA_LONG);
+            MemorySegment ptr = driver().memAllocPitch(widthBytes, height, elementBytes, pitch);
+            
+            if (ptr == null || ptr.address() == 0) {
+                throw new OutOfMemoryError("cuMemAllocPitch failed for " + height + " rows of " + widthBytes + " bytes");
+            }
+            
+            long rowBytes = pitch.get(ValueLayout.JAVA_LONG, 0);
+            long size = rowBytes * height;
+            Telemetry.endAllocation(event, size, false, false);
+            
+            CudaBuffer buffer = ResourceTracker.track(new CudaBuffer(ptr, size), size, handle -> new CudaBuffer(handle, size).free());
+            return new CudaPitchedBuffer(buffer, rowBytes, widthBytes, height);
+        }
     }
     
     public static CudaBuffer allocateFor(float[] data, long size, CudaStream stream) throws Throwable {
-        CudaBuffer buffer = allocateBytes(size);
+        CudaBuffer buffer = allocateBytes(size, stream);
         buffer.copyToDeviceAsync(data, stream);
         return buffer;
     }
@@ -126,15 +394,15 @@ public class CUDA {
     }
     
     public static CudaBuffer allocateFor(float[] data, CudaStream stream) throws Throwable {
-        return allocateFor(data, (long) data.length * Float.SIZE, stream);
+        return allocateFor(data, (long) data.length * Float.BYTES, stream);
     }
     
     public static CudaBuffer allocateFor(float[] data) throws Throwable {
-        return allocateFor(data, (long) data.length * Float.SIZE);
+        return allocateFor(data, (long) data.length * Float.BYTES);
     }
     
     public static CudaBuffer allocateFor(int[] data, long size, CudaStream stream) throws Throwable {
-        CudaBuffer buffer = allocateBytes(size);
+        CudaBuffer buffer = allocateBytes(size, stream);
         buffer.copyToDeviceAsync(data, stream);
         return buffer;
     }
@@ -146,28 +414,25 @@ public class CUDA {
     }
     
     public static CudaBuffer allocateFor(int[] data, CudaStream stream) throws Throwable {
-        return allocateFor(data, (long) data.length * Integer.SIZE, stream);
+        return allocateFor(data, (long) data.length * Integer.BYTES, stream);
     }
     
     public static CudaBuffer allocateFor(int[] data) throws Throwable {
-        return allocateFor(data, (long) data.length * Integer.SIZE);
+        return allocateFor(data, (long) data.length * Integer.BYTES);
     }
     
+    private static CudaStream track(CudaStream stream) {
+        return ResourceTracker.track(stream, 0, handle -> new CudaStream(handle).destroy());
+    }
+    
+    private static CudaModule track(CudaModule module) {
+        return ResourceTracker.track(module, 0, handle -> new CudaModule(handle).unload());
+    }
+    
+    /**
+     * Loads a native library packaged as {@code resourceName}, extracted once into the cuda4j native cache.
+     */
     public static SymbolLookup loadFromResources(String resourceName) {
-        try (InputStream in = CUDA.class.getResourceAsStream(resourceName)) {
-            if (in == null) {
-                throw new IllegalArgumentException("Resource not found: " + resourceName);
-            }
-            
-            String suffix = resourceName.substring(resourceName.lastIndexOf('.'));
-            Path tempFile = Files.createTempFile("nativeLib", suffix);
-            
-            Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
-            tempFile.toFile().deleteOnExit();
-            
-            return SymbolLookup.libraryLookup(tempFile.toString(), Arena.global());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        return SymbolLookup.libraryLookup(NativeLibrary.extract(resourceName), Arena.global());
     }
-}
+}
\ No newline at end of file
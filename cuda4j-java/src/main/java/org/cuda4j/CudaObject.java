@@ -1,16 +1,12 @@
 package org.cuda4j;
 
-import java.lang.foreign.*;
-import java.lang.invoke.MethodHandle;
+import java.lang.foreign.MemorySegment;
 
-public interface CudaObject {
-    
-    Linker LINKER = CUDA.LINKER;
-    SymbolLookup LOOKUP = CUDA.LOOKUP;
-    MethodHandle CUDA_RELEASE_OBJECT = LINKER.downcallHandle(
-        LOOKUP.find("cuda_release_object").orElse(null),
-        FunctionDescriptor.ofVoid(ValueLayout.ADDRESS)
-    );
+/**
+ * A driver handle. Closing it releases the underlying driver object; see {@link ResourceTracker} for what happens
+ * to handles that are never closed.
+ */
+public interface CudaObject extends AutoCloseable {
     
     default long bytesOf(byte[] array) {
         return array.length;
@@ -28,13 +24,35 @@ public interface CudaObject {
         return (long) array.length * Double.BYTES;
     }
     
+    default long bytesOf(long[] array) {
+        return (long) array.length * Long.BYTES;
+    }
+    
     default long bytesOf(short[] array) {
         return (long) array.length * Short.BYTES;
     }
     
     default void release() throws Throwable {
-        CUDA_RELEASE_OBJECT.invokeExact(handle());
+        CUDA.driver().releaseObject(handle());
     }
-
+    
+    /**
+     * Releases the driver object the way its type requires, e.g. {@code cuMemFree} for buffers.
+     */
+    default void dispose() throws Throwable {
+        release();
+    }
+    
+    @Override
+    default void close() throws Exception {
+        try {
+            dispose();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+    
     MemorySegment handle();
 }
\ No newline at end of file
@@ -0,0 +1,284 @@
+package org.cuda4j;
+
+import org.cuda4j.context.CudaContext;
+import org.cuda4j.driver.CudaDriver;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.ref.Cleaner;
+import java.lang.ref.Reference;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bookkeeping for the driver objects handed out by cuda4j: live device bytes per context, a {@link Cleaner}
+ * backstop for handles that are never closed, and an optional leak tracker.
+ * <p>
+ * Closing a handle is the only deterministic way to release it. A tracked handle that becomes unreachable without
+ * being closed is counted as leaked and queued; the queue is drained by {@link #reclaim()}, which cuda4j calls on
+ * the next allocation, because the driver calls need a thread with the owning context current, not the cleaner
+ * thread. Tracking follows the instance returned by cuda4j: keep it reachable for as long as its raw handle is in
+ * use.
+ * <p>
+ * Leak tracking records the allocating call site of every {@code n}-th tracked object, set with
+ * {@link #enableLeakTracking(int)} or {@code -Dcuda4j.leakTracking=<n>}. When it is off, tracking costs one
+ * volatile read per allocation.
+ */
+public final class ResourceTracker {
+    
+    @FunctionalInterface
+    public interface Releaser {
+        void release(MemorySegment handle) throws Throwable;
+    }
+    
+    /**
+     * Outstanding objects allocated from one call site.
+     */
+    public record CallSite(String location, int count, long bytes) {
+    }
+    
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final CodeSource LIBRARY = ResourceTracker.class.getProtectionDomain().getCodeSource();
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    
+    private static final Map<Long, Entry> LIVE = new ConcurrentHashMap<>();
+    private static final Map<Long, LongAdder> BYTES_PER_CONTEXT = new ConcurrentHashMap<>();
+    private static final Queue<Entry> UNREACHABLE = new ConcurrentLinkedQueue<>();
+    private static final LongAdder LEAKED = new LongAdder();
+    private static final AtomicLong ALLOCATIONS = new AtomicLong();
+    
+    private static volatile int samplingInterval = Integer.getInteger("cuda4j.leakTracking", 0);
+    
+    private ResourceTracker() {
+    }
+    
+    /**
+     * Starts tracking {@code object}, which holds {@code bytes} of device memory in the current context.
+     * {@code releaser} is called by {@link #reclaim()} if the object becomes unreachable before it is untracked,
+     * and must not refer to {@code object} itself.
+     */
+    public static <T extends CudaObject> T track(T object, long bytes, Releaser releaser) {
+        CudaContext context = CudaContext.current();
+        long contextKey = context == null ? 0 : context.handle().address();
+        
+        int interval = samplingInterval;
+        String callSite = interval > 0 && ALLOCATIONS.getAndIncrement() % interval == 0 ? callSite() : null;
+        
+        Entry entry = new Entry(object.handle(), bytes, contextKey, callSite, CUDA.driver(), releaser);
+        entry.cleanable = CLEANER.register(object, entry);
+        
+        LIVE.put(object.handle().address(), entry);
+        BYTES_PER_CONTEXT.computeIfAbsent(contextKey, key -> new LongAdder()).add(bytes);
+        return object;
+    }
+    
+    /**
+     * Stops tracking {@code object} because it is being released deterministically.
+     *
+     * @return whether the object was tracked
+     */
+    public static boolean untrack(CudaObject object) {
+        Entry entry = LIVE.remove(object.handle().address());
+        if (entry == null) return false;
+        
+        // a copy of an already unreachable instance may be closed after the backstop queued it
+        if (!entry.forget()) UNREACHABLE.remove(entry);
+        
+        entry.cleanable.clean();
+        Reference.reachabilityFence(object);
+        return true;
+    }
+    
+    /**
+     * Releases the objects the backstop found unreachable, on the calling thread.
+     *
+     * @return the number of objects released
+     */
+    public static int reclaim() throws Throwable {
+        if (UNREACHABLE.isEmpty()) return 0;
+        
+        Throwable failure = null;
+        int released = 0;
+        Entry entry;
+        
+        while ((entry = UNREACHABLE.poll()) != null) {
+            // objects of a driver that has since been replaced went away with it
+            if (entry.driver != CUDA.driver()) continue;
+            
+            try {
+                entry.releaser.release(entry.handle);
+                released++;
+            } catch (Throwable t) {
+                if (failure == null) failure = t;
+                else failure.addSuppressed(t);
+            }
+        }
+        
+        if (failure != null) throw failure;
+        return released;
+    }
+    
+    /**
+     * Number of unreachable objects waiting for {@link #reclaim()}.
+     */
+    public static int pending() {
+        return UNREACHABLE.size();
+    }
+    
+    /**
+     * Number of objects that became unreachable without being closed.
+     */
+    public static long leaked() {
+        return LEAKED.sum();
+    }
+    
+    public static int liveObjects() {
+        return LIVE.size();
+    }
+    
+    /**
+     * Device bytes held by tracked objects across all contexts.
+     */
+    public static long liveBytes() {
+        long total = 0;
+        for (LongAdder bytes : BYTES_PER_CONTEXT.values()) total += bytes.sum();
+        return total;
+    }
+    
+    /**
+     * Device bytes held by tracked objects allocated while {@code context} was current, or while no context was
+     * made current explicitly if it is {@code null}.
+     */
+    public static long liveBytes(CudaContext context) {
+        LongAdder bytes = BYTES_PER_CONTEXT.get(context == null ? 0L : context.handle().address());
+        return bytes == null ? 0 : bytes.sum();
+    }
+    
+    // ========================= LEAK TRACKING =========================
+    
+    /**
+     * Records the call site of every {@code samplingInterval}-th allocation; {@code 1} records all of them.
+     */
+    public static void enableLeakTracking(int samplingInterval) {
+        if (samplingInterval < 1) {
+            throw new IllegalArgumentException("Sampling interval must be positive: " + samplingInterval);
+        }
+        
+        ResourceTracker.samplingInterval = samplingInterval;
+    }
+    
+    public static void disableLeakTracking() {
+        samplingInterval = 0;
+    }
+    
+    public static boolean isLeakTracking() {
+        return samplingInterval > 0;
+    }
+    
+    /**
+     * Sampled objects that are still live, grouped by the call site that allocated them, largest first.
+     */
+    public static List<CallSite> outstanding() {
+        Map<String, long[]> sites = new HashMap<>();
+        
+        for (Entry entry : LIVE.values()) {
+            if (entry.callSite == null) continue;
+            
+            long[] totals = sites.computeIfAbsent(entry.callSite, key -> new long[2]);
+            totals[0]++;
+            totals[1] += entry.bytes;
+        }
+        
+        List<CallSite> report = new ArrayList<>(sites.size());
+        sites.forEach((location, totals) -> report.add(new CallSite(location, (int) totals[0], totals[1])));
+        report.sort(Comparator.comparingLong(CallSite::bytes).reversed().thenComparing(CallSite::location));
+        return report;
+    }
+    
+    public static String report() {
+        StringBuilder report = new StringBuilder(String.format(
+            "%d live objects, %d bytes, %d leaked%n", liveObjects(), liveBytes(), leaked()
+        ));
+        
+        for (CallSite site : outstanding()) {
+            report.append(String.format("  %8d bytes in %4d objects at %s%n", site.bytes(), site.count(), site.location()));
+        }
+        
+        return report.toString();
+    }
+    
+    /**
+     * The first frame outside cuda4j itself, so the report points at application code.
+     */
+    private static String callSite() {
+        Optional<StackWalker.StackFrame> frame = WALKER.walk(frames -> frames
+            .filter(f -> !Objects.equals(f.getDeclaringClass().getProtectionDomain().getCodeSource(), LIBRARY))
+            .findFirst()
+        );
+        
+        return frame.map(f -> f.getClassName() + "." + f.getMethodName() + "(" + f.getFileName() + ":" + f.getLineNumber() + ")")
+            .orElse("<unknown>");
+    }
+    
+    /**
+     * Cleaning action; it holds the raw handle, never the tracked object, or the object could not become unreachable.
+     */
+    private static final class Entry implements Runnable {
+        
+        private final MemorySegment handle;
+        private final long bytes;
+        private final long context;
+        private final String callSite;
+        private final CudaDriver driver;
+        private final Releaser releaser;
+        private volatile boolean forgotten;
+        private Cleaner.Cleanable cleanable;
+        
+        private Entry(
+            MemorySegment handle,
+            long bytes,
+            long context,
+            String callSite,
+            CudaDriver driver,
+            Releaser releaser
+        ) {
+            this.handle = handle;
+            this.bytes = bytes;
+            this.context = context;
+            this.callSite = callSite;
+            this.driver = driver;
+            this.releaser = releaser;
+        }
+        
+        /**
+         * Drops the bytes from the context total exactly once.
+         */
+        private synchronized boolean forget() {
+            if (forgotten) return false;
+            
+            forgotten = true;
+            BYTES_PER_CONTEXT.get(context).add(-bytes);
+            return true;
+        }
+        
+        @Override
+        public void run() {
+            // untrack() cleans explicitly after forgetting, so only a real leak gets past this check
+            if (!forget()) return;
+            
+            LIVE.remove(handle.address(), this);
+            LEAKED.increment();
+            UNREACHABLE.add(this);
+        }
+    }
+}
\ No newline at end of file
@@ -1,209 +1,601 @@
 package org.cuda4j.buffer;
 
+import org.cuda4j.CUDA;
 import org.cuda4j.CudaObject;
+import org.cuda4j.ResourceTracker;
+import org.cuda4j.context.CudaEvent;
 import org.cuda4j.context.CudaStream;
+import org.cuda4j.metrics.CopyEvent;
+import org.cuda4j.metrics.Direction;
+import org.cuda4j.metrics.Telemetry;
 
 import java.lang.foreign.Arena;
-import java.lang.foreign.FunctionDescriptor;
 import java.lang.foreign.MemorySegment;
-import java.lang.foreign.ValueLayout;
-import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
 
-public record CudaBuffer(MemorySegment handle, long length) implements CudaObject {
-    
-    public static final MethodHandle CUDA_BUFFER_PTR = LINKER.downcallHandle(
-        LOOKUP.find("cuda_buffer_ptr").orElse(null),
-        FunctionDescriptor.of(ValueLayout.JAVA_LONG, ValueLayout.ADDRESS)
-    );
-    public static final MethodHandle CUDA_MEM_FREE = LINKER.downcallHandle(
-        LOOKUP.find("cuda_mem_free").orElse(null),
-        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
-    );
-    public static final MethodHandle CUDA_MEMCPY_HTOD = LINKER.downcallHandle(
-        LOOKUP.find("cuda_memcpy_htod").orElse(null),
-        FunctionDescriptor.of(ValueLayout.JAVA_INT,
-            ValueLayout.ADDRESS, // buffer pointer
-            ValueLayout.ADDRESS, // host pointer
-            ValueLayout.JAVA_LONG) // size
-    );
-    public static final MethodHandle CUDA_MEMCPY_DTOH = LINKER.downcallHandle(
-        LOOKUP.find("cuda_memcpy_dtoh").orElse(null),
-        FunctionDescriptor.of(ValueLayout.JAVA_INT,
-            ValueLayout.ADDRESS, // host pointer
-            ValueLayout.ADDRESS, // buffer pointer
-            ValueLayout.JAVA_LONG) // size
-    );
-    public static final MethodHandle CUDA_MEMCPY_DTOD = LINKER.downcallHandle(
-        LOOKUP.find("cuda_memcpy_dtod").orElse(null),
-        FunctionDescriptor.of(ValueLayout.JAVA_INT,
-            ValueLayout.ADDRESS, // destination pointer
-            ValueLayout.ADDRESS, // source pointer
-            ValueLayout.JAVA_LONG) // size
-    );
-    public static final MethodHandle CUDA_MEMCPY_HTOD_ASYNC = LINKER.downcallHandle(
-        LOOKUP.find("cuda_memcpy_htod_async").orElse(null),
-        FunctionDescriptor.of(ValueLayout.JAVA_INT,
-            ValueLayout.ADDRESS, // buffer pointer
-            ValueLayout.ADDRESS, // host pointer
-            ValueLayout.JAVA_LONG, // size
-            ValueLayout.ADDRESS) // stream
-    );
-    public static final MethodHandle CUDA_MEMCPY_DTOH_ASYNC = LINKER.downcallHandle(
-        LOOKUP.find("cuda_memcpy_dtoh_async").orElse(null),
-        FunctionDescriptor.of(ValueLayout.JAVA_INT,
-            ValueLayout.ADDRESS, // host pointer
-            ValueLayout.ADDRESS, // buffer pointer
-            ValueLayout.JAVA_LONG, // size
-            ValueLayout.ADDRESS) // stream
-    );
+/**
+ * Device memory. A buffer either owns its allocation or is a {@link #slice} of one: {@code offset} bytes into the
+ * allocation of {@code parent}, sharing its handle. Slices are never freed themselves; they stay valid until the
+ * allocation they point into is freed.
+ */
+public record CudaBuffer(MemorySegment handle, long offset, long length, CudaBuffer parent) implements CudaObject {
     
+    public CudaBuffer(MemorySegment handle, long length) {
+        this(handle, 0, length, null);
+    }
+    
+    /**
+     * A view of {@code length} bytes starting {@code offset} bytes into this buffer; no memory is allocated.
+     */
+    public CudaBuffer slice(long offset, long length) {
+        Objects.checkFromIndexSize(offset, length, this.length);
+        return new CudaBuffer(handle, this.offset + offset, length, isSlice() ? parent : this);
+    }
+    
+    public boolean isSlice() {
+        return parent != null;
+    }
+    
+    /**
+     * Frees an owning buffer; closing a slice does nothing.
+     */
+    @Override
+    public void dispose() throws Throwable {
+        if (!isSlice()) free();
+    }
+    
+    public void free() throws Throwable {
+        if (isSlice()) {
+            throw new IllegalStateException("A slice shares the allocation of its parent; free the parent instead");
+        }
+        
+        ResourceTracker.untrack(this);
+        CudaMemoryPool pool = CUDA.memoryPool();
+        
+        if (pool != null && pool.owns(this)) {
+            pool.release(this);
+            return;
+        }
+        
+        int res = CUDA.driver().memFree(handle);
+        
+        if (res != 0) {
+            throw new RuntimeException("cuMemFree failed: " + res);
+        }
+    }
+    
+    /**
+     * Copies the first {@code size} bytes of this buffer to the start of {@code destination}.
+     */
     public void transferTo(CudaBuffer destination, long size) throws Throwable {
-        int res = (int) CUDA_MEMCPY_DTOH.invoke(destination.handle, handle, size);
+        copyTo(destination, 0, 0, size);
+    }
+    
+    // ========================= DEVICE TO DEVICE =========================
+    
+    public void copyTo(CudaBuffer dst, long srcOffset, long dstOffset, long bytes) throws Throwable {
+        Objects.checkFromIndexSize(srcOffset, bytes, length);
+        Objects.checkFromIndexSize(dstOffset, bytes, dst.length);
+        
+        CopyEvent event = Telemetry.beginCopy();
+        int res = CUDA.driver().memcpyDtoD(dst.handle, dst.offset + dstOffset, handle, offset + srcOffset, bytes);
         
         if (res != 0) {
             throw new RuntimeException("cuMemcpyDtoD failed: " + res);
         }
+        
+        Telemetry.endCopy(event, Direction.DEVICE_TO_DEVICE, bytes, false);
+    }
+    
+    /**
+     * Enqueues a copy of {@code bytes} from this buffer into {@code dst}; neither side touches the host. The ranges
+     * may belong to slices of the same allocation but must not overlap.
+     */
+    public CudaTransfer copyToAsync(CudaBuffer dst, long srcOffset, long dstOffset, long bytes, CudaStream stream) throws Throwable {
+        Objects.checkFromIndexSize(srcOffset, bytes, length);
+        Objects.checkFromIndexSize(dstOffset, bytes, dst.length);
+        
+        CopyEvent event = Telemetry.beginCopy();
+        int res = CUDA.driver().memcpyDtoDAsync(dst.handle, dst.offset + dstOffset, handle, offset + srcOffset, bytes, stream.handle());
+        
+        if (res != 0) {
+            throw new RuntimeException("cuMemcpyDtoDAsync failed: " + res);
+        }
+        
+        Telemetry.endCopy(event, Direction.DEVICE_TO_DEVICE, bytes, true);
+        return new CudaTransfer(stream, null, null);
+    }
+    
+    // ========================= FILL =========================
+    
+    /**
+     * Enqueues setting every byte of this buffer to {@code value}.
+     */
+    public void fillAsync(byte value, CudaStream stream) throws Throwable {
+        fillAsync(value, 0, length, stream);
+    }
+    
+    public void fillAsync(byte value, long offset, long bytes, CudaStream stream) throws Throwable {
+        memset(offset, value, 1, bytes, stream);
     }
     
+    /**
+     * Enqueues writing the low {@code elementBytes} (1, 2 or 4) bytes of {@code value} to {@code count} elements
+     * starting {@code offset} bytes in, which must be aligned to the element size.
+     */
+    void memset(long offset, int value, int elementBytes, long count, CudaStream stream) throws Throwable {
+        Objects.checkFromIndexSize(offset, Math.multiplyExact(count, elementBytes), length);
+        
+        if ((this.offset + offset) % elementBytes != 0) {
+            throw new IllegalArgumentException("Offset " + offset + " is not aligned to " + elementBytes + " bytes");
+        }
+        
+        int res = CUDA.driver().memsetAsync(handle, this.offset + offset, value, elementBytes, count, stream.handle());
+        
+        if (res != 0) {
+            throw new RuntimeException("cuMemsetD" + elementBytes * 8 + "Async failed: " + res);
+        }
+    }
     
     // ========================= COPY TO DEVICE =========================
     
     public void copyToDevice(byte[] data) throws Throwable {
-        long size = bytesOf(data);
-        try (Arena arena = Arena.ofConfined()) {
-            MemorySegment host = arena.allocateFrom(ValueLayout.JAVA_BYTE, data);
-            
-            int res = (int) CUDA_MEMCPY_HTOD.invoke(handle, host, size);
-            if (res != 0) throw new RuntimeException("cuMemcpyHtoD failed: " + res);
-        }
+        copyFrom(MemorySegment.ofArray(data), 0, 0, bytesOf(data));
+    }
+    
+    public void copyToDevice(byte[] data, int offset, int count, long dstOffset) throws Throwable {
+        copyFrom(MemorySegment.ofArray(data), offset, dstOffset, count);
     }
     
     public void copyToDevice(int[] data) throws Throwable {
-        long size = bytesOf(data);
-        try (Arena arena = Arena.ofConfined()) {
-            MemorySegment host = arena.allocateFrom(ValueLayout.JAVA_INT, data);
-            
-            int res = (int) CUDA_MEMCPY_HTOD.invoke(handle, host, size);
-            if (res != 0) throw new RuntimeException("cuMemcpyHtoD failed: " + res);
-        }
+        copyFrom(MemorySegment.ofArray(data), 0, 0, bytesOf(data));
+    }
+    
+    public void copyToDevice(int[] data, int offset, int count, long dstOffset) throws Throwable {
+        copyFrom(MemorySegment.ofArray(data), (long) offset * Integer.BYTES, dstOffset, (long) count * Integer.BYTES);
     }
     
     public void copyToDevice(float[] data) throws Throwable {
-        long size = bytesOf(data);
-        try (Arena arena = Arena.ofConfined()) {
-            MemorySegment host = arena.allocateFrom(ValueLayout.JAVA_FLOAT, data);
-            
-            int res = (int) CUDA_MEMCPY_HTOD.invoke(handle, host, size);
-            if (res != 0) throw new RuntimeException("cuMemcpyHtoD failed: " + res);
-        }
+        copyFrom(MemorySegment.ofArray(data), 0, 0, bytesOf(data));
+    }
+    
+    public void copyToDevice(float[] data, int offset, int count, long dstOffset) throws Throwable {
+        copyFrom(MemorySegment.ofArray(data), (long) offset * Float.BYTES, dstOffset, (long) count * Float.BYTES);
+    }
+    
+    public void copyToDevice(double[] data) throws Throwable {
+        copyFrom(MemorySegment.ofArray(data), 0, 0, bytesOf(data));
+    }
+    
+    public void copyToDevice(double[] data, int offset, int count, long dstOffset) throws Throwable {
+        copyFrom(MemorySegment.ofArray(data), (long) offset * Double.BYTES, dstOffset, (long) count * Double.BYTES);
+    }
+    
+    public void copyToDevice(long[] data) throws Throwable {
+        copyFrom(MemorySegment.ofArray(data), 0, 0, bytesOf(data));
+    }
+    
+    public void copyToDevice(long[] data, int offset, int count, long dstOffset) throws Throwable {
+        copyFrom(MemorySegment.ofArray(data), (long) offset * Long.BYTES, dstOffset, (long) count * Long.BYTES);
+    }
+    
+    public void copyToDevice(short[] data) throws Throwable {
+        copyFrom(MemorySegment.ofArray(data), 0, 0, bytesOf(data));
+    }
+    
+    public void copyToDevice(short[] data, int offset, int count, long dstOffset) throws Throwable {
+        copyFrom(MemorySegment.ofArray(data), (long) offset * Short.BYTES, dstOffset, (long) count * Short.BYTES);
     }
     
     // ========================= COPY TO HOST =========================
+    
     public void copyToHost(byte[] data) throws Throwable {
-        long size = bytesOf(data);
-        try (Arena arena = Arena.ofConfined()) {
-            MemorySegment host = arena.allocate(ValueLayout.JAVA_BYTE, data.length);
-            
-            int res = (int) CUDA_MEMCPY_DTOH.invoke(host, handle, size);
-            if (res != 0) throw new RuntimeException("cuMemcpyDtoH failed: " + res);
-            
-            MemorySegment.copy(host, 0, MemorySegment.ofArray(data), 0, size);
-        }
+        copyTo(MemorySegment.ofArray(data), 0, 0, bytesOf(data));
+    }
+    
+    public void copyToHost(byte[] data, int offset, int count, long srcOffset) throws Throwable {
+        copyTo(MemorySegment.ofArray(data), srcOffset, offset, count);
     }
     
     public void copyToHost(int[] data) throws Throwable {
-        long size = bytesOf(data);
-        try (Arena arena = Arena.ofConfined()) {
-            MemorySegment host = arena.allocate(ValueLayout.JAVA_INT, data.length);
-            
-            int res = (int) CUDA_MEMCPY_DTOH.invoke(host, handle, size);
-            if (res != 0) throw new RuntimeException("cuMemcpyDtoH failed: " + res);
-            
-            MemorySegment.copy(host, 0, MemorySegment.ofArray(data), 0, size);
-        }
+        copyTo(MemorySegment.ofArray(data), 0, 0, bytesOf(data));
+    }
+    
+    public void copyToHost(int[] data, int offset, int count, long srcOffset) throws Throwable {
+        copyTo(MemorySegment.ofArray(data), srcOffset, (long) offset * Integer.BYTES, (long) count * Integer.BYTES);
     }
     
     public void copyToHost(float[] data) throws Throwable {
-        long size = bytesOf(data);
-        try (Arena arena = Arena.ofConfined()) {
-            MemorySegment host = arena.allocate(ValueLayout.JAVA_FLOAT, data.length);
-            
-            int res = (int) CUDA_MEMCPY_DTOH.invoke(host, handle, size);
-            if (res != 0) throw new RuntimeException("cuMemcpyDtoH failed: " + res);
-            
-            MemorySegment.copy(host, 0, MemorySegment.ofArray(data), 0, size);
-        }
+        copyTo(MemorySegment.ofArray(data), 0, 0, bytesOf(data));
     }
-
+    
+    public void copyToHost(float[] data, int offset, int count, long srcOffset) throws Throwable {
+        copyTo(MemorySegment.ofArray(data), srcOffset, (long) offset * Float.BYTES, (long) count * Float.BYTES);
+    }
+    
+    public void copyToHost(double[] data) throws Throwable {
+        copyTo(MemorySegment.ofArray(data), 0, 0, bytesOf(data));
+    }
+    
+    public void copyToHost(double[] data, int offset, int count, long srcOffset) throws Throwable {
+        copyTo(MemorySegment.ofArray(data), srcOffset, (long) offset * Double.BYTES, (long) count * Double.BYTES);
+    }
+    
+    public void copyToHost(long[] data) throws Throwable {
+        copyTo(MemorySegment.ofArray(data), 0, 0, bytesOf(data));
+    }
+    
+    public void copyToHost(long[] data, int offset, int count, long srcOffset) throws Throwable {
+        copyTo(MemorySegment.ofArray(data), srcOffset, (long) offset * Long.BYTES, (long) count * Long.BYTES);
+    }
+    
+    public void copyToHost(short[] data) throws Throwable {
+        copyTo(MemorySegment.ofArray(data), 0, 0, bytesOf(data));
+    }
+    
+    public void copyToHost(short[] data, int offset, int count, long srcOffset) throws Throwable {
+        copyTo(MemorySegment.ofArray(data), srcOffset, (long) offset * Short.BYTES, (long) count * Short.BYTES);
+    }
+    
     // ========================= ASYNC COPY TO DEVICE =========================
-    public void copyToDeviceAsync(byte[] data, CudaStream stream) throws Throwable {
-        long size = bytesOf(data);
-        try (Arena arena = Arena.ofConfined()) {
-            MemorySegment host = arena.allocateFrom(ValueLayout.JAVA_BYTE, data);
+    
+    public CudaTransfer copyToDeviceAsync(byte[] data, CudaStream stream) throws Throwable {
+        return copyFromAsync(MemorySegment.ofArray(data), 0, 0, bytesOf(data), stream);
+    }
+    
+    public CudaTransfer copyToDeviceAsync(byte[] data, int offset, int count, long dstOffset, CudaStream stream) throws Throwable {
+        return copyFromAsync(MemorySegment.ofArray(data), offset, dstOffset, count, stream);
+    }
+    
+    public CudaTransfer copyToDeviceAsync(int[] data, CudaStream stream) throws Throwable {
+        return copyFromAsync(MemorySegment.ofArray(data), 0, 0, bytesOf(data), stream);
+    }
+    
+    public CudaTransfer copyToDeviceAsync(int[] data, int offset, int count, long dstOffset, CudaStream stream) throws Throwable {
+        return copyFromAsync(MemorySegment.ofArray(data), (long) offset * Integer.BYTES, dstOffset, (long) count * Integer.BYTES, stream);
+    }
+    
+    public CudaTransfer copyToDeviceAsync(float[] data, CudaStream stream) throws Throwable {
+        return copyFromAsync(MemorySegment.ofArray(data), 0, 0, bytesOf(data), stream);
+    }
+    
+    public CudaTransfer copyToDeviceAsync(float[] data, int offset, int count, long dstOffset, CudaStream stream) throws Throwable {
+        return copyFromAsync(MemorySegment.ofArray(data), (long) offset * Float.BYTES, dstOffset, (long) count * Float.BYTES, stream);
+    }
+    
+    public CudaTransfer copyToDeviceAsync(double[] data, CudaStream stream) throws Throwable {
+        return copyFromAsync(MemorySegment.ofArray(data), 0, 0, bytesOf(data), stream);
+    }
+    
+    public CudaTransfer copyToDeviceAsync(double[] data, int offset, int count, long dstOffset, CudaStream stream) throws Throwable {
+        return copyFromAsync(MemorySegment.ofArray(data), (long) offset * Double.BYTES, dstOffset, (long) count * Double.BYTES, stream);
+    }
+    
+    public CudaTransfer copyToDeviceAsync(long[] data, CudaStream stream) throws Throwable {
+        return copyFromAsync(MemorySegment.ofArray(data), 0, 0, bytesOf(data), stream);
+    }
+    
+    public CudaTransfer copyToDeviceAsync(long[] data, int offset, int count, long dstOffset, CudaStream stream) throws Throwable {
+        return copyFromAsync(MemorySegment.ofArray(data), (long) offset * Long.BYTES, dstOffset, (long) count * Long.BYTES, stream);
+    }
+    
+    public CudaTransfer copyToDeviceAsync(short[] data, CudaStream stream) throws Throwable {
+        return copyFromAsync(MemorySegment.ofArray(data), 0, 0, bytesOf(data), stream);
+    }
+    
+    public CudaTransfer copyToDeviceAsync(short[] data, int offset, int count, long dstOffset, CudaStream stream) throws Throwable {
+        return copyFromAsync(MemorySegment.ofArray(data), (long) offset * Short.BYTES, dstOffset, (long) count * Short.BYTES, stream);
+    }
+    
+    // ========================= ASYNC COPY TO HOST =========================
+    
+    public CudaTransfer copyToHostAsync(byte[] data, CudaStream stream) throws Throwable {
+        return copyToAsync(MemorySegment.ofArray(data), 0, 0, bytesOf(data), stream);
+    }
+    
+    public CudaTransfer copyToHostAsync(byte[] data, int offset, int count, long srcOffset, CudaStream stream) throws Throwable {
+        return copyToAsync(MemorySegment.ofArray(data), srcOffset, offset, count, stream);
+    }
+    
+    public CudaTransfer copyToHostAsync(int[] data, CudaStream stream) throws Throwable {
+        return copyToAsync(MemorySegment.ofArray(data), 0, 0, bytesOf(data), stream);
+    }
+    
+    public CudaTransfer copyToHostAsync(int[] data, int offset, int count, long srcOffset, CudaStream stream) throws Throwable {
+        return copyToAsync(MemorySegment.ofArray(data), srcOffset, (long) offset * Integer.BYTES, (long) count * Integer.BYTES, stream);
+    }
+    
+    public CudaTransfer copyToHostAsync(float[] data, CudaStream stream) throws Throwable {
+        return copyToAsync(MemorySegment.ofArray(data), 0, 0, bytesOf(data), stream);
+    }
+    
+    public CudaTransfer copyToHostAsync(float[] data, int offset, int count, long srcOffset, CudaStream stream) throws Throwable {
+        return copyToAsync(MemorySegment.ofArray(data), srcOffset, (long) offset * Float.BYTES, (long) count * Float.BYTES, stream);
+    }
+    
+    public CudaTransfer copyToHostAsync(double[] data, CudaStream stream) throws Throwable {
+        return copyToAsync(MemorySegment.ofArray(data), 0, 0, bytesOf(data), stream);
+    }
+    
+    public CudaTransfer copyToHostAsync(double[] data, int offset, int count, long srcOffset, CudaStream stream) throws Throwable {
+        return copyToAsync(MemorySegment.ofArray(data), srcOffset, (long) offset * Double.BYTES, (long) count * Double.BYTES, stream);
+    }
+    
+    public CudaTransfer copyToHostAsync(long[] data, CudaStream stream) throws Throwable {
+        return copyToAsync(MemorySegment.ofArray(data), 0, 0, bytesOf(data), stream);
+    }
+    
+    public CudaTransfer copyToHostAsync(long[] data, int offset, int count, long srcOffset, CudaStream stream) throws Throwable {
+        return copyToAsync(MemorySegment.ofArray(data), srcOffset, (long) offset * Long.BYTES, (long) count * Long.BYTES, stream);
+    }
+    
+    public CudaTransfer copyToHostAsync(short[] data, CudaStream stream) throws Throwable {
+        return copyToAsync(MemorySegment.ofArray(data), 0, 0, bytesOf(data), stream);
+    }
+    
+    public CudaTransfer copyToHostAsync(short[] data, int offset, int count, long srcOffset, CudaStream stream) throws Throwable {
+        return copyToAsync(MemorySegment.ofArray(data), srcOffset, (long) offset * Short.BYTES, (long) count * Short.BYTES, stream);
+    }
+    
+    // ========================= BYTE BUFFERS =========================
+    
+    public void copyFrom(ByteBuffer src, long dstOffset) throws Throwable {
+        int bytes = src.remaining();
+        copyFrom(MemorySegment.ofBuffer(src), 0, dstOffset, bytes);
+        src.position(src.position() + bytes);
+    }
+    
+    public void copyTo(ByteBuffer dst, long srcOffset) throws Throwable {
+        int bytes = dst.remaining();
+        copyTo(MemorySegment.ofBuffer(dst), srcOffset, 0, bytes);
+        dst.position(dst.position() + bytes);
+    }
+    
+    public CudaTransfer copyFromAsync(ByteBuffer src, long dstOffset, CudaStream stream) throws Throwable {
+        int bytes = src.remaining();
+        CudaTransfer transfer = copyFromAsync(MemorySegment.ofBuffer(src), 0, dstOffset, bytes, stream);
+        src.position(src.position() + bytes);
+        return transfer;
+    }
+    
+    public CudaTransfer copyToAsync(ByteBuffer dst, long srcOffset, CudaStream stream) throws Throwable {
+        int bytes = dst.remaining();
+        CudaTransfer transfer = copyToAsync(MemorySegment.ofBuffer(dst), srcOffset, 0, bytes, stream);
+        dst.position(dst.position() + bytes);
+        return transfer;
+    }
+    
+    // ========================= MEMORY SEGMENTS =========================
+    
+    /**
+     * Copies {@code bytes} from {@code src} into this buffer. Native segments (including mapped files and
+     * direct buffers) are handed to the driver as-is; heap segments are staged through pinned memory, in
+     * chunks through {@link CUDA#transferEngine()} when they exceed the largest staging buffer.
+     */
+    public void copyFrom(MemorySegment src, long srcOffset, long dstOffset, long bytes) throws Throwable {
+        CopyEvent event = Telemetry.beginCopy();
+        upload(src, srcOffset, dstOffset, bytes);
+        Telemetry.endCopy(event, Direction.HOST_TO_DEVICE, bytes, false);
+    }
+    
+    public void copyTo(MemorySegment dst, long srcOffset, long dstOffset, long bytes) throws Throwable {
+        CopyEvent event = Telemetry.beginCopy();
+        download(dst, srcOffset, dstOffset, bytes);
+        Telemetry.endCopy(event, Direction.DEVICE_TO_HOST, bytes, false);
+    }
+    
+    /**
+     * Enqueues a copy from {@code src} into this buffer. A native {@code src} is read by the stream directly
+     * and must stay alive until the stream has passed this point.
+     */
+    public CudaTransfer copyFromAsync(MemorySegment src, long srcOffset, long dstOffset, long bytes, CudaStream stream) throws Throwable {
+        CopyEvent event = Telemetry.beginCopy();
+        CudaTransfer transfer = uploadAsync(src, srcOffset, dstOffset, bytes, stream);
+        Telemetry.endCopy(event, Direction.HOST_TO_DEVICE, bytes, true);
+        return transfer;
+    }
+    
+    /**
+     * Enqueues a copy from this buffer into {@code dst}. A native {@code dst} is written by the stream directly
+     * and must stay alive until the stream has passed this point; a heap {@code dst} is only filled once the
+     * returned transfer completes.
+     */
+    public CudaTransfer copyToAsync(MemorySegment dst, long srcOffset, long dstOffset, long bytes, CudaStream stream) throws Throwable {
+        CopyEvent event = Telemetry.beginCopy();
+        CudaTransfer transfer = downloadAsync(dst, srcOffset, dstOffset, bytes, stream);
+        Telemetry.endCopy(event, Direction.DEVICE_TO_HOST, bytes, true);
+        return transfer;
+    }
+    
+    private void upload(MemorySegment src, long srcOffset, long dstOffset, long bytes) throws Throwable {
+        Objects.checkFromIndexSize(dstOffset, bytes, length);
+        MemorySegment source = src.asSlice(srcOffset, bytes);
+        
+        if (source.isNative()) {
+            int res = CUDA.driver().memcpyHtoD(handle, offset + dstOffset, source, bytes);
+            if (res != 0) throw new RuntimeException("cuMemcpyHtoD failed: " + res);
+            return;
+        }
+        
+        StagingBufferPool pool = CUDA.stagingPool();
+        
+        if (bytes > pool.maxChunkSize()) {
+            CUDA.transferEngine().upload(source, 0, this, dstOffset, bytes);
+            return;
+        }
+        
+        try (StagingBuffer staging = pool.acquire(bytes)) {
+            MemorySegment.copy(source, 0, staging.segment(), 0, bytes);
             
-            int res = (int) CUDA_MEMCPY_HTOD_ASYNC.invoke(handle, host, size, stream.handle());
-            if (res != 0) throw new RuntimeException("cuMemcpyHtoDAsync failed: " + res);
+            int res = CUDA.driver().memcpyHtoD(handle, offset + dstOffset, staging.segment(), bytes);
+            if (res != 0) throw new RuntimeException("cuMemcpyHtoD failed: " + res);
         }
     }
     
-    public void copyToDeviceAsync(int[] data, CudaStream stream) throws Throwable {
-        long size = bytesOf(data);
-        try (Arena arena = Arena.ofConfined()) {
-            MemorySegment host = arena.allocateFrom(ValueLayout.JAVA_INT, data);
+    private void download(MemorySegment dst, long srcOffset, long dstOffset, long bytes) throws Throwable {
+        Objects.checkFromIndexSize(srcOffset, bytes, length);
+        MemorySegment destination = dst.asSlice(dstOffset, bytes);
+        
+        if (destination.isNative()) {
+            int res = CUDA.driver().memcpyDtoH(destination, handle, offset + srcOffset, bytes);
+            if (res != 0) throw new RuntimeException("cuMemcpyDtoH failed: " + res);
+            return;
+        }
+        
+        StagingBufferPool pool = CUDA.stagingPool();
+        
+        if (bytes > pool.maxChunkSize()) {
+            CUDA.transferEngine().download(this, srcOffset, destination, 0, bytes);
+            return;
+        }
+        
+        try (StagingBuffer staging = pool.acquire(bytes)) {
+            int res = CUDA.driver().memcpyDtoH(staging.segment(), handle, offset + srcOffset, bytes);
+            if (res != 0) throw new RuntimeException("cuMemcpyDtoH failed: " + res);
             
-            int res = (int) CUDA_MEMCPY_HTOD_ASYNC.invoke(handle, host, size, stream.handle());
-            if (res != 0) throw new RuntimeException("cuMemcpyHtoDAsync failed: " + res);
+            MemorySegment.copy(staging.segment(), 0, destination, 0, bytes);
         }
     }
     
-    public void copyToDeviceAsync(float[] data, CudaStream stream) throws Throwable {
-        long size = bytesOf(data);
-        try (Arena arena = Arena.ofConfined()) {
-            MemorySegment host = arena.allocateFrom(ValueLayout.JAVA_FLOAT, data);
-            
-            int res = (int) CUDA_MEMCPY_HTOD_ASYNC.invoke(handle, host, size, stream.handle());
+    private CudaTransfer uploadAsync(MemorySegment src, long srcOffset, long dstOffset, long bytes, CudaStream stream) throws Throwable {
+        Objects.checkFromIndexSize(dstOffset, bytes, length);
+        MemorySegment source = src.asSlice(srcOffset, bytes);
+        
+        if (source.isNative()) {
+            int res = CUDA.driver().memcpyHtoDAsync(handle, offset + dstOffset, source, bytes, stream.handle());
             if (res != 0) throw new RuntimeException("cuMemcpyHtoDAsync failed: " + res);
+            return new CudaTransfer(stream, null, null);
+        }
+        
+        checkNotCapturing(stream);
+        StagingBufferPool pool = CUDA.stagingPool();
+        StagingBuffer staging = pool.acquire(bytes);
+        
+        MemorySegment.copy(source, 0, staging.segment(), 0, bytes);
+        
+        int res = CUDA.driver().memcpyHtoDAsync(handle, offset + dstOffset, staging.segment(), bytes, stream.handle());
+        if (res != 0) {
+            staging.close();
+            throw new RuntimeException("cuMemcpyHtoDAsync failed: " + res);
         }
+        
+        pool.releaseAfter(staging, stream);
+        return new CudaTransfer(stream, null, null);
     }
-
-    // ========================= ASYNC COPY TO HOST =========================
-    public void copyToHostAsync(byte[] data, CudaStream stream) throws Throwable {
-        long size = bytesOf(data);
-        try (Arena arena = Arena.ofConfined()) {
-            MemorySegment host = arena.allocate(ValueLayout.JAVA_BYTE, data.length);
-            
-            int res = (int) CUDA_MEMCPY_DTOH_ASYNC.invoke(host, handle, size, stream.handle());
+    
+    private CudaTransfer downloadAsync(MemorySegment dst, long srcOffset, long dstOffset, long bytes, CudaStream stream) throws Throwable {
+        Objects.checkFromIndexSize(srcOffset, bytes, length);
+        MemorySegment destination = dst.asSlice(dstOffset, bytes);
+        
+        if (destination.isNative()) {
+            int res = CUDA.driver().memcpyDtoHAsync(destination, handle, offset + srcOffset, bytes, stream.handle());
             if (res != 0) throw new RuntimeException("cuMemcpyDtoHAsync failed: " + res);
-            
-            MemorySegment.copy(host, 0, MemorySegment.ofArray(data), 0, size);
+            return new CudaTransfer(stream, null, null);
         }
+        
+        checkNotCapturing(stream);
+        StagingBufferPool pool = CUDA.stagingPool();
+        StagingBuffer staging = pool.acquire(bytes);
+        
+        int res = CUDA.driver().memcpyDtoHAsync(staging.segment(), handle, offset + srcOffset, bytes, stream.handle());
+        if (res != 0) {
+            staging.close();
+            throw new RuntimeException("cuMemcpyDtoHAsync failed: " + res);
+        }
+        
+        return CudaTransfer.staged(stream, staging, destination, pool);
     }
     
-    public void copyToHostAsync(int[] data, CudaStream stream) throws Throwable {
-        long size = bytesOf(data);
-        try (Arena arena = Arena.ofConfined()) {
-            MemorySegment host = arena.allocate(ValueLayout.JAVA_INT, data.length);
-            
-            int res = (int) CUDA_MEMCPY_DTOH_ASYNC.invoke(host, handle, size, stream.handle());
-            if (res != 0) throw new RuntimeException("cuMemcpyDtoHAsync failed: " + res);
-            
-            MemorySegment.copy(host, 0, MemorySegment.ofArray(data), 0, size);
+    /**
+     * Heap copies go through a staging buffer that is recycled after the first run, so a graph replaying them
+     * would read or write memory that belongs to someone else by then.
+     */
+    private static void checkNotCapturing(CudaStream stream) {
+        if (stream.isCapturing()) {
+            throw new IllegalStateException("Heap arrays cannot be copied on a capturing stream; use a native MemorySegment");
         }
     }
     
-    public void copyToHostAsync(float[] data, CudaStream stream) throws Throwable {
-        long size = bytesOf(data);
-        try (Arena arena = Arena.ofConfined()) {
-            MemorySegment host = arena.allocate(ValueLayout.JAVA_FLOAT, data.length);
-            
-            int res = (int) CUDA_MEMCPY_DTOH_ASYNC.invoke(host, handle, size, stream.handle());
-            if (res != 0) throw new RuntimeException("cuMemcpyDtoHAsync failed: " + res);
+    // ========================= FILE =========================
+    
+    /**
+     * Allocates a buffer holding {@code length} bytes of {@code channel} starting at {@code offset}, see
+     * {@link #copyFrom(FileChannel, long, long, long, CudaStream)}.
+     */
+    public static FileLoad loadFrom(FileChannel channel, long offset, long length, CudaStream stream) throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(length);
+        
+        try {
+            return buffer.copyFrom(channel, offset, length, 0, stream);
+        } catch (Throwable e) {
+            buffer.free();
+            throw e;
+        }
+    }
+    
+    /**
+     * Streams a region of a file into this buffer without going through the Java heap. The region is
+     * memory-mapped and copied through two pinned staging chunks in turn, so paging in one chunk overlaps
+     * the transfer of the previous one. Returns once the data is on the device.
+     */
+    public FileLoad copyFrom(FileChannel channel, long fileOffset, long bytes, long dstOffset, CudaStream stream) throws Throwable {
+        Objects.checkFromIndexSize(dstOffset, bytes, length);
+        
+        if (bytes == 0) {
+            return new FileLoad(this, 0, 0);
+        }
+        
+        CopyEvent event = Telemetry.beginCopy();
+        long start = System.nanoTime();
+        StagingBufferPool pool = CUDA.stagingPool();
+        long chunk = Math.min(bytes, pool.maxChunkSize());
+        
+        try (Arena arena = Arena.ofConfined();
+             StagingBuffer front = pool.acquire(chunk);
+             StagingBuffer back = pool.acquire(chunk)) {
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_ONLY, fileOffset, bytes, arena);
+            StagingBuffer[] slots = { front, back };
+            CudaEvent[] copied = { CudaEvent.create(false), CudaEvent.create(false) };
+            Throwable failure = null;
             
-            MemorySegment.copy(host, 0, MemorySegment.ofArray(data), 0, size);
+            try {
+                for (long done = 0, index = 0; done < bytes; done += chunk, index++) {
+                    int slot = (int) (index & 1);
+                    long size = Math.min(chunk, bytes - done);
+                    MemorySegment staging = slots[slot].segment();
+                    
+                    if (index >= 2) copied[slot].synchronize();
+                    MemorySegment.copy(file, done, staging, 0, size);
+                    
+                    int res = CUDA.driver().memcpyHtoDAsync(handle, offset + dstOffset + done, staging, size, stream.handle());
+                    if (res != 0) throw new RuntimeException("cuMemcpyHtoDAsync failed: " + res);
+                    
+                    copied[slot].record(stream);
+                }
+            } catch (Throwable e) {
+                failure = e;
+                throw e;
+            } finally {
+                // The mapping and both chunks are released on exit, so nothing may still be reading them
+                try {
+                    stream.sync();
+                } catch (Throwable e) {
+                    if (failure == null) throw e;
+                    failure.addSuppressed(e);
+                } finally {
+                    copied[0].destroy();
+                    copied[1].destroy();
+                }
+            }
         }
+        
+        Telemetry.endCopy(event, Direction.HOST_TO_DEVICE, bytes, false);
+        return new FileLoad(this, bytes, System.nanoTime() - start);
     }
     
     public long devicePointer() throws Throwable {
-        return (long) CUDA_BUFFER_PTR.invoke(handle);
+        return CUDA.driver().bufferPtr(handle) + offset;
     }
-}
+}
\ No newline at end of file
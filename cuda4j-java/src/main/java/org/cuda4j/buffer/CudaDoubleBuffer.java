@@ -0,0 +1,80 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaStream;
+
+/**
+ * Device memory holding {@code double} elements.
+ */
+public record CudaDoubleBuffer(CudaBuffer buffer) implements CudaTypedBuffer {
+    
+    public CudaDoubleBuffer {
+        CudaTypedBuffer.checkAligned(buffer, Double.BYTES);
+    }
+    
+    public static CudaDoubleBuffer allocate(long length) throws Throwable {
+        return new CudaDoubleBuffer(CUDA.allocateBytes(length * Double.BYTES));
+    }
+    
+    public static CudaDoubleBuffer allocate(long length, CudaStream stream) throws Throwable {
+        return new CudaDoubleBuffer(CUDA.allocateBytes(length * Double.BYTES, stream));
+    }
+    
+    /**
+     * Allocates a buffer of {@code data.length} elements and copies {@code data} into it.
+     */
+    public static CudaDoubleBuffer of(double[] data) throws Throwable {
+        CudaDoubleBuffer buffer = allocate(data.length);
+        
+        try {
+            buffer.copyToDevice(data);
+        } catch (Throwable e) {
+            buffer.free();
+            throw e;
+        }
+        
+        return buffer;
+    }
+    
+    @Override
+    public long elementBytes() {
+        return Double.BYTES;
+    }
+    
+    /**
+     * A view of {@code length} elements starting at element {@code offset}, sharing this allocation.
+     */
+    public CudaDoubleBuffer slice(long offset, long length) {
+        return new CudaDoubleBuffer(buffer.slice(offset * Double.BYTES, length * Double.BYTES));
+    }
+    
+    public void copyToDevice(double[] data) throws Throwable {
+        buffer.copyToDevice(data);
+    }
+    
+    public void copyToDevice(double[] data, int offset, int count, long dstIndex) throws Throwable {
+        buffer.copyToDevice(data, offset, count, dstIndex * Double.BYTES);
+    }
+    
+    public void copyToHost(double[] data) throws Throwable {
+        buffer.copyToHost(data);
+    }
+    
+    public void copyToHost(double[] data, int offset, int count, long srcIndex) throws Throwable {
+        buffer.copyToHost(data, offset, count, srcIndex * Double.BYTES);
+    }
+    
+    public CudaTransfer copyToDeviceAsync(double[] data, CudaStream stream) throws Throwable {
+        return buffer.copyToDeviceAsync(data, stream);
+    }
+    
+    public CudaTransfer copyToHostAsync(double[] data, CudaStream stream) throws Throwable {
+        return buffer.copyToHostAsync(data, stream);
+    }
+    
+    public double[] toArray() throws Throwable {
+        double[] data = new double[Math.toIntExact(length())];
+        buffer.copyToHost(data);
+        return data;
+    }
+}
\ No newline at end of file
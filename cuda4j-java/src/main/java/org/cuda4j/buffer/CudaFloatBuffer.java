@@ -0,0 +1,87 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaStream;
+
+/**
+ * Device memory holding {@code float} elements.
+ */
+public record CudaFloatBuffer(CudaBuffer buffer) implements CudaTypedBuffer {
+    
+    public CudaFloatBuffer {
+        CudaTypedBuffer.checkAligned(buffer, Float.BYTES);
+    }
+    
+    public static CudaFloatBuffer allocate(long length) throws Throwable {
+        return new CudaFloatBuffer(CUDA.allocateBytes(length * Float.BYTES));
+    }
+    
+    public static CudaFloatBuffer allocate(long length, CudaStream stream) throws Throwable {
+        return new CudaFloatBuffer(CUDA.allocateBytes(length * Float.BYTES, stream));
+    }
+    
+    /**
+     * Allocates a buffer of {@code data.length} elements and copies {@code data} into it.
+     */
+    public static CudaFloatBuffer of(float[] data) throws Throwable {
+        CudaFloatBuffer buffer = allocate(data.length);
+        
+        try {
+            buffer.copyToDevice(data);
+        } catch (Throwable e) {
+            buffer.free();
+            throw e;
+        }
+        
+        return buffer;
+    }
+    
+    @Override
+    public long elementBytes() {
+        return Float.BYTES;
+    }
+    
+    /**
+     * A view of {@code length} elements starting at element {@code offset}, sharing this allocation.
+     */
+    public CudaFloatBuffer slice(long offset, long length) {
+        return new CudaFloatBuffer(buffer.slice(offset * Float.BYTES, length * Float.BYTES));
+    }
+    
+    /**
+     * Enqueues setting every element to {@code value}.
+     */
+    public void fillAsync(float value, CudaStream stream) throws Throwable {
+        buffer.memset(0, Float.floatToRawIntBits(value), Float.BYTES, length(), stream);
+    }
+    
+    public void copyToDevice(float[] data) throws Throwable {
+        buffer.copyToDevice(data);
+    }
+    
+    public void copyToDevice(float[] data, int offset, int count, long dstIndex) throws Throwable {
+        buffer.copyToDevice(data, offset, count, dstIndex * Float.BYTES);
+    }
+    
+    public void copyToHost(float[] data) throws Throwable {
+        buffer.copyToHost(data);
+    }
+    
+    public void copyToHost(float[] data, int offset, int count, long srcIndex) throws Throwable {
+        buffer.copyToHost(data, offset, count, srcIndex * Float.BYTES);
+    }
+    
+    public CudaTransfer copyToDeviceAsync(float[] data, CudaStream stream) throws Throwable {
+        return buffer.copyToDeviceAsync(data, stream);
+    }
+    
+    public CudaTransfer copyToHostAsync(float[] data, CudaStream stream) throws Throwable {
+        return buffer.copyToHostAsync(data, stream);
+    }
+    
+    public float[] toArray() throws Throwable {
+        float[] data = new float[Math.toIntExact(length())];
+        buffer.copyToHost(data);
+        return data;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaStream;
+
+/**
+ * Device memory holding {@code short} elements, IEEE 754 half-precision values stored as their raw bits, as produced by
+ * {@code Float.floatToFloat16}.
+ */
+public record CudaHalfBuffer(CudaBuffer buffer) implements CudaTypedBuffer {
+    
+    public CudaHalfBuffer {
+        CudaTypedBuffer.checkAligned(buffer, Short.BYTES);
+    }
+    
+    public static CudaHalfBuffer allocate(long length) throws Throwable {
+        return new CudaHalfBuffer(CUDA.allocateBytes(length * Short.BYTES));
+    }
+    
+    public static CudaHalfBuffer allocate(long length, CudaStream stream) throws Throwable {
+        return new CudaHalfBuffer(CUDA.allocateBytes(length * Short.BYTES, stream));
+    }
+    
+    /**
+     * Allocates a buffer of {@code data.length} elements and copies {@code data} into it.
+     */
+    public static CudaHalfBuffer of(short[] data) throws Throwable {
+        CudaHalfBuffer buffer = allocate(data.length);
+        
+        try {
+            buffer.copyToDevice(data);
+        } catch (Throwable e) {
+            buffer.free();
+            throw e;
+        }
+        
+        return buffer;
+    }
+    
+    @Override
+    public long elementBytes() {
+        return Short.BYTES;
+    }
+    
+    /**
+     * A view of {@code length} elements starting at element {@code offset}, sharing this allocation.
+     */
+    public CudaHalfBuffer slice(long offset, long length) {
+        return new CudaHalfBuffer(buffer.slice(offset * Short.BYTES, length * Short.BYTES));
+    }
+    
+    public void copyToDevice(short[] data) throws Throwable {
+        buffer.copyToDevice(data);
+    }
+    
+    public void copyToDevice(short[] data, int offset, int count, long dstIndex) throws Throwable {
+        buffer.copyToDevice(data, offset, count, dstIndex * Short.BYTES);
+    }
+    
+    public void copyToHost(short[] data) throws Throwable {
+        buffer.copyToHost(data);
+    }
+    
+    public void copyToHost(short[] data, int offset, int count, long srcIndex) throws Throwable {
+        buffer.copyToHost(data, offset, count, srcIndex * Short.BYTES);
+    }
+    
+    public CudaTransfer copyToDeviceAsync(short[] data, CudaStream stream) throws Throwable {
+        return buffer.copyToDeviceAsync(data, stream);
+    }
+    
+    public CudaTransfer copyToHostAsync(short[] data, CudaStream stream) throws Throwable {
+        return buffer.copyToHostAsync(data, stream);
+    }
+    
+    public short[] toArray() throws Throwable {
+        short[] data = new short[Math.toIntExact(length())];
+        buffer.copyToHost(data);
+        return data;
+    }
+}
\ No newline at end of file
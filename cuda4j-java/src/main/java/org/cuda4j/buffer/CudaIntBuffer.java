@@ -0,0 +1,87 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaStream;
+
+/**
+ * Device memory holding {@code int} elements.
+ */
+public record CudaIntBuffer(CudaBuffer buffer) implements CudaTypedBuffer {
+    
+    public CudaIntBuffer {
+        CudaTypedBuffer.checkAligned(buffer, Integer.BYTES);
+    }
+    
+    public static CudaIntBuffer allocate(long length) throws Throwable {
+        return new CudaIntBuffer(CUDA.allocateBytes(length * Integer.BYTES));
+    }
+    
+    public static CudaIntBuffer allocate(long length, CudaStream stream) throws Throwable {
+        return new CudaIntBuffer(CUDA.allocateBytes(length * Integer.BYTES, stream));
+    }
+    
+    /**
+     * Allocates a buffer of {@code data.length} elements and copies {@code data} into it.
+     */
+    public static CudaIntBuffer of(int[] data) throws Throwable {
+        CudaIntBuffer buffer = allocate(data.length);
+        
+        try {
+            buffer.copyToDevice(data);
+        } catch (Throwable e) {
+            buffer.free();
+            throw e;
+        }
+        
+        return buffer;
+    }
+    
+    @Override
+    public long elementBytes() {
+        return Integer.BYTES;
+    }
+    
+    /**
+     * A view of {@code length} elements starting at element {@code offset}, sharing this allocation.
+     */
+    public CudaIntBuffer slice(long offset, long length) {
+        return new CudaIntBuffer(buffer.slice(offset * Integer.BYTES, length * Integer.BYTES));
+    }
+    
+    /**
+     * Enqueues setting every element to {@code value}.
+     */
+    public void fillAsync(int value, CudaStream stream) throws Throwable {
+        buffer.memset(0, value, Integer.BYTES, length(), stream);
+    }
+    
+    public void copyToDevice(int[] data) throws Throwable {
+        buffer.copyToDevice(data);
+    }
+    
+    public void copyToDevice(int[] data, int offset, int count, long dstIndex) throws Throwable {
+        buffer.copyToDevice(data, offset, count, dstIndex * Integer.BYTES);
+    }
+    
+    public void copyToHost(int[] data) throws Throwable {
+        buffer.copyToHost(data);
+    }
+    
+    public void copyToHost(int[] data, int offset, int count, long srcIndex) throws Throwable {
+        buffer.copyToHost(data, offset, count, srcIndex * Integer.BYTES);
+    }
+    
+    public CudaTransfer copyToDeviceAsync(int[] data, CudaStream stream) throws Throwable {
+        return buffer.copyToDeviceAsync(data, stream);
+    }
+    
+    public CudaTransfer copyToHostAsync(int[] data, CudaStream stream) throws Throwable {
+        return buffer.copyToHostAsync(data, stream);
+    }
+    
+    public int[] toArray() throws Throwable {
+        int[] data = new int[Math.toIntExact(length())];
+        buffer.copyToHost(data);
+        return data;
+    }
+}
\ No newline at end of file
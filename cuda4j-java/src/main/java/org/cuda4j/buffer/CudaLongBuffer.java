@@ -0,0 +1,80 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaStream;
+
+/**
+ * Device memory holding {@code long} elements.
+ */
+public record CudaLongBuffer(CudaBuffer buffer) implements CudaTypedBuffer {
+    
+    public CudaLongBuffer {
+        CudaTypedBuffer.checkAligned(buffer, Long.BYTES);
+    }
+    
+    public static CudaLongBuffer allocate(long length) throws Throwable {
+        return new CudaLongBuffer(CUDA.allocateBytes(length * Long.BYTES));
+    }
+    
+    public static CudaLongBuffer allocate(long length, CudaStream stream) throws Throwable {
+        return new CudaLongBuffer(CUDA.allocateBytes(length * Long.BYTES, stream));
+    }
+    
+    /**
+     * Allocates a buffer of {@code data.length} elements and copies {@code data} into it.
+     */
+    public static CudaLongBuffer of(long[] data) throws Throwable {
+        CudaLongBuffer buffer = allocate(data.length);
+        
+        try {
+            buffer.copyToDevice(data);
+        } catch (Throwable e) {
+            buffer.free();
+            throw e;
+        }
+        
+        return buffer;
+    }
+    
+    @Override
+    public long elementBytes() {
+        return Long.BYTES;
+    }
+    
+    /**
+     * A view of {@code length} elements starting at element {@code offset}, sharing this allocation.
+     */
+    public CudaLongBuffer slice(long offset, long length) {
+        return new CudaLongBuffer(buffer.slice(offset * Long.BYTES, length * Long.BYTES));
+    }
+    
+    public void copyToDevice(long[] data) throws Throwable {
+        buffer.copyToDevice(data);
+    }
+    
+    public void copyToDevice(long[] data, int offset, int count, long dstIndex) throws Throwable {
+        buffer.copyToDevice(data, offset, count, dstIndex * Long.BYTES);
+    }
+    
+    public void copyToHost(long[] data) throws Throwable {
+        buffer.copyToHost(data);
+    }
+    
+    public void copyToHost(long[] data, int offset, int count, long srcIndex) throws Throwable {
+        buffer.copyToHost(data, offset, count, srcIndex * Long.BYTES);
+    }
+    
+    public CudaTransfer copyToDeviceAsync(long[] data, CudaStream stream) throws Throwable {
+        return buffer.copyToDeviceAsync(data, stream);
+    }
+    
+    public CudaTransfer copyToHostAsync(long[] data, CudaStream stream) throws Throwable {
+        return buffer.copyToHostAsync(data, stream);
+    }
+    
+    public long[] toArray() throws Throwable {
+        long[] data = new long[Math.toIntExact(length())];
+        buffer.copyToHost(data);
+        return data;
+    }
+}
\ No newline at end of file
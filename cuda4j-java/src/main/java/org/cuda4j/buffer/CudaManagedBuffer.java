@@ -0,0 +1,135 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.CudaObject;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.device.CudaDevice;
+import org.cuda4j.driver.CudaDriver;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Objects;
+
+/**
+ * Unified memory from {@code cuMemAllocManaged}: one allocation addressable from the host through {@link #segment()}
+ * and from kernels through {@link #buffer()}, migrated page by page to wherever it is touched. It may be larger than
+ * the memory of the device.
+ * <p>
+ * The host must not touch the segment while a kernel that uses the buffer may still be running, and the segment
+ * is unusable once the buffer is freed. Prefetches and advice are hints that save page faults; the data is correct
+ * without them.
+ */
+public record CudaManagedBuffer(CudaBuffer buffer, MemorySegment segment) implements CudaObject {
+    
+    public enum Advice {
+        /**
+         * Mostly read: devices that read it get their own copy instead of migrating the pages.
+         */
+        READ_MOSTLY(CudaDriver.CU_MEM_ADVISE_SET_READ_MOSTLY, CudaDriver.CU_MEM_ADVISE_UNSET_READ_MOSTLY),
+        /**
+         * Keep the pages on the given device, or the host, and map them elsewhere rather than migrating.
+         */
+        PREFERRED_LOCATION(CudaDriver.CU_MEM_ADVISE_SET_PREFERRED_LOCATION, CudaDriver.CU_MEM_ADVISE_UNSET_PREFERRED_LOCATION),
+        /**
+         * Keep the pages mapped for the given device wherever they reside.
+         */
+        ACCESSED_BY(CudaDriver.CU_MEM_ADVISE_SET_ACCESSED_BY, CudaDriver.CU_MEM_ADVISE_UNSET_ACCESSED_BY);
+        
+        private final int set;
+        private final int unset;
+        
+        Advice(int set, int unset) {
+            this.set = set;
+            this.unset = unset;
+        }
+    }
+    
+    public long length() {
+        return buffer.length();
+    }
+    
+    public long devicePointer() throws Throwable {
+        return buffer.devicePointer();
+    }
+    
+    /**
+     * A view of {@code length} bytes starting at {@code offset}, sharing this allocation.
+     */
+    public CudaManagedBuffer slice(long offset, long length) {
+        return new CudaManagedBuffer(buffer.slice(offset, length), segment.asSlice(offset, length));
+    }
+    
+    // ========================= PREFETCH =========================
+    
+    /**
+     * Migrates the whole buffer to {@code device} in stream order, ahead of the kernels that use it.
+     */
+    public void prefetchAsync(CudaDevice device, CudaStream stream) throws Throwable {
+        prefetchAsync(0, length(), device, stream);
+    }
+    
+    public void prefetchAsync(long offset, long bytes, CudaDevice device, CudaStream stream) throws Throwable {
+        prefetch(offset, bytes, device.index(), stream);
+    }
+    
+    /**
+     * Migrates the whole buffer back to host memory in stream order, e.g. before reading {@link #segment()}.
+     */
+    public void prefetchToHostAsync(CudaStream stream) throws Throwable {
+        prefetchToHostAsync(0, length(), stream);
+    }
+    
+    public void prefetchToHostAsync(long offset, long bytes, CudaStream stream) throws Throwable {
+        prefetch(offset, bytes, CudaDriver.CU_DEVICE_CPU, stream);
+    }
+    
+    // ========================= ADVICE =========================
+    
+    /**
+     * Applies {@code advice} to the whole buffer. {@code device} is ignored for {@link Advice#READ_MOSTLY}, and
+     * {@code null} means the host for {@link Advice#PREFERRED_LOCATION}.
+     */
+    public void advise(Advice advice, CudaDevice device) throws Throwable {
+        advise(0, length(), advice, device);
+    }
+    
+    public void advise(long offset, long bytes, Advice advice, CudaDevice device) throws Throwable {
+        memAdvise(offset, bytes, advice.set, device);
+    }
+    
+    public void clearAdvice(Advice advice, CudaDevice device) throws Throwable {
+        memAdvise(0, length(), advice.unset, device);
+    }
+    
+    @Override
+    public MemorySegment handle() {
+        return buffer.handle();
+    }
+    
+    @Override
+    public void dispose() throws Throwable {
+        buffer.dispose();
+    }
+    
+    public void free() throws Throwable {
+        buffer.free();
+    }
+    
+    private void prefetch(long offset, long bytes, int device, CudaStream stream) throws Throwable {
+        Objects.checkFromIndexSize(offset, bytes, length());
+        int res = CUDA.driver().memPrefetchAsync(buffer.handle(), buffer.offset() + offset, bytes, device, stream.handle());
+        
+        if (res != 0) {
+            throw new RuntimeException("cuMemPrefetchAsync failed: " + res);
+        }
+    }
+    
+    private void memAdvise(long offset, long bytes, int advice, CudaDevice device) throws Throwable {
+        Objects.checkFromIndexSize(offset, bytes, length());
+        int location = device == null ? CudaDriver.CU_DEVICE_CPU : device.index();
+        int res = CUDA.driver().memAdvise(buffer.handle(), buffer.offset() + offset, bytes, advice, location);
+        
+        if (res != 0) {
+            throw new RuntimeException("cuMemAdvise failed: " + res);
+        }
+    }
+}
\ No newline at end of file
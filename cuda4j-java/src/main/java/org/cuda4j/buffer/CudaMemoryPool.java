@@ -0,0 +1,274 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaStream;
+
+import java.lang.foreign.MemorySegment;
+import java.util.*;
+
+/**
+ * Caching allocator sitting between {@link CUDA#allocateBytes} and {@code cuMemAlloc}.
+ * <p>
+ * Requests are rounded up to a size class and freed blocks go back to a free list owned by the stream
+ * they were allocated on. A block is reused without synchronization when the stream matches; blocks
+ * cached by other streams are only handed out after a context synchronization.
+ * <p>
+ * Free lists are keyed by an id the pool hands out per stream rather than by the stream's handle, and
+ * {@link #forgetStream} retires that id when the stream is destroyed. A new stream that gets the same
+ * handle therefore never sees the old stream's blocks as its own.
+ */
+public class CudaMemoryPool {
+    
+    public static final long MIN_BLOCK_SIZE = 512;
+    public static final long LARGE_BLOCK_SIZE = 1 << 20;
+    public static final long LARGE_BLOCK_GRANULARITY = 2 << 20;
+    
+    private final long highWaterBytes;
+    private final long trimTargetBytes;
+    
+    private final Map<Long, TreeMap<Long, ArrayDeque<Block>>> freeLists = new HashMap<>();
+    private final Map<Long, Block> live = new HashMap<>();
+    private final Map<Long, Long> streamKeys = new HashMap<>();
+    
+    private long nextStreamKey = 1;
+    
+    private long hits;
+    private long crossStreamHits;
+    private long misses;
+    private long trims;
+    private long cachedBytes;
+    private long reservedBytes;
+    private long inUseBytes;
+    private long requestedBytes;
+    
+    public CudaMemoryPool() {
+        this(1L << 30, 1L << 29);
+    }
+    
+    public CudaMemoryPool(long highWaterBytes, long trimTargetBytes) {
+        if (trimTargetBytes > highWaterBytes) {
+            throw new IllegalArgumentException("Trim target must not exceed the high-water mark");
+        }
+        
+        this.highWaterBytes = highWaterBytes;
+        this.trimTargetBytes = trimTargetBytes;
+    }
+    
+    public static long sizeClass(long size) {
+        if (size <= MIN_BLOCK_SIZE) return MIN_BLOCK_SIZE;
+        if (size <= LARGE_BLOCK_SIZE) return Long.highestOneBit(size - 1) << 1;
+        return (size + LARGE_BLOCK_GRANULARITY - 1) / LARGE_BLOCK_GRANULARITY * LARGE_BLOCK_GRANULARITY;
+    }
+    
+    public CudaBuffer allocate(long size, CudaStream stream) throws Throwable {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Allocation size must be positive: " + size);
+        }
+        
+        long sizeClass = sizeClass(size);
+        long streamKey;
+        Block block;
+        
+        synchronized (this) {
+            streamKey = streamKey(stream);
+            block = take(streamKey, sizeClass);
+            
+            if (block != null) {
+                hits++;
+            } else {
+                block = takeFromOtherStream(streamKey, sizeClass);
+                if (block != null) crossStreamHits++;
+            }
+        }
+        
+        if (block != null && block.stream() != streamKey) {
+            // the previous owner may still have work queued against this memory, and its stream may be gone by now
+            int res = CUDA.driver().syncContext();
+            if (res != 0) throw new RuntimeException("cuCtxSynchronize failed: " + res);
+        }
+        
+        if (block == null) {
+            block = new Block(allocateFromDriver(sizeClass), sizeClass, streamKey);
+        }
+        
+        synchronized (this) {
+            live.put(block.handle().address(), new Block(block.handle(), sizeClass, streamKey, size));
+            inUseBytes += sizeClass;
+            requestedBytes += size;
+        }
+        
+        return new CudaBuffer(block.handle(), size);
+    }
+    
+    public boolean owns(CudaBuffer buffer) {
+        synchronized (this) {
+            return live.containsKey(buffer.handle().address());
+        }
+    }
+    
+    public void release(CudaBuffer buffer) throws Throwable {
+        synchronized (this) {
+            Block block = live.remove(buffer.handle().address());
+            
+            if (block == null) {
+                throw new IllegalArgumentException("Buffer was not allocated from this pool: " + buffer);
+            }
+            
+            inUseBytes -= block.capacity();
+            requestedBytes -= block.requested();
+            cachedBytes += block.capacity();
+            
+            freeLists.computeIfAbsent(block.stream(), key -> new TreeMap<>())
+                .computeIfAbsent(block.capacity(), key -> new ArrayDeque<>())
+                .push(new Block(block.handle(), block.capacity(), block.stream()));
+        }
+        
+        if (cachedBytes() > highWaterBytes) {
+            trim(trimTargetBytes);
+        }
+    }
+    
+    /**
+     * Called before {@code stream} is destroyed. Its cached blocks and the blocks it still holds become
+     * foreign to every stream, so their next user synchronizes first.
+     */
+    public synchronized void forgetStream(CudaStream stream) {
+        streamKeys.remove(stream.handle().address());
+    }
+    
+    public void trim() throws Throwable {
+        trim(0);
+    }
+    
+    public void trim(long targetBytes) throws Throwable {
+        List<Block> victims = new ArrayList<>();
+        
+        synchronized (this) {
+            while (cachedBytes > targetBytes) {
+                Block largest = takeLargest();
+                if (largest == null) break;
+                
+                victims.add(largest);
+                cachedBytes -= largest.capacity();
+                reservedBytes -= largest.capacity();
+            }
+            
+            if (!victims.isEmpty()) trims++;
+        }
+        
+        for (Block victim : victims) {
+            int res = CUDA.driver().memFree(victim.handle());
+            if (res != 0) throw new RuntimeException("cuMemFree failed: " + res);
+        }
+    }
+    
+    public synchronized Stats stats() {
+        return new Stats(hits, crossStreamHits, misses, trims, cachedBytes, reservedBytes, inUseBytes, requestedBytes);
+    }
+    
+    private synchronized long cachedBytes() {
+        return cachedBytes;
+    }
+    
+    private MemorySegment allocateFromDriver(long sizeClass) throws Throwable {
+        synchronized (this) {
+            misses++;
+        }
+        
+        MemorySegment ptr = CUDA.driver().memAlloc(sizeClass);
+        
+        if (ptr == null || ptr.address() == 0) {
+            // release everything we are holding on to and give the driver a second chance
+            trim();
+            ptr = CUDA.driver().memAlloc(sizeClass);
+        }
+        
+        if (ptr == null || ptr.address() == 0) {
+            throw new OutOfMemoryError("cuMemAlloc failed for " + sizeClass + " bytes");
+        }
+        
+        synchronized (this) {
+            reservedBytes += sizeClass;
+        }
+        
+        return ptr;
+    }
+    
+    private Block take(long streamKey, long sizeClass) {
+        TreeMap<Long, ArrayDeque<Block>> bins = freeLists.get(streamKey);
+        if (bins == null) return null;
+        
+        ArrayDeque<Block> bin = bins.get(sizeClass);
+        if (bin == null || bin.isEmpty()) return null;
+        
+        cachedBytes -= sizeClass;
+        return bin.pop();
+    }
+    
+    private Block takeFromOtherStream(long streamKey, long sizeClass) {
+        for (long other : freeLists.keySet()) {
+            if (other == streamKey) continue;
+            
+            Block block = take(other, sizeClass);
+            if (block != null) return block;
+        }
+        
+        return null;
+    }
+    
+    private Block takeLargest() {
+        Block largest = null;
+        ArrayDeque<Block> source = null;
+        
+        for (TreeMap<Long, ArrayDeque<Block>> bins : freeLists.values()) {
+            for (ArrayDeque<Block> bin : bins.descendingMap().values()) {
+                if (bin.isEmpty()) continue;
+                
+                if (largest == null || bin.peek().capacity() > largest.capacity()) {
+                    largest = bin.peek();
+                    source = bin;
+                }
+                break;
+            }
+        }
+        
+        if (source != null) source.pop();
+        return largest;
+    }
+    
+    private long streamKey(CudaStream stream) {
+        if (stream == null) return 0;
+        return streamKeys.computeIfAbsent(stream.handle().address(), address -> nextStreamKey++);
+    }
+    
+    private record Block(MemorySegment handle, long capacity, long stream, long requested) {
+        
+        Block(MemorySegment handle, long capacity, long stream) {
+            this(handle, capacity, stream, 0);
+        }
+    }
+    
+    public record Stats(
+        long hits,
+        long crossStreamHits,
+        long misses,
+        long trims,
+        long cachedBytes,
+        long reservedBytes,
+        long inUseBytes,
+        long requestedBytes
+    ) {
+        
+        public double hitRate() {
+            long total = hits + crossStreamHits + misses;
+            return total == 0 ? 0 : (double) (hits + crossStreamHits) / total;
+        }
+        
+        /**
+         * Share of the in-use capacity lost to size-class rounding.
+         */
+        public double fragmentation() {
+            return inUseBytes == 0 ? 0 : 1 - (double) requestedBytes / inUseBytes;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CudaObject;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * A 2D allocation from {@code cuMemAllocPitch}: {@code height} rows of {@code widthBytes} usable bytes, each row
+ * starting {@code pitch} bytes after the previous one so that rows stay aligned for coalesced access.
+ */
+public record CudaPitchedBuffer(CudaBuffer buffer, long pitch, long widthBytes, long height) implements CudaObject {
+    
+    /**
+     * The whole allocation as one slice of {@code height} rows.
+     */
+    public StridedRegion region() {
+        return StridedRegion.of(buffer, pitch, height);
+    }
+    
+    /**
+     * The allocation seen as a volume whose slices are {@code sliceHeight} rows each.
+     */
+    public StridedRegion region(long sliceHeight) {
+        return StridedRegion.of(buffer, pitch, sliceHeight);
+    }
+    
+    /**
+     * Row {@code y} as a plain buffer, without the padding.
+     */
+    public CudaBuffer row(long y) {
+        return buffer.slice(y * pitch, widthBytes);
+    }
+    
+    public void free() throws Throwable {
+        buffer.free();
+    }
+    
+    @Override
+    public MemorySegment handle() {
+        return buffer.handle();
+    }
+    
+    @Override
+    public void dispose() throws Throwable {
+        buffer.free();
+    }
+}
\ No newline at end of file
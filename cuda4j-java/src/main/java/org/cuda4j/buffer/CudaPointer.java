@@ -47,4 +47,4 @@ public record CudaPointer(MemorySegment segment) {
         MemorySegment seg = GLOBAL.allocateFrom(JAVA_BYTE, bytes);
         return new CudaPointer(seg);
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.driver.CudaDriver;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handle to a copy enqueued on a stream.
+ * <p>
+ * A download that goes through a staging buffer is scattered into its heap destination by a host function
+ * enqueued right behind the copy, which then hands the staging buffer back to its pool. Both happen whether
+ * or not the handle is ever looked at, so fire-and-forget downloads neither lose their data nor leak pinned
+ * memory. The results are guaranteed visible after {@link #await()}, a positive {@link #isDone()} or
+ * completion of {@link #future()}.
+ */
+public final class CudaTransfer {
+    
+    private final CudaStream stream;
+    private final StagingBuffer staging;
+    private final MemorySegment destination;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    
+    private boolean finished;
+    private boolean listening;
+    
+    CudaTransfer(CudaStream stream, StagingBuffer staging, MemorySegment destination) {
+        this.stream = stream;
+        this.staging = staging;
+        this.destination = destination;
+    }
+    
+    /**
+     * A download into {@code staging} that lands in {@code destination} as soon as the stream gets there.
+     */
+    static CudaTransfer staged(CudaStream stream, StagingBuffer staging, MemorySegment destination, StagingBufferPool pool) throws Throwable {
+        CudaTransfer transfer = new CudaTransfer(stream, staging, destination);
+        transfer.listening = true;
+        
+        Runnable release = pool.releaseLater(staging);
+        stream.addCallback(() -> transfer.land(release), error -> {
+            transfer.fail(error);
+            release.run();
+        });
+        return transfer;
+    }
+    
+    public CudaStream stream() {
+        return stream;
+    }
+    
+    public boolean isDone() throws Throwable {
+        if (future.isDone()) return true;
+        
+        int res = CUDA.driver().streamQuery(stream.handle());
+        
+        if (res == CudaDriver.CUDA_ERROR_NOT_READY) {
+            return false;
+        }
+        
+        finish(res);
+        return true;
+    }
+    
+    /**
+     * Parks on a host function behind the copy rather than blocking inside the driver, and throws if the
+     * stream faulted.
+     */
+    public void await() throws Throwable {
+        if (!future.isDone() && !isFinished()) {
+            try {
+                stream.await();
+                finish(CudaDriver.CUDA_SUCCESS);
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+        }
+        
+        if (future.isCompletedExceptionally()) {
+            future.join();
+        }
+    }
+    
+    /**
+     * Returns a future completed once the copy has landed in its destination. Completion is signalled by a
+     * host function enqueued behind the copy, so no thread waits or polls on the stream.
+     */
+    public CompletableFuture<Void> future() {
+        synchronized (this) {
+            if (future.isDone() || listening) return future;
+            listening = true;
+        }
+        
+        try {
+            stream.onComplete().whenComplete((ignored, error) -> finish(
+                error == null ? CudaDriver.CUDA_SUCCESS : CudaDriver.CUDA_ERROR_LAUNCH_FAILED
+            ));
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+        
+        return future;
+    }
+    
+    /**
+     * Runs on the driver thread behind the copy. Dependent stages of {@link #future()} run on the common pool.
+     */
+    private void land(Runnable release) {
+        boolean landed;
+        
+        synchronized (this) {
+            landed = !finished;
+            finished = true;
+            if (landed) scatter();
+        }
+        
+        // the staging buffer has been read, so it goes back before anyone can observe the landing
+        release.run();
+        if (landed) future.completeAsync(() -> null);
+    }
+    
+    private synchronized void finish(int res) {
+        if (finished) return;
+        finished = true;
+        
+        if (res != 0) {
+            future.completeExceptionally(new RuntimeException("Transfer failed on stream: " + res));
+            return;
+        }
+        
+        scatter();
+        future.complete(null);
+    }
+    
+    private synchronized void fail(Throwable error) {
+        if (finished) return;
+        finished = true;
+        future.completeExceptionally(error);
+    }
+    
+    /**
+     * Whether the copy has landed or failed, although dependents of {@link #future()} may not have run yet.
+     */
+    private synchronized boolean isFinished() {
+        return finished;
+    }
+    
+    /**
+     * The staging buffer is only handed back by {@link #land} after scattering, so it still holds the downloaded
+     * bytes here.
+     */
+    private void scatter() {
+        if (destination != null) {
+            MemorySegment.copy(staging.segment(), 0, destination, 0, destination.byteSize());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CudaObject;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * A {@link CudaBuffer} seen as an array of one primitive type. Lengths, offsets and slices are in elements.
+ */
+public interface CudaTypedBuffer extends CudaObject {
+    
+    CudaBuffer buffer();
+    
+    long elementBytes();
+    
+    /**
+     * Number of elements.
+     */
+    default long length() {
+        return buffer().length() / elementBytes();
+    }
+    
+    default long byteSize() {
+        return buffer().length();
+    }
+    
+    default boolean isSlice() {
+        return buffer().isSlice();
+    }
+    
+    default long devicePointer() throws Throwable {
+        return buffer().devicePointer();
+    }
+    
+    @Override
+    default MemorySegment handle() {
+        return buffer().handle();
+    }
+    
+    @Override
+    default void dispose() throws Throwable {
+        buffer().dispose();
+    }
+    
+    default void free() throws Throwable {
+        buffer().free();
+    }
+    
+    static CudaBuffer checkAligned(CudaBuffer buffer, long elementBytes) {
+        if (buffer.length() % elementBytes != 0) {
+            throw new IllegalArgumentException(
+                "Buffer of " + buffer.length() + " bytes does not hold a whole number of " + elementBytes + "-byte elements"
+            );
+        }
+        
+        return buffer;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package org.cuda4j.buffer;
+
+/**
+ * Outcome of streaming a file region into device memory.
+ *
+ * @param buffer the buffer that was filled
+ * @param bytes number of bytes transferred
+ * @param nanos wall-clock time from mapping the file to the data being on the device
+ */
+public record FileLoad(CudaBuffer buffer, long bytes, long nanos) {
+    
+    public double bytesPerSecond() {
+        return nanos == 0 ? 0 : bytes * 1e9 / nanos;
+    }
+    
+    public double gigabytesPerSecond() {
+        return bytesPerSecond() / 1e9;
+    }
+}
\ No newline at end of file
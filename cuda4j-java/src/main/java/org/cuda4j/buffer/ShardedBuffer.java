@@ -0,0 +1,117 @@
+package org.cuda4j.buffer;
+
+import java.util.Arrays;
+
+/**
+ * One logical array spread over the devices of a device group, one shard per device.
+ * <p>
+ * A split buffer gives every device a contiguous range of elements; a replicated buffer gives every device a full
+ * copy. Offsets and counts are in elements, and shard {@code i} lives on device {@code i} of the group that
+ * created it.
+ */
+public final class ShardedBuffer implements AutoCloseable {
+    
+    private final CudaBuffer[] shards;
+    private final long[] offsets;
+    private final long[] counts;
+    private final long elementBytes;
+    private final long length;
+    private final boolean replicated;
+    
+    public ShardedBuffer(CudaBuffer[] shards, long[] offsets, long[] counts, long elementBytes, boolean replicated) {
+        if (shards.length != offsets.length || shards.length != counts.length) {
+            throw new IllegalArgumentException("Need an offset and a count for every shard");
+        }
+        
+        this.shards = shards.clone();
+        this.offsets = offsets.clone();
+        this.counts = counts.clone();
+        this.elementBytes = elementBytes;
+        this.replicated = replicated;
+        this.length = replicated ? counts[0] : Arrays.stream(counts).sum();
+    }
+    
+    /**
+     * Splits {@code length} elements into {@code parts} contiguous ranges whose sizes differ by at most one;
+     * returns the {@code parts + 1} boundaries.
+     */
+    public static long[] split(long length, int parts) {
+        long[] bounds = new long[parts + 1];
+        long base = length / parts;
+        long remainder = length % parts;
+        
+        for (int i = 0; i < parts; i++) {
+            bounds[i + 1] = bounds[i] + base + (i < remainder ? 1 : 0);
+        }
+        
+        return bounds;
+    }
+    
+    public int shardCount() {
+        return shards.length;
+    }
+    
+    public CudaBuffer shard(int device) {
+        return shards[device];
+    }
+    
+    /**
+     * Index of the first element held by the shard of {@code device}.
+     */
+    public long offset(int device) {
+        return offsets[device];
+    }
+    
+    public long count(int device) {
+        return counts[device];
+    }
+    
+    public long elementBytes() {
+        return elementBytes;
+    }
+    
+    /**
+     * Number of elements of the logical array.
+     */
+    public long length() {
+        return length;
+    }
+    
+    public boolean isReplicated() {
+        return replicated;
+    }
+    
+    /**
+     * The device whose shard holds {@code element}; for replicated buffers every device does and this returns 0.
+     */
+    public int deviceOf(long element) {
+        if (element < 0 || element >= length) {
+            throw new IndexOutOfBoundsException("Element " + element + " outside of " + length);
+        }
+        
+        if (replicated) return 0;
+        
+        for (int i = shards.length - 1; i > 0; i--) {
+            if (counts[i] > 0 && element >= offsets[i]) return i;
+        }
+        
+        return 0;
+    }
+    
+    @Override
+    public void close() throws Exception {
+        try {
+            free();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+    
+    public void free() throws Throwable {
+        for (CudaBuffer shard : shards) {
+            shard.free();
+        }
+    }
+}
\ No newline at end of file
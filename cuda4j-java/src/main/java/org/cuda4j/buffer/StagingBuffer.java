@@ -0,0 +1,40 @@
+package org.cuda4j.buffer;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * A pinned host buffer borrowed from a {@link StagingBufferPool}. Closing it hands it back to the pool.
+ */
+public final class StagingBuffer implements AutoCloseable {
+    
+    private final StagingBufferPool pool;
+    private final MemorySegment segment;
+    private final int sizeClass;
+    
+    StagingBuffer(StagingBufferPool pool, MemorySegment segment, int sizeClass) {
+        this.pool = pool;
+        this.segment = segment;
+        this.sizeClass = sizeClass;
+    }
+    
+    public MemorySegment segment() {
+        return segment;
+    }
+    
+    public long capacity() {
+        return segment.byteSize();
+    }
+    
+    int sizeClass() {
+        return sizeClass;
+    }
+    
+    @Override
+    public void close() {
+        try {
+            pool.release(this);
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to release staging buffer", e);
+        }
+    }
+}
\ No newline at end of file
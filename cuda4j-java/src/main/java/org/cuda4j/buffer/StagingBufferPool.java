@@ -0,0 +1,198 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaStream;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of page-locked ({@code cuMemHostAlloc}) host buffers used to stage transfers between Java heap
+ * arrays and device memory.
+ * <p>
+ * Buffers are bucketed by chunk class and cached on lock-free free lists, so a steady stream of same-sized
+ * transfers never reaches the driver. Nothing is cached per thread: every cached buffer is reachable from
+ * {@link #clear()}, whichever thread released it and whether or not that thread is still alive. Buffers used
+ * by asynchronous copies are handed back with {@link #releaseAfter} and only become reusable once their
+ * stream has reached the point where they were released.
+ */
+public class StagingBufferPool {
+    
+    public static final long[] DEFAULT_CHUNK_CLASSES = { 64 << 10, 1 << 20, 16 << 20 };
+    
+    private final long[] chunkClasses;
+    private final int maxCachedPerClass;
+    private final ConcurrentLinkedDeque<StagingBuffer>[] freeLists;
+    private final AtomicInteger[] cachedCounts;
+    private final ConcurrentLinkedQueue<Pending> pending = new ConcurrentLinkedQueue<>();
+    
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    
+    public StagingBufferPool() {
+        this(DEFAULT_CHUNK_CLASSES, 4);
+    }
+    
+    @SuppressWarnings("unchecked")
+    public StagingBufferPool(long[] chunkClasses, int maxCachedPerClass) {
+        if (chunkClasses.length == 0) {
+            throw new IllegalArgumentException("At least one chunk class is required");
+        }
+        
+        this.chunkClasses = chunkClasses.clone();
+        this.maxCachedPerClass = maxCachedPerClass;
+        this.freeLists = new ConcurrentLinkedDeque[chunkClasses.length];
+        this.cachedCounts = new AtomicInteger[chunkClasses.length];
+        
+        Arrays.sort(this.chunkClasses);
+        
+        for (int i = 0; i < freeLists.length; i++) {
+            freeLists[i] = new ConcurrentLinkedDeque<>();
+            cachedCounts[i] = new AtomicInteger();
+        }
+    }
+    
+    public long maxChunkSize() {
+        return chunkClasses[chunkClasses.length - 1];
+    }
+    
+    public StagingBuffer acquire(long bytes) throws Throwable {
+        acquisitions.increment();
+        
+        if (!pending.isEmpty()) {
+            reclaim();
+        }
+        
+        int sizeClass = classIndex(bytes);
+        
+        if (sizeClass < 0) {
+            return allocate(bytes, -1);
+        }
+        
+        StagingBuffer buffer = freeLists[sizeClass].poll();
+        
+        if (buffer != null) {
+            cachedCounts[sizeClass].decrementAndGet();
+            return buffer;
+        }
+        
+        return allocate(chunkClasses[sizeClass], sizeClass);
+    }
+    
+    /**
+     * Returns a buffer that is still read or written by work queued on {@code stream}. A host function marks
+     * it reusable once the stream gets there, and the next {@link #acquire} or {@link #reclaim} puts it back.
+     */
+    public void releaseAfter(StagingBuffer buffer, CudaStream stream) throws Throwable {
+        Runnable release = releaseLater(buffer);
+        // a faulted stream has stopped using the buffer too
+        stream.addCallback(release, error -> release.run());
+    }
+    
+    /**
+     * Returns a buffer once the returned action has run. The action only marks the buffer and may run on a
+     * driver thread.
+     */
+    Runnable releaseLater(StagingBuffer buffer) {
+        Pending entry = new Pending(buffer);
+        pending.add(entry);
+        return entry::complete;
+    }
+    
+    public void reclaim() throws Throwable {
+        Iterator<Pending> iterator = pending.iterator();
+        
+        while (iterator.hasNext()) {
+            Pending entry = iterator.next();
+            
+            if (entry.completed && pending.remove(entry)) {
+                release(entry.buffer);
+            }
+        }
+    }
+    
+    public void clear() throws Throwable {
+        for (int i = 0; i < freeLists.length; i++) {
+            StagingBuffer buffer;
+            
+            while ((buffer = freeLists[i].poll()) != null) {
+                cachedCounts[i].decrementAndGet();
+                free(buffer);
+            }
+        }
+    }
+    
+    public long acquisitions() {
+        return acquisitions.sum();
+    }
+    
+    public long allocations() {
+        return allocations.sum();
+    }
+    
+    public long allocatedBytes() {
+        return allocatedBytes.sum();
+    }
+    
+    void release(StagingBuffer buffer) throws Throwable {
+        int sizeClass = buffer.sizeClass();
+        
+        if (sizeClass < 0) {
+            free(buffer);
+        } else if (cachedCounts[sizeClass].incrementAndGet() <= maxCachedPerClass) {
+            freeLists[sizeClass].push(buffer);
+        } else {
+            cachedCounts[sizeClass].decrementAndGet();
+            free(buffer);
+        }
+    }
+    
+    private int classIndex(long bytes) {
+        for (int i = 0; i < chunkClasses.length; i++) {
+            if (bytes <= chunkClasses[i]) return i;
+        }
+        
+        return -1;
+    }
+    
+    private StagingBuffer allocate(long capacity, int sizeClass) throws Throwable {
+        MemorySegment ptr = CUDA.driver().memHostAlloc(capacity);
+        
+        if (ptr == null || ptr.address() == 0) {
+            throw new OutOfMemoryError("cuMemHostAlloc failed for " + capacity + " bytes");
+        }
+        
+        allocations.increment();
+        allocatedBytes.add(capacity);
+        return new StagingBuffer(this, ptr.reinterpret(capacity), sizeClass);
+    }
+    
+    private void free(StagingBuffer buffer) throws Throwable {
+        allocatedBytes.add(-buffer.capacity());
+        int res = CUDA.driver().memFreeHost(buffer.segment());
+        
+        if (res != 0) {
+            throw new RuntimeException("cuMemFreeHost failed: " + res);
+        }
+    }
+    
+    private static final class Pending {
+        
+        private final StagingBuffer buffer;
+        private volatile boolean completed;
+        
+        private Pending(StagingBuffer buffer) {
+            this.buffer = buffer;
+        }
+        
+        private void complete() {
+            completed = true;
+        }
+    }
+}
\ No newline at end of file
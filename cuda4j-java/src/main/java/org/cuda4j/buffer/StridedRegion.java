@@ -0,0 +1,160 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.driver.CudaDriver;
+import org.cuda4j.metrics.CopyEvent;
+import org.cuda4j.metrics.Direction;
+import org.cuda4j.metrics.Telemetry;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Rows of {@code pitch} bytes laid out in a {@link CudaBuffer} or in native host memory, starting {@code offset}
+ * bytes in, as one side of a 2D or 3D copy. For 3D copies, {@code sliceHeight} rows make one slice.
+ * <p>
+ * Regions let a tile of a matrix or a box of a volume move between host and device, or between two device layouts,
+ * in one driver call and without packing rows on the host. Exactly one of {@code device} and {@code host} is set.
+ */
+public record StridedRegion(CudaBuffer device, MemorySegment host, long offset, long pitch, long sliceHeight) {
+    
+    public StridedRegion {
+        if ((device == null) == (host == null)) {
+            throw new IllegalArgumentException("A region lies either in device or in host memory");
+        }
+        
+        if (host != null && !host.isNative()) {
+            throw new IllegalArgumentException("Strided copies read host memory directly; use a native segment");
+        }
+        
+        if (offset < 0 || pitch <= 0 || sliceHeight < 0) {
+            throw new IllegalArgumentException("Invalid region: offset " + offset + ", pitch " + pitch + ", slice height " + sliceHeight);
+        }
+    }
+    
+    /**
+     * The rows of {@code buffer}, which is one slice deep.
+     */
+    public static StridedRegion of(CudaBuffer buffer, long pitch) {
+        return new StridedRegion(buffer, null, 0, pitch, buffer.length() / pitch);
+    }
+    
+    public static StridedRegion of(CudaBuffer buffer, long pitch, long sliceHeight) {
+        return new StridedRegion(buffer, null, 0, pitch, sliceHeight);
+    }
+    
+    public static StridedRegion of(MemorySegment host, long pitch) {
+        return new StridedRegion(null, host, 0, pitch, host.byteSize() / pitch);
+    }
+    
+    public static StridedRegion of(MemorySegment host, long pitch, long sliceHeight) {
+        return new StridedRegion(null, host, 0, pitch, sliceHeight);
+    }
+    
+    /**
+     * The same layout starting {@code xBytes} into row {@code y}.
+     */
+    public StridedRegion at(long xBytes, long y) {
+        return at(xBytes, y, 0);
+    }
+    
+    /**
+     * The same layout starting {@code xBytes} into row {@code y} of slice {@code z}.
+     */
+    public StridedRegion at(long xBytes, long y, long z) {
+        long start = offset + xBytes + y * pitch + z * pitch * sliceHeight;
+        return new StridedRegion(device, host, start, pitch, sliceHeight);
+    }
+    
+    public boolean isDevice() {
+        return device != null;
+    }
+    
+    /**
+     * Enqueues a copy of {@code height} rows of {@code widthBytes} bytes from this region into {@code dst}.
+     */
+    public CudaTransfer copyToAsync(StridedRegion dst, long widthBytes, long height, CudaStream stream) throws Throwable {
+        checkExtent(widthBytes, height, 1);
+        dst.checkExtent(widthBytes, height, 1);
+        
+        CopyEvent event = Telemetry.beginCopy();
+        int res = CUDA.driver().memcpy2DAsync(
+            dst.type(), dst.base(), dst.start(), dst.pitch,
+            type(), base(), start(), pitch,
+            widthBytes, height,
+            stream.handle()
+        );
+        
+        if (res != 0) {
+            throw new RuntimeException("cuMemcpy2DAsync failed: " + res);
+        }
+        
+        endCopy(event, dst, widthBytes * height);
+        return new CudaTransfer(stream, null, null);
+    }
+    
+    /**
+     * Enqueues a copy of {@code depth} slices of {@code height} rows of {@code widthBytes} bytes into {@code dst}.
+     */
+    public CudaTransfer copyToAsync(StridedRegion dst, long widthBytes, long height, long depth, CudaStream stream) throws Throwable {
+        checkExtent(widthBytes, height, depth);
+        dst.checkExtent(widthBytes, height, depth);
+        
+        CopyEvent event = Telemetry.beginCopy();
+        int res = CUDA.driver().memcpy3DAsync(
+            dst.type(), dst.base(), dst.start(), dst.pitch, dst.sliceHeight,
+            type(), base(), start(), pitch, sliceHeight,
+            widthBytes, height, depth,
+            stream.handle()
+        );
+        
+        if (res != 0) {
+            throw new RuntimeException("cuMemcpy3DAsync failed: " + res);
+        }
+        
+        endCopy(event, dst, widthBytes * height * depth);
+        return new CudaTransfer(stream, null, null);
+    }
+    
+    private void checkExtent(long widthBytes, long height, long depth) {
+        if (widthBytes < 0 || height < 0 || depth < 0) {
+            throw new IllegalArgumentException("Negative copy extent " + widthBytes + " x " + height + " x " + depth);
+        }
+        
+        if (widthBytes > pitch || (depth > 1 && height > sliceHeight)) {
+            throw new IllegalArgumentException("A copy of " + widthBytes + " x " + height + " does not fit rows of "
+                + pitch + " bytes and slices of " + sliceHeight + " rows");
+        }
+        
+        if (widthBytes == 0 || height == 0 || depth == 0) return;
+        
+        long end = offset + (depth - 1) * pitch * sliceHeight + (height - 1) * pitch + widthBytes;
+        long size = device != null ? device.length() : host.byteSize();
+        
+        if (end > size) {
+            throw new IndexOutOfBoundsException("Copy reaches byte " + end + " of a region of " + size + " bytes");
+        }
+    }
+    
+    private int type() {
+        return device != null ? CudaDriver.CU_MEMORYTYPE_DEVICE : CudaDriver.CU_MEMORYTYPE_HOST;
+    }
+    
+    private MemorySegment base() {
+        return device != null ? device.handle() : host;
+    }
+    
+    private long start() {
+        return device != null ? device.offset() + offset : offset;
+    }
+    
+    private void endCopy(CopyEvent event, StridedRegion dst, long bytes) {
+        if (isDevice() && dst.isDevice()) {
+            Telemetry.endCopy(event, Direction.DEVICE_TO_DEVICE, bytes, true);
+        } else if (dst.isDevice()) {
+            Telemetry.endCopy(event, Direction.HOST_TO_DEVICE, bytes, true);
+        } else if (isDevice()) {
+            Telemetry.endCopy(event, Direction.DEVICE_TO_HOST, bytes, true);
+        }
+    }
+}
\ No newline at end of file
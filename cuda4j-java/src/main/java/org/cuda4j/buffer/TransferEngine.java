@@ -0,0 +1,275 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaEvent;
+import org.cuda4j.context.CudaStream;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moves host memory of any size through a fixed set of pinned chunks.
+ * <p>
+ * Each slot owns one pinned chunk and one stream. Heap-to-chunk copies run on a small pool of CPU threads while
+ * the DMA of earlier chunks is in flight on the other slots, and downloads mirror this. Off-heap usage is always
+ * {@code chunkSize * slots}, however large the array. Transfers through one engine are serialized.
+ */
+public final class TransferEngine implements AutoCloseable {
+    
+    public static final long DEFAULT_CHUNK_SIZE = 16 << 20;
+    private static final AtomicInteger THREADS = new AtomicInteger();
+    
+    private final long chunkSize;
+    private final MemorySegment[] chunks;
+    private final CudaStream[] streams;
+    private final CudaEvent[] done;
+    private final ExecutorService copiers;
+    
+    public TransferEngine() throws Throwable {
+        this(DEFAULT_CHUNK_SIZE, 2, 2);
+    }
+    
+    /**
+     * @param chunkSize bytes per pinned chunk
+     * @param slots number of chunks (and streams) in rotation, at least two
+     * @param copyThreads CPU threads copying between the heap and the chunks
+     */
+    public TransferEngine(long chunkSize, int slots, int copyThreads) throws Throwable {
+        if (chunkSize <= 0 || slots < 2 || copyThreads < 1) {
+            throw new IllegalArgumentException("Need a positive chunk size, two slots and one copy thread");
+        }
+        
+        this.chunkSize = chunkSize;
+        this.chunks = new MemorySegment[slots];
+        this.streams = new CudaStream[slots];
+        this.done = new CudaEvent[slots];
+        this.copiers = Executors.newFixedThreadPool(copyThreads, task -> {
+            Thread thread = new Thread(task, "cuda4j-transfer-" + THREADS.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        for (int i = 0; i < slots; i++) {
+            MemorySegment chunk = CUDA.driver().memHostAlloc(chunkSize);
+            
+            if (chunk == null || chunk.address() == 0) {
+                throw new OutOfMemoryError("cuMemHostAlloc failed for " + chunkSize + " bytes");
+            }
+            
+            chunks[i] = chunk.reinterpret(chunkSize);
+            streams[i] = CUDA.createStream();
+            done[i] = CudaEvent.create(false);
+        }
+    }
+    
+    public long chunkSize() {
+        return chunkSize;
+    }
+    
+    public int slots() {
+        return chunks.length;
+    }
+    
+    /**
+     * Pinned memory held by this engine, independent of the size of the transfers.
+     */
+    public long offHeapBytes() {
+        return chunkSize * chunks.length;
+    }
+    
+    // ========================= UPLOAD =========================
+    
+    public void upload(byte[] data, CudaBuffer destination) throws Throwable {
+        upload(MemorySegment.ofArray(data), 0, destination, 0, data.length);
+    }
+    
+    public void upload(int[] data, CudaBuffer destination) throws Throwable {
+        upload(MemorySegment.ofArray(data), 0, destination, 0, (long) data.length * Integer.BYTES);
+    }
+    
+    public void upload(float[] data, CudaBuffer destination) throws Throwable {
+        upload(MemorySegment.ofArray(data), 0, destination, 0, (long) data.length * Float.BYTES);
+    }
+    
+    /**
+     * Copies {@code bytes} of {@code src} into {@code destination} and returns once they are on the device.
+     * Chunk {@code i} is filled on a copy thread while chunk {@code i - 1} is handed to the DMA engine.
+     */
+    public synchronized void upload(
+        MemorySegment src,
+        long srcOffset,
+        CudaBuffer destination,
+        long dstOffset,
+        long bytes
+    ) throws Throwable {
+        Objects.checkFromIndexSize(dstOffset, bytes, destination.length());
+        MemorySegment source = src.asSlice(srcOffset, bytes);
+        
+        int slots = slots();
+        long count = chunkCount(bytes);
+        @SuppressWarnings("unchecked")
+        CompletableFuture<Void>[] filled = new CompletableFuture[slots];
+        
+        try {
+            for (long i = 0; i < count + slots - 1; i++) {
+                if (i < count) {
+                    int slot = (int) (i % slots);
+                    long offset = i * chunkSize;
+                    long size = Math.min(chunkSize, bytes - offset);
+                    
+                    if (i >= slots) done[slot].synchronize();
+                    filled[slot] = CompletableFuture.runAsync(
+                        () -> MemorySegment.copy(source, offset, chunks[slot], 0, size),
+                        copiers
+                    );
+                }
+                
+                long j = i - (slots - 1);
+                
+                if (j >= 0 && j < count) {
+                    int slot = (int) (j % slots);
+                    long offset = j * chunkSize;
+                    long size = Math.min(chunkSize, bytes - offset);
+                    
+                    join(filled[slot]);
+                    
+                    int res = CUDA.driver().memcpyHtoDAsync(
+                        destination.handle(), destination.offset() + dstOffset + offset, chunks[slot], size, streams[slot].handle()
+                    );
+                    if (res != 0) throw new RuntimeException("cuMemcpyHtoDAsync failed: " + res);
+                    
+                    done[slot].record(streams[slot]);
+                }
+            }
+        } finally {
+            drain(filled);
+        }
+    }
+    
+    // ========================= DOWNLOAD =========================
+    
+    public void download(CudaBuffer source, byte[] data) throws Throwable {
+        download(source, 0, MemorySegment.ofArray(data), 0, data.length);
+    }
+    
+    public void download(CudaBuffer source, int[] data) throws Throwable {
+        download(source, 0, MemorySegment.ofArray(data), 0, (long) data.length * Integer.BYTES);
+    }
+    
+    public void download(CudaBuffer source, float[] data) throws Throwable {
+        download(source, 0, MemorySegment.ofArray(data), 0, (long) data.length * Float.BYTES);
+    }
+    
+    /**
+     * Copies {@code bytes} of {@code source} into {@code dst} and returns once they are in host memory.
+     * Chunk {@code i} is drained on a copy thread while later chunks are still being transferred.
+     */
+    public synchronized void download(
+        CudaBuffer source,
+        long srcOffset,
+        MemorySegment dst,
+        long dstOffset,
+        long bytes
+    ) throws Throwable {
+        Objects.checkFromIndexSize(srcOffset, bytes, source.length());
+        MemorySegment destination = dst.asSlice(dstOffset, bytes);
+        
+        int slots = slots();
+        long count = chunkCount(bytes);
+        @SuppressWarnings("unchecked")
+        CompletableFuture<Void>[] drained = new CompletableFuture[slots];
+        
+        try {
+            for (long i = 0; i < count + slots - 1; i++) {
+                if (i < count) {
+                    int slot = (int) (i % slots);
+                    long offset = i * chunkSize;
+                    long size = Math.min(chunkSize, bytes - offset);
+                    
+                    if (drained[slot] != null) join(drained[slot]);
+                    
+                    int res = CUDA.driver().memcpyDtoHAsync(
+                        chunks[slot], source.handle(), source.offset() + srcOffset + offset, size, streams[slot].handle()
+                    );
+                    if (res != 0) throw new RuntimeException("cuMemcpyDtoHAsync failed: " + res);
+                    
+                    done[slot].record(streams[slot]);
+                }
+                
+                long j = i - (slots - 1);
+                
+                if (j >= 0 && j < count) {
+                    int slot = (int) (j % slots);
+                    long offset = j * chunkSize;
+                    long size = Math.min(chunkSize, bytes - offset);
+                    
+                    done[slot].synchronize();
+                    drained[slot] = CompletableFuture.runAsync(
+                        () -> MemorySegment.copy(chunks[slot], 0, destination, offset, size),
+                        copiers
+                    );
+                }
+            }
+        } finally {
+            drain(drained);
+        }
+        
+        for (CompletableFuture<Void> future : drained) {
+            if (future != null) join(future);
+        }
+    }
+    
+    @Override
+    public void close() throws Exception {
+        try {
+            destroy();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+    
+    public synchronized void destroy() throws Throwable {
+        copiers.shutdown();
+        
+        for (int i = 0; i < slots(); i++) {
+            streams[i].sync();
+            done[i].destroy();
+            streams[i].destroy();
+            
+            int res = CUDA.driver().memFreeHost(chunks[i]);
+            if (res != 0) throw new RuntimeException("cuMemFreeHost failed: " + res);
+        }
+    }
+    
+    private long chunkCount(long bytes) {
+        return (bytes + chunkSize - 1) / chunkSize;
+    }
+    
+    /**
+     * On every exit the chunks must be idle again: no copy thread or stream may still be using them.
+     */
+    private void drain(CompletableFuture<Void>[] copies) throws Throwable {
+        for (CompletableFuture<Void> copy : copies) {
+            if (copy != null) copy.exceptionally(e -> null).join();
+        }
+        
+        for (CudaStream stream : streams) {
+            stream.sync();
+        }
+    }
+    
+    private static void join(CompletableFuture<Void> future) throws Throwable {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+}
\ No newline at end of file
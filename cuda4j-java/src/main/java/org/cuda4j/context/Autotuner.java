@@ -0,0 +1,256 @@
+package org.cuda4j.context;
+
+import org.cuda4j.device.CudaDevice;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Picks the block size of {@link CudaFunction#launch1D} by timing it.
+ * <p>
+ * The first launch of a function for a problem-size bucket (the next power of two of {@code n}) on a device model
+ * times every candidate block size with events, on the caller's own arguments and stream, and keeps the fastest.
+ * Later launches in that bucket read the winner from memory. Winners are also written to a properties file, keyed
+ * by function name, device name and compute capability, so the next process starts tuned. Writing the file is best
+ * effort.
+ * <p>
+ * Tuning launches the kernel {@code 1 + repetitions} times per candidate, so only install a tuner when repeating a
+ * launch is harmless, e.g. when its outputs do not feed its inputs.
+ */
+public final class Autotuner {
+    
+    public static final int DEFAULT_REPETITIONS = 5;
+    
+    private final Path file;
+    private final int repetitions;
+    private final Map<String, Integer> results = new ConcurrentHashMap<>();
+    private final Map<Long, String> devices = new ConcurrentHashMap<>();
+    private final Map<CudaFunction, String[]> keys = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder tunings = new LongAdder();
+    
+    /**
+     * @param file where winners are loaded from and stored, or {@code null} to keep them in memory only
+     */
+    public Autotuner(Path file, int repetitions) {
+        if (repetitions < 1) {
+            throw new IllegalArgumentException("Need at least one timed repetition: " + repetitions);
+        }
+        
+        this.file = file;
+        this.repetitions = repetitions;
+        load();
+    }
+    
+    public Autotuner(Path file) {
+        this(file, DEFAULT_REPETITIONS);
+    }
+    
+    /**
+     * Results under {@code ~/.cache/cuda4j/autotune.properties}.
+     */
+    public static Autotuner inUserHome() {
+        return new Autotuner(Path.of(System.getProperty("user.home"), ".cache", "cuda4j", "autotune.properties"));
+    }
+    
+    public Path file() {
+        return file;
+    }
+    
+    /**
+     * The block size to launch {@code function} with over {@code n} elements, tuning it first if this bucket has
+     * not been seen on this device model.
+     */
+    public int blockSize(CudaFunction function, long n, KernelArgs args, CudaStream stream) throws Throwable {
+        String key = key(function, n);
+        Integer cached = results.get(key);
+        
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        
+        synchronized (this) {
+            cached = results.get(key);
+            if (cached != null) return cached;
+            
+            int best = tune(function, n, args, stream);
+            results.put(key, best);
+            tunings.increment();
+            store();
+            return best;
+        }
+    }
+    
+    /**
+     * Winners found so far, by key.
+     */
+    public Map<String, Integer> results() {
+        return Map.copyOf(results);
+    }
+    
+    public long hits() {
+        return hits.sum();
+    }
+    
+    public long tunings() {
+        return tunings.sum();
+    }
+    
+    /**
+     * Power-of-two bucket of a problem size: {@code n} in {@code (2^(b-1), 2^b]} maps to {@code b}.
+     */
+    static int bucket(long n) {
+        return n <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(n - 1);
+    }
+    
+    private int tune(CudaFunction function, long n, KernelArgs args, CudaStream stream) throws Throwable {
+        int best = 0;
+        float bestMillis = Float.MAX_VALUE;
+        
+        CudaEvent start = CudaEvent.create(true);
+        CudaEvent end = CudaEvent.create(true);
+        
+        try {
+            for (int blockSize : candidates(function, n)) {
+                check(function.launch1D(n, blockSize, args, stream));
+                start.record(stream);
+                
+                for (int i = 0; i < repetitions; i++) {
+                    check(function.launch1D(n, blockSize, args, stream));
+                }
+                
+                end.record(stream);
+                end.synchronize();
+                
+                float millis = end.elapsedMillis(start);
+                
+                if (millis < bestMillis) {
+                    bestMillis = millis;
+                    best = blockSize;
+                }
+            }
+        } finally {
+            start.destroy();
+            end.destroy();
+        }
+        
+        return best;
+    }
+    
+    /**
+     * Whole warps in powers of two up to the kernel's limit, plus the occupancy calculator's pick. Blocks much larger
+     * than the problem only add idle threads and are left out.
+     */
+    private static List<Integer> candidates(CudaFunction function, long n) throws Throwable {
+        int limit = function.maxThreadsPerBlock();
+        long useful = Math.max(32, Long.highestOneBit(Math.max(1, n - 1)) << 1);
+        
+        TreeSet<Integer> sizes = new TreeSet<>();
+        for (int size = 32; size <= limit && size <= useful; size <<= 1) sizes.add(size);
+        
+        int suggested = function.suggestBlockSize().blockSize();
+        if (suggested <= limit) sizes.add(suggested);
+        
+        return new ArrayList<>(sizes);
+    }
+    
+    /**
+     * Built once per function and bucket. A function belongs to the context of its module, so its device is fixed
+     * and later launches skip both the device lookup and the string concatenation.
+     */
+    private String key(CudaFunction function, long n) throws Throwable {
+        String[] buckets = keys.computeIfAbsent(function, ignored -> new String[Long.SIZE + 1]);
+        int bucket = bucket(n);
+        String key = buckets[bucket];
+        
+        if (key == null) {
+            String name = function.name() != null ? function.name() : "0x" + Long.toHexString(function.handle().address());
+            key = name + "|" + device() + "|" + bucket;
+            buckets[bucket] = key;
+        }
+        
+        return key;
+    }
+    
+    /**
+     * Identifies the current device by model rather than ordinal, so stored results carry over between machines with
+     * the same GPU. Looked up once per context.
+     */
+    private String device() throws Throwable {
+        CudaContext context = CudaContext.current();
+        long contextKey = context == null ? 0 : context.handle().address();
+        String device = devices.get(contextKey);
+        
+        if (device == null) {
+            CudaDevice current = CudaDevice.current();
+            device = current.getName() + " sm_" + current.computeCapability();
+            devices.put(contextKey, device);
+        }
+        
+        return device;
+    }
+    
+    private void load() {
+        if (file == null || !Files.isRegularFile(file)) return;
+        
+        Properties properties = new Properties();
+        
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            // unreadable results only mean tuning again
+            return;
+        }
+        
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                results.put(key, Integer.parseInt(properties.getProperty(key).trim()));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+    }
+    
+    private void store() {
+        if (file == null) return;
+        
+        Properties properties = new Properties();
+        results.forEach((key, blockSize) -> properties.setProperty(key, Integer.toString(blockSize)));
+        
+        Path temp = null;
+        
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "cuda4j autotuner: function|device|size bucket = block size");
+            }
+            
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            try {
+                if (temp != null) Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+    
+    private static void check(int res) {
+        if (res != 0) {
+            throw new RuntimeException("cuLaunchKernel failed: " + res);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,269 @@
+package org.cuda4j.context;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.driver.CudaDriver;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static java.lang.foreign.ValueLayout.*;
+
+/**
+ * Records launches, copies, memsets and event operations into an off-heap command list and issues the whole list
+ * to a stream with a single driver call, instead of one downcall with its own marshalling and error check per
+ * operation.
+ * <p>
+ * Commands run in recording order on the stream passed to {@link #submit}, and a list can be submitted again until
+ * it is {@link #reset()}. Kernel arguments and heap sources of host-to-device copies are snapshotted into the
+ * buffer when recorded, so a {@link KernelArgs} frame may be changed and recorded again right away; native host
+ * memory is referenced as-is. Snapshots are read by the stream, so only reset or close the buffer once the stream
+ * has passed its last submission. Submissions are not broken down into launch and copy telemetry events.
+ */
+public final class CommandBuffer implements AutoCloseable {
+    
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long CHUNK_BYTES = 64 << 10;
+    
+    private final Arena arena = Arena.ofShared();
+    private final MemorySegment failedIndex = arena.allocate(JAVA_INT);
+    private final List<MemorySegment> chunks = new ArrayList<>();
+    private MemorySegment commands = arena.allocate((long) INITIAL_CAPACITY * CudaDriver.COMMAND_BYTES, 8);
+    private int count;
+    private int chunk;
+    private long chunkUsed;
+    
+    /**
+     * Number of commands recorded since the last {@link #reset()}.
+     */
+    public int size() {
+        return count;
+    }
+    
+    /**
+     * Forgets every recorded command, keeping the memory for the next recording.
+     */
+    public void reset() {
+        count = 0;
+        chunk = 0;
+        chunkUsed = 0;
+    }
+    
+    // ========================= RECORDING =========================
+    
+    /**
+     * @param args the argument frame to snapshot, or {@code null} for a kernel without parameters
+     */
+    public CommandBuffer launch(
+        CudaFunction function,
+        int gridX, int gridY, int gridZ,
+        int blockX, int blockY, int blockZ,
+        int sharedMemBytes,
+        KernelArgs args
+    ) {
+        MemorySegment params = args == null ? MemorySegment.NULL : snapshot(args);
+        MemorySegment command = next(CudaDriver.CMD_LAUNCH_KERNEL, sharedMemBytes);
+        
+        command.set(JAVA_LONG, 8, function.handle().address());
+        command.set(JAVA_LONG, 16, params.address());
+        command.set(JAVA_INT, 24, gridX);
+        command.set(JAVA_INT, 28, gridY);
+        command.set(JAVA_INT, 32, gridZ);
+        command.set(JAVA_INT, 36, blockX);
+        command.set(JAVA_INT, 40, blockY);
+        command.set(JAVA_INT, 44, blockZ);
+        return this;
+    }
+    
+    /**
+     * One thread per element over {@code n} elements, see {@link CudaFunction#launch1D(long, int, KernelArgs, CudaStream)}.
+     */
+    public CommandBuffer launch1D(CudaFunction function, long n, int blockSize, KernelArgs args) {
+        int grid = Math.toIntExact(Math.max(1, (n + blockSize - 1) / blockSize));
+        return launch(function, grid, 1, 1, blockSize, 1, 1, 0, args);
+    }
+    
+    public CommandBuffer copyToDevice(CudaBuffer dst, float[] data) {
+        return copyToDevice(dst, 0, MemorySegment.ofArray(data), 0, (long) data.length * Float.BYTES);
+    }
+    
+    public CommandBuffer copyToDevice(CudaBuffer dst, int[] data) {
+        return copyToDevice(dst, 0, MemorySegment.ofArray(data), 0, (long) data.length * Integer.BYTES);
+    }
+    
+    /**
+     * A heap {@code src} is snapshotted now; a native one is read when the command runs.
+     */
+    public CommandBuffer copyToDevice(CudaBuffer dst, long dstOffset, MemorySegment src, long srcOffset, long bytes) {
+        Objects.checkFromIndexSize(dstOffset, bytes, dst.length());
+        MemorySegment source = src.asSlice(srcOffset, bytes);
+        
+        if (!source.isNative()) {
+            MemorySegment copy = data(bytes);
+            MemorySegment.copy(source, 0, copy, 0, bytes);
+            source = copy;
+        }
+        
+        MemorySegment command = next(CudaDriver.CMD_MEMCPY_HTOD, 0);
+        command.set(JAVA_LONG, 8, dst.handle().address());
+        command.set(JAVA_LONG, 16, dst.offset() + dstOffset);
+        command.set(JAVA_LONG, 24, source.address());
+        command.set(JAVA_LONG, 32, bytes);
+        return this;
+    }
+    
+    /**
+     * {@code dst} must be native memory that stays valid until the command has run.
+     */
+    public CommandBuffer copyToHost(MemorySegment dst, long dstOffset, CudaBuffer src, long srcOffset, long bytes) {
+        Objects.checkFromIndexSize(srcOffset, bytes, src.length());
+        
+        if (!dst.isNative()) {
+            throw new IllegalArgumentException("Command list copies need native host memory");
+        }
+        
+        MemorySegment destination = dst.asSlice(dstOffset, bytes);
+        MemorySegment command = next(CudaDriver.CMD_MEMCPY_DTOH, 0);
+        
+        command.set(JAVA_LONG, 8, destination.address());
+        command.set(JAVA_LONG, 16, src.handle().address());
+        command.set(JAVA_LONG, 24, src.offset() + srcOffset);
+        command.set(JAVA_LONG, 32, bytes);
+        return this;
+    }
+    
+    public CommandBuffer copy(CudaBuffer dst, long dstOffset, CudaBuffer src, long srcOffset, long bytes) {
+        Objects.checkFromIndexSize(dstOffset, bytes, dst.length());
+        Objects.checkFromIndexSize(srcOffset, bytes, src.length());
+        
+        MemorySegment command = next(CudaDriver.CMD_MEMCPY_DTOD, 0);
+        command.set(JAVA_LONG, 8, dst.handle().address());
+        command.set(JAVA_LONG, 16, dst.offset() + dstOffset);
+        command.set(JAVA_LONG, 24, src.handle().address());
+        command.set(JAVA_LONG, 32, src.offset() + srcOffset);
+        command.set(JAVA_LONG, 40, bytes);
+        return this;
+    }
+    
+    public CommandBuffer memset(CudaBuffer dst, long dstOffset, byte value, long bytes) {
+        Objects.checkFromIndexSize(dstOffset, bytes, dst.length());
+        
+        MemorySegment command = next(CudaDriver.CMD_MEMSET, value);
+        command.set(JAVA_LONG, 8, dst.handle().address());
+        command.set(JAVA_LONG, 16, dst.offset() + dstOffset);
+        command.set(JAVA_LONG, 24, bytes);
+        return this;
+    }
+    
+    public CommandBuffer record(CudaEvent event) {
+        next(CudaDriver.CMD_EVENT_RECORD, 0).set(JAVA_LONG, 8, event.handle().address());
+        return this;
+    }
+    
+    /**
+     * Makes the commands after this one wait until {@code event} has completed.
+     */
+    public CommandBuffer waitEvent(CudaEvent event) {
+        next(CudaDriver.CMD_STREAM_WAIT_EVENT, 0).set(JAVA_LONG, 8, event.handle().address());
+        return this;
+    }
+    
+    // ========================= SUBMISSION =========================
+    
+    /**
+     * Issues every recorded command to {@code stream} in one driver call. If a command fails, the ones before it
+     * have been issued and the ones after it have not; the exception names the failing command's index.
+     */
+    public void submit(CudaStream stream) throws Throwable {
+        if (count == 0) return;
+        
+        MemorySegment target = stream == null ? MemorySegment.NULL : stream.handle();
+        int res = CUDA.driver().submitCommands(commands, count, target, failedIndex);
+        
+        if (res != 0) {
+            int index = failedIndex.get(JAVA_INT, 0);
+            throw new RuntimeException(name(index) + " failed: " + res + " (command " + index + " of " + count + ")");
+        }
+    }
+    
+    @Override
+    public void close() {
+        arena.close();
+    }
+    
+    private MemorySegment next(int opcode, int operand) {
+        long capacity = commands.byteSize() / CudaDriver.COMMAND_BYTES;
+        
+        if (count == capacity) {
+            // the old list stays in the arena until close; doubling keeps that under the size of the current one
+            MemorySegment grown = arena.allocate(commands.byteSize() * 2, 8);
+            MemorySegment.copy(commands, 0, grown, 0, commands.byteSize());
+            commands = grown;
+        }
+        
+        MemorySegment command = commands.asSlice((long) count++ * CudaDriver.COMMAND_BYTES, CudaDriver.COMMAND_BYTES);
+        command.fill((byte) 0);
+        command.set(JAVA_INT, 0, opcode);
+        command.set(JAVA_INT, 4, operand);
+        return command;
+    }
+    
+    /**
+     * Copies the argument values and builds a {@code void**} array pointing into the copy.
+     */
+    private MemorySegment snapshot(KernelArgs args) {
+        MemorySegment values = args.values();
+        MemorySegment copy = data(values.byteSize());
+        MemorySegment.copy(values, 0, copy, 0, values.byteSize());
+        
+        MemorySegment array = data(Math.max(args.size(), 1) * ADDRESS.byteSize());
+        
+        for (int i = 0; i < args.size(); i++) {
+            array.setAtIndex(ADDRESS, i, copy.asSlice(args.offset(i), args.byteSize(i)));
+        }
+        
+        return array;
+    }
+    
+    /**
+     * Bump-allocates 8-byte aligned snapshot memory from chunks that are kept and reused across resets.
+     */
+    private MemorySegment data(long bytes) {
+        long aligned = (bytes + 7) & ~7L;
+        
+        while (true) {
+            if (chunk == chunks.size()) {
+                chunks.add(arena.allocate(Math.max(CHUNK_BYTES, aligned), 8));
+            }
+            
+            MemorySegment current = chunks.get(chunk);
+            
+            if (chunkUsed + aligned <= current.byteSize()) {
+                MemorySegment slice = current.asSlice(chunkUsed, bytes);
+                chunkUsed += aligned;
+                return slice;
+            }
+            
+            chunk++;
+            chunkUsed = 0;
+        }
+    }
+    
+    private String name(int index) {
+        int opcode = commands.get(JAVA_INT, (long) index * CudaDriver.COMMAND_BYTES);
+        
+        return switch (opcode) {
+            case CudaDriver.CMD_LAUNCH_KERNEL -> "cuLaunchKernel";
+            case CudaDriver.CMD_MEMCPY_HTOD -> "cuMemcpyHtoDAsync";
+            case CudaDriver.CMD_MEMCPY_DTOH -> "cuMemcpyDtoHAsync";
+            case CudaDriver.CMD_MEMCPY_DTOD -> "cuMemcpyDtoDAsync";
+            case CudaDriver.CMD_MEMSET -> "cuMemsetD8Async";
+            case CudaDriver.CMD_EVENT_RECORD -> "cuEventRecord";
+            case CudaDriver.CMD_STREAM_WAIT_EVENT -> "cuStreamWaitEvent";
+            default -> "Command " + opcode;
+        };
+    }
+}
\ No newline at end of file
@@ -1,54 +1,52 @@
 package org.cuda4j.context;
 
+import org.cuda4j.CUDA;
 import org.cuda4j.CudaObject;
 import org.cuda4j.device.CudaDevice;
+import org.cuda4j.metrics.SyncEvent;
+import org.cuda4j.metrics.Telemetry;
 
-import java.lang.foreign.FunctionDescriptor;
 import java.lang.foreign.MemorySegment;
-import java.lang.foreign.ValueLayout;
-import java.lang.invoke.MethodHandle;
 
 public record CudaContext(MemorySegment handle) implements CudaObject {
     
-    public static final MethodHandle CUDA_CREATE_CONTEXT = LINKER.downcallHandle(
-        LOOKUP.find("cuda_create_context").orElse(null),
-        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
-    );
-    public static final MethodHandle CUDA_DESTROY_CONTEXT = LINKER.downcallHandle(
-        LOOKUP.find("cuda_destroy_context").orElse(null),
-        FunctionDescriptor.ofVoid(ValueLayout.ADDRESS)
-    );
-    public static final MethodHandle CUDA_SYNC_CONTEXT = LINKER.downcallHandle(
-        LOOKUP.find("cuda_sync_context").orElse(null),
-        FunctionDescriptor.of(ValueLayout.JAVA_INT)
-    );
-    public static final MethodHandle CUDA_CONTEXT_SET_CURRENT = LINKER.downcallHandle(
-        LOOKUP.find("cuda_context_set_current").orElse(null),
-        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
-    );
+    private static final ThreadLocal<CudaContext> CURRENT = new ThreadLocal<>();
     
     public static CudaContext create(CudaDevice device) throws Throwable {
-        MemorySegment ctx = (MemorySegment) CUDA_CREATE_CONTEXT.invoke(device.handle());
+        MemorySegment ctx = CUDA.driver().createContext(device.handle());
         
         if (ctx == null || ctx.address() == 0) {
             throw new RuntimeException("Failed to create CUDA context");
         }
         
-        return new CudaContext(ctx);
+        // cuCtxCreate makes the new context current for the calling thread
+        CudaContext context = new CudaContext(ctx);
+        CURRENT.set(context);
+        return context;
+    }
+    
+    /**
+     * The context last made current on this thread through cuda4j, or {@code null} if there is none.
+     */
+    public static CudaContext current() {
+        return CURRENT.get();
     }
     
     public CudaContext setCurrent() throws Throwable {
-        int res = (int) CUDA_CONTEXT_SET_CURRENT.invoke(handle);
+        int res = CUDA.driver().contextSetCurrent(handle);
         
         if (res != 0) {
             throw new RuntimeException("cuCtxSetCurrent failed: " + res);
         }
         
+        CURRENT.set(this);
         return this;
     }
     
     public CudaContext synchronize() throws Throwable {
-        int res = (int) CUDA_SYNC_CONTEXT.invoke();
+        SyncEvent event = Telemetry.beginSync();
+        int res = CUDA.driver().syncContext();
+        Telemetry.endSync(event, "context");
         
         if (res != 0) {
             throw new RuntimeException("cuCtxSynchronize failed, error " + res);
@@ -59,7 +57,8 @@ public record CudaContext(MemorySegment handle) implements CudaObject {
     
     @Override
     public void release() throws Throwable {
-        CUDA_DESTROY_CONTEXT.invoke(handle);
+        CUDA.driver().destroyContext(handle);
+        if (equals(CURRENT.get())) CURRENT.remove();
         CudaObject.super.release();
     }
-}
+}
\ No newline at end of file
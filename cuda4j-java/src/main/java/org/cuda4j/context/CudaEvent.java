@@ -0,0 +1,89 @@
+package org.cuda4j.context;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.CudaObject;
+import org.cuda4j.driver.CudaDriver;
+import org.cuda4j.metrics.SyncEvent;
+import org.cuda4j.metrics.Telemetry;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * A marker in a stream. Events give device-side timestamps and let one stream wait for a point in another
+ * through {@link CudaStream#waitEvent} without synchronizing the whole context.
+ */
+public record CudaEvent(MemorySegment handle) implements CudaObject {
+    
+    public static CudaEvent create() throws Throwable {
+        return create(true);
+    }
+    
+    /**
+     * Events without timing are cheaper to record and wait on; use them for pure dependencies.
+     */
+    public static CudaEvent create(boolean timing) throws Throwable {
+        int flags = timing ? CudaDriver.CU_EVENT_DEFAULT : CudaDriver.CU_EVENT_DISABLE_TIMING;
+        MemorySegment event = CUDA.driver().eventCreate(flags);
+        
+        if (event == null || event.address() == 0) {
+            throw new RuntimeException("cuEventCreate failed");
+        }
+        
+        return new CudaEvent(event);
+    }
+    
+    public CudaEvent record(CudaStream stream) throws Throwable {
+        int res = CUDA.driver().eventRecord(handle, stream == null ? MemorySegment.NULL : stream.handle());
+        
+        if (res != 0) {
+            throw new RuntimeException("cuEventRecord failed: " + res);
+        }
+        
+        return this;
+    }
+    
+    public boolean isCompleted() throws Throwable {
+        return CUDA.driver().eventQuery(handle) == 0;
+    }
+    
+    public void synchronize() throws Throwable {
+        SyncEvent event = Telemetry.beginSync();
+        int res = CUDA.driver().eventSynchronize(handle);
+        Telemetry.endSync(event, "event");
+        
+        if (res != 0) {
+            throw new RuntimeException("cuEventSynchronize failed: " + res);
+        }
+    }
+    
+    /**
+     * Device time in milliseconds between {@code start} and this event. Both must have completed.
+     */
+    public float elapsedMillis(CudaEvent start) throws Throwable {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment millis = arena.allocate(ValueLayout.JAVA_FLOAT);
+            int res = CUDA.driver().eventElapsedTime(millis, start.handle, handle);
+            
+            if (res != 0) {
+                throw new RuntimeException("cuEventElapsedTime failed: " + res);
+            }
+            
+            return millis.get(ValueLayout.JAVA_FLOAT, 0);
+        }
+    }
+    
+    @Override
+    public void dispose() throws Throwable {
+        destroy();
+    }
+    
+    public void destroy() throws Throwable {
+        int res = CUDA.driver().eventDestroy(handle);
+        
+        if (res != 0) {
+            throw new RuntimeException("cuEventDestroy failed: " + res);
+        }
+    }
+}
\ No newline at end of file
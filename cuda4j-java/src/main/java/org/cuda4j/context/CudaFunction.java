@@ -1,27 +1,24 @@
 package org.cuda4j.context;
 
+import org.cuda4j.CUDA;
 import org.cuda4j.CudaObject;
 import org.cuda4j.buffer.CudaPointer;
+import org.cuda4j.driver.CudaDriver;
+import org.cuda4j.metrics.LaunchEvent;
+import org.cuda4j.metrics.Telemetry;
 
-import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
-import java.lang.invoke.MethodHandle;
 
-public record CudaFunction(MemorySegment handle) implements CudaObject {
-    
-    private static final MethodHandle CUDA_LAUNCH_KERNEL = LINKER.downcallHandle(
-        LOOKUP.find("cuda_launch_kernel").orElse(null),
-        FunctionDescriptor.of(
-            ValueLayout.JAVA_INT, // return
-            ValueLayout.ADDRESS, // function
-            ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, // grid
-            ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, // block
-            ValueLayout.JAVA_INT, // shared mem
-            ValueLayout.ADDRESS, // stream
-            ValueLayout.ADDRESS // kernel params
-        )
-    );
+/**
+ * @param name the name the function was looked up by, reported in launch events; {@code null} if unknown
+ */
+public record CudaFunction(MemorySegment handle, String name) implements CudaObject {
+    
+    public CudaFunction(MemorySegment handle) {
+        this(handle, null);
+    }
     
     public int launch(
         int gridX, int gridY, int gridZ,
@@ -30,7 +27,8 @@ public record CudaFunction(MemorySegment handle) implements CudaObject {
         CudaStream stream,
         CudaPointer kernelParams
     ) throws Throwable {
-        return (int) CUDA_LAUNCH_KERNEL.invoke(
+        LaunchEvent event = Telemetry.beginLaunch();
+        int res = CUDA.driver().launchKernel(
             handle,
             gridX, gridY, gridZ,
             blockX, blockY, blockZ,
@@ -38,5 +36,91 @@ public record CudaFunction(MemorySegment handle) implements CudaObject {
             stream == null ? MemorySegment.NULL : stream.handle(),
             kernelParams == null ? MemorySegment.NULL : kernelParams.segment()
         );
+        
+        Telemetry.endLaunch(event, name, gridX, gridY, gridZ, blockX, blockY, blockZ, sharedMemBytes);
+        return res;
+    }
+    
+    /**
+     * Launches one thread per element over {@code n} elements; the kernel must ignore threads past {@code n}.
+     * The block size comes from the installed {@link Autotuner} if there is one, and from the occupancy
+     * calculator otherwise, which costs an extra driver call per launch.
+     */
+    public int launch1D(long n, KernelArgs args, CudaStream stream) throws Throwable {
+        Autotuner tuner = CUDA.autotuner();
+        int blockSize = tuner != null ? tuner.blockSize(this, n, args, stream) : suggestBlockSize().blockSize();
+        
+        return launch1D(n, blockSize, args, stream);
+    }
+    
+    public int launch1D(long n, int blockSize, KernelArgs args, CudaStream stream) throws Throwable {
+        int grid = Math.toIntExact(Math.max(1, (n + blockSize - 1) / blockSize));
+        return launch(grid, 1, 1, blockSize, 1, 1, 0, stream, args.pointer());
+    }
+    
+    // ========================= ATTRIBUTES & OCCUPANCY =========================
+    
+    /**
+     * The value of a {@code CU_FUNC_ATTRIBUTE_*} constant from {@link CudaDriver}.
+     */
+    public int attribute(int attribute) throws Throwable {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment value = arena.allocate(ValueLayout.JAVA_INT);
+            int res = CUDA.driver().functionGetAttribute(value, attribute, handle);
+            
+            if (res != 0) {
+                throw new RuntimeException("cuFuncGetAttribute failed: " + res);
+            }
+            
+            return value.get(ValueLayout.JAVA_INT, 0);
+        }
+    }
+    
+    /**
+     * The largest block this kernel can be launched with, given its register and shared memory usage.
+     */
+    public int maxThreadsPerBlock() throws Throwable {
+        return attribute(CudaDriver.CU_FUNC_ATTRIBUTE_MAX_THREADS_PER_BLOCK);
+    }
+    
+    public int registersPerThread() throws Throwable {
+        return attribute(CudaDriver.CU_FUNC_ATTRIBUTE_NUM_REGS);
+    }
+    
+    public OccupancySuggestion suggestBlockSize() throws Throwable {
+        return suggestBlockSize(0, 0);
+    }
+    
+    /**
+     * @param dynamicSharedMemory bytes of dynamic shared memory each block will use
+     * @param blockSizeLimit largest block size to consider, or {@code 0} for the kernel's own limit
+     */
+    public OccupancySuggestion suggestBlockSize(long dynamicSharedMemory, int blockSizeLimit) throws Throwable {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment out = arena.allocate(ValueLayout.JAVA_INT, 2);
+            int res = CUDA.driver().occupancyMaxPotentialBlockSize(out, handle, dynamicSharedMemory, blockSizeLimit);
+            
+            if (res != 0) {
+                throw new RuntimeException("cuOccupancyMaxPotentialBlockSize failed: " + res);
+            }
+            
+            return new OccupancySuggestion(out.getAtIndex(ValueLayout.JAVA_INT, 1), out.getAtIndex(ValueLayout.JAVA_INT, 0));
+        }
+    }
+    
+    /**
+     * How many blocks of {@code blockSize} threads can be resident on one multiprocessor at once.
+     */
+    public int maxActiveBlocksPerMultiprocessor(int blockSize, long dynamicSharedMemory) throws Throwable {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment blocks = arena.allocate(ValueLayout.JAVA_INT);
+            int res = CUDA.driver().occupancyMaxActiveBlocksPerMultiprocessor(blocks, handle, blockSize, dynamicSharedMemory);
+            
+            if (res != 0) {
+                throw new RuntimeException("cuOccupancyMaxActiveBlocksPerMultiprocessor failed: " + res);
+            }
+            
+            return blocks.get(ValueLayout.JAVA_INT, 0);
+        }
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+package org.cuda4j.context;
+
+/**
+ * Overlaps host-to-device copies, kernels and device-to-host copies of consecutive chunks on three streams.
+ * <p>
+ * Chunk {@code i} uses buffer slot {@code i % depth}. Compute waits for the chunk's upload, download waits for its
+ * compute, and the next upload into a slot waits until the previous download out of it has finished, so at most
+ * {@code depth} chunks are in flight and their buffers are never overwritten early.
+ */
+public final class CudaPipeline implements AutoCloseable {
+    
+    @FunctionalInterface
+    public interface Stage {
+        /**
+         * Enqueues the work for {@code chunk} on {@code stream} using the buffers of {@code slot}. Must not block.
+         */
+        void run(int chunk, int slot, CudaStream stream) throws Throwable;
+    }
+    
+    private final CudaStream upload;
+    private final CudaStream compute;
+    private final CudaStream download;
+    private final CudaEvent[] uploaded;
+    private final CudaEvent[] computed;
+    private final CudaEvent[] downloaded;
+    
+    public CudaPipeline(CudaStream upload, CudaStream compute, CudaStream download, int depth) throws Throwable {
+        if (depth < 1) throw new IllegalArgumentException("Pipeline depth must be positive: " + depth);
+        
+        this.upload = upload;
+        this.compute = compute;
+        this.download = download;
+        this.uploaded = new CudaEvent[depth];
+        this.computed = new CudaEvent[depth];
+        this.downloaded = new CudaEvent[depth];
+        
+        for (int i = 0; i < depth; i++) {
+            uploaded[i] = CudaEvent.create(false);
+            computed[i] = CudaEvent.create(false);
+            downloaded[i] = CudaEvent.create(false);
+        }
+    }
+    
+    public int depth() {
+        return uploaded.length;
+    }
+    
+    /**
+     * Enqueues all {@code chunks} and waits for the last download to finish.
+     */
+    public void run(int chunks, Stage uploadStage, Stage computeStage, Stage downloadStage) throws Throwable {
+        submit(chunks, uploadStage, computeStage, downloadStage);
+        download.sync();
+    }
+    
+    /**
+     * Enqueues all {@code chunks} without waiting; the returned stream completes after the last download.
+     */
+    public CudaStream submit(int chunks, Stage uploadStage, Stage computeStage, Stage downloadStage) throws Throwable {
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int slot = chunk % depth();
+            
+            if (chunk >= depth()) upload.waitEvent(downloaded[slot]);
+            uploadStage.run(chunk, slot, upload);
+            uploaded[slot].record(upload);
+            
+            compute.waitEvent(uploaded[slot]);
+            computeStage.run(chunk, slot, compute);
+            computed[slot].record(compute);
+            
+            download.waitEvent(computed[slot]);
+            downloadStage.run(chunk, slot, download);
+            downloaded[slot].record(download);
+        }
+        
+        return download;
+    }
+    
+    @Override
+    public void close() throws Exception {
+        try {
+            destroy();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+    
+    /**
+     * Waits for the last download and destroys the events; the streams are left to their owner.
+     */
+    public void destroy() throws Throwable {
+        download.sync();
+        
+        for (int i = 0; i < depth(); i++) {
+            uploaded[i].destroy();
+            computed[i].destroy();
+            downloaded[i].destroy();
+        }
+    }
+}
\ No newline at end of file
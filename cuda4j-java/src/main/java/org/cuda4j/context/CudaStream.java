@@ -1,45 +1,179 @@
 package org.cuda4j.context;
 
+import org.cuda4j.CUDA;
 import org.cuda4j.CudaObject;
+import org.cuda4j.ResourceTracker;
+import org.cuda4j.buffer.CudaMemoryPool;
+import org.cuda4j.driver.CudaDriver;
+import org.cuda4j.graph.CudaGraph;
+import org.cuda4j.metrics.SyncEvent;
+import org.cuda4j.metrics.Telemetry;
 
-import java.lang.foreign.FunctionDescriptor;
 import java.lang.foreign.MemorySegment;
-import java.lang.foreign.ValueLayout;
-import java.lang.invoke.MethodHandle;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public record CudaStream(MemorySegment handle) implements CudaObject {
     
-    public static final MethodHandle CUDA_STREAM_DESTROY = LINKER.downcallHandle(
-        LOOKUP.find("cuda_stream_destroy").orElse(null),
-        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
-    );
-    public static final MethodHandle CUDA_STREAM_SYNC = LINKER.downcallHandle(
-        LOOKUP.find("cuda_stream_sync").orElse(null),
-        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
-    );
-    public static final MethodHandle CUDA_STREAM_QUERY = LINKER.downcallHandle(
-        LOOKUP.find("cuda_stream_query").orElse(null),
-        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
-    );
+    /**
+     * Addresses of the streams between {@link #beginCapture()} and {@link #endCapture()}.
+     */
+    private static final Set<Long> CAPTURING = ConcurrentHashMap.newKeySet();
     
-    public void sync() throws Throwable {
-        int res = (int) CUDA_STREAM_SYNC.invoke(handle);
+    private static final long MIN_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
     
+    public void sync() throws Throwable {
+        SyncEvent event = Telemetry.beginSync();
+        int res = CUDA.driver().streamSync(handle);
+        Telemetry.endSync(event, "stream");
+        
         if (res != 0) {
-            throw new RuntimeException("cuStreamSynchronized failed: " + res);
+            throw fault(new RuntimeException("cuStreamSynchronized failed: " + res));
         }
     }
     
     public boolean isCompleted() throws Throwable {
-        int res = (int) CUDA_STREAM_QUERY.invoke();
+        int res = CUDA.driver().streamQuery(handle);
         return res == 0;
     }
-
+    
+    /**
+     * Runs {@code callback} on a driver thread once all work enqueued so far has completed. The callback must be
+     * short and must not call into CUDA; use {@link #onComplete()} for anything else. Not allowed while the
+     * stream is capturing, since a callback recorded into a graph would only run on its first replay.
+     */
+    public void addCallback(Runnable callback) throws Throwable {
+        addCallback(callback, error -> {});
+    }
+    
+    /**
+     * Like {@link #addCallback(Runnable)}, with {@code failure} called instead if the stream faults first. A fault
+     * is noticed by the next {@link #sync()} or {@link #await()} on the stream.
+     */
+    public void addCallback(Runnable callback, Consumer<Throwable> failure) throws Throwable {
+        HostCallbacks.enqueue(this, callback, failure);
+    }
+    
+    /**
+     * Returns a future completed once all work enqueued so far has completed, or completed exceptionally with the
+     * stream's error if it faults. Dependent stages run on the common pool, never on the driver thread, so they
+     * may issue further CUDA calls.
+     */
+    public CompletableFuture<Void> onComplete() throws Throwable {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        addCallback(() -> future.completeAsync(() -> null), future::completeExceptionally);
+        return future;
+    }
+    
+    /**
+     * Waits for all work enqueued so far by parking instead of blocking inside the driver, so virtual threads
+     * release their carrier while waiting. A faulted stream never runs the completion callback, so the stream
+     * is also polled at a growing interval while parked; its error is thrown rather than waited on forever.
+     */
+    public void await() throws Throwable {
+        await(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Like {@link #await()}, giving up after {@code timeout}. Returns whether the stream got there in time.
+     */
+    public boolean await(long timeout, TimeUnit unit) throws Throwable {
+        CountDownLatch done = new CountDownLatch(1);
+        addCallback(done::countDown, error -> done.countDown());
+        
+        long budget = unit.toNanos(timeout);
+        long start = System.nanoTime();
+        long poll = MIN_POLL_NANOS;
+        
+        while (!done.await(Math.min(poll, budget - (System.nanoTime() - start)), TimeUnit.NANOSECONDS)) {
+            throwIfFaulted();
+            
+            if (System.nanoTime() - start >= budget) return false;
+            poll = Math.min(poll * 2, MAX_POLL_NANOS);
+        }
+        
+        throwIfFaulted();
+        return true;
+    }
+    
+    /**
+     * Throws the stream's error, if any; work still running is not an error.
+     */
+    private void throwIfFaulted() throws Throwable {
+        int res = CUDA.driver().streamQuery(handle);
+        
+        if (res != 0 && res != CudaDriver.CUDA_ERROR_NOT_READY) {
+            throw fault(new RuntimeException("cuStreamQuery failed: " + res));
+        }
+    }
+    
+    /**
+     * Hands {@code error} to the callbacks the faulted stream will never run.
+     */
+    private RuntimeException fault(RuntimeException error) {
+        HostCallbacks.fail(this, error);
+        return error;
+    }
+    
+    /**
+     * Makes all future work on this stream wait until {@code event} has completed.
+     */
+    public void waitEvent(CudaEvent event) throws Throwable {
+        int res = CUDA.driver().streamWaitEvent(handle, event.handle());
+        
+        if (res != 0) {
+            throw new RuntimeException("cuStreamWaitEvent failed: " + res);
+        }
+    }
+    
+    /**
+     * Starts recording the work issued to this stream into a graph instead of executing it.
+     */
+    public void beginCapture() throws Throwable {
+        int res = CUDA.driver().streamBeginCapture(handle);
+        
+        if (res != 0) {
+            throw new RuntimeException("cuStreamBeginCapture failed: " + res);
+        }
+        
+        CAPTURING.add(handle.address());
+    }
+    
+    public boolean isCapturing() {
+        return CAPTURING.contains(handle.address());
+    }
+    
+    public CudaGraph endCapture() throws Throwable {
+        CAPTURING.remove(handle.address());
+        MemorySegment graph = CUDA.driver().streamEndCapture(handle);
+        
+        if (graph == null || graph.address() == 0) {
+            throw new RuntimeException("cuStreamEndCapture failed");
+        }
+        
+        return new CudaGraph(graph);
+    }
+    
+    @Override
+    public void dispose() throws Throwable {
+        destroy();
+    }
+    
     public void destroy() throws Throwable {
-        int res = (int) CUDA_STREAM_DESTROY.invoke(handle);
-
+        ResourceTracker.untrack(this);
+        CAPTURING.remove(handle.address());
+        CudaMemoryPool pool = CUDA.memoryPool();
+        if (pool != null) pool.forgetStream(this);
+        
+        int res = CUDA.driver().streamDestroy(handle);
+        
         if (res != 0) {
             throw new RuntimeException("cuStreamDestroy_v2 failed: " + res);
         }
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,216 @@
+package org.cuda4j.context;
+
+import org.cuda4j.CUDA;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed set of streams handed out round-robin or to the least loaded one.
+ * <p>
+ * Work is tracked in batches: {@link #acquire} returns a stream, the caller enqueues work on it and {@link #release}
+ * marks the end of the batch with an event. When a stream already has {@code maxInFlight} unfinished batches,
+ * {@code acquire} blocks on the oldest one, so a fast producer cannot queue unbounded work ahead of the device.
+ */
+public final class CudaStreamPool implements AutoCloseable {
+    
+    public enum Policy {
+        ROUND_ROBIN,
+        LEAST_LOADED
+    }
+    
+    public enum Priority {
+        NORMAL,
+        HIGH
+    }
+    
+    private final Lane[] normal;
+    private final Lane[] high;
+    private final Policy policy;
+    private final int maxInFlight;
+    private final AtomicInteger nextNormal = new AtomicInteger();
+    private final AtomicInteger nextHigh = new AtomicInteger();
+    
+    public CudaStreamPool(int streams) throws Throwable {
+        this(streams, 0, Policy.ROUND_ROBIN, 4);
+    }
+    
+    /**
+     * @param normalStreams streams created with the default priority
+     * @param highPriorityStreams streams created with the greatest priority the context supports
+     * @param maxInFlight unfinished batches allowed per stream before {@link #acquire} blocks
+     */
+    public CudaStreamPool(int normalStreams, int highPriorityStreams, Policy policy, int maxInFlight) throws Throwable {
+        if (normalStreams < 1 || highPriorityStreams < 0 || maxInFlight < 1) {
+            throw new IllegalArgumentException("Need at least one normal stream and one batch in flight");
+        }
+        
+        this.policy = policy;
+        this.maxInFlight = maxInFlight;
+        this.normal = new Lane[normalStreams];
+        this.high = new Lane[highPriorityStreams];
+        
+        int greatest = highPriorityStreams == 0 ? 0 : CUDA.getStreamPriorityRange()[1];
+        
+        for (int i = 0; i < normalStreams; i++) {
+            normal[i] = new Lane(CUDA.createStream());
+        }
+        
+        for (int i = 0; i < highPriorityStreams; i++) {
+            high[i] = new Lane(CUDA.createStream(greatest));
+        }
+    }
+    
+    /**
+     * Picks a stream, waiting for its oldest batch if it is already at the in-flight limit.
+     * Falls back to normal streams if the pool has no high priority ones.
+     */
+    public CudaStream acquire(Priority priority) throws Throwable {
+        Lane lane = select(priority);
+        
+        synchronized (lane) {
+            lane.retire();
+            
+            while (lane.inFlight.size() >= maxInFlight) {
+                CudaEvent oldest = lane.inFlight.poll();
+                oldest.synchronize();
+                lane.spare.push(oldest);
+            }
+        }
+        
+        return lane.stream;
+    }
+    
+    public CudaStream acquire() throws Throwable {
+        return acquire(Priority.NORMAL);
+    }
+    
+    /**
+     * Ends the batch of work enqueued on {@code stream} since it was acquired.
+     */
+    public void release(CudaStream stream) throws Throwable {
+        Lane lane = lane(stream);
+        
+        synchronized (lane) {
+            CudaEvent event = lane.spare.isEmpty() ? CudaEvent.create(false) : lane.spare.pop();
+            lane.inFlight.add(event.record(stream));
+        }
+    }
+    
+    /**
+     * Number of batches released on {@code stream} that have not finished yet.
+     */
+    public int inFlight(CudaStream stream) throws Throwable {
+        Lane lane = lane(stream);
+        
+        synchronized (lane) {
+            lane.retire();
+            return lane.inFlight.size();
+        }
+    }
+    
+    /**
+     * Creates a pipeline that uploads and downloads on high priority streams and computes on a normal one.
+     */
+    public CudaPipeline pipeline(int depth) throws Throwable {
+        Lane upload = next(high.length == 0 ? normal : high, high.length == 0 ? nextNormal : nextHigh);
+        Lane compute = next(normal, nextNormal);
+        Lane download = next(high.length == 0 ? normal : high, high.length == 0 ? nextNormal : nextHigh);
+        
+        return new CudaPipeline(upload.stream, compute.stream, download.stream, depth);
+    }
+    
+    public List<CudaStream> streams() {
+        List<CudaStream> streams = new ArrayList<>(normal.length + high.length);
+        for (Lane lane : normal) streams.add(lane.stream);
+        for (Lane lane : high) streams.add(lane.stream);
+        return streams;
+    }
+    
+    public void sync() throws Throwable {
+        for (CudaStream stream : streams()) {
+            stream.sync();
+            inFlight(stream);
+        }
+    }
+    
+    @Override
+    public void close() throws Exception {
+        try {
+            destroy();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+    
+    /**
+     * Waits for all streams and destroys them together with their events.
+     */
+    public void destroy() throws Throwable {
+        sync();
+        
+        for (Lane[] lanes : new Lane[][] { normal, high }) {
+            for (Lane lane : lanes) {
+                for (CudaEvent event : lane.spare) event.destroy();
+                lane.stream.destroy();
+            }
+        }
+    }
+    
+    private Lane select(Priority priority) throws Throwable {
+        Lane[] lanes = priority == Priority.HIGH && high.length > 0 ? high : normal;
+        AtomicInteger counter = lanes == high ? nextHigh : nextNormal;
+        
+        if (policy == Policy.ROUND_ROBIN) return next(lanes, counter);
+        
+        Lane best = lanes[0];
+        int bestLoad = Integer.MAX_VALUE;
+        
+        for (Lane lane : lanes) {
+            int load;
+            
+            synchronized (lane) {
+                lane.retire();
+                load = lane.inFlight.size();
+            }
+            
+            if (load < bestLoad) {
+                best = lane;
+                bestLoad = load;
+            }
+        }
+        
+        return best;
+    }
+    
+    private Lane lane(CudaStream stream) {
+        for (Lane lane : normal) if (lane.stream.equals(stream)) return lane;
+        for (Lane lane : high) if (lane.stream.equals(stream)) return lane;
+        throw new IllegalArgumentException("Stream does not belong to this pool: " + stream);
+    }
+    
+    private static Lane next(Lane[] lanes, AtomicInteger counter) {
+        return lanes[Math.floorMod(counter.getAndIncrement(), lanes.length)];
+    }
+    
+    private static final class Lane {
+        
+        private final CudaStream stream;
+        private final ArrayDeque<CudaEvent> inFlight = new ArrayDeque<>();
+        private final ArrayDeque<CudaEvent> spare = new ArrayDeque<>();
+        
+        private Lane(CudaStream stream) {
+            this.stream = stream;
+        }
+        
+        private void retire() throws Throwable {
+            while (!inFlight.isEmpty() && inFlight.peek().isCompleted()) {
+                spare.push(inFlight.poll());
+            }
+        }
+    }
+}
\ No newline at end of file
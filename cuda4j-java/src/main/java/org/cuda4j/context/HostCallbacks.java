@@ -0,0 +1,105 @@
+package org.cuda4j.context;
+
+import org.cuda4j.CUDA;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Bridges {@code cuLaunchHostFunc} to Java callbacks through a single upcall stub.
+ * <p>
+ * The user data pointer carries an id rather than a real address, so nothing has to stay pinned while the
+ * callback is queued. Each id is consumed on its first call, which is why callbacks are refused on capturing
+ * streams: a replayed graph would find the id gone after its first launch.
+ * <p>
+ * A faulted stream never calls the callbacks queued on it. Once the fault is observed, each of them gets the
+ * stream's error through its failure path instead, so futures complete and resources held for it are returned.
+ */
+final class HostCallbacks {
+    
+    private static final Map<Long, Pending> PENDING = new ConcurrentHashMap<>();
+    private static final AtomicLong IDS = new AtomicLong();
+    private static final MemorySegment STUB;
+    
+    static {
+        try {
+            STUB = Linker.nativeLinker().upcallStub(
+                MethodHandles.lookup().findStatic(
+                    HostCallbacks.class,
+                    "invoke",
+                    MethodType.methodType(void.class, MemorySegment.class)
+                ),
+                FunctionDescriptor.ofVoid(ValueLayout.ADDRESS),
+                Arena.global()
+            );
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    private HostCallbacks() {
+    }
+    
+    static void enqueue(CudaStream stream, Runnable callback, Consumer<Throwable> failure) throws Throwable {
+        if (stream.isCapturing()) {
+            throw new IllegalStateException("Host callbacks cannot be captured into a graph");
+        }
+        
+        long id = IDS.incrementAndGet();
+        PENDING.put(id, new Pending(stream.handle().address(), callback, failure));
+        
+        int res = CUDA.driver().launchHostFunc(stream.handle(), STUB, MemorySegment.ofAddress(id));
+        
+        if (res != 0) {
+            PENDING.remove(id);
+            throw new RuntimeException("cuLaunchHostFunc failed: " + res);
+        }
+    }
+    
+    static int pending() {
+        return PENDING.size();
+    }
+    
+    /**
+     * Fails the callbacks queued on a faulted stream, which the driver will never call.
+     */
+    static void fail(CudaStream stream, Throwable error) {
+        long address = stream.handle().address();
+        
+        for (Map.Entry<Long, Pending> entry : PENDING.entrySet()) {
+            if (entry.getValue().stream() == address && PENDING.remove(entry.getKey(), entry.getValue())) {
+                run(() -> entry.getValue().failure().accept(error));
+            }
+        }
+    }
+    
+    /**
+     * Runs on a driver thread: an exception escaping an upcall would crash the VM, so none may leave.
+     */
+    private static void invoke(MemorySegment userData) {
+        Pending pending = PENDING.remove(userData.address());
+        if (pending == null) return;
+        
+        run(pending.callback());
+    }
+    
+    private static void run(Runnable callback) {
+        try {
+            callback.run();
+        } catch (Throwable t) {
+            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), t);
+        }
+    }
+    
+    private record Pending(long stream, Runnable callback, Consumer<Throwable> failure) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,126 @@
+package org.cuda4j.context;
+
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.buffer.CudaPointer;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+import static java.lang.foreign.ValueLayout.*;
+
+/**
+ * Reusable {@code void**} argument frame for {@link CudaFunction#launch}, passed through {@link #pointer()}.
+ * <p>
+ * The frame is laid out once for a kernel signature: one slot per parameter plus the pointer array the
+ * driver expects, all owned by a private arena that is freed on {@link #close()}. Slots are overwritten
+ * in place between launches and device pointers are cached per buffer, so relaunching with the same
+ * frame performs no allocation and no extra downcalls.
+ */
+public final class KernelArgs implements AutoCloseable {
+    
+    private final Arena arena = Arena.ofShared();
+    private final ValueLayout[] parameters;
+    private final long[] offsets;
+    private final MemorySegment values;
+    private final CudaPointer pointers;
+    private final CudaBuffer[] buffers;
+    
+    public KernelArgs(ValueLayout... parameters) {
+        this.parameters = parameters.clone();
+        this.offsets = new long[parameters.length];
+        this.buffers = new CudaBuffer[parameters.length];
+        
+        long size = 0;
+        
+        for (int i = 0; i < parameters.length; i++) {
+            long alignment = parameters[i].byteAlignment();
+            size = (size + alignment - 1) / alignment * alignment;
+            offsets[i] = size;
+            size += parameters[i].byteSize();
+        }
+        
+        this.values = arena.allocate(Math.max(size, 1), 8);
+        MemorySegment array = arena.allocate(MemoryLayout.sequenceLayout(Math.max(parameters.length, 1), ADDRESS));
+        
+        for (int i = 0; i < parameters.length; i++) {
+            array.setAtIndex(ADDRESS, i, values.asSlice(offsets[i], parameters[i].byteSize()));
+        }
+        
+        this.pointers = new CudaPointer(array);
+    }
+    
+    public int size() {
+        return parameters.length;
+    }
+    
+    public KernelArgs setBuffer(int index, CudaBuffer buffer) throws Throwable {
+        if (buffers[index] == buffer) return this;
+        
+        checkSlot(index, long.class, MemorySegment.class);
+        values.set(JAVA_LONG_UNALIGNED, offsets[index], buffer.devicePointer());
+        buffers[index] = buffer;
+        return this;
+    }
+    
+    public KernelArgs setInt(int index, int value) {
+        checkSlot(index, int.class, int.class);
+        values.set(JAVA_INT_UNALIGNED, offsets[index], value);
+        return this;
+    }
+    
+    public KernelArgs setLong(int index, long value) {
+        checkSlot(index, long.class, long.class);
+        values.set(JAVA_LONG_UNALIGNED, offsets[index], value);
+        buffers[index] = null;
+        return this;
+    }
+    
+    public KernelArgs setFloat(int index, float value) {
+        checkSlot(index, float.class, float.class);
+        values.set(JAVA_FLOAT_UNALIGNED, offsets[index], value);
+        return this;
+    }
+    
+    public KernelArgs setDouble(int index, double value) {
+        checkSlot(index, double.class, double.class);
+        values.set(JAVA_DOUBLE_UNALIGNED, offsets[index], value);
+        return this;
+    }
+    
+    /**
+     * The {@code void**} array to pass as {@code kernelParams}. The same instance is returned every time.
+     */
+    public CudaPointer pointer() {
+        return pointers;
+    }
+    
+    /**
+     * The argument values, packed at {@link #offset} of each parameter.
+     */
+    MemorySegment values() {
+        return values;
+    }
+    
+    long offset(int index) {
+        return offsets[index];
+    }
+    
+    long byteSize(int index) {
+        return parameters[index].byteSize();
+    }
+    
+    @Override
+    public void close() {
+        arena.close();
+    }
+    
+    private void checkSlot(int index, Class<?> carrier, Class<?> alternative) {
+        Class<?> actual = parameters[index].carrier();
+        
+        if (actual != carrier && actual != alternative) {
+            throw new IllegalArgumentException("Parameter " + index + " is " + parameters[index] + ", not " + carrier);
+        }
+    }
+}
\ No newline at end of file
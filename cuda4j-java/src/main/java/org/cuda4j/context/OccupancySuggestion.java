@@ -0,0 +1,15 @@
+package org.cuda4j.context;
+
+/**
+ * Result of {@code cuOccupancyMaxPotentialBlockSize}: the block size that keeps the most threads resident per
+ * multiprocessor, and the smallest grid that fills the whole device with such blocks.
+ */
+public record OccupancySuggestion(int blockSize, int minGridSize) {
+    
+    /**
+     * Blocks needed to cover {@code n} threads with one thread per element.
+     */
+    public int gridSize(long n) {
+        return Math.toIntExact((n + blockSize - 1) / blockSize);
+    }
+}
\ No newline at end of file
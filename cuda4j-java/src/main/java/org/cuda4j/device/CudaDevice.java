@@ -1,26 +1,87 @@
 package org.cuda4j.device;
 
+import org.cuda4j.CUDA;
 import org.cuda4j.CudaObject;
 import org.cuda4j.context.CudaContext;
+import org.cuda4j.driver.CudaDriver;
 
-import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
-import java.lang.invoke.MethodHandle;
 
 public record CudaDevice(MemorySegment handle, int index) implements CudaObject {
     
-    public static final MethodHandle CUDA_DEVICE_NAME = LINKER.downcallHandle(
-        LOOKUP.find("cuda_device_name").orElse(null),
-        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
-    );
-    
     public String getName() throws Throwable {
-        MemorySegment nameHandle = (MemorySegment) CUDA_DEVICE_NAME.invokeExact(handle);
-        return nameHandle.reinterpret(Long.MAX_VALUE).getString(0);
+        return CUDA.driver().deviceName(handle);
     }
     
     public CudaContext createContext() throws Throwable {
         return CudaContext.create(this);
     }
-}
+    
+    /**
+     * The device of the context current on this thread.
+     */
+    public static CudaDevice current() throws Throwable {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment ordinal = arena.allocate(ValueLayout.JAVA_INT);
+            int res = CUDA.driver().contextGetDevice(ordinal);
+            
+            if (res != 0) {
+                throw new RuntimeException("cuCtxGetDevice failed: " + res);
+            }
+            
+            return CUDA.createSystemDevice(ordinal.get(ValueLayout.JAVA_INT, 0));
+        }
+    }
+    
+    // ========================= ATTRIBUTES =========================
+    
+    /**
+     * The value of a {@code CU_DEVICE_ATTRIBUTE_*} constant from {@link CudaDriver}.
+     */
+    public int attribute(int attribute) throws Throwable {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment value = arena.allocate(ValueLayout.JAVA_INT);
+            int res = CUDA.driver().deviceGetAttribute(value, attribute, handle);
+            
+            if (res != 0) {
+                throw new RuntimeException("cuDeviceGetAttribute failed: " + res);
+            }
+            
+            return value.get(ValueLayout.JAVA_INT, 0);
+        }
+    }
+    
+    public int multiprocessorCount() throws Throwable {
+        return attribute(CudaDriver.CU_DEVICE_ATTRIBUTE_MULTIPROCESSOR_COUNT);
+    }
+    
+    public int maxThreadsPerBlock() throws Throwable {
+        return attribute(CudaDriver.CU_DEVICE_ATTRIBUTE_MAX_THREADS_PER_BLOCK);
+    }
+    
+    public int maxThreadsPerMultiprocessor() throws Throwable {
+        return attribute(CudaDriver.CU_DEVICE_ATTRIBUTE_MAX_THREADS_PER_MULTIPROCESSOR);
+    }
+    
+    public int maxSharedMemoryPerBlock() throws Throwable {
+        return attribute(CudaDriver.CU_DEVICE_ATTRIBUTE_MAX_SHARED_MEMORY_PER_BLOCK);
+    }
+    
+    public int maxSharedMemoryPerMultiprocessor() throws Throwable {
+        return attribute(CudaDriver.CU_DEVICE_ATTRIBUTE_MAX_SHARED_MEMORY_PER_MULTIPROCESSOR);
+    }
+    
+    public int warpSize() throws Throwable {
+        return attribute(CudaDriver.CU_DEVICE_ATTRIBUTE_WARP_SIZE);
+    }
+    
+    /**
+     * The compute capability as {@code 10 * major + minor}, e.g. {@code 89} for sm_89.
+     */
+    public int computeCapability() throws Throwable {
+        return 10 * attribute(CudaDriver.CU_DEVICE_ATTRIBUTE_COMPUTE_CAPABILITY_MAJOR)
+            + attribute(CudaDriver.CU_DEVICE_ATTRIBUTE_COMPUTE_CAPABILITY_MINOR);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,496 @@
+package org.cuda4j.device;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.buffer.CudaTransfer;
+import org.cuda4j.buffer.ShardedBuffer;
+import org.cuda4j.context.CudaContext;
+import org.cuda4j.context.CudaEvent;
+import org.cuda4j.context.CudaFunction;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.context.KernelArgs;
+import org.cuda4j.driver.CudaDriver;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Several GPUs used together: one context and one stream per device.
+ * <p>
+ * Sharded buffers split an array over the devices by range ({@link #scatter}, {@link #gather}) or keep a full copy
+ * on each of them ({@link #replicate}, {@link #allReduce}). Device-to-device traffic uses {@code cuMemcpyPeerAsync},
+ * which goes over the peer link once {@link #enablePeerAccess()} succeeded for a pair and through host memory
+ * otherwise. Methods that need a particular device make its context current on the calling thread and leave it
+ * current; use {@link #use(int)} before issuing work of your own.
+ */
+public final class CudaDeviceGroup implements AutoCloseable {
+    
+    @FunctionalInterface
+    public interface DeviceTask {
+        void run(int device, CudaContext context, CudaStream stream) throws Throwable;
+    }
+    
+    private static final String ADD_F32 = "cuda4j_add_f32";
+    private static final String PTX = """
+        .version 7.0
+        .target sm_52
+        .address_size 64
+        
+        .visible .entry cuda4j_add_f32(.param .u64 dst, .param .u64 src, .param .u32 n)
+        {
+            .reg .pred %p<2>;
+            .reg .b32 %r<6>;
+            .reg .f32 %f<4>;
+            .reg .b64 %rd<8>;
+            
+            ld.param.u64 %rd1, [dst];
+            ld.param.u64 %rd2, [src];
+            ld.param.u32 %r1, [n];
+            mov.u32 %r2, %ctaid.x;
+            mov.u32 %r3, %ntid.x;
+            mov.u32 %r4, %tid.x;
+            mad.lo.s32 %r5, %r2, %r3, %r4;
+            setp.ge.u32 %p1, %r5, %r1;
+            @%p1 bra DONE;
+            cvta.to.global.u64 %rd3, %rd1;
+            cvta.to.global.u64 %rd4, %rd2;
+            mul.wide.u32 %rd5, %r5, 4;
+            add.s64 %rd6, %rd3, %rd5;
+            add.s64 %rd7, %rd4, %rd5;
+            ld.global.f32 %f1, [%rd6];
+            ld.global.f32 %f2, [%rd7];
+            add.f32 %f3, %f1, %f2;
+            st.global.f32 [%rd6], %f3;
+        DONE:
+            ret;
+        }
+        """;
+    private static final int BLOCK_SIZE = 256;
+    
+    private final CudaDevice[] devices;
+    private final CudaContext[] contexts;
+    private final CudaStream[] streams;
+    private final boolean[][] peerAccess;
+    private final CudaFunction[] adders;
+    
+    private CudaDeviceGroup(int[] indices) throws Throwable {
+        if (indices.length == 0) {
+            throw new IllegalArgumentException("A device group needs at least one device");
+        }
+        
+        int count = indices.length;
+        this.devices = new CudaDevice[count];
+        this.contexts = new CudaContext[count];
+        this.streams = new CudaStream[count];
+        this.peerAccess = new boolean[count][count];
+        this.adders = new CudaFunction[count];
+        
+        for (int i = 0; i < count; i++) {
+            devices[i] = CUDA.createSystemDevice(indices[i]);
+            
+            if (devices[i].handle() == null || devices[i].handle().address() == 0) {
+                throw new IllegalArgumentException("No CUDA device " + indices[i]);
+            }
+        }
+        
+        for (int i = 0; i < count; i++) {
+            contexts[i] = devices[i].createContext();
+            streams[i] = CUDA.createStream();
+        }
+    }
+    
+    /**
+     * A group of every device in the node.
+     */
+    public static CudaDeviceGroup all() throws Throwable {
+        int count = CUDA.getDeviceCount();
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) indices[i] = i;
+        return new CudaDeviceGroup(indices);
+    }
+    
+    public static CudaDeviceGroup of(int... indices) throws Throwable {
+        return new CudaDeviceGroup(indices.clone());
+    }
+    
+    public int size() {
+        return devices.length;
+    }
+    
+    public CudaDevice device(int device) {
+        return devices[device];
+    }
+    
+    public CudaContext context(int device) {
+        return contexts[device];
+    }
+    
+    public CudaStream stream(int device) {
+        return streams[device];
+    }
+    
+    /**
+     * Makes the context of {@code device} current on the calling thread.
+     */
+    public CudaContext use(int device) throws Throwable {
+        return contexts[device].setCurrent();
+    }
+    
+    /**
+     * Runs {@code task} once per device with that device's context current. Work is issued device after device
+     * from the calling thread, and runs concurrently as long as the task only enqueues asynchronous work.
+     */
+    public void forEach(DeviceTask task) throws Throwable {
+        for (int i = 0; i < size(); i++) {
+            task.run(i, use(i), streams[i]);
+        }
+    }
+    
+    public void sync() throws Throwable {
+        for (CudaStream stream : streams) {
+            stream.sync();
+        }
+    }
+    
+    // ========================= PEER ACCESS =========================
+    
+    public boolean canAccessPeer(int device, int peer) throws Throwable {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment canAccess = arena.allocate(ValueLayout.JAVA_INT);
+            int res = CUDA.driver().deviceCanAccessPeer(devices[device].handle(), devices[peer].handle(), canAccess);
+            
+            if (res != 0) {
+                throw new RuntimeException("cuDeviceCanAccessPeer failed: " + res);
+            }
+            
+            return canAccess.get(ValueLayout.JAVA_INT, 0) != 0;
+        }
+    }
+    
+    /**
+     * Enables peer access in both directions for every pair of devices that supports it.
+     *
+     * @return the number of directed pairs with peer access
+     */
+    public int enablePeerAccess() throws Throwable {
+        int enabled = 0;
+        
+        for (int i = 0; i < size(); i++) {
+            for (int j = 0; j < size(); j++) {
+                if (i == j || peerAccess[i][j] || !canAccessPeer(i, j)) continue;
+                
+                use(i);
+                int res = CUDA.driver().contextEnablePeerAccess(contexts[j].handle());
+                
+                if (res != 0 && res != CudaDriver.CUDA_ERROR_PEER_ACCESS_ALREADY_ENABLED) {
+                    throw new RuntimeException("cuCtxEnablePeerAccess failed: " + res);
+                }
+                
+                peerAccess[i][j] = true;
+            }
+        }
+        
+        for (boolean[] row : peerAccess) {
+            for (boolean access : row) if (access) enabled++;
+        }
+        
+        return enabled;
+    }
+    
+    public boolean hasPeerAccess(int device, int peer) {
+        return peerAccess[device][peer];
+    }
+    
+    /**
+     * Enqueues a copy of {@code bytes} from {@code source} on {@code srcDevice} into {@code destination} on
+     * {@code dstDevice}, on the stream of the destination device.
+     */
+    public void copyPeer(
+        CudaBuffer destination, int dstDevice, long dstOffset,
+        CudaBuffer source, int srcDevice, long srcOffset,
+        long bytes
+    ) throws Throwable {
+        int res = CUDA.driver().memcpyPeerAsync(
+            destination.handle(), destination.offset() + dstOffset, contexts[dstDevice].handle(),
+            source.handle(), source.offset() + srcOffset, contexts[srcDevice].handle(),
+            bytes,
+            streams[dstDevice].handle()
+        );
+        
+        if (res != 0) {
+            throw new RuntimeException("cuMemcpyPeerAsync failed: " + res);
+        }
+    }
+    
+    // ========================= SHARDED BUFFERS =========================
+    
+    /**
+     * Allocates {@code length} elements split by range over the devices.
+     */
+    public ShardedBuffer allocate(long length, long elementBytes) throws Throwable {
+        long[] bounds = ShardedBuffer.split(length, size());
+        long[] offsets = new long[size()];
+        long[] counts = new long[size()];
+        
+        for (int i = 0; i < size(); i++) {
+            offsets[i] = bounds[i];
+            counts[i] = bounds[i + 1] - bounds[i];
+        }
+        
+        return allocate(offsets, counts, elementBytes, false);
+    }
+    
+    /**
+     * Allocates a full copy of {@code length} elements on every device.
+     */
+    public ShardedBuffer allocateReplicated(long length, long elementBytes) throws Throwable {
+        long[] counts = new long[size()];
+        Arrays.fill(counts, length);
+        return allocate(new long[size()], counts, elementBytes, true);
+    }
+    
+    /**
+     * Splits {@code data} over the devices and returns once every shard is on its device.
+     */
+    public ShardedBuffer scatter(float[] data) throws Throwable {
+        ShardedBuffer buffer = allocate(data.length, Float.BYTES);
+        
+        forEach((device, context, stream) -> {
+            int count = (int) buffer.count(device);
+            if (count > 0) buffer.shard(device).copyToDeviceAsync(data, (int) buffer.offset(device), count, 0, stream);
+        });
+        
+        sync();
+        return buffer;
+    }
+    
+    public ShardedBuffer scatter(int[] data) throws Throwable {
+        ShardedBuffer buffer = allocate(data.length, Integer.BYTES);
+        
+        forEach((device, context, stream) -> {
+            int count = (int) buffer.count(device);
+            if (count > 0) buffer.shard(device).copyToDeviceAsync(data, (int) buffer.offset(device), count, 0, stream);
+        });
+        
+        sync();
+        return buffer;
+    }
+    
+    /**
+     * Copies every shard of {@code buffer} back into its range of {@code data}, or the copy of the first device
+     * if the buffer is replicated.
+     */
+    public void gather(ShardedBuffer buffer, float[] data) throws Throwable {
+        List<CudaTransfer> transfers = new ArrayList<>(size());
+        
+        for (int i = 0; i < size(); i++) {
+            int count = (int) buffer.count(i);
+            if (count == 0 || (buffer.isReplicated() && i > 0)) continue;
+            
+            use(i);
+            transfers.add(buffer.shard(i).copyToHostAsync(data, (int) buffer.offset(i), count, 0, streams[i]));
+        }
+        
+        for (CudaTransfer transfer : transfers) {
+            transfer.await();
+        }
+    }
+    
+    public void gather(ShardedBuffer buffer, int[] data) throws Throwable {
+        List<CudaTransfer> transfers = new ArrayList<>(size());
+        
+        for (int i = 0; i < size(); i++) {
+            int count = (int) buffer.count(i);
+            if (count == 0 || (buffer.isReplicated() && i > 0)) continue;
+            
+            use(i);
+            transfers.add(buffer.shard(i).copyToHostAsync(data, (int) buffer.offset(i), count, 0, streams[i]));
+        }
+        
+        for (CudaTransfer transfer : transfers) {
+            transfer.await();
+        }
+    }
+    
+    /**
+     * Uploads {@code data} to the first device and broadcasts it to the others with peer copies.
+     */
+    public ShardedBuffer replicate(float[] data) throws Throwable {
+        ShardedBuffer buffer = allocateReplicated(data.length, Float.BYTES);
+        long bytes = (long) data.length * Float.BYTES;
+        
+        use(0);
+        buffer.shard(0).copyToDevice(data);
+        
+        for (int i = 1; i < size(); i++) {
+            use(i);
+            copyPeer(buffer.shard(i), i, 0, buffer.shard(0), 0, 0, bytes);
+        }
+        
+        sync();
+        return buffer;
+    }
+    
+    /**
+     * Sums the float replicas of all devices element-wise, leaving the total on every device.
+     * <p>
+     * This is a ring all-reduce: in {@code size() - 1} reduce-scatter steps each device passes one chunk to its
+     * successor, which adds it to its own copy; in as many all-gather steps the fully reduced chunks travel around
+     * the ring again. Each device sends and receives {@code 2 * (size() - 1) / size()} of the buffer in total,
+     * whatever the number of devices.
+     */
+    public void allReduce(ShardedBuffer replicas) throws Throwable {
+        if (!replicas.isReplicated() || replicas.elementBytes() != Float.BYTES) {
+            throw new IllegalArgumentException("allReduce needs replicated float buffers");
+        }
+        
+        int count = size();
+        if (count == 1) return;
+        
+        long[] bounds = ShardedBuffer.split(replicas.length(), count);
+        long chunk = bounds[1] - bounds[0];
+        
+        CudaBuffer[] scratch = new CudaBuffer[count];
+        CudaEvent[] ready = new CudaEvent[count];
+        KernelArgs[] args = new KernelArgs[count];
+        
+        try {
+            for (int i = 0; i < count; i++) {
+                use(i);
+                scratch[i] = CUDA.allocateUnpooled(Math.max(chunk, 1) * Float.BYTES);
+                ready[i] = CudaEvent.create(false);
+                args[i] = new KernelArgs(ValueLayout.JAVA_LONG, ValueLayout.JAVA_LONG, ValueLayout.JAVA_INT);
+            }
+            
+            barrier(ready);
+            
+            for (int step = 0; step < count - 1; step++) {
+                for (int i = 0; i < count; i++) {
+                    int to = (i + 1) % count;
+                    int part = Math.floorMod(i - step, count);
+                    long elements = bounds[part + 1] - bounds[part];
+                    if (elements == 0) continue;
+                    
+                    use(to);
+                    copyPeer(scratch[to], to, 0, replicas.shard(i), i, bounds[part] * Float.BYTES, elements * Float.BYTES);
+                    
+                    args[to]
+                        .setLong(0, replicas.shard(to).devicePointer() + bounds[part] * Float.BYTES)
+                        .setLong(1, scratch[to].devicePointer())
+                        .setInt(2, (int) elements);
+                    
+                    int res = adder(to).launch(
+                        (int) ((elements + BLOCK_SIZE - 1) / BLOCK_SIZE), 1, 1,
+                        BLOCK_SIZE, 1, 1,
+                        0,
+                        streams[to],
+                        args[to].pointer()
+                    );
+                    if (res != 0) throw new RuntimeException("cuLaunchKernel failed: " + res);
+                }
+                
+                barrier(ready);
+            }
+            
+            for (int step = 0; step < count - 1; step++) {
+                for (int i = 0; i < count; i++) {
+                    int to = (i + 1) % count;
+                    int part = Math.floorMod(i + 1 - step, count);
+                    long offset = bounds[part] * Float.BYTES;
+                    long bytes = (bounds[part + 1] - bounds[part]) * Float.BYTES;
+                    if (bytes == 0) continue;
+                    
+                    use(to);
+                    copyPeer(replicas.shard(to), to, offset, replicas.shard(i), i, offset, bytes);
+                }
+                
+                barrier(ready);
+            }
+        } finally {
+            sync();
+            
+            for (int i = 0; i < count; i++) {
+                if (args[i] != null) args[i].close();
+                if (ready[i] != null) ready[i].destroy();
+                if (scratch[i] != null) scratch[i].free();
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws Exception {
+        try {
+            destroy();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+    
+    /**
+     * Waits for every device, then destroys the streams and contexts.
+     */
+    public void destroy() throws Throwable {
+        sync();
+        
+        for (int i = 0; i < size(); i++) {
+            streams[i].destroy();
+            contexts[i].release();
+        }
+    }
+    
+    private ShardedBuffer allocate(long[] offsets, long[] counts, long elementBytes, boolean replicated) throws Throwable {
+        CudaBuffer[] shards = new CudaBuffer[size()];
+        
+        try {
+            for (int i = 0; i < size(); i++) {
+                use(i);
+                // empty shards still get a minimal allocation so every device has a valid buffer; the memory
+                // pool is bypassed since it could hand out a block freed on another device
+                shards[i] = CUDA.allocateUnpooled(Math.max(counts[i] * elementBytes, 1));
+            }
+        } catch (Throwable e) {
+            for (CudaBuffer shard : shards) if (shard != null) shard.free();
+            throw e;
+        }
+        
+        return new ShardedBuffer(shards, offsets, counts, elementBytes, replicated);
+    }
+    
+    /**
+     * Orders the next step after the previous one on both ring neighbours: its successor may still be reading a
+     * chunk this device is about to overwrite, and its predecessor may still be writing the chunk it will send.
+     */
+    private void barrier(CudaEvent[] ready) throws Throwable {
+        int count = size();
+        
+        for (int i = 0; i < count; i++) {
+            use(i);
+            ready[i].record(streams[i]);
+        }
+        
+        for (int i = 0; i < count; i++) {
+            use(i);
+            streams[i].waitEvent(ready[Math.floorMod(i - 1, count)]);
+            streams[i].waitEvent(ready[(i + 1) % count]);
+        }
+    }
+    
+    /**
+     * The add kernel, loaded into the context of {@code device} on first use.
+     */
+    private CudaFunction adder(int device) throws Throwable {
+        if (adders[device] == null) {
+            use(device);
+            adders[device] = CUDA.loadModule(PTX.getBytes(StandardCharsets.US_ASCII)).getFunction(ADD_F32);
+        }
+        
+        return adders[device];
+    }
+}
\ No newline at end of file
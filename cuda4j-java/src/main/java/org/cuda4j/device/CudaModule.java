@@ -1,43 +1,59 @@
 package org.cuda4j.device;
 
+import org.cuda4j.CUDA;
 import org.cuda4j.CudaObject;
+import org.cuda4j.ResourceTracker;
 import org.cuda4j.context.CudaFunction;
 
-import java.lang.foreign.Arena;
-import java.lang.foreign.FunctionDescriptor;
 import java.lang.foreign.MemorySegment;
-import java.lang.foreign.ValueLayout;
-import java.lang.invoke.MethodHandle;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public record CudaModule(MemorySegment handle) implements CudaObject {
     
-    public static final MethodHandle CUDA_MODULE_UNLOAD = LINKER.downcallHandle(
-        LOOKUP.find("cuda_module_unload").orElse(null),
-        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
-    );
-    private static final MethodHandle CUDA_MODULE_GET_FUNCTION = LINKER.downcallHandle(
-        LOOKUP.find("cuda_module_get_function").orElse(null),
-        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
-    );
+    /**
+     * Resolved functions per module handle, so repeated lookups skip the name marshalling and the downcall.
+     */
+    private static final Map<Long, Map<String, CudaFunction>> FUNCTIONS = new ConcurrentHashMap<>();
+    
+    /**
+     * Forgets every resolved function, since handles only mean something to the driver that returned them.
+     */
+    public static void clearFunctionCache() {
+        FUNCTIONS.clear();
+    }
     
     public CudaFunction getFunction(String name) throws Throwable {
-        try (Arena arena = Arena.ofConfined()) {
-            MemorySegment cName = arena.allocateFrom(name);
-            MemorySegment funcHandle = (MemorySegment) CUDA_MODULE_GET_FUNCTION.invoke(handle, cName);
-            
-            if (funcHandle == null || funcHandle.address() == 0) {
-                throw new RuntimeException("Failed to get function: " + name);
-            }
-            
-            return new CudaFunction(funcHandle);
+        Map<String, CudaFunction> functions = FUNCTIONS.computeIfAbsent(handle.address(), address -> new ConcurrentHashMap<>());
+        CudaFunction function = functions.get(name);
+        
+        if (function != null) {
+            return function;
         }
+        
+        MemorySegment funcHandle = CUDA.driver().moduleGetFunction(handle, name);
+        
+        if (funcHandle == null || funcHandle.address() == 0) {
+            throw new RuntimeException("Failed to get function: " + name);
+        }
+        
+        function = new CudaFunction(funcHandle, name);
+        CudaFunction raced = functions.putIfAbsent(name, function);
+        return raced == null ? function : raced;
+    }
+    
+    @Override
+    public void dispose() throws Throwable {
+        unload();
     }
     
     public void unload() throws Throwable {
-        int result = (int) CUDA_MODULE_UNLOAD.invoke(handle);
+        ResourceTracker.untrack(this);
+        FUNCTIONS.remove(handle.address());
+        int result = CUDA.driver().moduleUnload(handle);
         
         if (result != 0) {
             throw new RuntimeException("Failed to unload CUDA module (error code " + result + ")");
         }
     }
-}
+}
\ No newline at end of file
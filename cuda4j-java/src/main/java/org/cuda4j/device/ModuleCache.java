@@ -0,0 +1,185 @@
+package org.cuda4j.device;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.driver.CudaDriver;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * On-disk cache of compiled modules.
+ * <p>
+ * PTX is JIT-compiled once per device architecture and driver: the cubin is stored under a name derived from the
+ * SHA-256 of the PTX, the compute capability and the driver version, and later loads memory-map that file straight
+ * into {@code cuModuleLoadData} without going through the compiler again. Writing the cache is best effort; a
+ * cache that cannot be written only costs the next start its compilation.
+ */
+public final class ModuleCache {
+    
+    private final Path directory;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder hitNanos = new LongAdder();
+    private final LongAdder missNanos = new LongAdder();
+    
+    public ModuleCache(Path directory) {
+        this.directory = directory;
+    }
+    
+    /**
+     * Cache under {@code ~/.cache/cuda4j/modules}.
+     */
+    public static ModuleCache inUserHome() {
+        return new ModuleCache(Path.of(System.getProperty("user.home"), ".cache", "cuda4j", "modules"));
+    }
+    
+    public Path directory() {
+        return directory;
+    }
+    
+    public CudaModule load(byte[] ptx) throws Throwable {
+        long start = System.nanoTime();
+        Path file = directory.resolve(key(ptx) + ".cubin");
+        
+        if (Files.isRegularFile(file)) {
+            CudaModule module = loadCached(file);
+            
+            if (module != null) {
+                hits.increment();
+                hitNanos.add(System.nanoTime() - start);
+                return module;
+            }
+        }
+        
+        CudaModule module = compile(ptx, file);
+        misses.increment();
+        missNanos.add(System.nanoTime() - start);
+        return module;
+    }
+    
+    public long hits() {
+        return hits.sum();
+    }
+    
+    public long misses() {
+        return misses.sum();
+    }
+    
+    /**
+     * Total time spent in loads that had to compile, i.e. the cold-start cost the cache is meant to remove.
+     */
+    public long missNanos() {
+        return missNanos.sum();
+    }
+    
+    public long hitNanos() {
+        return hitNanos.sum();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(
+            "ModuleCache[%s, hits=%d (%.2f ms), misses=%d (%.2f ms)]",
+            directory, hits(), hitNanos() / 1e6, misses(), missNanos() / 1e6
+        );
+    }
+    
+    private String key(byte[] ptx) throws Throwable {
+        CudaDriver driver = CUDA.driver();
+        
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment capability = arena.allocate(ValueLayout.JAVA_INT, 2);
+            MemorySegment version = arena.allocate(ValueLayout.JAVA_INT);
+            
+            int res = driver.computeCapability(capability);
+            if (res != 0) throw new RuntimeException("cuDeviceGetAttribute failed: " + res);
+            
+            res = driver.driverVersion(version);
+            if (res != 0) throw new RuntimeException("cuDriverGetVersion failed: " + res);
+            
+            String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(ptx));
+            
+            return hash
+                + "-sm" + capability.getAtIndex(ValueLayout.JAVA_INT, 0) + capability.getAtIndex(ValueLayout.JAVA_INT, 1)
+                + "-" + version.get(ValueLayout.JAVA_INT, 0);
+        }
+    }
+    
+    private CudaModule loadCached(Path file) throws Throwable {
+        try (Arena arena = Arena.ofConfined(); FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MemorySegment image = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            MemorySegment handle = CUDA.driver().moduleLoadData(image);
+            
+            if (handle != null && handle.address() != 0) {
+                return new CudaModule(handle);
+            }
+        } catch (IOException ignored) {
+        }
+        
+        // Truncated or stale entry: drop it and compile again
+        Files.deleteIfExists(file);
+        return null;
+    }
+    
+    private CudaModule compile(byte[] ptx, Path file) throws Throwable {
+        CudaDriver driver = CUDA.driver();
+        
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment source = arena.allocate(ptx.length + 1L);
+            MemorySegment.copy(ptx, 0, source, ValueLayout.JAVA_BYTE, 0, ptx.length);
+            
+            MemorySegment imageSize = arena.allocate(ValueLayout.JAVA_LONG);
+            MemorySegment image = driver.compilePtx(source, imageSize);
+            
+            if (image == null || image.address() == 0) {
+                throw new RuntimeException("cuLinkComplete failed");
+            }
+            
+            try {
+                image = image.reinterpret(imageSize.get(ValueLayout.JAVA_LONG, 0));
+                MemorySegment handle = driver.moduleLoadData(image);
+                
+                if (handle == null || handle.address() == 0) {
+                    throw new RuntimeException("cuModuleLoadData failed");
+                }
+                
+                store(image, file);
+                return new CudaModule(handle);
+            } finally {
+                driver.freeImage(image);
+            }
+        }
+    }
+    
+    private void store(MemorySegment image, Path file) {
+        Path temp = null;
+        
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = image.asByteBuffer();
+                while (buffer.hasRemaining()) channel.write(buffer);
+            }
+            
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            try {
+                if (temp != null) Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,379 @@
+package org.cuda4j.driver;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Backend behind every CUDA call. Handles are opaque segments, failures are {@link MemorySegment#NULL}
+ * handles or non-zero {@code CUresult} codes, exactly like the exported {@code libcuda4j} symbols.
+ */
+public interface CudaDriver {
+    
+    int CUDA_SUCCESS = 0;
+    int CUDA_ERROR_INVALID_VALUE = 1;
+    int CUDA_ERROR_OUT_OF_MEMORY = 2;
+    int CUDA_ERROR_INVALID_HANDLE = 400;
+    int CUDA_ERROR_NOT_FOUND = 500;
+    int CUDA_ERROR_NOT_READY = 600;
+    int CUDA_ERROR_PEER_ACCESS_ALREADY_ENABLED = 704;
+    int CUDA_ERROR_LAUNCH_FAILED = 719;
+    
+    String name();
+    
+    void init() throws Throwable;
+    
+    // ========================= DEVICE & CONTEXT =========================
+    
+    int deviceCount() throws Throwable;
+    
+    MemorySegment createSystemDevice(int index) throws Throwable;
+    
+    String deviceName(MemorySegment device) throws Throwable;
+    
+    /**
+     * Writes the major and minor compute capability of the current context's device as two ints.
+     */
+    int computeCapability(MemorySegment majorMinor) throws Throwable;
+    
+    int driverVersion(MemorySegment version) throws Throwable;
+    
+    int CU_DEVICE_ATTRIBUTE_MAX_THREADS_PER_BLOCK = 1;
+    int CU_DEVICE_ATTRIBUTE_MAX_SHARED_MEMORY_PER_BLOCK = 8;
+    int CU_DEVICE_ATTRIBUTE_WARP_SIZE = 10;
+    int CU_DEVICE_ATTRIBUTE_MULTIPROCESSOR_COUNT = 16;
+    int CU_DEVICE_ATTRIBUTE_MAX_THREADS_PER_MULTIPROCESSOR = 39;
+    int CU_DEVICE_ATTRIBUTE_COMPUTE_CAPABILITY_MAJOR = 75;
+    int CU_DEVICE_ATTRIBUTE_COMPUTE_CAPABILITY_MINOR = 76;
+    int CU_DEVICE_ATTRIBUTE_MAX_SHARED_MEMORY_PER_MULTIPROCESSOR = 81;
+    
+    /**
+     * Writes the {@code CU_DEVICE_ATTRIBUTE_*} value of {@code device} as an int.
+     */
+    int deviceGetAttribute(MemorySegment value, int attribute, MemorySegment device) throws Throwable;
+    
+    /**
+     * Writes the ordinal of the current context's device as an int.
+     */
+    int contextGetDevice(MemorySegment ordinal) throws Throwable;
+    
+    MemorySegment createContext(MemorySegment device) throws Throwable;
+    
+    void destroyContext(MemorySegment context) throws Throwable;
+    
+    int contextSetCurrent(MemorySegment context) throws Throwable;
+    
+    int syncContext() throws Throwable;
+    
+    /**
+     * Writes {@code 1} as an int if contexts on {@code device} can map memory of {@code peerDevice}, {@code 0} otherwise.
+     */
+    int deviceCanAccessPeer(MemorySegment device, MemorySegment peerDevice, MemorySegment canAccess) throws Throwable;
+    
+    /**
+     * Lets the current context access memory allocated in {@code peerContext}.
+     */
+    int contextEnablePeerAccess(MemorySegment peerContext) throws Throwable;
+    
+    // ========================= STREAM =========================
+    
+    MemorySegment streamCreate() throws Throwable;
+    
+    /**
+     * Lower numbers are higher priorities, see {@link #streamPriorityRange}.
+     */
+    MemorySegment streamCreateWithPriority(int priority) throws Throwable;
+    
+    /**
+     * Writes the least and greatest stream priority of the current context as two {@code int}s.
+     */
+    int streamPriorityRange(MemorySegment leastAndGreatest) throws Throwable;
+    
+    int streamDestroy(MemorySegment stream) throws Throwable;
+    
+    int streamSync(MemorySegment stream) throws Throwable;
+    
+    int streamQuery(MemorySegment stream) throws Throwable;
+    
+    int streamWaitEvent(MemorySegment stream, MemorySegment event) throws Throwable;
+    
+    /**
+     * Enqueues a call to the C function {@code void function(void* userData)} once all preceding work on
+     * {@code stream} has completed. The function runs on a driver thread and must not call back into the driver.
+     */
+    int launchHostFunc(MemorySegment stream, MemorySegment function, MemorySegment userData) throws Throwable;
+    
+    // ========================= EVENT =========================
+    
+    int CU_EVENT_DEFAULT = 0;
+    int CU_EVENT_DISABLE_TIMING = 2;
+    
+    MemorySegment eventCreate(int flags) throws Throwable;
+    
+    int eventDestroy(MemorySegment event) throws Throwable;
+    
+    int eventRecord(MemorySegment event, MemorySegment stream) throws Throwable;
+    
+    int eventQuery(MemorySegment event) throws Throwable;
+    
+    int eventSynchronize(MemorySegment event) throws Throwable;
+    
+    /**
+     * Writes the milliseconds between two completed events as a {@code float} into {@code millis}.
+     */
+    int eventElapsedTime(MemorySegment millis, MemorySegment start, MemorySegment end) throws Throwable;
+    
+    // ========================= MODULE & FUNCTION =========================
+    
+    MemorySegment moduleLoad(String path) throws Throwable;
+    
+    MemorySegment moduleLoadData(MemorySegment image) throws Throwable;
+    
+    int moduleUnload(MemorySegment module) throws Throwable;
+    
+    MemorySegment moduleGetFunction(MemorySegment module, String name) throws Throwable;
+    
+    /**
+     * JIT-compiles null-terminated PTX into a cubin for the current context's device. The returned image is
+     * owned by the caller and released with {@link #freeImage}; its size is written to {@code imageSize}.
+     */
+    MemorySegment compilePtx(MemorySegment ptx, MemorySegment imageSize) throws Throwable;
+    
+    int freeImage(MemorySegment image) throws Throwable;
+    
+    int CU_FUNC_ATTRIBUTE_MAX_THREADS_PER_BLOCK = 0;
+    int CU_FUNC_ATTRIBUTE_SHARED_SIZE_BYTES = 1;
+    int CU_FUNC_ATTRIBUTE_NUM_REGS = 4;
+    
+    int functionGetAttribute(MemorySegment value, int attribute, MemorySegment function) throws Throwable;
+    
+    /**
+     * Writes the minimum grid size for full occupancy and the block size achieving it as two ints, for
+     * {@code dynamicSharedMemory} bytes per block and blocks of at most {@code blockSizeLimit} threads (0 for no limit).
+     */
+    int occupancyMaxPotentialBlockSize(
+        MemorySegment minGridAndBlockSize,
+        MemorySegment function,
+        long dynamicSharedMemory,
+        int blockSizeLimit
+    ) throws Throwable;
+    
+    /**
+     * Writes how many blocks of {@code blockSize} threads fit on one multiprocessor at once as an int.
+     */
+    int occupancyMaxActiveBlocksPerMultiprocessor(
+        MemorySegment blocks,
+        MemorySegment function,
+        int blockSize,
+        long dynamicSharedMemory
+    ) throws Throwable;
+    
+    int launchKernel(
+        MemorySegment function,
+        int gridX, int gridY, int gridZ,
+        int blockX, int blockY, int blockZ,
+        int sharedMemBytes,
+        MemorySegment stream,
+        MemorySegment kernelParams
+    ) throws Throwable;
+    
+    // ========================= COMMAND LIST =========================
+    
+    /**
+     * Size of one command in a command list. A command starts with its {@code CMD_*} opcode as an int, followed by
+     * an int and up to seven 8-byte fields, in the order of the corresponding single call:
+     * <ul>
+     *     <li>{@link #CMD_LAUNCH_KERNEL}: shared memory bytes, function, kernel params, then grid and block sizes as
+     *     six ints</li>
+     *     <li>{@link #CMD_MEMCPY_HTOD}: unused, buffer, offset, host, size</li>
+     *     <li>{@link #CMD_MEMCPY_DTOH}: unused, host, buffer, offset, size</li>
+     *     <li>{@link #CMD_MEMCPY_DTOD}: unused, destination buffer, offset, source buffer, offset, size</li>
+     *     <li>{@link #CMD_MEMSET}: byte value, buffer, offset, size</li>
+     *     <li>{@link #CMD_EVENT_RECORD} and {@link #CMD_STREAM_WAIT_EVENT}: unused, event</li>
+     * </ul>
+     */
+    int COMMAND_BYTES = 64;
+    
+    int CMD_LAUNCH_KERNEL = 1;
+    int CMD_MEMCPY_HTOD = 2;
+    int CMD_MEMCPY_DTOH = 3;
+    int CMD_MEMCPY_DTOD = 4;
+    int CMD_MEMSET = 5;
+    int CMD_EVENT_RECORD = 6;
+    int CMD_STREAM_WAIT_EVENT = 7;
+    
+    /**
+     * Issues {@code count} commands of {@link #COMMAND_BYTES} each to {@code stream}, in order, in a single call.
+     * Stops at the first command that fails, writes its index as an int into {@code failedIndex} and returns its
+     * result; commands before it have been issued, commands after it have not.
+     */
+    int submitCommands(MemorySegment commands, int count, MemorySegment stream, MemorySegment failedIndex) throws Throwable;
+    
+    // ========================= GRAPH =========================
+    
+    int streamBeginCapture(MemorySegment stream) throws Throwable;
+    
+    MemorySegment streamEndCapture(MemorySegment stream) throws Throwable;
+    
+    MemorySegment graphCreate() throws Throwable;
+    
+    int graphDestroy(MemorySegment graph) throws Throwable;
+    
+    /**
+     * Adds a kernel node depending on the {@code dependencyCount} node handles stored in {@code dependencies}.
+     * Argument values are copied out of {@code kernelParams} before returning.
+     */
+    MemorySegment graphAddKernelNode(
+        MemorySegment graph,
+        MemorySegment dependencies, int dependencyCount,
+        MemorySegment function,
+        int gridX, int gridY, int gridZ,
+        int blockX, int blockY, int blockZ,
+        int sharedMemBytes,
+        MemorySegment kernelParams
+    ) throws Throwable;
+    
+    MemorySegment graphAddMemcpyHtoDNode(
+        MemorySegment graph,
+        MemorySegment dependencies, int dependencyCount,
+        MemorySegment buffer, long offset,
+        MemorySegment host, long size
+    ) throws Throwable;
+    
+    MemorySegment graphAddMemcpyDtoHNode(
+        MemorySegment graph,
+        MemorySegment dependencies, int dependencyCount,
+        MemorySegment host,
+        MemorySegment buffer, long offset, long size
+    ) throws Throwable;
+    
+    MemorySegment graphAddMemsetNode(
+        MemorySegment graph,
+        MemorySegment dependencies, int dependencyCount,
+        MemorySegment buffer, long offset,
+        int value, long size
+    ) throws Throwable;
+    
+    MemorySegment graphInstantiate(MemorySegment graph) throws Throwable;
+    
+    int graphLaunch(MemorySegment graphExec, MemorySegment stream) throws Throwable;
+    
+    int graphExecKernelNodeSetParams(
+        MemorySegment graphExec,
+        MemorySegment node,
+        MemorySegment function,
+        int gridX, int gridY, int gridZ,
+        int blockX, int blockY, int blockZ,
+        int sharedMemBytes,
+        MemorySegment kernelParams
+    ) throws Throwable;
+    
+    int graphExecDestroy(MemorySegment graphExec) throws Throwable;
+    
+    // ========================= MEMORY =========================
+    
+    MemorySegment memAlloc(long size) throws Throwable;
+    
+    int memFree(MemorySegment buffer) throws Throwable;
+    
+    long bufferPtr(MemorySegment buffer) throws Throwable;
+    
+    int CU_MEM_ATTACH_GLOBAL = 1;
+    int CU_MEM_ATTACH_HOST = 2;
+    
+    int CU_DEVICE_CPU = -1;
+    
+    int CU_MEM_ADVISE_SET_READ_MOSTLY = 1;
+    int CU_MEM_ADVISE_UNSET_READ_MOSTLY = 2;
+    int CU_MEM_ADVISE_SET_PREFERRED_LOCATION = 3;
+    int CU_MEM_ADVISE_UNSET_PREFERRED_LOCATION = 4;
+    int CU_MEM_ADVISE_SET_ACCESSED_BY = 5;
+    int CU_MEM_ADVISE_UNSET_ACCESSED_BY = 6;
+    
+    /**
+     * Allocates memory addressable from the host and every device; {@link #bufferPtr} is valid on both sides.
+     * Freed with {@link #memFree}.
+     */
+    MemorySegment memAllocManaged(long size, int flags) throws Throwable;
+    
+    /**
+     * Migrates a range of a managed buffer to {@code device}, or to the host for {@link #CU_DEVICE_CPU}.
+     */
+    int memPrefetchAsync(MemorySegment buffer, long offset, long size, int device, MemorySegment stream) throws Throwable;
+    
+    int memAdvise(MemorySegment buffer, long offset, long size, int advice, int device) throws Throwable;
+    
+    MemorySegment memHostAlloc(long size) throws Throwable;
+    
+    int memFreeHost(MemorySegment host) throws Throwable;
+    
+    int memcpyHtoD(MemorySegment buffer, long offset, MemorySegment host, long size) throws Throwable;
+    
+    int memcpyDtoH(MemorySegment host, MemorySegment buffer, long offset, long size) throws Throwable;
+    
+    int memcpyDtoD(MemorySegment destination, long dstOffset, MemorySegment source, long srcOffset, long size) throws Throwable;
+    
+    int memcpyHtoDAsync(MemorySegment buffer, long offset, MemorySegment host, long size, MemorySegment stream) throws Throwable;
+    
+    int memcpyDtoHAsync(MemorySegment host, MemorySegment buffer, long offset, long size, MemorySegment stream) throws Throwable;
+    
+    int memcpyDtoDAsync(
+        MemorySegment destination, long dstOffset,
+        MemorySegment source, long srcOffset,
+        long size,
+        MemorySegment stream
+    ) throws Throwable;
+    
+    /**
+     * Sets {@code count} elements of {@code elementBytes} (1, 2 or 4) bytes each to the low bits of {@code value},
+     * like {@code cuMemsetD8Async}, {@code cuMemsetD16Async} and {@code cuMemsetD32Async}. {@code offset} must be
+     * aligned to the element size.
+     */
+    int memsetAsync(MemorySegment buffer, long offset, int value, int elementBytes, long count, MemorySegment stream) throws Throwable;
+    
+    /**
+     * Copies between buffers of two contexts, directly over the peer link if access is enabled and staged through
+     * the host otherwise.
+     */
+    int memcpyPeerAsync(
+        MemorySegment destination, long dstOffset, MemorySegment dstContext,
+        MemorySegment source, long srcOffset, MemorySegment srcContext,
+        long size,
+        MemorySegment stream
+    ) throws Throwable;
+    
+    // ========================= STRIDED MEMORY =========================
+    
+    int CU_MEMORYTYPE_HOST = 1;
+    int CU_MEMORYTYPE_DEVICE = 2;
+    
+    /**
+     * Allocates {@code height} rows of at least {@code widthBytes} bytes, padded so that each row starts aligned
+     * for elements of {@code elementBytes} (4, 8 or 16). The row pitch in bytes is written to {@code pitch} as a
+     * {@code long}. Freed with {@link #memFree}.
+     */
+    MemorySegment memAllocPitch(long widthBytes, long height, int elementBytes, MemorySegment pitch) throws Throwable;
+    
+    /**
+     * Copies {@code height} rows of {@code widthBytes} bytes. Each side is a {@code CU_MEMORYTYPE_*}: for host memory
+     * the segment is the host address, for device memory a buffer handle; {@code offset} is where the first row
+     * starts and {@code pitch} the distance between rows, in bytes.
+     */
+    int memcpy2DAsync(
+        int dstType, MemorySegment destination, long dstOffset, long dstPitch,
+        int srcType, MemorySegment source, long srcOffset, long srcPitch,
+        long widthBytes, long height,
+        MemorySegment stream
+    ) throws Throwable;
+    
+    /**
+     * Like {@link #memcpy2DAsync} for {@code depth} slices of {@code height} rows; a slice of each side spans
+     * {@code pitch * sliceHeight} bytes.
+     */
+    int memcpy3DAsync(
+        int dstType, MemorySegment destination, long dstOffset, long dstPitch, long dstSliceHeight,
+        int srcType, MemorySegment source, long srcOffset, long srcPitch, long srcSliceHeight,
+        long widthBytes, long height, long depth,
+        MemorySegment stream
+    ) throws Throwable;
+    
+    void releaseObject(MemorySegment handle) throws Throwable;
+}
\ No newline at end of file
@@ -0,0 +1,1103 @@
+package org.cuda4j.driver;
+
+import java.lang.foreign.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link CudaDriver} backed by {@code libcuda4j}.
+ * <p>
+ * Every handle starts out as a call site that links its symbol on the first call and then retargets itself to
+ * the real downcall, so loading this class neither touches the library nor pays for bindings that are never used.
+ */
+public class NativeDriver implements CudaDriver {
+    
+    public static final Linker LINKER = Linker.nativeLinker();
+    
+    private static final MethodHandle LINK;
+    
+    /**
+     * Every symbol bound below, checked by {@link #init()}.
+     */
+    private static final List<String> SYMBOLS = new ArrayList<>();
+    
+    /**
+     * Symbols the driver can do without: pinned host memory falls back to pageable memory.
+     */
+    private static final Set<String> OPTIONAL = Set.of("cuda_mem_host_alloc", "cuda_mem_free_host");
+    
+    static {
+        try {
+            LINK = MethodHandles.lookup().findStatic(
+                NativeDriver.class,
+                "link",
+                MethodType.methodType(
+                    Object.class,
+                    MutableCallSite.class, String.class, FunctionDescriptor.class, Linker.Option[].class, Object[].class
+                )
+            );
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    public static final MethodHandle CUDA_INIT = bind(
+        "cuda_init",
+        FunctionDescriptor.ofVoid()
+    );
+    public static final MethodHandle CUDA_DEVICE_COUNT = bind(
+        "cuda_device_count",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT)
+    );
+    public static final MethodHandle CUDA_CREATE_SYSTEM_DEVICE = bind(
+        "cuda_create_system_device",
+        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.JAVA_INT)
+    );
+    public static final MethodHandle CUDA_DEVICE_NAME = bind(
+        "cuda_device_name",
+        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_COMPUTE_CAPABILITY = bind(
+        "cuda_compute_capability",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_DRIVER_VERSION = bind(
+        "cuda_driver_version",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_CREATE_CONTEXT = bind(
+        "cuda_create_context",
+        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_DESTROY_CONTEXT = bind(
+        "cuda_destroy_context",
+        FunctionDescriptor.ofVoid(ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_SYNC_CONTEXT = bind(
+        "cuda_sync_context",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT)
+    );
+    public static final MethodHandle CUDA_CONTEXT_SET_CURRENT = bind(
+        "cuda_context_set_current",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_DEVICE_CAN_ACCESS_PEER = bind(
+        "cuda_device_can_access_peer",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_DEVICE_GET_ATTRIBUTE = bind(
+        "cuda_device_get_attribute",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_CONTEXT_GET_DEVICE = bind(
+        "cuda_context_get_device",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_FUNCTION_GET_ATTRIBUTE = bind(
+        "cuda_function_get_attribute",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_OCCUPANCY_MAX_POTENTIAL_BLOCK_SIZE = bind(
+        "cuda_occupancy_max_potential_block_size",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.ADDRESS, // min grid size and block size
+            ValueLayout.ADDRESS, // function
+            ValueLayout.JAVA_LONG, // dynamic shared memory
+            ValueLayout.JAVA_INT) // block size limit
+    );
+    public static final MethodHandle CUDA_OCCUPANCY_MAX_ACTIVE_BLOCKS = bind(
+        "cuda_occupancy_max_active_blocks",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.ADDRESS, // blocks
+            ValueLayout.ADDRESS, // function
+            ValueLayout.JAVA_INT, // block size
+            ValueLayout.JAVA_LONG) // dynamic shared memory
+    );
+    public static final MethodHandle CUDA_CONTEXT_ENABLE_PEER_ACCESS = bind(
+        "cuda_context_enable_peer_access",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_STREAM_CREATE = bind(
+        "cuda_stream_create",
+        FunctionDescriptor.of(ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_STREAM_CREATE_WITH_PRIORITY = bind(
+        "cuda_stream_create_with_priority",
+        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.JAVA_INT)
+    );
+    public static final MethodHandle CUDA_STREAM_PRIORITY_RANGE = bind(
+        "cuda_stream_priority_range",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_STREAM_DESTROY = bind(
+        "cuda_stream_destroy",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_STREAM_SYNC = bind(
+        "cuda_stream_sync",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_STREAM_QUERY = bindCritical(
+        "cuda_stream_query",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_STREAM_WAIT_EVENT = bind(
+        "cuda_stream_wait_event",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_LAUNCH_HOST_FUNC = bind(
+        "cuda_launch_host_func",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_EVENT_CREATE = bind(
+        "cuda_event_create",
+        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.JAVA_INT)
+    );
+    public static final MethodHandle CUDA_EVENT_DESTROY = bind(
+        "cuda_event_destroy",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_EVENT_RECORD = bind(
+        "cuda_event_record",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_EVENT_QUERY = bindCritical(
+        "cuda_event_query",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_EVENT_SYNCHRONIZE = bind(
+        "cuda_event_synchronize",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_EVENT_ELAPSED_TIME = bind(
+        "cuda_event_elapsed_time",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_MODULE_LOAD = bind(
+        "cuda_module_load",
+        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_MODULE_LOAD_DATA = bind(
+        "cuda_module_load_data",
+        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_MODULE_UNLOAD = bind(
+        "cuda_module_unload",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_MODULE_GET_FUNCTION = bind(
+        "cuda_module_get_function",
+        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_COMPILE_PTX = bind(
+        "cuda_compile_ptx",
+        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_FREE_IMAGE = bind(
+        "cuda_free_image",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_LAUNCH_KERNEL = bind(
+        "cuda_launch_kernel",
+        FunctionDescriptor.of(
+            ValueLayout.JAVA_INT, // return
+            ValueLayout.ADDRESS, // function
+            ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, // grid
+            ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, // block
+            ValueLayout.JAVA_INT, // shared mem
+            ValueLayout.ADDRESS, // stream
+            ValueLayout.ADDRESS // kernel params
+        )
+    );
+    public static final MethodHandle CUDA_SUBMIT_COMMANDS = bind(
+        "cuda_submit_commands",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.ADDRESS, // commands
+            ValueLayout.JAVA_INT, // count
+            ValueLayout.ADDRESS, // stream
+            ValueLayout.ADDRESS) // failed index
+    );
+    public static final MethodHandle CUDA_STREAM_BEGIN_CAPTURE = bind(
+        "cuda_stream_begin_capture",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_STREAM_END_CAPTURE = bind(
+        "cuda_stream_end_capture",
+        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_GRAPH_CREATE = bind(
+        "cuda_graph_create",
+        FunctionDescriptor.of(ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_GRAPH_DESTROY = bind(
+        "cuda_graph_destroy",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_GRAPH_ADD_KERNEL_NODE = bind(
+        "cuda_graph_add_kernel_node",
+        FunctionDescriptor.of(
+            ValueLayout.ADDRESS, // return node
+            ValueLayout.ADDRESS, // graph
+            ValueLayout.ADDRESS, ValueLayout.JAVA_INT, // dependencies
+            ValueLayout.ADDRESS, // function
+            ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, // grid
+            ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, // block
+            ValueLayout.JAVA_INT, // shared mem
+            ValueLayout.ADDRESS // kernel params
+        )
+    );
+    public static final MethodHandle CUDA_GRAPH_ADD_MEMCPY_HTOD_NODE = bind(
+        "cuda_graph_add_memcpy_htod_node",
+        FunctionDescriptor.of(ValueLayout.ADDRESS,
+            ValueLayout.ADDRESS, // graph
+            ValueLayout.ADDRESS, ValueLayout.JAVA_INT, // dependencies
+            ValueLayout.ADDRESS, // buffer pointer
+            ValueLayout.JAVA_LONG, // buffer offset
+            ValueLayout.ADDRESS, // host pointer
+            ValueLayout.JAVA_LONG) // size
+    );
+    public static final MethodHandle CUDA_GRAPH_ADD_MEMCPY_DTOH_NODE = bind(
+        "cuda_graph_add_memcpy_dtoh_node",
+        FunctionDescriptor.of(ValueLayout.ADDRESS,
+            ValueLayout.ADDRESS, // graph
+            ValueLayout.ADDRESS, ValueLayout.JAVA_INT, // dependencies
+            ValueLayout.ADDRESS, // host pointer
+            ValueLayout.ADDRESS, // buffer pointer
+            ValueLayout.JAVA_LONG, // buffer offset
+            ValueLayout.JAVA_LONG) // size
+    );
+    public static final MethodHandle CUDA_GRAPH_ADD_MEMSET_NODE = bind(
+        "cuda_graph_add_memset_node",
+        FunctionDescriptor.of(ValueLayout.ADDRESS,
+            ValueLayout.ADDRESS, // graph
+            ValueLayout.ADDRESS, ValueLayout.JAVA_INT, // dependencies
+            ValueLayout.ADDRESS, // buffer pointer
+            ValueLayout.JAVA_LONG, // buffer offset
+            ValueLayout.JAVA_INT, // byte value
+            ValueLayout.JAVA_LONG) // size
+    );
+    public static final MethodHandle CUDA_GRAPH_INSTANTIATE = bind(
+        "cuda_graph_instantiate",
+        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_GRAPH_LAUNCH = bind(
+        "cuda_graph_launch",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_GRAPH_EXEC_KERNEL_NODE_SET_PARAMS = bind(
+        "cuda_graph_exec_kernel_node_set_params",
+        FunctionDescriptor.of(
+            ValueLayout.JAVA_INT, // return
+            ValueLayout.ADDRESS, // graph exec
+            ValueLayout.ADDRESS, // node
+            ValueLayout.ADDRESS, // function
+            ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, // grid
+            ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, // block
+            ValueLayout.JAVA_INT, // shared mem
+            ValueLayout.ADDRESS // kernel params
+        )
+    );
+    public static final MethodHandle CUDA_GRAPH_EXEC_DESTROY = bind(
+        "cuda_graph_exec_destroy",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_MEM_ALLOC = bind(
+        "cuda_mem_alloc",
+        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.JAVA_LONG)
+    );
+    public static final MethodHandle CUDA_MEM_FREE = bind(
+        "cuda_mem_free",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_BUFFER_PTR = bindCritical(
+        "cuda_buffer_ptr",
+        FunctionDescriptor.of(ValueLayout.JAVA_LONG, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_MEM_ALLOC_MANAGED = bind(
+        "cuda_mem_alloc_managed",
+        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.JAVA_LONG, ValueLayout.JAVA_INT)
+    );
+    public static final MethodHandle CUDA_MEM_PREFETCH_ASYNC = bind(
+        "cuda_mem_prefetch_async",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.ADDRESS, // buffer pointer
+            ValueLayout.JAVA_LONG, // buffer offset
+            ValueLayout.JAVA_LONG, // size
+            ValueLayout.JAVA_INT, // destination device
+            ValueLayout.ADDRESS) // stream
+    );
+    public static final MethodHandle CUDA_MEM_ADVISE = bind(
+        "cuda_mem_advise",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.ADDRESS, // buffer pointer
+            ValueLayout.JAVA_LONG, // buffer offset
+            ValueLayout.JAVA_LONG, // size
+            ValueLayout.JAVA_INT, // advice
+            ValueLayout.JAVA_INT) // device
+    );
+    public static final MethodHandle CUDA_MEM_HOST_ALLOC = bind(
+        "cuda_mem_host_alloc",
+        FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.JAVA_LONG)
+    );
+    public static final MethodHandle CUDA_MEM_FREE_HOST = bind(
+        "cuda_mem_free_host",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS)
+    );
+    public static final MethodHandle CUDA_MEMCPY_HTOD = bind(
+        "cuda_memcpy_htod",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.JAVA_LONG)
+    );
+    public static final MethodHandle CUDA_MEMCPY_DTOH = bind(
+        "cuda_memcpy_dtoh",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.JAVA_LONG)
+    );
+    public static final MethodHandle CUDA_MEMCPY_HTOD_V2 = bind(
+        "cuda_memcpy_htod_v2",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.ADDRESS, // buffer pointer
+            ValueLayout.JAVA_LONG, // buffer offset
+            ValueLayout.ADDRESS, // host pointer
+            ValueLayout.JAVA_LONG) // size
+    );
+    public static final MethodHandle CUDA_MEMCPY_DTOH_V2 = bind(
+        "cuda_memcpy_dtoh_v2",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.ADDRESS, // host pointer
+            ValueLayout.ADDRESS, // buffer pointer
+            ValueLayout.JAVA_LONG, // buffer offset
+            ValueLayout.JAVA_LONG) // size
+    );
+    public static final MethodHandle CUDA_MEMCPY_DTOD = bind(
+        "cuda_memcpy_dtod",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.JAVA_LONG)
+    );
+    public static final MethodHandle CUDA_MEMCPY_DTOD_V2 = bind(
+        "cuda_memcpy_dtod_v2",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.ADDRESS, // destination pointer
+            ValueLayout.JAVA_LONG, // destination offset
+            ValueLayout.ADDRESS, // source pointer
+            ValueLayout.JAVA_LONG, // source offset
+            ValueLayout.JAVA_LONG) // size
+    );
+    public static final MethodHandle CUDA_MEMCPY_HTOD_ASYNC = bind(
+        "cuda_memcpy_htod_async",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.ADDRESS, // buffer pointer
+            ValueLayout.ADDRESS, // host pointer
+            ValueLayout.JAVA_LONG, // size
+            ValueLayout.ADDRESS) // stream
+    );
+    public static final MethodHandle CUDA_MEMCPY_DTOH_ASYNC = bind(
+        "cuda_memcpy_dtoh_async",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.ADDRESS, // host pointer
+            ValueLayout.ADDRESS, // buffer pointer
+            ValueLayout.JAVA_LONG, // size
+            ValueLayout.ADDRESS) // stream
+    );
+    public static final MethodHandle CUDA_MEMCPY_HTOD_ASYNC_V2 = bind(
+        "cuda_memcpy_htod_async_v2",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.ADDRESS, // buffer pointer
+            ValueLayout.JAVA_LONG, // buffer offset
+            ValueLayout.ADDRESS, // host pointer
+            ValueLayout.JAVA_LONG, // size
+            ValueLayout.ADDRESS) // stream
+    );
+    public static final MethodHandle CUDA_MEMCPY_DTOH_ASYNC_V2 = bind(
+        "cuda_memcpy_dtoh_async_v2",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.ADDRESS, // host pointer
+            ValueLayout.ADDRESS, // buffer pointer
+            ValueLayout.JAVA_LONG, // buffer offset
+            ValueLayout.JAVA_LONG, // size
+            ValueLayout.ADDRESS) // stream
+    );
+    public static final MethodHandle CUDA_MEMCPY_DTOD_ASYNC = bind(
+        "cuda_memcpy_dtod_async",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.ADDRESS, // destination pointer
+            ValueLayout.JAVA_LONG, // destination offset
+            ValueLayout.ADDRESS, // source pointer
+            ValueLayout.JAVA_LONG, // source offset
+            ValueLayout.JAVA_LONG, // size
+            ValueLayout.ADDRESS) // stream
+    );
+    public static final MethodHandle CUDA_MEMSET_ASYNC = bind(
+        "cuda_memset_async",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.ADDRESS, // buffer pointer
+            ValueLayout.JAVA_LONG, // buffer offset
+            ValueLayout.JAVA_INT, // value
+            ValueLayout.JAVA_INT, // element size
+            ValueLayout.JAVA_LONG, // element count
+            ValueLayout.ADDRESS) // stream
+    );
+    public static final MethodHandle CUDA_MEM_ALLOC_PITCH = bind(
+        "cuda_mem_alloc_pitch",
+        FunctionDescriptor.of(ValueLayout.ADDRESS,
+            ValueLayout.JAVA_LONG, // width in bytes
+            ValueLayout.JAVA_LONG, // height
+            ValueLayout.JAVA_INT, // element size
+            ValueLayout.ADDRESS) // pitch out
+    );
+    public static final MethodHandle CUDA_MEMCPY_2D_ASYNC = bind(
+        "cuda_memcpy_2d_async",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.JAVA_INT, // destination memory type
+            ValueLayout.ADDRESS, // destination host pointer or buffer
+            ValueLayout.JAVA_LONG, // destination offset
+            ValueLayout.JAVA_LONG, // destination pitch
+            ValueLayout.JAVA_INT, // source memory type
+            ValueLayout.ADDRESS, // source host pointer or buffer
+            ValueLayout.JAVA_LONG, // source offset
+            ValueLayout.JAVA_LONG, // source pitch
+            ValueLayout.JAVA_LONG, // width in bytes
+            ValueLayout.JAVA_LONG, // height
+            ValueLayout.ADDRESS) // stream
+    );
+    public static final MethodHandle CUDA_MEMCPY_3D_ASYNC = bind(
+        "cuda_memcpy_3d_async",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.JAVA_INT, // destination memory type
+            ValueLayout.ADDRESS, // destination host pointer or buffer
+            ValueLayout.JAVA_LONG, // destination offset
+            ValueLayout.JAVA_LONG, // destination pitch
+            ValueLayout.JAVA_LONG, // destination slice height
+            ValueLayout.JAVA_INT, // source memory type
+            ValueLayout.ADDRESS, // source host pointer or buffer
+            ValueLayout.JAVA_LONG, // source offset
+            ValueLayout.JAVA_LONG, // source pitch
+            ValueLayout.JAVA_LONG, // source slice height
+            ValueLayout.JAVA_LONG, // width in bytes
+            ValueLayout.JAVA_LONG, // height
+            ValueLayout.JAVA_LONG, // depth
+            ValueLayout.ADDRESS) // stream
+    );
+    public static final MethodHandle CUDA_MEMCPY_PEER_ASYNC = bind(
+        "cuda_memcpy_peer_async",
+        FunctionDescriptor.of(ValueLayout.JAVA_INT,
+            ValueLayout.ADDRESS, // destination buffer
+            ValueLayout.JAVA_LONG, // destination offset
+            ValueLayout.ADDRESS, // destination context
+            ValueLayout.ADDRESS, // source buffer
+            ValueLayout.JAVA_LONG, // source offset
+            ValueLayout.ADDRESS, // source context
+            ValueLayout.JAVA_LONG, // size
+            ValueLayout.ADDRESS) // stream
+    );
+    public static final MethodHandle CUDA_RELEASE_OBJECT = bind(
+        "cuda_release_object",
+        FunctionDescriptor.ofVoid(ValueLayout.ADDRESS)
+    );
+    
+    private static MethodHandle bind(String symbol, FunctionDescriptor descriptor) {
+        return lazy(symbol, descriptor);
+    }
+    
+    /**
+     * Binds a short, non-blocking call that never re-enters Java, skipping the thread state transition.
+     */
+    private static MethodHandle bindCritical(String symbol, FunctionDescriptor descriptor) {
+        return lazy(symbol, descriptor, Linker.Option.critical(false));
+    }
+    
+    private static MethodHandle lazy(String symbol, FunctionDescriptor descriptor, Linker.Option... options) {
+        SYMBOLS.add(symbol);
+        MethodType type = descriptor.toMethodType();
+        MutableCallSite site = new MutableCallSite(type);
+        
+        site.setTarget(MethodHandles.insertArguments(LINK, 0, site, symbol, descriptor, options)
+            .asCollector(Object[].class, type.parameterCount())
+            .asType(type));
+        
+        return site.dynamicInvoker();
+    }
+    
+    /**
+     * First call through a lazy handle. Racing threads may both link; they install equivalent targets.
+     */
+    private static Object link(
+        MutableCallSite site,
+        String symbol,
+        FunctionDescriptor descriptor,
+        Linker.Option[] options,
+        Object[] arguments
+    ) throws Throwable {
+        MethodHandle target = LINKER.downcallHandle(find(symbol), descriptor, options);
+        
+        site.setTarget(target);
+        MutableCallSite.syncAll(new MutableCallSite[] { site });
+        
+        return target.invokeWithArguments(arguments);
+    }
+    
+    private static MemorySegment find(String symbol) {
+        return Library.LOOKUP.find(symbol).orElseThrow(() -> new UnsatisfiedLinkError(
+            "Symbol " + symbol + " not found in libcuda4j, the native library is out of date; rebuild it with "
+                + "cuda4j-native/build.sh (build.bat on Windows) and load it with -Dcuda4j.library"
+        ));
+    }
+    
+    /**
+     * Holder so the library is extracted and opened on the first native call rather than on class load.
+     */
+    private static final class Library {
+        private static final SymbolLookup LOOKUP = NativeLibrary.load();
+        private static final boolean PINNED_HOST = LOOKUP.find("cuda_mem_host_alloc").isPresent();
+    }
+    
+    private final Map<Long, Arena> pageable = new ConcurrentHashMap<>();
+    
+    @Override
+    public String name() {
+        return "native";
+    }
+    
+    /**
+     * Fails fast if the loaded libcuda4j predates these bindings, rather than on the first call to a missing
+     * function.
+     */
+    @Override
+    public void init() throws Throwable {
+        List<String> missing = missingSymbols();
+        
+        if (!missing.isEmpty()) {
+            throw new UnsatisfiedLinkError(
+                "libcuda4j is out of date, " + missing.size() + " symbols are missing (" + String.join(", ", missing)
+                    + "); rebuild it with cuda4j-native/build.sh (build.bat on Windows) and load it with -Dcuda4j.library"
+            );
+        }
+        
+        CUDA_INIT.invokeExact();
+    }
+    
+    /**
+     * Required symbols the loaded library does not export.
+     */
+    public static List<String> missingSymbols() {
+        return SYMBOLS.stream()
+            .filter(symbol -> !OPTIONAL.contains(symbol) && Library.LOOKUP.find(symbol).isEmpty())
+            .toList();
+    }
+    
+    // ========================= DEVICE & CONTEXT =========================
+    
+    @Override
+    public int deviceCount() throws Throwable {
+        return (int) CUDA_DEVICE_COUNT.invokeExact();
+    }
+    
+    @Override
+    public MemorySegment createSystemDevice(int index) throws Throwable {
+        return (MemorySegment) CUDA_CREATE_SYSTEM_DEVICE.invokeExact(index);
+    }
+    
+    @Override
+    public String deviceName(MemorySegment device) throws Throwable {
+        MemorySegment nameHandle = (MemorySegment) CUDA_DEVICE_NAME.invokeExact(device);
+        return nameHandle.reinterpret(Long.MAX_VALUE).getString(0);
+    }
+    
+    @Override
+    public int computeCapability(MemorySegment majorMinor) throws Throwable {
+        return (int) CUDA_COMPUTE_CAPABILITY.invokeExact(majorMinor);
+    }
+    
+    @Override
+    public int driverVersion(MemorySegment version) throws Throwable {
+        return (int) CUDA_DRIVER_VERSION.invokeExact(version);
+    }
+    
+    @Override
+    public MemorySegment createContext(MemorySegment device) throws Throwable {
+        return (MemorySegment) CUDA_CREATE_CONTEXT.invokeExact(device);
+    }
+    
+    @Override
+    public void destroyContext(MemorySegment context) throws Throwable {
+        CUDA_DESTROY_CONTEXT.invokeExact(context);
+    }
+    
+    @Override
+    public int contextSetCurrent(MemorySegment context) throws Throwable {
+        return (int) CUDA_CONTEXT_SET_CURRENT.invokeExact(context);
+    }
+    
+    @Override
+    public int deviceCanAccessPeer(MemorySegment device, MemorySegment peerDevice, MemorySegment canAccess) throws Throwable {
+        return (int) CUDA_DEVICE_CAN_ACCESS_PEER.invokeExact(device, peerDevice, canAccess);
+    }
+    
+    @Override
+    public int deviceGetAttribute(MemorySegment value, int attribute, MemorySegment device) throws Throwable {
+        return (int) CUDA_DEVICE_GET_ATTRIBUTE.invokeExact(value, attribute, device);
+    }
+    
+    @Override
+    public int contextGetDevice(MemorySegment ordinal) throws Throwable {
+        return (int) CUDA_CONTEXT_GET_DEVICE.invokeExact(ordinal);
+    }
+    
+    @Override
+    public int functionGetAttribute(MemorySegment value, int attribute, MemorySegment function) throws Throwable {
+        return (int) CUDA_FUNCTION_GET_ATTRIBUTE.invokeExact(value, attribute, function);
+    }
+    
+    @Override
+    public int occupancyMaxPotentialBlockSize(
+        MemorySegment minGridAndBlockSize,
+        MemorySegment function,
+        long dynamicSharedMemory,
+        int blockSizeLimit
+    ) throws Throwable {
+        return (int) CUDA_OCCUPANCY_MAX_POTENTIAL_BLOCK_SIZE.invokeExact(
+            minGridAndBlockSize, function, dynamicSharedMemory, blockSizeLimit
+        );
+    }
+    
+    @Override
+    public int occupancyMaxActiveBlocksPerMultiprocessor(
+        MemorySegment blocks,
+        MemorySegment function,
+        int blockSize,
+        long dynamicSharedMemory
+    ) throws Throwable {
+        return (int) CUDA_OCCUPANCY_MAX_ACTIVE_BLOCKS.invokeExact(blocks, function, blockSize, dynamicSharedMemory);
+    }
+    
+    @Override
+    public int contextEnablePeerAccess(MemorySegment peerContext) throws Throwable {
+        return (int) CUDA_CONTEXT_ENABLE_PEER_ACCESS.invokeExact(peerContext);
+    }
+    
+    @Override
+    public int syncContext() throws Throwable {
+        return (int) CUDA_SYNC_CONTEXT.invokeExact();
+    }
+    
+    // ========================= STREAM =========================
+    
+    @Override
+    public MemorySegment streamCreate() throws Throwable {
+        return (MemorySegment) CUDA_STREAM_CREATE.invokeExact();
+    }
+    
+    @Override
+    public MemorySegment streamCreateWithPriority(int priority) throws Throwable {
+        return (MemorySegment) CUDA_STREAM_CREATE_WITH_PRIORITY.invokeExact(priority);
+    }
+    
+    @Override
+    public int streamPriorityRange(MemorySegment leastAndGreatest) throws Throwable {
+        return (int) CUDA_STREAM_PRIORITY_RANGE.invokeExact(leastAndGreatest);
+    }
+    
+    @Override
+    public int streamDestroy(MemorySegment stream) throws Throwable {
+        return (int) CUDA_STREAM_DESTROY.invokeExact(stream);
+    }
+    
+    @Override
+    public int streamSync(MemorySegment stream) throws Throwable {
+        return (int) CUDA_STREAM_SYNC.invokeExact(stream);
+    }
+    
+    @Override
+    public int streamQuery(MemorySegment stream) throws Throwable {
+        return (int) CUDA_STREAM_QUERY.invokeExact(stream);
+    }
+    
+    @Override
+    public int streamWaitEvent(MemorySegment stream, MemorySegment event) throws Throwable {
+        return (int) CUDA_STREAM_WAIT_EVENT.invokeExact(stream, event);
+    }
+    
+    @Override
+    public int launchHostFunc(MemorySegment stream, MemorySegment function, MemorySegment userData) throws Throwable {
+        return (int) CUDA_LAUNCH_HOST_FUNC.invokeExact(stream, function, userData);
+    }
+    
+    // ========================= EVENT =========================
+    
+    @Override
+    public MemorySegment eventCreate(int flags) throws Throwable {
+        return (MemorySegment) CUDA_EVENT_CREATE.invokeExact(flags);
+    }
+    
+    @Override
+    public int eventDestroy(MemorySegment event) throws Throwable {
+        return (int) CUDA_EVENT_DESTROY.invokeExact(event);
+    }
+    
+    @Override
+    public int eventRecord(MemorySegment event, MemorySegment stream) throws Throwable {
+        return (int) CUDA_EVENT_RECORD.invokeExact(event, stream);
+    }
+    
+    @Override
+    public int eventQuery(MemorySegment event) throws Throwable {
+        return (int) CUDA_EVENT_QUERY.invokeExact(event);
+    }
+    
+    @Override
+    public int eventSynchronize(MemorySegment event) throws Throwable {
+        return (int) CUDA_EVENT_SYNCHRONIZE.invokeExact(event);
+    }
+    
+    @Override
+    public int eventElapsedTime(MemorySegment millis, MemorySegment start, MemorySegment end) throws Throwable {
+        return (int) CUDA_EVENT_ELAPSED_TIME.invokeExact(millis, start, end);
+    }
+    
+    // ========================= MODULE & FUNCTION =========================
+    
+    @Override
+    public MemorySegment moduleLoad(String path) throws Throwable {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment cPath = arena.allocateFrom(path);
+            return (MemorySegment) CUDA_MODULE_LOAD.invokeExact(cPath);
+        }
+    }
+    
+    @Override
+    public MemorySegment moduleLoadData(MemorySegment image) throws Throwable {
+        return (MemorySegment) CUDA_MODULE_LOAD_DATA.invokeExact(image);
+    }
+    
+    @Override
+    public int moduleUnload(MemorySegment module) throws Throwable {
+        return (int) CUDA_MODULE_UNLOAD.invokeExact(module);
+    }
+    
+    @Override
+    public MemorySegment moduleGetFunction(MemorySegment module, String name) throws Throwable {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment cName = arena.allocateFrom(name);
+            return (MemorySegment) CUDA_MODULE_GET_FUNCTION.invokeExact(module, cName);
+        }
+    }
+    
+    @Override
+    public MemorySegment compilePtx(MemorySegment ptx, MemorySegment imageSize) throws Throwable {
+        return (MemorySegment) CUDA_COMPILE_PTX.invokeExact(ptx, imageSize);
+    }
+    
+    @Override
+    public int freeImage(MemorySegment image) throws Throwable {
+        return (int) CUDA_FREE_IMAGE.invokeExact(image);
+    }
+    
+    @Override
+    public int launchKernel(
+        MemorySegment function,
+        int gridX, int gridY, int gridZ,
+        int blockX, int blockY, int blockZ,
+        int sharedMemBytes,
+        MemorySegment stream,
+        MemorySegment kernelParams
+    ) throws Throwable {
+        return (int) CUDA_LAUNCH_KERNEL.invokeExact(
+            function,
+            gridX, gridY, gridZ,
+            blockX, blockY, blockZ,
+            sharedMemBytes,
+            stream,
+            kernelParams
+        );
+    }
+    
+    // ========================= COMMAND LIST =========================
+    
+    @Override
+    public int submitCommands(MemorySegment commands, int count, MemorySegment stream, MemorySegment failedIndex) throws Throwable {
+        return (int) CUDA_SUBMIT_COMMANDS.invokeExact(commands, count, stream, failedIndex);
+    }
+    
+    // ========================= GRAPH =========================
+    
+    @Override
+    public int streamBeginCapture(MemorySegment stream) throws Throwable {
+        return (int) CUDA_STREAM_BEGIN_CAPTURE.invokeExact(stream);
+    }
+    
+    @Override
+    public MemorySegment streamEndCapture(MemorySegment stream) throws Throwable {
+        return (MemorySegment) CUDA_STREAM_END_CAPTURE.invokeExact(stream);
+    }
+    
+    @Override
+    public MemorySegment graphCreate() throws Throwable {
+        return (MemorySegment) CUDA_GRAPH_CREATE.invokeExact();
+    }
+    
+    @Override
+    public int graphDestroy(MemorySegment graph) throws Throwable {
+        return (int) CUDA_GRAPH_DESTROY.invokeExact(graph);
+    }
+    
+    @Override
+    public MemorySegment graphAddKernelNode(
+        MemorySegment graph,
+        MemorySegment dependencies, int dependencyCount,
+        MemorySegment function,
+        int gridX, int gridY, int gridZ,
+        int blockX, int blockY, int blockZ,
+        int sharedMemBytes,
+        MemorySegment kernelParams
+    ) throws Throwable {
+        return (MemorySegment) CUDA_GRAPH_ADD_KERNEL_NODE.invokeExact(
+            graph,
+            dependencies, dependencyCount,
+            function,
+            gridX, gridY, gridZ,
+            blockX, blockY, blockZ,
+            sharedMemBytes,
+            kernelParams
+        );
+    }
+    
+    @Override
+    public MemorySegment graphAddMemcpyHtoDNode(
+        MemorySegment graph,
+        MemorySegment dependencies, int dependencyCount,
+        MemorySegment buffer, long offset,
+        MemorySegment host, long size
+    ) throws Throwable {
+        return (MemorySegment) CUDA_GRAPH_ADD_MEMCPY_HTOD_NODE.invokeExact(
+            graph, dependencies, dependencyCount, buffer, offset, host, size
+        );
+    }
+    
+    @Override
+    public MemorySegment graphAddMemcpyDtoHNode(
+        MemorySegment graph,
+        MemorySegment dependencies, int dependencyCount,
+        MemorySegment host,
+        MemorySegment buffer, long offset, long size
+    ) throws Throwable {
+        return (MemorySegment) CUDA_GRAPH_ADD_MEMCPY_DTOH_NODE.invokeExact(
+            graph, dependencies, dependencyCount, host, buffer, offset, size
+        );
+    }
+    
+    @Override
+    public MemorySegment graphAddMemsetNode(
+        MemorySegment graph,
+        MemorySegment dependencies, int dependencyCount,
+        MemorySegment buffer, long offset,
+        int value, long size
+    ) throws Throwable {
+        return (MemorySegment) CUDA_GRAPH_ADD_MEMSET_NODE.invokeExact(
+            graph, dependencies, dependencyCount, buffer, offset, value, size
+        );
+    }
+    
+    @Override
+    public MemorySegment graphInstantiate(MemorySegment graph) throws Throwable {
+        return (MemorySegment) CUDA_GRAPH_INSTANTIATE.invokeExact(graph);
+    }
+    
+    @Override
+    public int graphLaunch(MemorySegment graphExec, MemorySegment stream) throws Throwable {
+        return (int) CUDA_GRAPH_LAUNCH.invokeExact(graphExec, stream);
+    }
+    
+    @Override
+    public int graphExecKernelNodeSetParams(
+        MemorySegment graphExec,
+        MemorySegment node,
+        MemorySegment function,
+        int gridX, int gridY, int gridZ,
+        int blockX, int blockY, int blockZ,
+        int sharedMemBytes,
+        MemorySegment kernelParams
+    ) throws Throwable {
+        return (int) CUDA_GRAPH_EXEC_KERNEL_NODE_SET_PARAMS.invokeExact(
+            graphExec,
+            node,
+            function,
+            gridX, gridY, gridZ,
+            blockX, blockY, blockZ,
+            sharedMemBytes,
+            kernelParams
+        );
+    }
+    
+    @Override
+    public int graphExecDestroy(MemorySegment graphExec) throws Throwable {
+        return (int) CUDA_GRAPH_EXEC_DESTROY.invokeExact(graphExec);
+    }
+    
+    // ========================= MEMORY =========================
+    
+    @Override
+    public MemorySegment memAlloc(long size) throws Throwable {
+        return (MemorySegment) CUDA_MEM_ALLOC.invokeExact(size);
+    }
+    
+    @Override
+    public int memFree(MemorySegment buffer) throws Throwable {
+        return (int) CUDA_MEM_FREE.invokeExact(buffer);
+    }
+    
+    @Override
+    public long bufferPtr(MemorySegment buffer) throws Throwable {
+        return (long) CUDA_BUFFER_PTR.invokeExact(buffer);
+    }
+    
+    @Override
+    public MemorySegment memAllocManaged(long size, int flags) throws Throwable {
+        return (MemorySegment) CUDA_MEM_ALLOC_MANAGED.invokeExact(size, flags);
+    }
+    
+    @Override
+    public int memPrefetchAsync(MemorySegment buffer, long offset, long size, int device, MemorySegment stream) throws Throwable {
+        return (int) CUDA_MEM_PREFETCH_ASYNC.invokeExact(buffer, offset, size, device, stream);
+    }
+    
+    @Override
+    public int memAdvise(MemorySegment buffer, long offset, long size, int advice, int device) throws Throwable {
+        return (int) CUDA_MEM_ADVISE.invokeExact(buffer, offset, size, advice, device);
+    }
+    
+    /**
+     * Returns page-locked memory, or plain native memory when the loaded library predates
+     * {@code cuda_mem_host_alloc}. Copies from pageable memory still work, only without overlapping the host.
+     */
+    @Override
+    public MemorySegment memHostAlloc(long size) throws Throwable {
+        if (!Library.PINNED_HOST) {
+            Arena arena = Arena.ofShared();
+            MemorySegment host = arena.allocate(size, 4096);
+            pageable.put(host.address(), arena);
+            return host;
+        }
+        
+        return (MemorySegment) CUDA_MEM_HOST_ALLOC.invokeExact(size);
+    }
+    
+    @Override
+    public int memFreeHost(MemorySegment host) throws Throwable {
+        Arena arena = pageable.remove(host.address());
+        
+        if (arena != null) {
+            arena.close();
+            return 0;
+        }
+        
+        return (int) CUDA_MEM_FREE_HOST.invokeExact(host);
+    }
+    
+    // copies at offset zero use the original symbols, which every released libcuda4j exports
+    
+    @Override
+    public int memcpyHtoD(MemorySegment buffer, long offset, MemorySegment host, long size) throws Throwable {
+        if (offset == 0) return (int) CUDA_MEMCPY_HTOD.invokeExact(buffer, host, size);
+        return (int) CUDA_MEMCPY_HTOD_V2.invokeExact(buffer, offset, host, size);
+    }
+    
+    @Override
+    public int memcpyDtoH(MemorySegment host, MemorySegment buffer, long offset, long size) throws Throwable {
+        if (offset == 0) return (int) CUDA_MEMCPY_DTOH.invokeExact(host, buffer, size);
+        return (int) CUDA_MEMCPY_DTOH_V2.invokeExact(host, buffer, offset, size);
+    }
+    
+    @Override
+    public int memcpyDtoD(MemorySegment destination, long dstOffset, MemorySegment source, long srcOffset, long size) throws Throwable {
+        if (dstOffset == 0 && srcOffset == 0) return (int) CUDA_MEMCPY_DTOD.invokeExact(destination, source, size);
+        return (int) CUDA_MEMCPY_DTOD_V2.invokeExact(destination, dstOffset, source, srcOffset, size);
+    }
+    
+    @Override
+    public int memcpyHtoDAsync(MemorySegment buffer, long offset, MemorySegment host, long size, MemorySegment stream) throws Throwable {
+        if (offset == 0) return (int) CUDA_MEMCPY_HTOD_ASYNC.invokeExact(buffer, host, size, stream);
+        return (int) CUDA_MEMCPY_HTOD_ASYNC_V2.invokeExact(buffer, offset, host, size, stream);
+    }
+    
+    @Override
+    public int memcpyDtoHAsync(MemorySegment host, MemorySegment buffer, long offset, long size, MemorySegment stream) throws Throwable {
+        if (offset == 0) return (int) CUDA_MEMCPY_DTOH_ASYNC.invokeExact(host, buffer, size, stream);
+        return (int) CUDA_MEMCPY_DTOH_ASYNC_V2.invokeExact(host, buffer, offset, size, stream);
+    }
+    
+    @Override
+    public int memcpyDtoDAsync(
+        MemorySegment destination, long dstOffset,
+        MemorySegment source, long srcOffset,
+        long size,
+        MemorySegment stream
+    ) throws Throwable {
+        return (int) CUDA_MEMCPY_DTOD_ASYNC.invokeExact(destination, dstOffset, source, srcOffset, size, stream);
+    }
+    
+    @Override
+    public int memsetAsync(MemorySegment buffer, long offset, int value, int elementBytes, long count, MemorySegment stream) throws Throwable {
+        return (int) CUDA_MEMSET_ASYNC.invokeExact(buffer, offset, value, elementBytes, count, stream);
+    }
+    
+    @Override
+    public int memcpyPeerAsync(
+        MemorySegment destination, long dstOffset, MemorySegment dstContext,
+        MemorySegment source, long srcOffset, MemorySegment srcContext,
+        long size,
+        MemorySegment stream
+    ) throws Throwable {
+        return (int) CUDA_MEMCPY_PEER_ASYNC.invokeExact(
+            destination, dstOffset, dstContext,
+            source, srcOffset, srcContext,
+            size,
+            stream
+        );
+    }
+    
+    // ========================= STRIDED MEMORY =========================
+    
+    @Override
+    public MemorySegment memAllocPitch(long widthBytes, long height, int elementBytes, MemorySegment pitch) throws Throwable {
+        return (MemorySegment) CUDA_MEM_ALLOC_PITCH.invokeExact(widthBytes, height, elementBytes, pitch);
+    }
+    
+    @Override
+    public int memcpy2DAsync(
+        int dstType, MemorySegment destination, long dstOffset, long dstPitch,
+        int srcType, MemorySegment source, long srcOffset, long srcPitch,
+        long widthBytes, long height,
+        MemorySegment stream
+    ) throws Throwable {
+        return (int) CUDA_MEMCPY_2D_ASYNC.invokeExact(
+            dstType, destination, dstOffset, dstPitch,
+            srcType, source, srcOffset, srcPitch,
+            widthBytes, height,
+            stream
+        );
+    }
+    
+    @Override
+    public int memcpy3DAsync(
+        int dstType, MemorySegment destination, long dstOffset, long dstPitch, long dstSliceHeight,
+        int srcType, MemorySegment source, long srcOffset, long srcPitch, long srcSliceHeight,
+        long widthBytes, long height, long depth,
+        MemorySegment stream
+    ) throws Throwable {
+        return (int) CUDA_MEMCPY_3D_ASYNC.invokeExact(
+            dstType, destination, dstOffset, dstPitch, dstSliceHeight,
+            srcType, source, srcOffset, srcPitch, srcSliceHeight,
+            widthBytes, height, depth,
+            stream
+        );
+    }
+    
+    @Override
+    public void releaseObject(MemorySegment handle) throws Throwable {
+        CUDA_RELEASE_OBJECT.invokeExact(handle);
+    }
+}
\ No newline at end of file
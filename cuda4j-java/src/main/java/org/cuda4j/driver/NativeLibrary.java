@@ -0,0 +1,138 @@
+package org.cuda4j.driver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.SymbolLookup;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Locates {@code libcuda4j} for the running platform and extracts it from the jar into a cache that survives
+ * the JVM.
+ * <p>
+ * Libraries are packaged as {@code /native/<os>-<arch>/libcuda4j.<so|dll|dylib>}. The extracted copy lives in
+ * {@code <cache>/<version>-<sha256>/} and is reused as long as its SHA-256 still matches the packaged library, so
+ * a normal start only reads and hashes the library instead of writing a fresh temp file. The cache root defaults to
+ * {@code ~/.cache/cuda4j/native} and can be moved with {@code -Dcuda4j.nativeCache}; {@code -Dcuda4j.library}
+ * skips extraction and loads the given file.
+ */
+public final class NativeLibrary {
+    
+    private NativeLibrary() {
+    }
+    
+    public static SymbolLookup load() {
+        String override = System.getProperty("cuda4j.library");
+        Path library = override != null ? Path.of(override) : extract(resourceName());
+        
+        return SymbolLookup.libraryLookup(library, Arena.global());
+    }
+    
+    public static String platform() {
+        String os = System.getProperty("os.name").toLowerCase(Locale.ROOT);
+        String arch = System.getProperty("os.arch").toLowerCase(Locale.ROOT);
+        
+        String osName = os.startsWith("windows") ? "windows" : os.startsWith("mac") ? "macos" : "linux";
+        String archName = switch (arch) {
+            case "amd64", "x86_64" -> "x86_64";
+            case "aarch64", "arm64" -> "aarch64";
+            default -> arch;
+        };
+        
+        return osName + "-" + archName;
+    }
+    
+    public static String resourceName() {
+        String platform = platform();
+        String extension = platform.startsWith("windows") ? "dll" : platform.startsWith("macos") ? "dylib" : "so";
+        
+        return "/native/" + platform + "/libcuda4j." + extension;
+    }
+    
+    /**
+     * Returns a path to an extracted copy of {@code resourceName}, reusing the cached copy when it is intact.
+     */
+    public static Path extract(String resourceName) {
+        byte[] library = read(resourceName);
+        String hash = sha256(library);
+        String fileName = resourceName.substring(resourceName.lastIndexOf('/') + 1);
+        
+        try {
+            Path directory = cacheRoot().resolve(version() + "-" + hash.substring(0, 16));
+            Path target = directory.resolve(fileName);
+            
+            if (Files.isRegularFile(target) && hash.equals(sha256(Files.readAllBytes(target)))) {
+                return target;
+            }
+            
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, fileName, ".tmp");
+            
+            try {
+                Files.write(temp, library);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            
+            return target;
+        } catch (IOException e) {
+            return extractToTemp(fileName, library);
+        }
+    }
+    
+    /**
+     * Fallback for read-only homes, or a cached copy another process keeps locked.
+     */
+    private static Path extractToTemp(String fileName, byte[] library) {
+        try {
+            Path temp = Files.createTempFile("cuda4j-", "-" + fileName);
+            Files.write(temp, library);
+            temp.toFile().deleteOnExit();
+            return temp;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static Path cacheRoot() {
+        String root = System.getProperty("cuda4j.nativeCache");
+        if (root != null) return Path.of(root);
+        
+        return Path.of(System.getProperty("user.home"), ".cache", "cuda4j", "native");
+    }
+    
+    private static String version() {
+        String version = NativeLibrary.class.getPackage().getImplementationVersion();
+        return version == null ? "dev" : version;
+    }
+    
+    private static byte[] read(String resourceName) {
+        try (InputStream in = NativeLibrary.class.getResourceAsStream(resourceName)) {
+            if (in == null) {
+                throw new UnsatisfiedLinkError(
+                    "No cuda4j native library for " + platform() + " (missing resource " + resourceName + ")"
+                );
+            }
+            
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,1492 @@
+package org.cuda4j.emulator;
+
+import org.cuda4j.driver.CudaDriver;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Pure-Java {@link CudaDriver} for machines without a GPU.
+ * <p>
+ * Device memory lives in off-heap segments, streams are ordered single-thread executors slowed down
+ * by a {@link LatencyModel}, and kernels are Java lambdas registered with {@link #registerKernel}. Entries of PTX
+ * modules loaded from memory that have no registered lambda are run by the {@link PtxInterpreter} instead.
+ * Handles are opaque ids, while device pointers are the real addresses of the backing segments.
+ * Managed memory is such a segment too, so the host reads it in place; the emulator only tracks where each managed
+ * allocation would reside and which hints it was given.
+ */
+public class EmulatedDriver implements CudaDriver {
+    
+    private final int deviceCount;
+    private final long deviceMemory;
+    private final LatencyModel latency;
+    
+    private final Map<Long, Object> objects = new ConcurrentHashMap<>();
+    private final AtomicLong nextHandle = new AtomicLong(0x1000);
+    private final ConcurrentSkipListMap<Long, Allocation> allocations = new ConcurrentSkipListMap<>();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final AtomicLong allocationCount = new AtomicLong();
+    private final AtomicLongArray deviceAllocatedBytes;
+    private final ThreadLocal<Context> currentContext = new ThreadLocal<>();
+    private final Set<PeerLink> peerLinks = ConcurrentHashMap.newKeySet();
+    private final AtomicLong peerCopyCount = new AtomicLong();
+    private final AtomicLong stagedPeerCopyCount = new AtomicLong();
+    private final AtomicLong prefetchedBytes = new AtomicLong();
+    private final Map<Long, Arena> hostAllocations = new ConcurrentHashMap<>();
+    private final AtomicLong hostAllocationCount = new AtomicLong();
+    private final Map<Long, Arena> images = new ConcurrentHashMap<>();
+    private final AtomicLong compilationCount = new AtomicLong();
+    private final AtomicLong commandListCount = new AtomicLong();
+    private final Map<String, KernelDefinition> kernels = new ConcurrentHashMap<>();
+    private final EmulatedStream defaultStream = new EmulatedStream();
+    private final Map<EmulatedStream, EmulatedGraph> captures = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<TimelineEntry> timeline = new ConcurrentLinkedQueue<>();
+    private volatile boolean recordTimeline;
+    
+    /**
+     * Host functions are real C function pointers (usually upcall stubs), so the emulator calls them like the driver does.
+     */
+    private static final MethodHandle HOST_FUNCTION = Linker.nativeLinker().downcallHandle(
+        FunctionDescriptor.ofVoid(ValueLayout.ADDRESS)
+    );
+    
+    public static final int COMPUTE_CAPABILITY_MAJOR = 8;
+    public static final int COMPUTE_CAPABILITY_MINOR = 9;
+    public static final int DRIVER_VERSION = 12040;
+    public static final int MULTIPROCESSOR_COUNT = 128;
+    public static final int MAX_THREADS_PER_BLOCK = 1024;
+    public static final int MAX_THREADS_PER_MULTIPROCESSOR = 1536;
+    public static final int MAX_BLOCKS_PER_MULTIPROCESSOR = 24;
+    public static final int SHARED_MEMORY_PER_BLOCK = 48 << 10;
+    public static final int SHARED_MEMORY_PER_MULTIPROCESSOR = 100 << 10;
+    public static final int WARP_SIZE = 32;
+    public static final int REGISTERS_PER_THREAD = 32;
+    public static final int STREAM_PRIORITY_LEAST = 0;
+    public static final int STREAM_PRIORITY_GREATEST = -5;
+    public static final int PITCH_ALIGNMENT = 512;
+    
+    public EmulatedDriver() {
+        this(1, Long.MAX_VALUE, LatencyModel.NONE);
+    }
+    
+    /**
+     * @param deviceMemory bytes each device can allocate
+     */
+    public EmulatedDriver(int deviceCount, long deviceMemory, LatencyModel latency) {
+        this.deviceCount = deviceCount;
+        this.deviceMemory = deviceMemory;
+        this.latency = latency;
+        this.deviceAllocatedBytes = new AtomicLongArray(Math.max(deviceCount, 1));
+        
+        // kernels that cuda4j ships as PTX for its own use, see CudaDeviceGroup
+        registerKernel("cuda4j_add_f32", launch -> {
+            MemorySegment destination = launch.pointer(0);
+            MemorySegment source = launch.pointer(1);
+            
+            for (long i = 0; i < launch.intArg(2); i++) {
+                float sum = destination.getAtIndex(ValueLayout.JAVA_FLOAT, i) + source.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+                destination.setAtIndex(ValueLayout.JAVA_FLOAT, i, sum);
+            }
+        }, ValueLayout.JAVA_LONG, ValueLayout.JAVA_LONG, ValueLayout.JAVA_INT);
+    }
+    
+    public EmulatedDriver registerKernel(String name, EmulatedKernel kernel, ValueLayout... parameters) {
+        kernels.put(name, new KernelDefinition(kernel, parameters.clone()));
+        return this;
+    }
+    
+    public LatencyModel latency() {
+        return latency;
+    }
+    
+    public long allocatedBytes() {
+        return allocatedBytes.get();
+    }
+    
+    public long allocationCount() {
+        return allocationCount.get();
+    }
+    
+    public long allocatedBytes(int device) {
+        return deviceAllocatedBytes.get(device);
+    }
+    
+    /**
+     * Index of the device a buffer was allocated on, i.e. the device of the context current at the time, or
+     * {@code -1} for an unknown handle.
+     */
+    public int deviceOf(MemorySegment buffer) {
+        Allocation allocation = lookup(buffer, Allocation.class);
+        return allocation == null ? -1 : allocation.device();
+    }
+    
+    public long peerCopyCount() {
+        return peerCopyCount.get();
+    }
+    
+    /**
+     * Peer copies between contexts without peer access, which the driver stages through host memory.
+     */
+    public long stagedPeerCopyCount() {
+        return stagedPeerCopyCount.get();
+    }
+    
+    /**
+     * Where a managed buffer resides after the prefetches issued so far: a device index or {@link #CU_DEVICE_CPU}.
+     */
+    public int residency(MemorySegment buffer) {
+        return managed(buffer).location;
+    }
+    
+    public boolean isReadMostly(MemorySegment buffer) {
+        return managed(buffer).readMostly;
+    }
+    
+    /**
+     * The preferred location set with {@link #memAdvise}, or {@code null} if there is none.
+     */
+    public Integer preferredLocation(MemorySegment buffer) {
+        return managed(buffer).preferredLocation;
+    }
+    
+    /**
+     * Bytes migrated by prefetches, excluding those already resident at their destination.
+     */
+    public long prefetchedBytes() {
+        return prefetchedBytes.get();
+    }
+    
+    /**
+     * Number of PTX images compiled through {@link #compilePtx}, to observe module caching.
+     */
+    public long compilationCount() {
+        return compilationCount.get();
+    }
+    
+    public long hostAllocationCount() {
+        return hostAllocationCount.get();
+    }
+    
+    /**
+     * Number of {@link #submitCommands} calls, each standing for one downcall however many commands it carries.
+     */
+    public long commandListCount() {
+        return commandListCount.get();
+    }
+    
+    /**
+     * Starts or stops recording when each stream operation ran, discarding what was recorded so far.
+     */
+    public void recordTimeline(boolean enabled) {
+        timeline.clear();
+        recordTimeline = enabled;
+    }
+    
+    public List<TimelineEntry> timeline() {
+        return List.copyOf(timeline);
+    }
+    
+    /**
+     * The id reported in {@link TimelineEntry#stream()} for a stream handle, or {@code -1} if it is unknown.
+     */
+    public int streamId(MemorySegment stream) {
+        EmulatedStream emulated = stream(stream);
+        return emulated == null ? -1 : emulated.id();
+    }
+    
+    public MemorySegment resolve(long devicePointer) {
+        Map.Entry<Long, Allocation> entry = allocations.floorEntry(devicePointer);
+        
+        if (entry == null || devicePointer >= entry.getKey() + entry.getValue().memory().byteSize()) {
+            throw new IllegalArgumentException("Not an emulated device pointer: 0x" + Long.toHexString(devicePointer));
+        }
+        
+        return entry.getValue().memory().asSlice(devicePointer - entry.getKey());
+    }
+    
+    @Override
+    public String name() {
+        return "emulated";
+    }
+    
+    @Override
+    public void init() {
+    }
+    
+    // ========================= DEVICE & CONTEXT =========================
+    
+    @Override
+    public int deviceCount() {
+        return deviceCount;
+    }
+    
+    @Override
+    public MemorySegment createSystemDevice(int index) {
+        if (index < 0 || index >= deviceCount) return MemorySegment.NULL;
+        return register(new Device(index));
+    }
+    
+    @Override
+    public String deviceName(MemorySegment device) {
+        Device dev = lookup(device, Device.class);
+        return dev == null ? null : "cuda4j Emulated Device " + dev.index();
+    }
+    
+    @Override
+    public int computeCapability(MemorySegment majorMinor) {
+        MemorySegment out = majorMinor.reinterpret(2L * Integer.BYTES);
+        out.setAtIndex(ValueLayout.JAVA_INT, 0, COMPUTE_CAPABILITY_MAJOR);
+        out.setAtIndex(ValueLayout.JAVA_INT, 1, COMPUTE_CAPABILITY_MINOR);
+        return CUDA_SUCCESS;
+    }
+    
+    @Override
+    public int driverVersion(MemorySegment version) {
+        version.reinterpret(Integer.BYTES).set(ValueLayout.JAVA_INT, 0, DRIVER_VERSION);
+        return CUDA_SUCCESS;
+    }
+    
+    @Override
+    public int deviceGetAttribute(MemorySegment value, int attribute, MemorySegment device) {
+        if (lookup(device, Device.class) == null) return CUDA_ERROR_INVALID_HANDLE;
+        
+        int result = switch (attribute) {
+            case CU_DEVICE_ATTRIBUTE_MAX_THREADS_PER_BLOCK -> MAX_THREADS_PER_BLOCK;
+            case CU_DEVICE_ATTRIBUTE_MAX_SHARED_MEMORY_PER_BLOCK -> SHARED_MEMORY_PER_BLOCK;
+            case CU_DEVICE_ATTRIBUTE_WARP_SIZE -> WARP_SIZE;
+            case CU_DEVICE_ATTRIBUTE_MULTIPROCESSOR_COUNT -> MULTIPROCESSOR_COUNT;
+            case CU_DEVICE_ATTRIBUTE_MAX_THREADS_PER_MULTIPROCESSOR -> MAX_THREADS_PER_MULTIPROCESSOR;
+            case CU_DEVICE_ATTRIBUTE_COMPUTE_CAPABILITY_MAJOR -> COMPUTE_CAPABILITY_MAJOR;
+            case CU_DEVICE_ATTRIBUTE_COMPUTE_CAPABILITY_MINOR -> COMPUTE_CAPABILITY_MINOR;
+            case CU_DEVICE_ATTRIBUTE_MAX_SHARED_MEMORY_PER_MULTIPROCESSOR -> SHARED_MEMORY_PER_MULTIPROCESSOR;
+            default -> -1;
+        };
+        
+        if (result < 0) return CUDA_ERROR_INVALID_VALUE;
+        
+        value.reinterpret(Integer.BYTES).set(ValueLayout.JAVA_INT, 0, result);
+        return CUDA_SUCCESS;
+    }
+    
+    @Override
+    public int contextGetDevice(MemorySegment ordinal) {
+        ordinal.reinterpret(Integer.BYTES).set(ValueLayout.JAVA_INT, 0, currentDevice());
+        return CUDA_SUCCESS;
+    }
+    
+    @Override
+    public MemorySegment createContext(MemorySegment device) {
+        Device dev = lookup(device, Device.class);
+        if (dev == null) return MemorySegment.NULL;
+        
+        Context context = new Context(dev);
+        currentContext.set(context);
+        return register(context);
+    }
+    
+    @Override
+    public void destroyContext(MemorySegment context) {
+        Object removed = objects.remove(context.address());
+        if (removed != null && removed == currentContext.get()) currentContext.remove();
+    }
+    
+    @Override
+    public int contextSetCurrent(MemorySegment context) {
+        Context emulated = lookup(context, Context.class);
+        if (emulated == null) return CUDA_ERROR_INVALID_HANDLE;
+        
+        currentContext.set(emulated);
+        return CUDA_SUCCESS;
+    }
+    
+    @Override
+    public int syncContext() throws Exception {
+        int res = defaultStream.synchronize();
+        
+        for (Object object : objects.values()) {
+            if (object instanceof EmulatedStream stream) {
+                int streamRes = stream.synchronize();
+                if (res == CUDA_SUCCESS) res = streamRes;
+            }
+        }
+        
+        return res;
+    }
+    
+    @Override
+    public int deviceCanAccessPeer(MemorySegment device, MemorySegment peerDevice, MemorySegment canAccess) {
+        Device dev = lookup(device, Device.class);
+        Device peer = lookup(peerDevice, Device.class);
+        if (dev == null || peer == null) return CUDA_ERROR_INVALID_HANDLE;
+        
+        canAccess.reinterpret(Integer.BYTES).set(ValueLayout.JAVA_INT, 0, dev.index() != peer.index() ? 1 : 0);
+        return CUDA_SUCCESS;
+    }
+    
+    @Override
+    public int contextEnablePeerAccess(MemorySegment peerContext) {
+        Context current = currentContext.get();
+        Context peer = lookup(peerContext, Context.class);
+        
+        if (current == null || peer == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (current.device().index() == peer.device().index()) return CUDA_ERROR_INVALID_VALUE;
+        
+        return peerLinks.add(new PeerLink(current, peer)) ? CUDA_SUCCESS : CUDA_ERROR_PEER_ACCESS_ALREADY_ENABLED;
+    }
+    
+    // ========================= STREAM =========================
+    
+    @Override
+    public MemorySegment streamCreate() {
+        return register(new EmulatedStream());
+    }
+    
+    @Override
+    public MemorySegment streamCreateWithPriority(int priority) {
+        if (priority > STREAM_PRIORITY_LEAST || priority < STREAM_PRIORITY_GREATEST) return MemorySegment.NULL;
+        return register(new EmulatedStream(priority));
+    }
+    
+    @Override
+    public int streamPriorityRange(MemorySegment leastAndGreatest) {
+        MemorySegment range = leastAndGreatest.reinterpret(2L * Integer.BYTES);
+        range.setAtIndex(ValueLayout.JAVA_INT, 0, STREAM_PRIORITY_LEAST);
+        range.setAtIndex(ValueLayout.JAVA_INT, 1, STREAM_PRIORITY_GREATEST);
+        return CUDA_SUCCESS;
+    }
+    
+    @Override
+    public int streamDestroy(MemorySegment stream) {
+        EmulatedStream emulated = lookup(stream, EmulatedStream.class);
+        if (emulated == null) return CUDA_ERROR_INVALID_HANDLE;
+        
+        objects.remove(stream.address());
+        emulated.shutdown();
+        return CUDA_SUCCESS;
+    }
+    
+    @Override
+    public int streamSync(MemorySegment stream) throws Exception {
+        EmulatedStream emulated = stream(stream);
+        return emulated == null ? CUDA_ERROR_INVALID_HANDLE : emulated.synchronize();
+    }
+    
+    @Override
+    public int streamQuery(MemorySegment stream) {
+        EmulatedStream emulated = stream(stream);
+        if (emulated == null) return CUDA_ERROR_INVALID_HANDLE;
+        return emulated.isIdle() ? emulated.error() : CUDA_ERROR_NOT_READY;
+    }
+    
+    @Override
+    public int streamWaitEvent(MemorySegment stream, MemorySegment event) {
+        EmulatedStream target = stream(stream);
+        Event emulated = lookup(event, Event.class);
+        
+        if (target == null || emulated == null) return CUDA_ERROR_INVALID_HANDLE;
+        
+        CompletableFuture<Long> recorded = emulated.recorded;
+        if (recorded == null) return CUDA_SUCCESS;
+        
+        return submit(target, EmulatedGraph.Kind.EVENT, () -> {
+            recorded.get();
+            return CUDA_SUCCESS;
+        });
+    }
+    
+    @Override
+    public int launchHostFunc(MemorySegment stream, MemorySegment function, MemorySegment userData) {
+        EmulatedStream target = stream(stream);
+        
+        if (target == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (function == null || function.address() == 0) return CUDA_ERROR_INVALID_VALUE;
+        
+        MemorySegment callback = MemorySegment.ofAddress(function.address());
+        MemorySegment data = userData == null ? MemorySegment.NULL : MemorySegment.ofAddress(userData.address());
+        
+        return submit(target, EmulatedGraph.Kind.HOST, () -> {
+            HOST_FUNCTION.invokeExact(callback, data);
+            return CUDA_SUCCESS;
+        });
+    }
+    
+    // ========================= EVENT =========================
+    
+    @Override
+    public MemorySegment eventCreate(int flags) {
+        return register(new Event((flags & CU_EVENT_DISABLE_TIMING) == 0));
+    }
+    
+    @Override
+    public int eventDestroy(MemorySegment event) {
+        return objects.remove(event.address()) instanceof Event ? CUDA_SUCCESS : CUDA_ERROR_INVALID_HANDLE;
+    }
+    
+    @Override
+    public int eventRecord(MemorySegment event, MemorySegment stream) {
+        Event emulated = lookup(event, Event.class);
+        EmulatedStream target = stream(stream);
+        
+        if (emulated == null || target == null) return CUDA_ERROR_INVALID_HANDLE;
+        
+        CompletableFuture<Long> recorded = new CompletableFuture<>();
+        emulated.recorded = recorded;
+        
+        return submit(target, EmulatedGraph.Kind.EVENT, () -> {
+            recorded.complete(System.nanoTime());
+            return CUDA_SUCCESS;
+        });
+    }
+    
+    @Override
+    public int eventQuery(MemorySegment event) {
+        Event emulated = lookup(event, Event.class);
+        if (emulated == null) return CUDA_ERROR_INVALID_HANDLE;
+        
+        CompletableFuture<Long> recorded = emulated.recorded;
+        return recorded == null || recorded.isDone() ? CUDA_SUCCESS : CUDA_ERROR_NOT_READY;
+    }
+    
+    @Override
+    public int eventSynchronize(MemorySegment event) throws Exception {
+        Event emulated = lookup(event, Event.class);
+        if (emulated == null) return CUDA_ERROR_INVALID_HANDLE;
+        
+        CompletableFuture<Long> recorded = emulated.recorded;
+        if (recorded != null) recorded.get();
+        
+        return CUDA_SUCCESS;
+    }
+    
+    @Override
+    public int eventElapsedTime(MemorySegment millis, MemorySegment start, MemorySegment end) {
+        Event first = lookup(start, Event.class);
+        Event second = lookup(end, Event.class);
+        
+        if (first == null || second == null || !first.timing || !second.timing) return CUDA_ERROR_INVALID_HANDLE;
+        
+        CompletableFuture<Long> from = first.recorded;
+        CompletableFuture<Long> to = second.recorded;
+        
+        if (from == null || to == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (!from.isDone() || !to.isDone()) return CUDA_ERROR_NOT_READY;
+        
+        float elapsed = (to.join() - from.join()) / 1e6f;
+        millis.reinterpret(Float.BYTES).set(ValueLayout.JAVA_FLOAT, 0, elapsed);
+        return CUDA_SUCCESS;
+    }
+    
+    // ========================= MODULE & FUNCTION =========================
+    
+    @Override
+    public MemorySegment moduleLoad(String path) {
+        return register(new Module(path, null));
+    }
+    
+    @Override
+    public MemorySegment moduleLoadData(MemorySegment image) {
+        if (image == null || image.address() == 0 || image.byteSize() == 0) return MemorySegment.NULL;
+        return register(new Module("<data>", text(image)));
+    }
+    
+    @Override
+    public int moduleUnload(MemorySegment module) {
+        return objects.remove(module.address()) instanceof Module ? CUDA_SUCCESS : CUDA_ERROR_INVALID_HANDLE;
+    }
+    
+    @Override
+    public MemorySegment moduleGetFunction(MemorySegment module, String name) {
+        Module loaded = lookup(module, Module.class);
+        KernelDefinition definition = kernels.get(name);
+        
+        if (definition == null && loaded != null && loaded.ptx() != null) {
+            definition = interpret(loaded.ptx(), name);
+        }
+        
+        if (loaded == null || definition == null) {
+            return MemorySegment.NULL;
+        }
+        
+        return register(new Function(name, definition));
+    }
+    
+    /**
+     * Entries without a registered Java kernel are run by {@link PtxInterpreter} if it understands them.
+     */
+    private static KernelDefinition interpret(String ptx, String name) {
+        try {
+            PtxInterpreter interpreter = PtxInterpreter.parse(ptx, name);
+            return new KernelDefinition(interpreter, interpreter.parameters());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * The emulated "cubin" is a copy of the PTX text; kernels are resolved by name anyway.
+     */
+    @Override
+    public MemorySegment compilePtx(MemorySegment ptx, MemorySegment imageSize) {
+        MemorySegment source = ptx.reinterpret(Long.MAX_VALUE);
+        long length = 0;
+        
+        while (source.get(ValueLayout.JAVA_BYTE, length) != 0) length++;
+        
+        Arena arena = Arena.ofShared();
+        MemorySegment image = arena.allocate(length + 1);
+        MemorySegment.copy(source, 0, image, 0, length + 1);
+        
+        compilationCount.incrementAndGet();
+        images.put(image.address(), arena);
+        imageSize.reinterpret(Long.BYTES).set(ValueLayout.JAVA_LONG, 0, length + 1);
+        return image;
+    }
+    
+    @Override
+    public int freeImage(MemorySegment image) {
+        Arena arena = images.remove(image.address());
+        if (arena == null) return CUDA_ERROR_INVALID_VALUE;
+        
+        arena.close();
+        return CUDA_SUCCESS;
+    }
+    
+    @Override
+    public int functionGetAttribute(MemorySegment value, int attribute, MemorySegment function) {
+        if (lookup(function, Function.class) == null) return CUDA_ERROR_INVALID_HANDLE;
+        
+        int result = switch (attribute) {
+            case CU_FUNC_ATTRIBUTE_MAX_THREADS_PER_BLOCK -> MAX_THREADS_PER_BLOCK;
+            case CU_FUNC_ATTRIBUTE_SHARED_SIZE_BYTES -> 0;
+            case CU_FUNC_ATTRIBUTE_NUM_REGS -> REGISTERS_PER_THREAD;
+            default -> -1;
+        };
+        
+        if (result < 0) return CUDA_ERROR_INVALID_VALUE;
+        
+        value.reinterpret(Integer.BYTES).set(ValueLayout.JAVA_INT, 0, result);
+        return CUDA_SUCCESS;
+    }
+    
+    /**
+     * Picks the largest block size, in whole warps, that keeps the most threads resident per multiprocessor,
+     * like the driver's calculator does for a kernel without register pressure.
+     */
+    @Override
+    public int occupancyMaxPotentialBlockSize(
+        MemorySegment minGridAndBlockSize,
+        MemorySegment function,
+        long dynamicSharedMemory,
+        int blockSizeLimit
+    ) {
+        if (lookup(function, Function.class) == null) return CUDA_ERROR_INVALID_HANDLE;
+        
+        int limit = blockSizeLimit <= 0 ? MAX_THREADS_PER_BLOCK : Math.min(blockSizeLimit, MAX_THREADS_PER_BLOCK);
+        int bestBlock = 0;
+        int bestThreads = 0;
+        
+        for (int block = WARP_SIZE; block <= limit; block += WARP_SIZE) {
+            int threads = activeBlocks(block, dynamicSharedMemory) * block;
+            
+            if (threads >= bestThreads && threads > 0) {
+                bestThreads = threads;
+                bestBlock = block;
+            }
+        }
+        
+        if (bestBlock == 0) return CUDA_ERROR_INVALID_VALUE;
+        
+        MemorySegment out = minGridAndBlockSize.reinterpret(2L * Integer.BYTES);
+        out.setAtIndex(ValueLayout.JAVA_INT, 0, activeBlocks(bestBlock, dynamicSharedMemory) * MULTIPROCESSOR_COUNT);
+        out.setAtIndex(ValueLayout.JAVA_INT, 1, bestBlock);
+        return CUDA_SUCCESS;
+    }
+    
+    @Override
+    public int occupancyMaxActiveBlocksPerMultiprocessor(
+        MemorySegment blocks,
+        MemorySegment function,
+        int blockSize,
+        long dynamicSharedMemory
+    ) {
+        if (lookup(function, Function.class) == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (blockSize <= 0 || blockSize > MAX_THREADS_PER_BLOCK) return CUDA_ERROR_INVALID_VALUE;
+        
+        blocks.reinterpret(Integer.BYTES).set(ValueLayout.JAVA_INT, 0, activeBlocks(blockSize, dynamicSharedMemory));
+        return CUDA_SUCCESS;
+    }
+    
+    @Override
+    public int launchKernel(
+        MemorySegment function,
+        int gridX, int gridY, int gridZ,
+        int blockX, int blockY, int blockZ,
+        int sharedMemBytes,
+        MemorySegment stream,
+        MemorySegment kernelParams
+    ) {
+        Function fn = lookup(function, Function.class);
+        EmulatedStream target = stream(stream);
+        
+        if (fn == null || target == null) return CUDA_ERROR_INVALID_HANDLE;
+        
+        EmulatedStream.Operation kernel = kernelOperation(
+            fn,
+            gridX, gridY, gridZ,
+            blockX, blockY, blockZ,
+            sharedMemBytes,
+            kernelParams
+        );
+        
+        if (kernel == null) return CUDA_ERROR_INVALID_VALUE;
+        return submit(target, EmulatedGraph.Kind.KERNEL, kernel);
+    }
+    
+    // ========================= COMMAND LIST =========================
+    
+    @Override
+    public int submitCommands(MemorySegment commands, int count, MemorySegment stream, MemorySegment failedIndex) {
+        commandListCount.incrementAndGet();
+        
+        if (stream(stream) == null) return CUDA_ERROR_INVALID_HANDLE;
+        
+        MemorySegment list = MemorySegment.ofAddress(commands.address()).reinterpret((long) count * COMMAND_BYTES);
+        
+        for (int i = 0; i < count; i++) {
+            int res = runCommand(list.asSlice((long) i * COMMAND_BYTES, COMMAND_BYTES), stream);
+            
+            if (res != CUDA_SUCCESS) {
+                failedIndex.reinterpret(Integer.BYTES).set(ValueLayout.JAVA_INT, 0, i);
+                return res;
+            }
+        }
+        
+        return CUDA_SUCCESS;
+    }
+    
+    private int runCommand(MemorySegment command, MemorySegment stream) {
+        int operand = command.get(ValueLayout.JAVA_INT, 4);
+        
+        return switch (command.get(ValueLayout.JAVA_INT, 0)) {
+            case CMD_LAUNCH_KERNEL -> launchKernel(
+                handleField(command, 0),
+                command.get(ValueLayout.JAVA_INT, 24), command.get(ValueLayout.JAVA_INT, 28), command.get(ValueLayout.JAVA_INT, 32),
+                command.get(ValueLayout.JAVA_INT, 36), command.get(ValueLayout.JAVA_INT, 40), command.get(ValueLayout.JAVA_INT, 44),
+                operand,
+                stream,
+                handleField(command, 1)
+            );
+            case CMD_MEMCPY_HTOD -> memcpyHtoDAsync(
+                handleField(command, 0), longField(command, 1),
+                handleField(command, 2), longField(command, 3),
+                stream
+            );
+            case CMD_MEMCPY_DTOH -> memcpyDtoHAsync(
+                handleField(command, 0),
+                handleField(command, 1), longField(command, 2), longField(command, 3),
+                stream
+            );
+            case CMD_MEMCPY_DTOD -> memcpyDtoDAsync(
+                handleField(command, 0), longField(command, 1),
+                handleField(command, 2), longField(command, 3),
+                longField(command, 4),
+                stream
+            );
+            case CMD_MEMSET -> memsetAsync(handleField(command, 0), longField(command, 1), operand, 1, longField(command, 2), stream);
+            case CMD_EVENT_RECORD -> eventRecord(handleField(command, 0), stream);
+            case CMD_STREAM_WAIT_EVENT -> streamWaitEvent(stream, handleField(command, 0));
+            default -> CUDA_ERROR_INVALID_VALUE;
+        };
+    }
+    
+    private static long longField(MemorySegment command, int index) {
+        return command.get(ValueLayout.JAVA_LONG, 8L * (index + 1));
+    }
+    
+    private static MemorySegment handleField(MemorySegment command, int index) {
+        return MemorySegment.ofAddress(longField(command, index));
+    }
+    
+    // ========================= GRAPH =========================
+    
+    @Override
+    public int streamBeginCapture(MemorySegment stream) {
+        EmulatedStream target = lookup(stream, EmulatedStream.class);
+        if (target == null) return CUDA_ERROR_INVALID_HANDLE;
+        
+        return captures.putIfAbsent(target, new EmulatedGraph()) == null ? CUDA_SUCCESS : CUDA_ERROR_INVALID_VALUE;
+    }
+    
+    @Override
+    public MemorySegment streamEndCapture(MemorySegment stream) {
+        EmulatedStream target = lookup(stream, EmulatedStream.class);
+        EmulatedGraph graph = target == null ? null : captures.remove(target);
+        
+        return graph == null ? MemorySegment.NULL : register(graph);
+    }
+    
+    @Override
+    public MemorySegment graphCreate() {
+        return register(new EmulatedGraph());
+    }
+    
+    @Override
+    public int graphDestroy(MemorySegment graph) {
+        return objects.remove(graph.address()) instanceof EmulatedGraph ? CUDA_SUCCESS : CUDA_ERROR_INVALID_HANDLE;
+    }
+    
+    @Override
+    public MemorySegment graphAddKernelNode(
+        MemorySegment graph,
+        MemorySegment dependencies, int dependencyCount,
+        MemorySegment function,
+        int gridX, int gridY, int gridZ,
+        int blockX, int blockY, int blockZ,
+        int sharedMemBytes,
+        MemorySegment kernelParams
+    ) {
+        Function fn = lookup(function, Function.class);
+        if (fn == null) return MemorySegment.NULL;
+        
+        EmulatedStream.Operation kernel = kernelOperation(
+            fn,
+            gridX, gridY, gridZ,
+            blockX, blockY, blockZ,
+            sharedMemBytes,
+            kernelParams
+        );
+        
+        return addNode(graph, dependencies, dependencyCount, EmulatedGraph.Kind.KERNEL, kernel);
+    }
+    
+    @Override
+    public MemorySegment graphAddMemcpyHtoDNode(
+        MemorySegment graph,
+        MemorySegment dependencies, int dependencyCount,
+        MemorySegment buffer, long offset,
+        MemorySegment host, long size
+    ) {
+        Allocation allocation = lookup(buffer, Allocation.class);
+        if (allocation == null || !inBounds(allocation, offset, size)) return MemorySegment.NULL;
+        
+        EmulatedStream.Operation copy = copyToDevice(allocation, offset, hostView(host, size), size);
+        return addNode(graph, dependencies, dependencyCount, EmulatedGraph.Kind.MEMCPY, copy);
+    }
+    
+    @Override
+    public MemorySegment graphAddMemcpyDtoHNode(
+        MemorySegment graph,
+        MemorySegment dependencies, int dependencyCount,
+        MemorySegment host,
+        MemorySegment buffer, long offset, long size
+    ) {
+        Allocation allocation = lookup(buffer, Allocation.class);
+        if (allocation == null || !inBounds(allocation, offset, size)) return MemorySegment.NULL;
+        
+        EmulatedStream.Operation copy = copyToHost(hostView(host, size), allocation, offset, size);
+        return addNode(graph, dependencies, dependencyCount, EmulatedGraph.Kind.MEMCPY, copy);
+    }
+    
+    @Override
+    public MemorySegment graphAddMemsetNode(
+        MemorySegment graph,
+        MemorySegment dependencies, int dependencyCount,
+        MemorySegment buffer, long offset,
+        int value, long size
+    ) {
+        Allocation allocation = lookup(buffer, Allocation.class);
+        if (allocation == null || !inBounds(allocation, offset, size)) return MemorySegment.NULL;
+        
+        return addNode(graph, dependencies, dependencyCount, EmulatedGraph.Kind.MEMSET, memset(allocation, offset, value, 1, size));
+    }
+    
+    @Override
+    public MemorySegment graphInstantiate(MemorySegment graph) {
+        EmulatedGraph emulated = lookup(graph, EmulatedGraph.class);
+        return emulated == null ? MemorySegment.NULL : register(emulated.instantiate());
+    }
+    
+    @Override
+    public int graphLaunch(MemorySegment graphExec, MemorySegment stream) {
+        EmulatedGraph.Exec exec = lookup(graphExec, EmulatedGraph.Exec.class);
+        EmulatedStream target = stream(stream);
+        
+        if (exec == null || target == null) return CUDA_ERROR_INVALID_HANDLE;
+        return submit(target, EmulatedGraph.Kind.KERNEL, exec.launch());
+    }
+    
+    @Override
+    public int graphExecKernelNodeSetParams(
+        MemorySegment graphExec,
+        MemorySegment node,
+        MemorySegment function,
+        int gridX, int gridY, int gridZ,
+        int blockX, int blockY, int blockZ,
+        int sharedMemBytes,
+        MemorySegment kernelParams
+    ) {
+        EmulatedGraph.Exec exec = lookup(graphExec, EmulatedGraph.Exec.class);
+        EmulatedGraph.Node target = lookup(node, EmulatedGraph.Node.class);
+        Function fn = lookup(function, Function.class);
+        
+        if (exec == null || target == null || fn == null) return CUDA_ERROR_INVALID_HANDLE;
+        
+        EmulatedStream.Operation kernel = kernelOperation(
+            fn,
+            gridX, gridY, gridZ,
+            blockX, blockY, blockZ,
+            sharedMemBytes,
+            kernelParams
+        );
+        
+        return kernel != null && exec.update(target, kernel) ? CUDA_SUCCESS : CUDA_ERROR_INVALID_VALUE;
+    }
+    
+    @Override
+    public int graphExecDestroy(MemorySegment graphExec) {
+        return objects.remove(graphExec.address()) instanceof EmulatedGraph.Exec ? CUDA_SUCCESS : CUDA_ERROR_INVALID_HANDLE;
+    }
+    
+    // ========================= MEMORY =========================
+    
+    @Override
+    public MemorySegment memAlloc(long size) {
+        if (size <= 0) return MemorySegment.NULL;
+        
+        int device = currentDevice();
+        
+        if (deviceAllocatedBytes.addAndGet(device, size) > deviceMemory) {
+            deviceAllocatedBytes.addAndGet(device, -size);
+            return MemorySegment.NULL;
+        }
+        
+        allocatedBytes.addAndGet(size);
+        Arena arena = Arena.ofShared();
+        MemorySegment memory = arena.allocate(size, 256);
+        Allocation allocation = new Allocation(arena, memory, device, null);
+        
+        allocationCount.incrementAndGet();
+        allocations.put(memory.address(), allocation);
+        return register(allocation);
+    }
+    
+    @Override
+    public int memFree(MemorySegment buffer) {
+        Allocation allocation = lookup(buffer, Allocation.class);
+        if (allocation == null) return CUDA_ERROR_INVALID_HANDLE;
+        
+        objects.remove(buffer.address());
+        allocatedBytes.addAndGet(-allocation.memory().byteSize());
+        if (allocation.managed() == null) {
+            deviceAllocatedBytes.addAndGet(allocation.device(), -allocation.memory().byteSize());
+        }
+        
+        releaseWhenDrained(allocation);
+        return CUDA_SUCCESS;
+    }
+    
+    /**
+     * Releases the memory of a freed allocation once every stream has finished the work queued so far, which may
+     * still read or write it. Until then kernels can still resolve pointers into it.
+     */
+    private void releaseWhenDrained(Allocation allocation) {
+        List<EmulatedStream> busy = new ArrayList<>();
+        if (!defaultStream.isIdle()) busy.add(defaultStream);
+        
+        for (Object object : objects.values()) {
+            if (object instanceof EmulatedStream stream && !stream.isIdle()) busy.add(stream);
+        }
+        
+        AtomicInteger remaining = new AtomicInteger(busy.size() + 1);
+        Runnable release = () -> {
+            if (remaining.decrementAndGet() == 0) {
+                allocations.remove(allocation.memory().address());
+                allocation.arena().close();
+            }
+        };
+        
+        for (EmulatedStream stream : busy) {
+            if (!stream.afterPending(release)) release.run();
+        }
+        
+        release.run();
+    }
+    
+    /**
+     * Managed allocations do not count against the memory of any device, which is what lets them oversubscribe it.
+     */
+    @Override
+    public MemorySegment memAllocManaged(long size, int flags) {
+        if (size <= 0 || (flags != CU_MEM_ATTACH_GLOBAL && flags != CU_MEM_ATTACH_HOST)) return MemorySegment.NULL;
+        
+        allocatedBytes.addAndGet(size);
+        Arena arena = Arena.ofShared();
+        MemorySegment memory = arena.allocate(size, 4096);
+        Allocation allocation = new Allocation(arena, memory, currentDevice(), new Managed());
+        
+        allocationCount.incrementAndGet();
+        allocations.put(memory.address(), allocation);
+        return register(allocation);
+    }
+    
+    @Override
+    public int memPrefetchAsync(MemorySegment buffer, long offset, long size, int device, MemorySegment stream) {
+        Allocation allocation = lookup(buffer, Allocation.class);
+        EmulatedStream target = stream(stream);
+        
+        if (allocation == null || target == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (allocation.managed() == null || !inBounds(allocation, offset, size) || !isLocation(device)) {
+            return CUDA_ERROR_INVALID_VALUE;
+        }
+        
+        Managed managed = allocation.managed();
+        
+        return submit(target, EmulatedGraph.Kind.MEMCPY, () -> {
+            if (managed.location != device) {
+                latency.simulateCopy(size);
+                prefetchedBytes.addAndGet(size);
+                
+                // read-mostly pages are duplicated rather than moved, the emulator just follows the last prefetch
+                managed.location = device;
+            }
+            
+            return CUDA_SUCCESS;
+        });
+    }
+    
+    @Override
+    public int memAdvise(MemorySegment buffer, long offset, long size, int advice, int device) {
+        Allocation allocation = lookup(buffer, Allocation.class);
+        
+        if (allocation == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (allocation.managed() == null || !inBounds(allocation, offset, size)) return CUDA_ERROR_INVALID_VALUE;
+        
+        Managed managed = allocation.managed();
+        
+        switch (advice) {
+            case CU_MEM_ADVISE_SET_READ_MOSTLY -> managed.readMostly = true;
+            case CU_MEM_ADVISE_UNSET_READ_MOSTLY -> managed.readMostly = false;
+            case CU_MEM_ADVISE_SET_PREFERRED_LOCATION -> {
+                if (!isLocation(device)) return CUDA_ERROR_INVALID_VALUE;
+                managed.preferredLocation = device;
+            }
+            case CU_MEM_ADVISE_UNSET_PREFERRED_LOCATION -> managed.preferredLocation = null;
+            case CU_MEM_ADVISE_SET_ACCESSED_BY, CU_MEM_ADVISE_UNSET_ACCESSED_BY -> {
+                if (device < 0 || device >= deviceCount) return CUDA_ERROR_INVALID_VALUE;
+            }
+            default -> {
+                return CUDA_ERROR_INVALID_VALUE;
+            }
+        }
+        
+        return CUDA_SUCCESS;
+    }
+    
+    @Override
+    public long bufferPtr(MemorySegment buffer) {
+        Allocation allocation = lookup(buffer, Allocation.class);
+        return allocation == null ? 0 : allocation.memory().address();
+    }
+    
+    @Override
+    public MemorySegment memHostAlloc(long size) {
+        if (size <= 0) return MemorySegment.NULL;
+        
+        Arena arena = Arena.ofShared();
+        MemorySegment host = arena.allocate(size, 4096);
+        
+        hostAllocationCount.incrementAndGet();
+        hostAllocations.put(host.address(), arena);
+        return host;
+    }
+    
+    @Override
+    public int memFreeHost(MemorySegment host) {
+        Arena arena = hostAllocations.remove(host.address());
+        if (arena == null) return CUDA_ERROR_INVALID_VALUE;
+        
+        arena.close();
+        return CUDA_SUCCESS;
+    }
+    
+    @Override
+    public int memcpyHtoD(MemorySegment buffer, long offset, MemorySegment host, long size) throws Exception {
+        Allocation allocation = lookup(buffer, Allocation.class);
+        if (allocation == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (!inBounds(allocation, offset, size)) return CUDA_ERROR_INVALID_VALUE;
+        
+        // like the driver, a synchronous copy only orders against the legacy default stream
+        int res = defaultStream.synchronize();
+        latency.simulateCopy(size);
+        MemorySegment.copy(hostView(host, size), 0, allocation.memory(), offset, size);
+        return res;
+    }
+    
+    @Override
+    public int memcpyDtoH(MemorySegment host, MemorySegment buffer, long offset, long size) throws Exception {
+        Allocation allocation = lookup(buffer, Allocation.class);
+        if (allocation == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (!inBounds(allocation, offset, size)) return CUDA_ERROR_INVALID_VALUE;
+        
+        // like the driver, a synchronous copy only orders against the legacy default stream
+        int res = defaultStream.synchronize();
+        latency.simulateCopy(size);
+        MemorySegment.copy(allocation.memory(), offset, hostView(host, size), 0, size);
+        return res;
+    }
+    
+    @Override
+    public int memcpyDtoD(MemorySegment destination, long dstOffset, MemorySegment source, long srcOffset, long size) throws Exception {
+        Allocation dst = lookup(destination, Allocation.class);
+        Allocation src = lookup(source, Allocation.class);
+        
+        if (dst == null || src == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (!inBounds(dst, dstOffset, size) || !inBounds(src, srcOffset, size)) return CUDA_ERROR_INVALID_VALUE;
+        
+        // like the driver, a synchronous copy only orders against the legacy default stream
+        int res = defaultStream.synchronize();
+        latency.simulateCopy(size);
+        MemorySegment.copy(src.memory(), srcOffset, dst.memory(), dstOffset, size);
+        return res;
+    }
+    
+    @Override
+    public int memcpyHtoDAsync(MemorySegment buffer, long offset, MemorySegment host, long size, MemorySegment stream) {
+        Allocation allocation = lookup(buffer, Allocation.class);
+        EmulatedStream target = stream(stream);
+        
+        if (allocation == null || target == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (!inBounds(allocation, offset, size)) return CUDA_ERROR_INVALID_VALUE;
+        
+        return submit(target, EmulatedGraph.Kind.MEMCPY, copyToDevice(allocation, offset, hostView(host, size), size));
+    }
+    
+    @Override
+    public int memcpyDtoHAsync(MemorySegment host, MemorySegment buffer, long offset, long size, MemorySegment stream) {
+        Allocation allocation = lookup(buffer, Allocation.class);
+        EmulatedStream target = stream(stream);
+        
+        if (allocation == null || target == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (!inBounds(allocation, offset, size)) return CUDA_ERROR_INVALID_VALUE;
+        
+        return submit(target, EmulatedGraph.Kind.MEMCPY, copyToHost(hostView(host, size), allocation, offset, size));
+    }
+    
+    @Override
+    public int memcpyDtoDAsync(
+        MemorySegment destination, long dstOffset,
+        MemorySegment source, long srcOffset,
+        long size,
+        MemorySegment stream
+    ) {
+        Allocation dst = lookup(destination, Allocation.class);
+        Allocation src = lookup(source, Allocation.class);
+        EmulatedStream target = stream(stream);
+        
+        if (dst == null || src == null || target == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (!inBounds(dst, dstOffset, size) || !inBounds(src, srcOffset, size)) return CUDA_ERROR_INVALID_VALUE;
+        
+        return submit(target, EmulatedGraph.Kind.MEMCPY, () -> {
+            latency.simulateCopy(size);
+            MemorySegment.copy(src.memory(), srcOffset, dst.memory(), dstOffset, size);
+            return CUDA_SUCCESS;
+        });
+    }
+    
+    @Override
+    public int memsetAsync(MemorySegment buffer, long offset, int value, int elementBytes, long count, MemorySegment stream) {
+        Allocation allocation = lookup(buffer, Allocation.class);
+        EmulatedStream target = stream(stream);
+        
+        if (allocation == null || target == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (elementBytes != 1 && elementBytes != 2 && elementBytes != 4) return CUDA_ERROR_INVALID_VALUE;
+        if (offset % elementBytes != 0 || count < 0 || !inBounds(allocation, offset, count * elementBytes)) return CUDA_ERROR_INVALID_VALUE;
+        
+        return submit(target, EmulatedGraph.Kind.MEMSET, memset(allocation, offset, value, elementBytes, count));
+    }
+    
+    @Override
+    public int memcpyPeerAsync(
+        MemorySegment destination, long dstOffset, MemorySegment dstContext,
+        MemorySegment source, long srcOffset, MemorySegment srcContext,
+        long size,
+        MemorySegment stream
+    ) {
+        Allocation dst = lookup(destination, Allocation.class);
+        Allocation src = lookup(source, Allocation.class);
+        Context dstCtx = lookup(dstContext, Context.class);
+        Context srcCtx = lookup(srcContext, Context.class);
+        EmulatedStream target = stream(stream);
+        
+        if (dst == null || src == null || dstCtx == null || srcCtx == null || target == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (!inBounds(dst, dstOffset, size) || !inBounds(src, srcOffset, size)) return CUDA_ERROR_INVALID_VALUE;
+        if (dst.device() != dstCtx.device().index() || src.device() != srcCtx.device().index()) return CUDA_ERROR_INVALID_VALUE;
+        
+        boolean direct = peerLinks.contains(new PeerLink(dstCtx, srcCtx)) || peerLinks.contains(new PeerLink(srcCtx, dstCtx));
+        
+        peerCopyCount.incrementAndGet();
+        if (!direct) stagedPeerCopyCount.incrementAndGet();
+        
+        return submit(target, EmulatedGraph.Kind.MEMCPY, () -> {
+            // without a peer link the copy goes device to host to device
+            latency.simulateCopy(size);
+            if (!direct) latency.simulateCopy(size);
+            
+            MemorySegment.copy(src.memory(), srcOffset, dst.memory(), dstOffset, size);
+            return CUDA_SUCCESS;
+        });
+    }
+    
+    // ========================= STRIDED MEMORY =========================
+    
+    @Override
+    public MemorySegment memAllocPitch(long widthBytes, long height, int elementBytes, MemorySegment pitch) {
+        if (widthBytes <= 0 || height <= 0) return MemorySegment.NULL;
+        if (elementBytes != 4 && elementBytes != 8 && elementBytes != 16) return MemorySegment.NULL;
+        
+        long rowBytes = (widthBytes + PITCH_ALIGNMENT - 1) / PITCH_ALIGNMENT * PITCH_ALIGNMENT;
+        MemorySegment buffer = memAlloc(rowBytes * height);
+        
+        if (buffer.address() != 0) {
+            pitch.reinterpret(ValueLayout.JAVA_LONG.byteSize()).set(ValueLayout.JAVA_LONG, 0, rowBytes);
+        }
+        
+        return buffer;
+    }
+    
+    @Override
+    public int memcpy2DAsync(
+        int dstType, MemorySegment destination, long dstOffset, long dstPitch,
+        int srcType, MemorySegment source, long srcOffset, long srcPitch,
+        long widthBytes, long height,
+        MemorySegment stream
+    ) {
+        return memcpy3DAsync(
+            dstType, destination, dstOffset, dstPitch, height,
+            srcType, source, srcOffset, srcPitch, height,
+            widthBytes, height, 1,
+            stream
+        );
+    }
+    
+    @Override
+    public int memcpy3DAsync(
+        int dstType, MemorySegment destination, long dstOffset, long dstPitch, long dstSliceHeight,
+        int srcType, MemorySegment source, long srcOffset, long srcPitch, long srcSliceHeight,
+        long widthBytes, long height, long depth,
+        MemorySegment stream
+    ) {
+        EmulatedStream target = stream(stream);
+        
+        if (target == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (dstType == CU_MEMORYTYPE_DEVICE && lookup(destination, Allocation.class) == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (srcType == CU_MEMORYTYPE_DEVICE && lookup(source, Allocation.class) == null) return CUDA_ERROR_INVALID_HANDLE;
+        if (widthBytes < 0 || height < 0 || depth < 0) return CUDA_ERROR_INVALID_VALUE;
+        if (widthBytes == 0 || height == 0 || depth == 0) return CUDA_SUCCESS;
+        
+        MemorySegment dst = stridedMemory(dstType, destination, dstOffset, dstPitch, dstSliceHeight, widthBytes, height, depth);
+        MemorySegment src = stridedMemory(srcType, source, srcOffset, srcPitch, srcSliceHeight, widthBytes, height, depth);
+        
+        if (dst == null || src == null) return CUDA_ERROR_INVALID_VALUE;
+        
+        return submit(target, EmulatedGraph.Kind.MEMCPY, () -> {
+            latency.simulateCopy(widthBytes * height * depth);
+            
+            for (long z = 0; z < depth; z++) {
+                for (long y = 0; y < height; y++) {
+                    long from = srcOffset + z * srcPitch * srcSliceHeight + y * srcPitch;
+                    long to = dstOffset + z * dstPitch * dstSliceHeight + y * dstPitch;
+                    MemorySegment.copy(src, from, dst, to, widthBytes);
+                }
+            }
+            
+            return CUDA_SUCCESS;
+        });
+    }
+    
+    /**
+     * The memory one side of a strided copy reads or writes, or {@code null} if its rows overlap or run past the end.
+     */
+    private MemorySegment stridedMemory(
+        int type, MemorySegment pointer,
+        long offset, long pitch, long sliceHeight,
+        long widthBytes, long height, long depth
+    ) {
+        if (offset < 0 || widthBytes > pitch || (depth > 1 && height > sliceHeight)) return null;
+        
+        long extent = offset + (depth - 1) * pitch * sliceHeight + (height - 1) * pitch + widthBytes;
+        
+        return switch (type) {
+            case CU_MEMORYTYPE_HOST -> pointer.address() == 0 ? null : MemorySegment.ofAddress(pointer.address()).reinterpret(extent);
+            case CU_MEMORYTYPE_DEVICE -> {
+                MemorySegment memory = lookup(pointer, Allocation.class).memory();
+                yield extent <= memory.byteSize() ? memory : null;
+            }
+            default -> null;
+        };
+    }
+    
+    @Override
+    public void releaseObject(MemorySegment handle) {
+        objects.remove(handle.address());
+    }
+    
+    // ========================= INTERNALS =========================
+    
+    private MemorySegment register(Object object) {
+        long id = nextHandle.getAndAdd(16);
+        objects.put(id, object);
+        return MemorySegment.ofAddress(id);
+    }
+    
+    private <T> T lookup(MemorySegment handle, Class<T> type) {
+        if (handle == null) return null;
+        
+        Object object = objects.get(handle.address());
+        return type.isInstance(object) ? type.cast(object) : null;
+    }
+    
+    /**
+     * Runs an operation on {@code target}, or records it as a graph node while the stream is being captured.
+     */
+    private int submit(EmulatedStream target, EmulatedGraph.Kind kind, EmulatedStream.Operation operation) {
+        EmulatedGraph capture = captures.get(target);
+        
+        if (capture != null) {
+            capture.capture(kind, operation);
+            return CUDA_SUCCESS;
+        }
+        
+        target.enqueue(() -> {
+            long start = System.nanoTime();
+            if (kind == EmulatedGraph.Kind.KERNEL) latency.simulateLaunch();
+            
+            try {
+                return operation.run();
+            } finally {
+                if (recordTimeline && kind != EmulatedGraph.Kind.EVENT && kind != EmulatedGraph.Kind.HOST) {
+                    timeline.add(new TimelineEntry(target.id(), kind.name().toLowerCase(), start, System.nanoTime()));
+                }
+            }
+        });
+        return CUDA_SUCCESS;
+    }
+    
+    /**
+     * Snapshots the argument values behind {@code kernelParams}, or returns {@code null} if the launch is invalid.
+     */
+    private EmulatedStream.Operation kernelOperation(
+        Function fn,
+        int gridX, int gridY, int gridZ,
+        int blockX, int blockY, int blockZ,
+        int sharedMemBytes,
+        MemorySegment kernelParams
+    ) {
+        if (gridX <= 0 || gridY <= 0 || gridZ <= 0 || blockX <= 0 || blockY <= 0 || blockZ <= 0) {
+            return null;
+        }
+        
+        ValueLayout[] parameters = fn.definition().parameters();
+        if (parameters.length > 0 && kernelParams.equals(MemorySegment.NULL)) return null;
+        
+        MemorySegment arguments = MemorySegment.ofArray(new long[parameters.length]);
+        MemorySegment params = kernelParams.reinterpret(parameters.length * ValueLayout.ADDRESS.byteSize());
+        
+        for (int i = 0; i < parameters.length; i++) {
+            long size = parameters[i].byteSize();
+            MemorySegment value = params.getAtIndex(ValueLayout.ADDRESS, i).reinterpret(size);
+            MemorySegment.copy(value, 0, arguments, i * EmulatedKernel.Launch.SLOT_SIZE, size);
+        }
+        
+        EmulatedKernel.Launch launch = new EmulatedKernel.Launch(
+            gridX, gridY, gridZ,
+            blockX, blockY, blockZ,
+            sharedMemBytes,
+            arguments,
+            this
+        );
+        
+        return () -> {
+            fn.definition().kernel().execute(launch);
+            return CUDA_SUCCESS;
+        };
+    }
+    
+    private EmulatedStream.Operation copyToDevice(Allocation allocation, long offset, MemorySegment source, long size) {
+        return () -> {
+            latency.simulateCopy(size);
+            MemorySegment.copy(source, 0, allocation.memory(), offset, size);
+            return CUDA_SUCCESS;
+        };
+    }
+    
+    private static EmulatedStream.Operation memset(Allocation allocation, long offset, int value, int elementBytes, long count) {
+        return () -> {
+            MemorySegment target = allocation.memory().asSlice(offset, count * elementBytes);
+            
+            switch (elementBytes) {
+                case 1 -> target.fill((byte) value);
+                case 2 -> {
+                    for (long i = 0; i < count; i++) target.setAtIndex(ValueLayout.JAVA_SHORT_UNALIGNED, i, (short) value);
+                }
+                default -> {
+                    for (long i = 0; i < count; i++) target.setAtIndex(ValueLayout.JAVA_INT_UNALIGNED, i, value);
+                }
+            }
+            
+            return CUDA_SUCCESS;
+        };
+    }
+    
+    private EmulatedStream.Operation copyToHost(MemorySegment destination, Allocation allocation, long offset, long size) {
+        return () -> {
+            latency.simulateCopy(size);
+            MemorySegment.copy(allocation.memory(), offset, destination, 0, size);
+            return CUDA_SUCCESS;
+        };
+    }
+    
+    private MemorySegment addNode(
+        MemorySegment graph,
+        MemorySegment dependencies, int dependencyCount,
+        EmulatedGraph.Kind kind,
+        EmulatedStream.Operation operation
+    ) {
+        EmulatedGraph emulated = lookup(graph, EmulatedGraph.class);
+        if (emulated == null || operation == null || dependencyCount < 0) return MemorySegment.NULL;
+        
+        List<EmulatedGraph.Node> nodes = new ArrayList<>(dependencyCount);
+        MemorySegment handles = dependencies.reinterpret(dependencyCount * ValueLayout.ADDRESS.byteSize());
+        
+        for (int i = 0; i < dependencyCount; i++) {
+            EmulatedGraph.Node node = lookup(handles.getAtIndex(ValueLayout.ADDRESS, i), EmulatedGraph.Node.class);
+            if (node == null) return MemorySegment.NULL;
+            nodes.add(node);
+        }
+        
+        EmulatedGraph.Node node = emulated.add(kind, operation, nodes);
+        return node == null ? MemorySegment.NULL : register(node);
+    }
+    
+    private static boolean inBounds(Allocation allocation, long offset, long size) {
+        return offset >= 0 && size >= 0 && offset + size <= allocation.memory().byteSize();
+    }
+    
+    private boolean isLocation(int device) {
+        return device == CU_DEVICE_CPU || (device >= 0 && device < deviceCount);
+    }
+    
+    private Managed managed(MemorySegment buffer) {
+        Allocation allocation = lookup(buffer, Allocation.class);
+        
+        if (allocation == null || allocation.managed() == null) {
+            throw new IllegalArgumentException("Not a managed buffer: " + buffer);
+        }
+        
+        return allocation.managed();
+    }
+    
+    private static int activeBlocks(int blockSize, long dynamicSharedMemory) {
+        if (dynamicSharedMemory > SHARED_MEMORY_PER_BLOCK) return 0;
+        
+        int warps = (blockSize + WARP_SIZE - 1) / WARP_SIZE;
+        int blocks = Math.min(MAX_BLOCKS_PER_MULTIPROCESSOR, MAX_THREADS_PER_MULTIPROCESSOR / (warps * WARP_SIZE));
+        
+        if (dynamicSharedMemory > 0) {
+            blocks = (int) Math.min(blocks, SHARED_MEMORY_PER_MULTIPROCESSOR / dynamicSharedMemory);
+        }
+        
+        return blocks;
+    }
+    
+    private int currentDevice() {
+        Context context = currentContext.get();
+        return context == null ? 0 : context.device().index();
+    }
+    
+    private EmulatedStream stream(MemorySegment handle) {
+        if (handle == null || handle.equals(MemorySegment.NULL)) return defaultStream;
+        return lookup(handle, EmulatedStream.class);
+    }
+    
+    /**
+     * Host memory handed to the driver is owned by the caller's arena, which may be confined to another thread.
+     * Like the real DMA engine, the emulator only keeps the raw address.
+     */
+    private static MemorySegment hostView(MemorySegment host, long size) {
+        return host.isNative() ? MemorySegment.ofAddress(host.address()).reinterpret(size) : host;
+    }
+    
+    private static String text(MemorySegment image) {
+        long length = 0;
+        while (length < image.byteSize() && image.get(ValueLayout.JAVA_BYTE, length) != 0) length++;
+        
+        return new String(image.asSlice(0, length).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.US_ASCII);
+    }
+    
+    private static final class Event {
+        
+        private final boolean timing;
+        private volatile CompletableFuture<Long> recorded;
+        
+        private Event(boolean timing) {
+            this.timing = timing;
+        }
+    }
+    
+    private record Device(int index) {}
+    
+    /**
+     * Compared by identity: two contexts on the same device are still different contexts.
+     */
+    private static final class Context {
+        
+        private final Device device;
+        
+        private Context(Device device) {
+            this.device = device;
+        }
+        
+        private Device device() {
+            return device;
+        }
+    }
+    
+    private record PeerLink(Context context, Context peer) {}
+    
+    /**
+     * @param ptx the text of a module loaded from memory, up to its terminating zero; {@code null} for files
+     */
+    private record Module(String source, String ptx) {}
+    
+    private record Function(String name, KernelDefinition definition) {}
+    
+    private record KernelDefinition(EmulatedKernel kernel, ValueLayout[] parameters) {}
+    
+    private record Allocation(Arena arena, MemorySegment memory, int device, Managed managed) {}
+    
+    /**
+     * Residency and hints of a managed allocation; new allocations are populated on first touch, by the host here.
+     */
+    private static final class Managed {
+        private volatile int location = CU_DEVICE_CPU;
+        private volatile boolean readMostly;
+        private volatile Integer preferredLocation;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+package org.cuda4j.emulator;
+
+import org.cuda4j.driver.CudaDriver;
+
+import java.util.*;
+
+/**
+ * Host-side model of a CUDA graph: nodes wrapping stream operations, connected by explicit dependencies.
+ * Instantiation fixes a topological order, rejecting cycles, and the executable runs its nodes in that order.
+ */
+final class EmulatedGraph {
+    
+    private final List<Node> nodes = new ArrayList<>();
+    private Node captureTail;
+    
+    /**
+     * Returns {@code null} when a dependency belongs to another graph.
+     */
+    synchronized Node add(Kind kind, EmulatedStream.Operation operation, List<Node> dependencies) {
+        for (Node dependency : dependencies) {
+            if (dependency.graph != this) return null;
+        }
+        
+        Node node = new Node(this, nodes.size(), kind, operation, List.copyOf(dependencies));
+        nodes.add(node);
+        return node;
+    }
+    
+    /**
+     * Appends a node captured from a stream. Stream order is preserved by chaining every node on the
+     * previous one.
+     */
+    synchronized Node capture(Kind kind, EmulatedStream.Operation operation) {
+        captureTail = add(kind, operation, captureTail == null ? List.of() : List.of(captureTail));
+        return captureTail;
+    }
+    
+    synchronized int size() {
+        return nodes.size();
+    }
+    
+    synchronized Exec instantiate() {
+        Map<Node, Integer> remaining = new HashMap<>();
+        Map<Node, List<Node>> dependents = new HashMap<>();
+        ArrayDeque<Node> ready = new ArrayDeque<>();
+        
+        for (Node node : nodes) {
+            remaining.put(node, node.dependencies.size());
+            if (node.dependencies.isEmpty()) ready.add(node);
+            
+            for (Node dependency : node.dependencies) {
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(node);
+            }
+        }
+        
+        List<Node> order = new ArrayList<>(nodes.size());
+        
+        while (!ready.isEmpty()) {
+            Node node = ready.poll();
+            order.add(node);
+            
+            for (Node dependent : dependents.getOrDefault(node, List.of())) {
+                if (remaining.merge(dependent, -1, Integer::sum) == 0) ready.add(dependent);
+            }
+        }
+        
+        if (order.size() != nodes.size()) {
+            throw new IllegalStateException("Graph contains a cycle");
+        }
+        
+        return new Exec(this, order);
+    }
+    
+    enum Kind {
+        KERNEL,
+        MEMCPY,
+        MEMSET,
+        EVENT,
+        HOST
+    }
+    
+    static final class Node {
+        
+        private final EmulatedGraph graph;
+        private final int index;
+        private final Kind kind;
+        private final EmulatedStream.Operation operation;
+        private final List<Node> dependencies;
+        
+        private Node(EmulatedGraph graph, int index, Kind kind, EmulatedStream.Operation operation, List<Node> dependencies) {
+            this.graph = graph;
+            this.index = index;
+            this.kind = kind;
+            this.operation = operation;
+            this.dependencies = dependencies;
+        }
+        
+        Kind kind() {
+            return kind;
+        }
+    }
+    
+    /**
+     * An instantiated graph. Node operations are copied so updating the executable leaves the graph untouched.
+     */
+    static final class Exec {
+        
+        private final EmulatedGraph graph;
+        private final List<Node> order;
+        private final EmulatedStream.Operation[] operations;
+        
+        private Exec(EmulatedGraph graph, List<Node> order) {
+            this.graph = graph;
+            this.order = order;
+            this.operations = new EmulatedStream.Operation[order.size()];
+            
+            for (Node node : order) {
+                operations[node.index] = node.operation;
+            }
+        }
+        
+        synchronized boolean update(Node node, EmulatedStream.Operation operation) {
+            if (node.graph != graph || node.kind != Kind.KERNEL) return false;
+            
+            operations[node.index] = operation;
+            return true;
+        }
+        
+        /**
+         * One replay, with the node operations as they are now: like the driver, updates made after a launch only
+         * affect later launches, even if this one has not started yet.
+         */
+        EmulatedStream.Operation launch() {
+            EmulatedStream.Operation[] snapshot;
+            
+            synchronized (this) {
+                snapshot = operations.clone();
+            }
+            
+            return () -> run(snapshot);
+        }
+        
+        private int run(EmulatedStream.Operation[] snapshot) throws Throwable {
+            for (Node node : order) {
+                int res = snapshot[node.index].run();
+                if (res != CudaDriver.CUDA_SUCCESS) return res;
+            }
+            
+            return CudaDriver.CUDA_SUCCESS;
+        }
+    }
+}
\ No newline at end of file
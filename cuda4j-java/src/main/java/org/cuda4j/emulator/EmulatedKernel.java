@@ -0,0 +1,58 @@
+package org.cuda4j.emulator;
+
+import java.lang.foreign.MemorySegment;
+
+import static java.lang.foreign.ValueLayout.*;
+
+/**
+ * Java implementation of a kernel, registered on an {@link EmulatedDriver} under its PTX entry name.
+ * The body runs once per launch on the stream thread and is expected to loop over {@link Launch#threads()}.
+ */
+@FunctionalInterface
+public interface EmulatedKernel {
+    
+    void execute(Launch launch) throws Throwable;
+    
+    /**
+     * A single kernel launch. Arguments are snapshotted at enqueue time into 8-byte slots,
+     * just like {@code cuLaunchKernel} copies its parameter buffer.
+     */
+    record Launch(
+        int gridX, int gridY, int gridZ,
+        int blockX, int blockY, int blockZ,
+        int sharedMemBytes,
+        MemorySegment arguments,
+        EmulatedDriver driver
+    ) {
+        
+        public static final long SLOT_SIZE = Long.BYTES;
+        
+        public long threads() {
+            return (long) gridX * gridY * gridZ * blockX * blockY * blockZ;
+        }
+        
+        public int argumentCount() {
+            return (int) (arguments.byteSize() / SLOT_SIZE);
+        }
+        
+        public int intArg(int index) {
+            return arguments.get(JAVA_INT, index * SLOT_SIZE);
+        }
+        
+        public long longArg(int index) {
+            return arguments.get(JAVA_LONG, index * SLOT_SIZE);
+        }
+        
+        public float floatArg(int index) {
+            return arguments.get(JAVA_FLOAT, index * SLOT_SIZE);
+        }
+        
+        public double doubleArg(int index) {
+            return arguments.get(JAVA_DOUBLE, index * SLOT_SIZE);
+        }
+        
+        public MemorySegment pointer(int index) {
+            return driver.resolve(longArg(index));
+        }
+    }
+}
\ No newline at end of file
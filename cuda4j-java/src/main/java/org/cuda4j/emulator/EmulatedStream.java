@@ -0,0 +1,117 @@
+package org.cuda4j.emulator;
+
+import org.cuda4j.driver.CudaDriver;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An emulated CUDA stream: a single worker thread executing operations strictly in submission order.
+ */
+public final class EmulatedStream {
+    
+    private static final AtomicInteger IDS = new AtomicInteger();
+    
+    private final int id;
+    private final int priority;
+    private final ExecutorService executor;
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile int error = CudaDriver.CUDA_SUCCESS;
+    
+    EmulatedStream() {
+        this(0);
+    }
+    
+    /**
+     * Higher priority streams (lower numbers) run on higher priority threads.
+     */
+    EmulatedStream(int priority) {
+        this.id = IDS.incrementAndGet();
+        this.priority = priority;
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "cuda4j-emulated-stream-" + id);
+            thread.setDaemon(true);
+            thread.setPriority(Math.min(Thread.NORM_PRIORITY - priority, Thread.MAX_PRIORITY));
+            return thread;
+        });
+    }
+    
+    public int id() {
+        return id;
+    }
+    
+    public int priority() {
+        return priority;
+    }
+    
+    public boolean isIdle() {
+        return pending.get() == 0;
+    }
+    
+    void enqueue(Operation operation) {
+        pending.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                // like a faulted context, a failed stream skips its remaining work until the error is reported
+                if (error != CudaDriver.CUDA_SUCCESS) return;
+                
+                int res = operation.run();
+                if (res != CudaDriver.CUDA_SUCCESS) error = res;
+            } catch (Throwable t) {
+                error = CudaDriver.CUDA_ERROR_LAUNCH_FAILED;
+            } finally {
+                pending.decrementAndGet();
+            }
+        });
+    }
+    
+    /**
+     * Runs {@code action} on the worker after the work queued so far, even if the stream has faulted. Returns
+     * {@code false} if the stream has been destroyed, in which case {@code action} does not run.
+     */
+    boolean afterPending(Runnable action) {
+        pending.incrementAndGet();
+        
+        try {
+            executor.execute(() -> {
+                try {
+                    action.run();
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            return false;
+        }
+    }
+    
+    /**
+     * The pending error, left in place for {@link #synchronize()} to report and clear.
+     */
+    int error() {
+        return error;
+    }
+    
+    int synchronize() throws Exception {
+        if (!isIdle()) {
+            executor.submit(() -> {}).get();
+        }
+        
+        int res = error;
+        error = CudaDriver.CUDA_SUCCESS;
+        return res;
+    }
+    
+    void shutdown() {
+        executor.shutdown();
+    }
+    
+    @FunctionalInterface
+    interface Operation {
+        int run() throws Throwable;
+    }
+}
\ No newline at end of file
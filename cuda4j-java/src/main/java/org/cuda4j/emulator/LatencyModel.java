@@ -0,0 +1,41 @@
+package org.cuda4j.emulator;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cost model used by {@link EmulatedDriver} to stretch emulated operations to a realistic duration.
+ *
+ * @param launchNanos fixed cost of every kernel launch
+ * @param copyLatencyNanos fixed cost of every memory transfer
+ * @param bytesPerSecond transfer bandwidth, or {@code 0} for unlimited
+ */
+public record LatencyModel(long launchNanos, long copyLatencyNanos, long bytesPerSecond) {
+    
+    public static final LatencyModel NONE = new LatencyModel(0, 0, 0);
+    public static final LatencyModel PCIE_GEN4 = new LatencyModel(5_000, 10_000, 25_000_000_000L);
+    
+    public long copyNanos(long bytes) {
+        if (bytesPerSecond == 0) return copyLatencyNanos;
+        return copyLatencyNanos + (long) (bytes * 1e9 / bytesPerSecond);
+    }
+    
+    public void simulateLaunch() {
+        delay(launchNanos);
+    }
+    
+    public void simulateCopy(long bytes) {
+        delay(copyNanos(bytes));
+    }
+    
+    private static void delay(long nanos) {
+        if (nanos <= 0) return;
+        
+        long deadline = System.nanoTime() + nanos;
+        long remaining = nanos;
+        
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,483 @@
+package org.cuda4j.emulator;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs a PTX entry on the host, one thread after the other, so kernels that cuda4j generates can be executed and
+ * checked without a GPU.
+ * <p>
+ * Only straight-line, thread-independent code is understood: parameter loads, special registers, 32 and 64-bit
+ * integer arithmetic, predicates and branches, global {@code f32}/{@code u32} loads and stores, and {@code f32}
+ * arithmetic including the approximate transcendental instructions. Anything else, such as shared memory or
+ * barriers, is rejected by {@link #parse}.
+ */
+public final class PtxInterpreter implements EmulatedKernel {
+    
+    private static final Pattern ENTRY = Pattern.compile("\\.entry\\s+([A-Za-z_$][\\w$]*)\\s*\\(");
+    private static final Pattern PARAMETER = Pattern.compile("\\.param\\s+\\.(\\w+)\\s+([A-Za-z_$][\\w$]*)");
+    private static final Pattern LABEL = Pattern.compile("([A-Za-z_$][\\w$]*):");
+    
+    private final String entry;
+    private final ValueLayout[] parameters;
+    private final Instruction[] instructions;
+    private final int registerCount;
+    
+    private PtxInterpreter(String entry, ValueLayout[] parameters, Instruction[] instructions, int registerCount) {
+        this.entry = entry;
+        this.parameters = parameters;
+        this.instructions = instructions;
+        this.registerCount = registerCount;
+    }
+    
+    /**
+     * Parses the entry called {@code entry} out of a PTX module.
+     *
+     * @throws IllegalArgumentException if there is no such entry or it uses unsupported instructions
+     */
+    public static PtxInterpreter parse(String ptx, String entry) {
+        Matcher matcher = ENTRY.matcher(ptx);
+        boolean found = false;
+        
+        while (!found && matcher.find()) {
+            found = matcher.group(1).equals(entry);
+        }
+        
+        if (!found) {
+            throw new IllegalArgumentException("No entry " + entry + " in PTX");
+        }
+        
+        int close = ptx.indexOf(')', matcher.end());
+        int open = ptx.indexOf('{', close);
+        int end = ptx.indexOf('}', open);
+        
+        if (close < 0 || open < 0 || end < 0) {
+            throw new IllegalArgumentException("Malformed entry " + entry);
+        }
+        
+        Map<String, Integer> parameterIndex = new HashMap<>();
+        List<ValueLayout> layouts = new ArrayList<>();
+        Matcher parameter = PARAMETER.matcher(ptx.substring(matcher.end(), close));
+        
+        while (parameter.find()) {
+            parameterIndex.put(parameter.group(2), layouts.size());
+            layouts.add(layout(parameter.group(1)));
+        }
+        
+        Parser parser = new Parser(parameterIndex);
+        Instruction[] instructions = parser.parse(ptx.substring(open + 1, end));
+        
+        return new PtxInterpreter(entry, layouts.toArray(ValueLayout[]::new), instructions, parser.registers.size());
+    }
+    
+    public String entry() {
+        return entry;
+    }
+    
+    /**
+     * Layouts of the entry's parameters, as {@link EmulatedDriver#registerKernel} expects them.
+     */
+    public ValueLayout[] parameters() {
+        return parameters.clone();
+    }
+    
+    @Override
+    public void execute(Launch launch) {
+        long[] registers = new long[registerCount];
+        int[] special = new int[12];
+        
+        special[Special.NTID_X] = launch.blockX();
+        special[Special.NTID_Y] = launch.blockY();
+        special[Special.NTID_Z] = launch.blockZ();
+        special[Special.NCTAID_X] = launch.gridX();
+        special[Special.NCTAID_Y] = launch.gridY();
+        special[Special.NCTAID_Z] = launch.gridZ();
+        
+        for (int bz = 0; bz < launch.gridZ(); bz++) {
+            for (int by = 0; by < launch.gridY(); by++) {
+                for (int bx = 0; bx < launch.gridX(); bx++) {
+                    special[Special.CTAID_X] = bx;
+                    special[Special.CTAID_Y] = by;
+                    special[Special.CTAID_Z] = bz;
+                    
+                    for (int tz = 0; tz < launch.blockZ(); tz++) {
+                        for (int ty = 0; ty < launch.blockY(); ty++) {
+                            for (int tx = 0; tx < launch.blockX(); tx++) {
+                                special[Special.TID_X] = tx;
+                                special[Special.TID_Y] = ty;
+                                special[Special.TID_Z] = tz;
+                                run(launch, registers, special);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    private void run(Launch launch, long[] registers, int[] special) {
+        int pc = 0;
+        
+        while (pc < instructions.length) {
+            Instruction instruction = instructions[pc++];
+            
+            if (instruction.guard >= 0 && (registers[instruction.guard] != 0) == instruction.guardNegated) {
+                continue;
+            }
+            
+            switch (instruction.op) {
+                case RET -> {
+                    return;
+                }
+                case BRA -> pc = instruction.target;
+                case LD_PARAM -> registers[instruction.dst] = launch.longArg(instruction.sources[0].index) & instruction.mask;
+                case MOV -> registers[instruction.dst] = value(instruction.sources[0], registers, special);
+                case CVTA -> registers[instruction.dst] = value(instruction.sources[0], registers, special);
+                case LD_GLOBAL -> {
+                    MemorySegment memory = launch.driver().resolve(address(instruction.sources[0], registers));
+                    registers[instruction.dst] = memory.get(ValueLayout.JAVA_INT_UNALIGNED, 0) & 0xFFFFFFFFL;
+                }
+                case ST_GLOBAL -> {
+                    MemorySegment memory = launch.driver().resolve(address(instruction.sources[0], registers));
+                    memory.set(ValueLayout.JAVA_INT_UNALIGNED, 0, (int) value(instruction.sources[1], registers, special));
+                }
+                case SETP -> registers[instruction.dst] = compare(instruction, registers, special) ? 1 : 0;
+                default -> registers[instruction.dst] = arithmetic(instruction, registers, special);
+            }
+        }
+    }
+    
+    private static long arithmetic(Instruction instruction, long[] registers, int[] special) {
+        Operand[] s = instruction.sources;
+        long a = value(s[0], registers, special);
+        long b = s.length > 1 ? value(s[1], registers, special) : 0;
+        
+        return switch (instruction.op) {
+            case ADD_I32 -> (a + b) & 0xFFFFFFFFL;
+            case SUB_I32 -> (a - b) & 0xFFFFFFFFL;
+            case MUL_LO_I32 -> (a * b) & 0xFFFFFFFFL;
+            case MAD_LO_I32 -> (a * b + value(s[2], registers, special)) & 0xFFFFFFFFL;
+            case DIV_U32 -> Integer.toUnsignedLong(Integer.divideUnsigned((int) a, (int) b));
+            case REM_U32 -> Integer.toUnsignedLong(Integer.remainderUnsigned((int) a, (int) b));
+            case MUL_WIDE_U32 -> (a & 0xFFFFFFFFL) * (b & 0xFFFFFFFFL);
+            case MUL_WIDE_S32 -> (long) (int) a * (int) b;
+            case ADD_I64 -> a + b;
+            case SUB_I64 -> a - b;
+            case ADD_F32 -> bits(f(a) + f(b));
+            case SUB_F32 -> bits(f(a) - f(b));
+            case MUL_F32 -> bits(f(a) * f(b));
+            case DIV_F32 -> bits(f(a) / f(b));
+            case MAX_F32 -> bits(Math.max(f(a), f(b)));
+            case MIN_F32 -> bits(Math.min(f(a), f(b)));
+            case FMA_F32 -> bits(Math.fma(f(a), f(b), f(value(s[2], registers, special))));
+            case NEG_F32 -> bits(-f(a));
+            case ABS_F32 -> bits(Math.abs(f(a)));
+            case SQRT_F32 -> bits((float) Math.sqrt(f(a)));
+            case RCP_F32 -> bits(1 / f(a));
+            case EX2_F32 -> bits((float) Math.pow(2, f(a)));
+            case LG2_F32 -> bits((float) (Math.log(f(a)) / Math.log(2)));
+            default -> throw new IllegalStateException(instruction.op.name());
+        };
+    }
+    
+    private static boolean compare(Instruction instruction, long[] registers, int[] special) {
+        long a = value(instruction.sources[0], registers, special);
+        long b = value(instruction.sources[1], registers, special);
+        int order = instruction.signed ? Integer.compare((int) a, (int) b) : Integer.compareUnsigned((int) a, (int) b);
+        
+        return switch (instruction.comparison) {
+            case "eq" -> order == 0;
+            case "ne" -> order != 0;
+            case "lt" -> order < 0;
+            case "le" -> order <= 0;
+            case "gt" -> order > 0;
+            case "ge" -> order >= 0;
+            default -> throw new IllegalStateException(instruction.comparison);
+        };
+    }
+    
+    private static long value(Operand operand, long[] registers, int[] special) {
+        return switch (operand.kind) {
+            case REGISTER -> registers[operand.index];
+            case SPECIAL -> special[operand.index];
+            default -> operand.immediate;
+        };
+    }
+    
+    private static long address(Operand operand, long[] registers) {
+        return registers[operand.index] + operand.immediate;
+    }
+    
+    private static float f(long bits) {
+        return Float.intBitsToFloat((int) bits);
+    }
+    
+    private static long bits(float value) {
+        return Float.floatToRawIntBits(value) & 0xFFFFFFFFL;
+    }
+    
+    private static ValueLayout layout(String type) {
+        return switch (type) {
+            case "u64", "s64", "b64" -> ValueLayout.JAVA_LONG;
+            case "u32", "s32", "b32" -> ValueLayout.JAVA_INT;
+            case "f32" -> ValueLayout.JAVA_FLOAT;
+            default -> throw new IllegalArgumentException("Unsupported parameter type ." + type);
+        };
+    }
+    
+    // ========================= PARSING =========================
+    
+    private enum Op {
+        RET, BRA, LD_PARAM, MOV, CVTA, LD_GLOBAL, ST_GLOBAL, SETP,
+        ADD_I32, SUB_I32, MUL_LO_I32, MAD_LO_I32, DIV_U32, REM_U32, MUL_WIDE_U32, MUL_WIDE_S32, ADD_I64, SUB_I64,
+        ADD_F32, SUB_F32, MUL_F32, DIV_F32, MAX_F32, MIN_F32, FMA_F32, NEG_F32, ABS_F32, SQRT_F32, RCP_F32, EX2_F32, LG2_F32
+    }
+    
+    private enum Kind { REGISTER, SPECIAL, IMMEDIATE, PARAMETER }
+    
+    private record Operand(Kind kind, int index, long immediate) {}
+    
+    private static final class Instruction {
+        private Op op;
+        private int dst = -1;
+        private Operand[] sources = new Operand[0];
+        private int guard = -1;
+        private boolean guardNegated;
+        private String label;
+        private int target;
+        private long mask = -1;
+        private String comparison;
+        private boolean signed;
+    }
+    
+    private static final class Special {
+        private static final int TID_X = 0, TID_Y = 1, TID_Z = 2;
+        private static final int NTID_X = 3, NTID_Y = 4, NTID_Z = 5;
+        private static final int CTAID_X = 6, CTAID_Y = 7, CTAID_Z = 8;
+        private static final int NCTAID_X = 9, NCTAID_Y = 10, NCTAID_Z = 11;
+        private static final Map<String, Integer> NAMES = Map.ofEntries(
+            Map.entry("%tid.x", TID_X), Map.entry("%tid.y", TID_Y), Map.entry("%tid.z", TID_Z),
+            Map.entry("%ntid.x", NTID_X), Map.entry("%ntid.y", NTID_Y), Map.entry("%ntid.z", NTID_Z),
+            Map.entry("%ctaid.x", CTAID_X), Map.entry("%ctaid.y", CTAID_Y), Map.entry("%ctaid.z", CTAID_Z),
+            Map.entry("%nctaid.x", NCTAID_X), Map.entry("%nctaid.y", NCTAID_Y), Map.entry("%nctaid.z", NCTAID_Z)
+        );
+    }
+    
+    private static final class Parser {
+        
+        private final Map<String, Integer> parameters;
+        private final Map<String, Integer> registers = new HashMap<>();
+        
+        private Parser(Map<String, Integer> parameters) {
+            this.parameters = parameters;
+        }
+        
+        private Instruction[] parse(String body) {
+            List<Instruction> instructions = new ArrayList<>();
+            Map<String, Integer> labels = new HashMap<>();
+            
+            for (String raw : body.split("\n")) {
+                int comment = raw.indexOf("//");
+                String line = (comment >= 0 ? raw.substring(0, comment) : raw).trim();
+                
+                Matcher label = LABEL.matcher(line);
+                if (label.lookingAt()) {
+                    labels.put(label.group(1), instructions.size());
+                    line = line.substring(label.end()).trim();
+                }
+                
+                for (String statement : line.split(";")) {
+                    statement = statement.trim();
+                    if (statement.isEmpty() || statement.startsWith(".reg") || statement.startsWith(".loc")) continue;
+                    
+                    instructions.add(instruction(statement));
+                }
+            }
+            
+            for (Instruction instruction : instructions) {
+                if (instruction.op == Op.BRA) {
+                    Integer target = labels.get(instruction.label);
+                    if (target == null) throw new IllegalArgumentException("Unknown label " + instruction.label);
+                    instruction.target = target;
+                }
+            }
+            
+            return instructions.toArray(Instruction[]::new);
+        }
+        
+        private Instruction instruction(String statement) {
+            Instruction instruction = new Instruction();
+            
+            if (statement.startsWith("@")) {
+                int space = statement.indexOf(' ');
+                String guard = statement.substring(1, space);
+                instruction.guardNegated = guard.startsWith("!");
+                instruction.guard = register(instruction.guardNegated ? guard.substring(1) : guard);
+                statement = statement.substring(space + 1).trim();
+            }
+            
+            int space = statement.indexOf(' ');
+            String opcode = space < 0 ? statement : statement.substring(0, space);
+            String[] operands = space < 0 ? new String[0] : statement.substring(space + 1).split(",");
+            
+            for (int i = 0; i < operands.length; i++) operands[i] = operands[i].trim();
+            
+            if (opcode.equals("ret") || opcode.equals("exit")) {
+                instruction.op = Op.RET;
+                return instruction;
+            }
+            
+            if (opcode.equals("bra") || opcode.equals("bra.uni")) {
+                instruction.op = Op.BRA;
+                instruction.label = operands[0];
+                return instruction;
+            }
+            
+            instruction.op = op(opcode, instruction);
+            
+            if (instruction.op == Op.ST_GLOBAL) {
+                instruction.sources = new Operand[] { memory(operands[0]), operand(operands[1]) };
+                return instruction;
+            }
+            
+            instruction.dst = register(operands[0]);
+            instruction.sources = new Operand[operands.length - 1];
+            
+            for (int i = 1; i < operands.length; i++) {
+                instruction.sources[i - 1] = operands[i].startsWith("[") ? memory(operands[i]) : operand(operands[i]);
+            }
+            
+            return instruction;
+        }
+        
+        private Op op(String opcode, Instruction instruction) {
+            String[] parts = opcode.split("\\.");
+            String type = parts[parts.length - 1];
+            
+            switch (parts[0]) {
+                case "ld" -> {
+                    if (parts[1].equals("param")) {
+                        instruction.mask = type.endsWith("64") ? -1 : 0xFFFFFFFFL;
+                        return Op.LD_PARAM;
+                    }
+                    if (parts[1].equals("global") && is32(type)) return Op.LD_GLOBAL;
+                }
+                case "st" -> {
+                    if (parts[1].equals("global") && is32(type)) return Op.ST_GLOBAL;
+                }
+                case "mov" -> {
+                    return Op.MOV;
+                }
+                case "cvta" -> {
+                    if (opcode.equals("cvta.to.global.u64")) return Op.CVTA;
+                }
+                case "setp" -> {
+                    instruction.comparison = parts[1];
+                    instruction.signed = type.equals("s32");
+                    if (is32(type) && !type.equals("f32")) return Op.SETP;
+                }
+                case "add" -> {
+                    return type.equals("f32") ? Op.ADD_F32 : type.endsWith("64") ? Op.ADD_I64 : Op.ADD_I32;
+                }
+                case "sub" -> {
+                    return type.equals("f32") ? Op.SUB_F32 : type.endsWith("64") ? Op.SUB_I64 : Op.SUB_I32;
+                }
+                case "mul" -> {
+                    if (type.equals("f32")) return Op.MUL_F32;
+                    if (parts[1].equals("lo")) return Op.MUL_LO_I32;
+                    if (parts[1].equals("wide")) return type.equals("s32") ? Op.MUL_WIDE_S32 : Op.MUL_WIDE_U32;
+                }
+                case "mad" -> {
+                    if (parts[1].equals("lo") && is32(type)) return Op.MAD_LO_I32;
+                }
+                case "div" -> {
+                    if (type.equals("f32")) return Op.DIV_F32;
+                    if (type.equals("u32")) return Op.DIV_U32;
+                }
+                case "rem" -> {
+                    if (type.equals("u32")) return Op.REM_U32;
+                }
+                case "max" -> {
+                    if (type.equals("f32")) return Op.MAX_F32;
+                }
+                case "min" -> {
+                    if (type.equals("f32")) return Op.MIN_F32;
+                }
+                case "fma" -> {
+                    if (type.equals("f32")) return Op.FMA_F32;
+                }
+                case "neg" -> {
+                    if (type.equals("f32")) return Op.NEG_F32;
+                }
+                case "abs" -> {
+                    if (type.equals("f32")) return Op.ABS_F32;
+                }
+                case "sqrt" -> {
+                    if (type.equals("f32")) return Op.SQRT_F32;
+                }
+                case "rcp" -> {
+                    if (type.equals("f32")) return Op.RCP_F32;
+                }
+                case "ex2" -> {
+                    if (type.equals("f32")) return Op.EX2_F32;
+                }
+                case "lg2" -> {
+                    if (type.equals("f32")) return Op.LG2_F32;
+                }
+                default -> {
+                }
+            }
+            
+            throw new IllegalArgumentException("Unsupported PTX instruction " + opcode);
+        }
+        
+        private Operand operand(String text) {
+            if (text.startsWith("%")) {
+                Integer special = Special.NAMES.get(text);
+                return special != null ? new Operand(Kind.SPECIAL, special, 0) : new Operand(Kind.REGISTER, register(text), 0);
+            }
+            
+            if (text.startsWith("0f") || text.startsWith("0F")) {
+                return new Operand(Kind.IMMEDIATE, 0, Long.parseLong(text.substring(2), 16));
+            }
+            
+            try {
+                return new Operand(Kind.IMMEDIATE, 0, Long.decode(text) & 0xFFFFFFFFL);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Unsupported PTX operand " + text);
+            }
+        }
+        
+        /**
+         * {@code [%rd1]}, {@code [%rd1+8]} or {@code [name]} for parameters.
+         */
+        private Operand memory(String text) {
+            String inner = text.substring(1, text.length() - 1).trim();
+            Integer parameter = parameters.get(inner);
+            
+            if (parameter != null) {
+                return new Operand(Kind.PARAMETER, parameter, 0);
+            }
+            
+            int plus = inner.indexOf('+');
+            if (plus < 0) return new Operand(Kind.REGISTER, register(inner), 0);
+            
+            return new Operand(Kind.REGISTER, register(inner.substring(0, plus).trim()), Long.decode(inner.substring(plus + 1).trim()));
+        }
+        
+        private int register(String name) {
+            if (!name.startsWith("%")) throw new IllegalArgumentException("Not a register: " + name);
+            return registers.computeIfAbsent(name, key -> registers.size());
+        }
+        
+        private static boolean is32(String type) {
+            return type.endsWith("32");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package org.cuda4j.emulator;
+
+/**
+ * A kernel, copy or memset executed by an emulated stream, as recorded by {@link EmulatedDriver#recordTimeline}.
+ */
+public record TimelineEntry(int stream, String operation, long startNanos, long endNanos) {
+    
+    public boolean overlaps(TimelineEntry other) {
+        return startNanos < other.endNanos && other.startNanos < endNanos;
+    }
+}
\ No newline at end of file
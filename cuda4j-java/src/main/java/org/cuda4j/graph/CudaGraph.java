@@ -0,0 +1,169 @@
+package org.cuda4j.graph;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.CudaObject;
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.buffer.CudaPointer;
+import org.cuda4j.context.CudaFunction;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Objects;
+
+/**
+ * A recorded DAG of kernel, memcpy and memset nodes. Build it explicitly with the {@code add*} methods or
+ * capture it from a stream with {@link org.cuda4j.context.CudaStream#beginCapture()}, then
+ * {@link #instantiate()} it once and replay the executable as often as needed.
+ */
+public record CudaGraph(MemorySegment handle) implements CudaObject {
+    
+    public static CudaGraph create() throws Throwable {
+        MemorySegment graph = CUDA.driver().graphCreate();
+        
+        if (graph == null || graph.address() == 0) {
+            throw new RuntimeException("cuGraphCreate failed");
+        }
+        
+        return new CudaGraph(graph);
+    }
+    
+    public CudaGraphNode addKernelNode(
+        CudaFunction function,
+        int gridX, int gridY, int gridZ,
+        int blockX, int blockY, int blockZ,
+        int sharedMemBytes,
+        CudaPointer kernelParams,
+        CudaGraphNode... dependencies
+    ) throws Throwable {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment node = CUDA.driver().graphAddKernelNode(
+                handle,
+                dependencies(arena, dependencies), dependencies.length,
+                function.handle(),
+                gridX, gridY, gridZ,
+                blockX, blockY, blockZ,
+                sharedMemBytes,
+                kernelParams == null ? MemorySegment.NULL : kernelParams.segment()
+            );
+            
+            return node("cuGraphAddKernelNode", node);
+        }
+    }
+    
+    /**
+     * Adds a host-to-device copy. {@code src} must be native memory that outlives every launch of the graph.
+     */
+    public CudaGraphNode addMemcpyNode(
+        CudaBuffer dst, long dstOffset,
+        MemorySegment src, long bytes,
+        CudaGraphNode... dependencies
+    ) throws Throwable {
+        Objects.checkFromIndexSize(dstOffset, bytes, dst.length());
+        requireNative(src, bytes);
+        
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment node = CUDA.driver().graphAddMemcpyHtoDNode(
+                handle,
+                dependencies(arena, dependencies), dependencies.length,
+                dst.handle(), dst.offset() + dstOffset,
+                src, bytes
+            );
+            
+            return node("cuGraphAddMemcpyNode", node);
+        }
+    }
+    
+    /**
+     * Adds a device-to-host copy. {@code dst} must be native memory that outlives every launch of the graph.
+     */
+    public CudaGraphNode addMemcpyNode(
+        MemorySegment dst,
+        CudaBuffer src, long srcOffset, long bytes,
+        CudaGraphNode... dependencies
+    ) throws Throwable {
+        Objects.checkFromIndexSize(srcOffset, bytes, src.length());
+        requireNative(dst, bytes);
+        
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment node = CUDA.driver().graphAddMemcpyDtoHNode(
+                handle,
+                dependencies(arena, dependencies), dependencies.length,
+                dst,
+                src.handle(), src.offset() + srcOffset, bytes
+            );
+            
+            return node("cuGraphAddMemcpyNode", node);
+        }
+    }
+    
+    public CudaGraphNode addMemsetNode(
+        CudaBuffer dst, long dstOffset,
+        byte value, long bytes,
+        CudaGraphNode... dependencies
+    ) throws Throwable {
+        Objects.checkFromIndexSize(dstOffset, bytes, dst.length());
+        
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment node = CUDA.driver().graphAddMemsetNode(
+                handle,
+                dependencies(arena, dependencies), dependencies.length,
+                dst.handle(), dst.offset() + dstOffset,
+                value, bytes
+            );
+            
+            return node("cuGraphAddMemsetNode", node);
+        }
+    }
+    
+    public CudaGraphExec instantiate() throws Throwable {
+        MemorySegment exec = CUDA.driver().graphInstantiate(handle);
+        
+        if (exec == null || exec.address() == 0) {
+            throw new RuntimeException("cuGraphInstantiate failed");
+        }
+        
+        return new CudaGraphExec(exec);
+    }
+    
+    @Override
+    public void dispose() throws Throwable {
+        destroy();
+    }
+    
+    public void destroy() throws Throwable {
+        int res = CUDA.driver().graphDestroy(handle);
+        
+        if (res != 0) {
+            throw new RuntimeException("cuGraphDestroy failed: " + res);
+        }
+    }
+    
+    private static MemorySegment dependencies(Arena arena, CudaGraphNode... nodes) {
+        if (nodes.length == 0) return MemorySegment.NULL;
+        
+        MemorySegment array = arena.allocate(ValueLayout.ADDRESS, nodes.length);
+        
+        for (int i = 0; i < nodes.length; i++) {
+            array.setAtIndex(ValueLayout.ADDRESS, i, nodes[i].handle());
+        }
+        
+        return array;
+    }
+    
+    private static CudaGraphNode node(String call, MemorySegment node) {
+        if (node == null || node.address() == 0) {
+            throw new RuntimeException(call + " failed");
+        }
+        
+        return new CudaGraphNode(node);
+    }
+    
+    private static void requireNative(MemorySegment host, long bytes) {
+        if (!host.isNative()) {
+            throw new IllegalArgumentException("Graph memcpy nodes need native host memory");
+        }
+        
+        Objects.checkFromIndexSize(0, bytes, host.byteSize());
+    }
+}
\ No newline at end of file
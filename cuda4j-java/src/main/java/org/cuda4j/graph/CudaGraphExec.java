@@ -0,0 +1,63 @@
+package org.cuda4j.graph;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.CudaObject;
+import org.cuda4j.buffer.CudaPointer;
+import org.cuda4j.context.CudaFunction;
+import org.cuda4j.context.CudaStream;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * An instantiated {@link CudaGraph}. Every {@link #launch} replays the whole graph with one driver call.
+ */
+public record CudaGraphExec(MemorySegment handle) implements CudaObject {
+    
+    public void launch(CudaStream stream) throws Throwable {
+        int res = CUDA.driver().graphLaunch(handle, stream == null ? MemorySegment.NULL : stream.handle());
+        
+        if (res != 0) {
+            throw new RuntimeException("cuGraphLaunch failed: " + res);
+        }
+    }
+    
+    /**
+     * Replaces the launch configuration and arguments of a kernel node for subsequent launches. The argument
+     * values are copied, so {@code kernelParams} may be reused right away.
+     */
+    public void setKernelNodeParams(
+        CudaGraphNode node,
+        CudaFunction function,
+        int gridX, int gridY, int gridZ,
+        int blockX, int blockY, int blockZ,
+        int sharedMemBytes,
+        CudaPointer kernelParams
+    ) throws Throwable {
+        int res = CUDA.driver().graphExecKernelNodeSetParams(
+            handle,
+            node.handle(),
+            function.handle(),
+            gridX, gridY, gridZ,
+            blockX, blockY, blockZ,
+            sharedMemBytes,
+            kernelParams == null ? MemorySegment.NULL : kernelParams.segment()
+        );
+        
+        if (res != 0) {
+            throw new RuntimeException("cuGraphExecKernelNodeSetParams failed: " + res);
+        }
+    }
+    
+    @Override
+    public void dispose() throws Throwable {
+        destroy();
+    }
+    
+    public void destroy() throws Throwable {
+        int res = CUDA.driver().graphExecDestroy(handle);
+        
+        if (res != 0) {
+            throw new RuntimeException("cuGraphExecDestroy failed: " + res);
+        }
+    }
+}
\ No newline at end of file
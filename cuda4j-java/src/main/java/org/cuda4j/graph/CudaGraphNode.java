@@ -0,0 +1,9 @@
+package org.cuda4j.graph;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * A node of a {@link CudaGraph}. Nodes are owned by their graph and released together with it.
+ */
+public record CudaGraphNode(MemorySegment handle) {
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package org.cuda4j.metrics;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.cuda4j.Allocation")
+@Label("CUDA Allocation")
+@Description("A device allocation through CUDA.allocateBytes")
+public final class AllocationEvent extends DriverEvent {
+    
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+    
+    @Label("Pooled")
+    @Description("Served by the memory pool rather than cuMemAlloc")
+    boolean pooled;
+    
+    @Label("Pool Hit")
+    @Description("Reused a cached block without calling the driver")
+    boolean poolHit;
+    
+    AllocationEvent() {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package org.cuda4j.metrics;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.cuda4j.Copy")
+@Label("CUDA Copy")
+@Description("A memory copy issued through CudaBuffer; for asynchronous copies the duration is the time to enqueue it")
+public final class CopyEvent extends DriverEvent {
+    
+    @Label("Direction")
+    String direction;
+    
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+    
+    @Label("Asynchronous")
+    boolean async;
+    
+    CopyEvent() {
+    }
+}
\ No newline at end of file
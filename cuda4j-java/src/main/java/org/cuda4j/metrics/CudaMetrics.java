@@ -0,0 +1,29 @@
+package org.cuda4j.metrics;
+
+/**
+ * Sink for counters and timings of driver interactions, installed with {@code CUDA.useMetrics}.
+ * <p>
+ * Methods are called on the thread doing the work, right after it, so implementations must be thread safe and
+ * cheap. All durations are in nanoseconds.
+ */
+public interface CudaMetrics {
+    
+    /**
+     * Records nothing; while it is installed and no Flight Recorder event is enabled, cuda4j does not even read
+     * the clock.
+     */
+    CudaMetrics NONE = new CudaMetrics() {
+    };
+    
+    default void copy(Direction direction, long bytes, boolean async, long nanos) {
+    }
+    
+    default void launch(String function, long nanos) {
+    }
+    
+    default void sync(String target, long nanos) {
+    }
+    
+    default void allocation(long bytes, boolean poolHit, long nanos) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package org.cuda4j.metrics;
+
+public enum Direction {
+    HOST_TO_DEVICE,
+    DEVICE_TO_HOST,
+    DEVICE_TO_DEVICE
+}
\ No newline at end of file
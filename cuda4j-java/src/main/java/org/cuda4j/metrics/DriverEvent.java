@@ -0,0 +1,22 @@
+package org.cuda4j.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+
+/**
+ * Base of the Flight Recorder events emitted by cuda4j. Events are only created through {@link Telemetry}.
+ */
+@Category("cuda4j")
+public abstract class DriverEvent extends Event {
+    
+    // Not recorded by JFR; duration handed to the metrics sink
+    transient long startNanos;
+    
+    DriverEvent() {
+    }
+    
+    long stop() {
+        end();
+        return System.nanoTime() - startNanos;
+    }
+}
\ No newline at end of file
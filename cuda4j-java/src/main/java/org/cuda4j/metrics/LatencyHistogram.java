@@ -0,0 +1,66 @@
+package org.cuda4j.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations with power-of-two buckets, precise to a factor of two.
+ */
+public final class LatencyHistogram {
+    
+    private final LongAdder[] buckets = new LongAdder[64];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+    
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        
+        buckets[63 - Long.numberOfLeadingZeros(value | 1)].increment();
+        count.increment();
+        totalNanos.add(value);
+    }
+    
+    public long count() {
+        return count.sum();
+    }
+    
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+    
+    public double meanNanos() {
+        long samples = count();
+        return samples == 0 ? 0 : (double) totalNanos() / samples;
+    }
+    
+    /**
+     * Upper bound of the bucket holding the {@code quantile} of all samples, e.g. {@code 0.99} for the p99.
+     */
+    public long percentileNanos(double quantile) {
+        long samples = count();
+        if (samples == 0) return 0;
+        
+        long rank = (long) Math.ceil(quantile * samples);
+        long seen = 0;
+        
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) return (2L << i) - 1;
+        }
+        
+        return Long.MAX_VALUE;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(
+            "count=%d, mean=%.1f us, p50<=%.1f us, p99<=%.1f us",
+            count(), meanNanos() / 1e3, percentileNanos(0.5) / 1e3, percentileNanos(0.99) / 1e3
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package org.cuda4j.metrics;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.cuda4j.Launch")
+@Label("CUDA Kernel Launch")
+@Description("A kernel launch; the duration is the time to enqueue it, not the kernel run time")
+public final class LaunchEvent extends DriverEvent {
+    
+    @Label("Function")
+    String function;
+    
+    @Label("Grid X")
+    int gridX;
+    
+    @Label("Grid Y")
+    int gridY;
+    
+    @Label("Grid Z")
+    int gridZ;
+    
+    @Label("Block X")
+    int blockX;
+    
+    @Label("Block Y")
+    int blockY;
+    
+    @Label("Block Z")
+    int blockZ;
+    
+    @Label("Shared Memory")
+    @DataAmount
+    int sharedMemBytes;
+    
+    LaunchEvent() {
+    }
+}
\ No newline at end of file
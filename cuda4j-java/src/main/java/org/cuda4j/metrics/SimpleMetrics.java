@@ -0,0 +1,107 @@
+package org.cuda4j.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory counters and latency histograms, enough to answer where GPU time goes without an external metrics
+ * library. Bridges to other systems implement {@link CudaMetrics} directly.
+ */
+public final class SimpleMetrics implements CudaMetrics {
+    
+    private final Map<Direction, LongAdder> copyBytes = new EnumMap<>(Direction.class);
+    private final Map<Direction, LatencyHistogram> copyLatency = new EnumMap<>(Direction.class);
+    private final Map<String, LongAdder> launchesByFunction = new ConcurrentHashMap<>();
+    private final LatencyHistogram launchLatency = new LatencyHistogram();
+    private final Map<String, LatencyHistogram> syncLatency = new ConcurrentHashMap<>();
+    private final LatencyHistogram allocationLatency = new LatencyHistogram();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder poolHits = new LongAdder();
+    
+    public SimpleMetrics() {
+        for (Direction direction : Direction.values()) {
+            copyBytes.put(direction, new LongAdder());
+            copyLatency.put(direction, new LatencyHistogram());
+        }
+    }
+    
+    @Override
+    public void copy(Direction direction, long bytes, boolean async, long nanos) {
+        copyBytes.get(direction).add(bytes);
+        copyLatency.get(direction).record(nanos);
+    }
+    
+    @Override
+    public void launch(String function, long nanos) {
+        launchesByFunction.computeIfAbsent(function == null ? "<unnamed>" : function, key -> new LongAdder()).increment();
+        launchLatency.record(nanos);
+    }
+    
+    @Override
+    public void sync(String target, long nanos) {
+        syncLatency.computeIfAbsent(target, key -> new LatencyHistogram()).record(nanos);
+    }
+    
+    @Override
+    public void allocation(long bytes, boolean poolHit, long nanos) {
+        allocatedBytes.add(bytes);
+        allocationLatency.record(nanos);
+        if (poolHit) poolHits.increment();
+    }
+    
+    public long copyBytes(Direction direction) {
+        return copyBytes.get(direction).sum();
+    }
+    
+    public LatencyHistogram copyLatency(Direction direction) {
+        return copyLatency.get(direction);
+    }
+    
+    public long launches(String function) {
+        LongAdder launches = launchesByFunction.get(function);
+        return launches == null ? 0 : launches.sum();
+    }
+    
+    public LatencyHistogram launchLatency() {
+        return launchLatency;
+    }
+    
+    /**
+     * Time spent blocked in synchronization on {@code target}: {@code "stream"}, {@code "context"} or
+     * {@code "event"}.
+     */
+    public LatencyHistogram syncLatency(String target) {
+        return syncLatency.computeIfAbsent(target, key -> new LatencyHistogram());
+    }
+    
+    public LatencyHistogram allocationLatency() {
+        return allocationLatency;
+    }
+    
+    public long allocatedBytes() {
+        return allocatedBytes.sum();
+    }
+    
+    public long poolHits() {
+        return poolHits.sum();
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("SimpleMetrics\n");
+        
+        for (Direction direction : Direction.values()) {
+            builder.append(String.format("  copy %s: %d bytes, %s%n", direction, copyBytes(direction), copyLatency(direction)));
+        }
+        
+        builder.append(String.format("  launch: %s%n", launchLatency));
+        syncLatency.forEach((target, latency) -> builder.append(String.format("  sync %s: %s%n", target, latency)));
+        builder.append(String.format(
+            "  allocation: %d bytes, %d pool hits, %s%n", allocatedBytes(), poolHits(), allocationLatency
+        ));
+        
+        return builder.toString();
+    }
+}
\ No newline at end of file
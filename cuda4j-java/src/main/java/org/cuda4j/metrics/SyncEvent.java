@@ -0,0 +1,17 @@
+package org.cuda4j.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.cuda4j.Synchronize")
+@Label("CUDA Synchronize")
+@Description("Time a thread was blocked waiting for a stream, context or event")
+public final class SyncEvent extends DriverEvent {
+    
+    @Label("Target")
+    String target;
+    
+    SyncEvent() {
+    }
+}
\ No newline at end of file
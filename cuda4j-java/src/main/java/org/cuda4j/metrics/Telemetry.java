@@ -0,0 +1,112 @@
+package org.cuda4j.metrics;
+
+import org.cuda4j.CUDA;
+
+/**
+ * Emits the Flight Recorder events and metrics of driver interactions. Each {@code begin} returns {@code null}
+ * unless one of the event types is enabled in a recording or a {@link CudaMetrics} sink is installed, and each
+ * {@code end} returns immediately for {@code null}, so a disabled probe costs an instrumented flag check and a
+ * volatile read; the event allocation is removed by escape analysis.
+ */
+public final class Telemetry {
+    
+    private Telemetry() {
+    }
+    
+    // ========================= COPIES =========================
+    
+    public static CopyEvent beginCopy() {
+        return begin(new CopyEvent());
+    }
+    
+    public static void endCopy(CopyEvent event, Direction direction, long bytes, boolean async) {
+        if (event == null) return;
+        long nanos = event.stop();
+        
+        if (event.shouldCommit()) {
+            event.direction = direction.name();
+            event.bytes = bytes;
+            event.async = async;
+            event.commit();
+        }
+        
+        CUDA.metrics().copy(direction, bytes, async, nanos);
+    }
+    
+    // ========================= LAUNCHES =========================
+    
+    public static LaunchEvent beginLaunch() {
+        return begin(new LaunchEvent());
+    }
+    
+    public static void endLaunch(
+        LaunchEvent event,
+        String function,
+        int gridX, int gridY, int gridZ,
+        int blockX, int blockY, int blockZ,
+        int sharedMemBytes
+    ) {
+        if (event == null) return;
+        long nanos = event.stop();
+        
+        if (event.shouldCommit()) {
+            event.function = function;
+            event.gridX = gridX;
+            event.gridY = gridY;
+            event.gridZ = gridZ;
+            event.blockX = blockX;
+            event.blockY = blockY;
+            event.blockZ = blockZ;
+            event.sharedMemBytes = sharedMemBytes;
+            event.commit();
+        }
+        
+        CUDA.metrics().launch(function, nanos);
+    }
+    
+    // ========================= SYNCHRONIZATION =========================
+    
+    public static SyncEvent beginSync() {
+        return begin(new SyncEvent());
+    }
+    
+    public static void endSync(SyncEvent event, String target) {
+        if (event == null) return;
+        long nanos = event.stop();
+        
+        if (event.shouldCommit()) {
+            event.target = target;
+            event.commit();
+        }
+        
+        CUDA.metrics().sync(target, nanos);
+    }
+    
+    // ========================= ALLOCATIONS =========================
+    
+    public static AllocationEvent beginAllocation() {
+        return begin(new AllocationEvent());
+    }
+    
+    public static void endAllocation(AllocationEvent event, long bytes, boolean pooled, boolean poolHit) {
+        if (event == null) return;
+        long nanos = event.stop();
+        
+        if (event.shouldCommit()) {
+            event.bytes = bytes;
+            event.pooled = pooled;
+            event.poolHit = poolHit;
+            event.commit();
+        }
+        
+        CUDA.metrics().allocation(bytes, poolHit, nanos);
+    }
+    
+    private static <E extends DriverEvent> E begin(E event) {
+        if (!event.isEnabled() && CUDA.metrics() == CudaMetrics.NONE) return null;
+        
+        event.startNanos = System.nanoTime();
+        event.begin();
+        return event;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,342 @@
+package org.cuda4j.tensor;
+
+import org.cuda4j.buffer.CudaFloatBuffer;
+import org.cuda4j.context.CudaStream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A lazily evaluated {@code float} tensor over a {@link CudaFloatBuffer}.
+ * <p>
+ * Arithmetic on tensors only records an expression. {@link #materialize} compiles the expression into one
+ * {@link FusedKernel} that reads every input once and writes every output once, so a chain such as
+ * {@code x.mul(w).add(b).relu()} costs one launch and no intermediate buffers. Shapes broadcast like NumPy's:
+ * dimensions are aligned from the right and a dimension of 1 stretches to match the other operand.
+ * <p>
+ * Tensors are row-major and contiguous. Expressions are immutable and can be shared between outputs; a node used
+ * twice is computed once per element.
+ */
+public final class CudaTensor implements AutoCloseable {
+    
+    private final TensorOp op;
+    private final CudaTensor[] inputs;
+    private final long[] shape;
+    private final CudaFloatBuffer buffer;
+    private final float value;
+    private final boolean owned;
+    private boolean closed;
+    
+    private CudaTensor(TensorOp op, CudaTensor[] inputs, long[] shape, CudaFloatBuffer buffer, float value, boolean owned) {
+        this.op = op;
+        this.inputs = inputs;
+        this.shape = shape;
+        this.buffer = buffer;
+        this.value = value;
+        this.owned = owned;
+    }
+    
+    /**
+     * A tensor reading {@code buffer}, which stays owned by the caller. Without a shape it is one-dimensional.
+     */
+    public static CudaTensor of(CudaFloatBuffer buffer, long... shape) {
+        long[] dims = shape.length == 0 ? new long[] { buffer.length() } : shape.clone();
+        long size = size(dims);
+        
+        if (size != buffer.length()) {
+            throw new IllegalArgumentException("Shape " + Arrays.toString(dims) + " has " + size
+                + " elements but the buffer holds " + buffer.length());
+        }
+        
+        return new CudaTensor(null, null, dims, buffer, 0, false);
+    }
+    
+    /**
+     * A scalar, passed to the fused kernel as a parameter so that changing it does not recompile anything.
+     */
+    public static CudaTensor constant(float value) {
+        return new CudaTensor(null, null, new long[0], null, value, false);
+    }
+    
+    public long[] shape() {
+        return shape.clone();
+    }
+    
+    public long size() {
+        return size(shape);
+    }
+    
+    /**
+     * Whether this tensor is backed by a buffer rather than an expression or a constant.
+     */
+    public boolean isMaterialized() {
+        return buffer != null;
+    }
+    
+    public CudaFloatBuffer buffer() {
+        if (buffer == null) {
+            throw new IllegalStateException("Tensor is an unevaluated expression; materialize it first");
+        }
+        
+        return buffer;
+    }
+    
+    // ========================= ELEMENTWISE =========================
+    
+    public CudaTensor add(CudaTensor other) {
+        return binary(TensorOp.ADD, other);
+    }
+    
+    public CudaTensor add(float other) {
+        return add(constant(other));
+    }
+    
+    public CudaTensor sub(CudaTensor other) {
+        return binary(TensorOp.SUB, other);
+    }
+    
+    public CudaTensor sub(float other) {
+        return sub(constant(other));
+    }
+    
+    public CudaTensor mul(CudaTensor other) {
+        return binary(TensorOp.MUL, other);
+    }
+    
+    public CudaTensor mul(float other) {
+        return mul(constant(other));
+    }
+    
+    public CudaTensor div(CudaTensor other) {
+        return binary(TensorOp.DIV, other);
+    }
+    
+    public CudaTensor div(float other) {
+        return div(constant(other));
+    }
+    
+    public CudaTensor max(CudaTensor other) {
+        return binary(TensorOp.MAX, other);
+    }
+    
+    public CudaTensor max(float other) {
+        return max(constant(other));
+    }
+    
+    public CudaTensor min(CudaTensor other) {
+        return binary(TensorOp.MIN, other);
+    }
+    
+    public CudaTensor min(float other) {
+        return min(constant(other));
+    }
+    
+    public CudaTensor clamp(float low, float high) {
+        if (!(low <= high)) {
+            throw new IllegalArgumentException("Empty clamp range [" + low + ", " + high + "]");
+        }
+        
+        return max(low).min(high);
+    }
+    
+    public CudaTensor neg() {
+        return unary(TensorOp.NEG);
+    }
+    
+    public CudaTensor abs() {
+        return unary(TensorOp.ABS);
+    }
+    
+    /**
+     * {@code e^x}, with the accuracy of the hardware's approximate {@code ex2}.
+     */
+    public CudaTensor exp() {
+        return unary(TensorOp.EXP);
+    }
+    
+    /**
+     * Natural logarithm, with the accuracy of the hardware's approximate {@code lg2}.
+     */
+    public CudaTensor log() {
+        return unary(TensorOp.LOG);
+    }
+    
+    public CudaTensor sqrt() {
+        return unary(TensorOp.SQRT);
+    }
+    
+    public CudaTensor relu() {
+        return unary(TensorOp.RELU);
+    }
+    
+    public CudaTensor sigmoid() {
+        return unary(TensorOp.SIGMOID);
+    }
+    
+    public CudaTensor tanh() {
+        return unary(TensorOp.TANH);
+    }
+    
+    // ========================= EVALUATION =========================
+    
+    /**
+     * Evaluates this expression on {@code stream} into a new buffer, which the returned tensor owns and frees on
+     * {@link #close()}. A tensor that is already materialized is returned as is.
+     */
+    public CudaTensor materialize(CudaStream stream) throws Throwable {
+        return materialize(stream, this)[0];
+    }
+    
+    /**
+     * Evaluates this expression on {@code stream} into {@code out}, which may be one of its own inputs when that
+     * input is read at the same shape, e.g. for {@code x = x.relu()}.
+     */
+    public void materializeInto(CudaFloatBuffer out, CudaStream stream) throws Throwable {
+        FusedKernel.of(this).launch(stream, out);
+    }
+    
+    /**
+     * Evaluates several expressions, fusing all of those with the same shape into one kernel so that inputs they
+     * share are read once. Materialized tensors are returned as they are.
+     */
+    public static CudaTensor[] materialize(CudaStream stream, CudaTensor... tensors) throws Throwable {
+        CudaTensor[] results = new CudaTensor[tensors.length];
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        
+        for (int i = 0; i < tensors.length; i++) {
+            if (tensors[i].isMaterialized()) {
+                results[i] = tensors[i];
+            } else {
+                groups.computeIfAbsent(Arrays.toString(tensors[i].shape), key -> new ArrayList<>()).add(i);
+            }
+        }
+        
+        List<CudaTensor> allocated = new ArrayList<>();
+        
+        try {
+            for (List<Integer> group : groups.values()) {
+                CudaTensor[] outputs = new CudaTensor[group.size()];
+                CudaFloatBuffer[] buffers = new CudaFloatBuffer[group.size()];
+                
+                for (int i = 0; i < outputs.length; i++) {
+                    CudaTensor tensor = tensors[group.get(i)];
+                    CudaTensor result = new CudaTensor(null, null, tensor.shape,
+                        CudaFloatBuffer.allocate(tensor.size(), stream), 0, true);
+                    
+                    allocated.add(result);
+                    outputs[i] = tensor;
+                    buffers[i] = result.buffer;
+                    results[group.get(i)] = result;
+                }
+                
+                FusedKernel.of(outputs).launch(stream, buffers);
+            }
+        } catch (Throwable e) {
+            for (CudaTensor result : allocated) result.close();
+            throw e;
+        }
+        
+        return results;
+    }
+    
+    /**
+     * Evaluates this expression and copies the result to the host, waiting for {@code stream}.
+     */
+    public float[] toArray(CudaStream stream) throws Throwable {
+        CudaTensor result = materialize(stream);
+        
+        try {
+            if (stream != null) stream.sync();
+            return result.buffer.toArray();
+        } finally {
+            if (result != this) result.close();
+        }
+    }
+    
+    /**
+     * Frees the buffer if this tensor owns it, i.e. if it came from {@link #materialize}. Buffers passed to
+     * {@link #of} are left to their owner.
+     */
+    @Override
+    public void close() throws Exception {
+        if (owned && !closed) {
+            closed = true;
+            buffer.close();
+        }
+    }
+    
+    @Override
+    public String toString() {
+        if (buffer != null) return "tensor" + Arrays.toString(shape);
+        if (op == null) return Float.toString(value);
+        
+        StringBuilder builder = new StringBuilder(op.name().toLowerCase()).append('(');
+        
+        for (int i = 0; i < inputs.length; i++) {
+            builder.append(i == 0 ? "" : ", ").append(inputs[i]);
+        }
+        
+        return builder.append(')').toString();
+    }
+    
+    // ========================= INTERNALS =========================
+    
+    TensorOp op() {
+        return op;
+    }
+    
+    CudaTensor[] inputs() {
+        return inputs;
+    }
+    
+    float value() {
+        return value;
+    }
+    
+    long[] dimensions() {
+        return shape;
+    }
+    
+    private CudaTensor unary(TensorOp op) {
+        return new CudaTensor(op, new CudaTensor[] { this }, shape, null, 0, false);
+    }
+    
+    private CudaTensor binary(TensorOp op, CudaTensor other) {
+        return new CudaTensor(op, new CudaTensor[] { this, other }, broadcast(shape, other.shape), null, 0, false);
+    }
+    
+    static long[] broadcast(long[] a, long[] b) {
+        long[] result = new long[Math.max(a.length, b.length)];
+        
+        for (int i = 1; i <= result.length; i++) {
+            long x = i <= a.length ? a[a.length - i] : 1;
+            long y = i <= b.length ? b[b.length - i] : 1;
+            
+            if (x != y && x != 1 && y != 1) {
+                throw new IllegalArgumentException("Shapes " + Arrays.toString(a) + " and " + Arrays.toString(b)
+                    + " do not broadcast");
+            }
+            
+            result[result.length - i] = x == 1 ? y : x;
+        }
+        
+        return result;
+    }
+    
+    static long size(long[] shape) {
+        long size = 1;
+        
+        for (long dim : shape) {
+            if (dim < 0) {
+                throw new IllegalArgumentException("Negative dimension in " + Arrays.toString(shape));
+            }
+            
+            size = Math.multiplyExact(size, dim);
+        }
+        
+        return size;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,502 @@
+package org.cuda4j.tensor;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaFloatBuffer;
+import org.cuda4j.context.CudaContext;
+import org.cuda4j.context.CudaFunction;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.context.KernelArgs;
+import org.cuda4j.device.CudaModule;
+import org.cuda4j.driver.CudaDriver;
+
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One or more {@link CudaTensor} expressions of the same shape, lowered to a single elementwise PTX kernel.
+ * <p>
+ * Each thread computes one output element: it loads what it needs from every input, evaluates the expression in
+ * registers and stores each output. An input of the output's shape is read at the thread's index, a single-element
+ * input is read at index 0 and any other broadcast input at {@code (i / inner) % count}, which covers every
+ * broadcast whose kept dimensions are adjacent, such as a bias row or a per-channel column.
+ * <p>
+ * The PTX depends only on the structure of the expression, its {@link #key()}: constants, sizes and broadcast
+ * strides are kernel parameters. Compiled kernels are cached per driver and context by that key, so evaluating the
+ * same expression on new data, at a new size or with new constants loads nothing.
+ */
+public final class FusedKernel {
+    
+    private static final Map<CudaDriver, Map<String, Compiled>> COMPILED = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final LongAdder COMPILATIONS = new LongAdder();
+    
+    // float bit patterns, as PTX writes float immediates
+    private static final String ZERO = "0f00000000";
+    private static final String ONE = "0f3F800000";
+    private static final String MINUS_TWO = "0fC0000000";
+    private static final String LOG2_E = "0f3FB8AA3B";
+    private static final String MINUS_LOG2_E = "0fBFB8AA3B";
+    private static final String TWO_LOG2_E = "0f4038AA3B";
+    private static final String LN_2 = "0f3F317218";
+    
+    private enum Access { FULL, SCALAR, BROADCAST }
+    
+    private enum Kind { LOAD, CONSTANT, APPLY }
+    
+    private record Input(CudaFloatBuffer buffer, Access access, long inner, long count) {}
+    
+    /**
+     * One value of the program: a load of input {@code slot}, constant {@code slot}, or {@code op} over earlier steps.
+     */
+    private record Step(Kind kind, int slot, TensorOp op, int[] operands) {}
+    
+    private record Compiled(CudaModule module, CudaFunction function, int blockSize) {}
+    
+    private final long[] shape;
+    private final long elements;
+    private final List<Input> inputs = new ArrayList<>();
+    private final List<Float> constants = new ArrayList<>();
+    private final List<Step> steps = new ArrayList<>();
+    private final int[] outputs;
+    private final String key;
+    private String ptx;
+    
+    private FusedKernel(CudaTensor[] tensors) {
+        this.shape = tensors[0].dimensions();
+        this.elements = CudaTensor.size(shape);
+        this.outputs = new int[tensors.length];
+        
+        if (elements > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("Fused kernels index with 32 bits; " + elements + " elements is too many");
+        }
+        
+        Map<CudaTensor, Integer> visited = new IdentityHashMap<>();
+        
+        for (int i = 0; i < tensors.length; i++) {
+            if (!Arrays.equals(tensors[i].dimensions(), shape)) {
+                throw new IllegalArgumentException("Fused outputs must share a shape: " + Arrays.toString(shape)
+                    + " and " + Arrays.toString(tensors[i].dimensions()));
+            }
+            
+            outputs[i] = visit(tensors[i], visited);
+        }
+        
+        this.key = structure();
+    }
+    
+    /**
+     * Plans the kernel computing {@code outputs}, which must all have the same shape.
+     *
+     * @throws IllegalArgumentException if the shapes differ or an input broadcasts in a way a flat index cannot express
+     */
+    public static FusedKernel of(CudaTensor... outputs) {
+        if (outputs.length == 0) {
+            throw new IllegalArgumentException("Nothing to fuse");
+        }
+        
+        return new FusedKernel(outputs);
+    }
+    
+    /**
+     * Number of kernels compiled so far, across all drivers; evaluating a cached expression does not add to it.
+     */
+    public static long compilations() {
+        return COMPILATIONS.sum();
+    }
+    
+    public long[] shape() {
+        return shape.clone();
+    }
+    
+    /**
+     * The structure of the fused expression, equal for expressions that compile to the same kernel.
+     */
+    public String key() {
+        return key;
+    }
+    
+    public String name() {
+        return "cuda4j_fused_" + Integer.toHexString(key.hashCode());
+    }
+    
+    public String ptx() {
+        if (ptx == null) {
+            ptx = generate();
+        }
+        
+        return ptx;
+    }
+    
+    /**
+     * Evaluates the expressions into {@code results}, one buffer per output with the output's element count.
+     */
+    public void launch(CudaStream stream, CudaFloatBuffer... results) throws Throwable {
+        if (results.length != outputs.length) {
+            throw new IllegalArgumentException("Expected " + outputs.length + " output buffers, got " + results.length);
+        }
+        
+        for (CudaFloatBuffer result : results) {
+            if (result.length() != elements) {
+                throw new IllegalArgumentException("Output buffer holds " + result.length() + " elements, expected " + elements);
+            }
+        }
+        
+        if (elements == 0) {
+            return;
+        }
+        
+        Compiled compiled = compiled();
+        
+        try (KernelArgs args = new KernelArgs(layouts())) {
+            int index = 0;
+            
+            for (CudaFloatBuffer result : results) args.setBuffer(index++, result.buffer());
+            for (Input input : inputs) args.setBuffer(index++, input.buffer().buffer());
+            
+            for (Input input : inputs) {
+                if (input.access() == Access.BROADCAST) {
+                    args.setInt(index++, (int) input.inner());
+                    args.setInt(index++, (int) input.count());
+                }
+            }
+            
+            for (float constant : constants) args.setFloat(index++, constant);
+            args.setInt(index, (int) elements);
+            
+            int res = compiled.function().launch1D(elements, compiled.blockSize(), args, stream);
+            
+            if (res != 0) {
+                throw new RuntimeException("cuLaunchKernel failed: " + res);
+            }
+        }
+    }
+    
+    // ========================= PLANNING =========================
+    
+    private int visit(CudaTensor node, Map<CudaTensor, Integer> visited) {
+        Integer known = visited.get(node);
+        
+        if (known != null) {
+            return known;
+        }
+        
+        Step step;
+        
+        if (node.isMaterialized()) {
+            inputs.add(input(node.buffer(), node.dimensions()));
+            step = new Step(Kind.LOAD, inputs.size() - 1, null, null);
+        } else if (node.op() == null) {
+            constants.add(node.value());
+            step = new Step(Kind.CONSTANT, constants.size() - 1, null, null);
+        } else {
+            CudaTensor[] operands = node.inputs();
+            int[] indices = new int[operands.length];
+            
+            for (int i = 0; i < operands.length; i++) indices[i] = visit(operands[i], visited);
+            step = new Step(Kind.APPLY, -1, node.op(), indices);
+        }
+        
+        steps.add(step);
+        visited.put(node, steps.size() - 1);
+        return steps.size() - 1;
+    }
+    
+    /**
+     * How an input of shape {@code dims} is indexed by the flat index of the output.
+     */
+    private Input input(CudaFloatBuffer buffer, long[] dims) {
+        long size = CudaTensor.size(dims);
+        
+        if (size == elements) return new Input(buffer, Access.FULL, 1, size);
+        if (size == 1) return new Input(buffer, Access.SCALAR, 1, 1);
+        
+        long[] padded = new long[shape.length];
+        System.arraycopy(dims, 0, padded, shape.length - dims.length, dims.length);
+        Arrays.fill(padded, 0, shape.length - dims.length, 1);
+        
+        int first = 0;
+        int last = shape.length - 1;
+        
+        while (padded[first] == 1) first++;
+        while (padded[last] == 1) last--;
+        
+        for (int d = first; d <= last; d++) {
+            if (padded[d] != shape[d]) {
+                throw new IllegalArgumentException("Cannot fuse a broadcast of " + Arrays.toString(dims) + " to "
+                    + Arrays.toString(shape) + ": its kept dimensions are not adjacent");
+            }
+        }
+        
+        long inner = 1;
+        for (int d = last + 1; d < shape.length; d++) inner *= shape[d];
+        
+        return new Input(buffer, Access.BROADCAST, inner, size);
+    }
+    
+    private String structure() {
+        StringBuilder key = new StringBuilder();
+        
+        for (Step step : steps) {
+            switch (step.kind()) {
+                case LOAD -> key.append("in:").append(inputs.get(step.slot()).access().name().toLowerCase());
+                case CONSTANT -> key.append("const");
+                case APPLY -> {
+                    key.append(step.op().name().toLowerCase());
+                    for (int operand : step.operands()) key.append(':').append(operand);
+                }
+            }
+            
+            key.append(' ');
+        }
+        
+        key.append("->");
+        for (int output : outputs) key.append(' ').append(output);
+        
+        return key.toString();
+    }
+    
+    private ValueLayout[] layouts() {
+        List<ValueLayout> layouts = new ArrayList<>();
+        
+        for (int i = 0; i < outputs.length + inputs.size(); i++) layouts.add(ValueLayout.JAVA_LONG);
+        
+        for (Input input : inputs) {
+            if (input.access() == Access.BROADCAST) {
+                layouts.add(ValueLayout.JAVA_INT);
+                layouts.add(ValueLayout.JAVA_INT);
+            }
+        }
+        
+        for (int i = 0; i < constants.size(); i++) layouts.add(ValueLayout.JAVA_FLOAT);
+        layouts.add(ValueLayout.JAVA_INT);
+        
+        return layouts.toArray(ValueLayout[]::new);
+    }
+    
+    // ========================= COMPILATION =========================
+    
+    private Compiled compiled() throws Throwable {
+        CudaContext context = CudaContext.current();
+        String cacheKey = (context == null ? 0 : context.handle().address()) + "/" + key;
+        Map<String, Compiled> kernels = COMPILED.computeIfAbsent(CUDA.driver(), driver -> new ConcurrentHashMap<>());
+        Compiled compiled = kernels.get(cacheKey);
+        
+        if (compiled != null) {
+            return compiled;
+        }
+        
+        CudaModule module = CUDA.loadModule((ptx() + '\0').getBytes(StandardCharsets.US_ASCII));
+        CudaFunction function = module.getFunction(name());
+        compiled = new Compiled(module, function, function.suggestBlockSize().blockSize());
+        COMPILATIONS.increment();
+        
+        Compiled raced = kernels.putIfAbsent(cacheKey, compiled);
+        
+        if (raced != null) {
+            module.unload();
+            return raced;
+        }
+        
+        return compiled;
+    }
+    
+    // ========================= PTX =========================
+    
+    private String generate() {
+        Emitter body = new Emitter();
+        StringBuilder ptx = new StringBuilder();
+        
+        body.line("ld.param.u32 %r1, [n]");
+        body.line("mov.u32 %r2, %ctaid.x");
+        body.line("mov.u32 %r3, %ntid.x");
+        body.line("mov.u32 %r4, %tid.x");
+        body.line("mad.lo.s32 %r5, %r2, %r3, %r4");
+        body.line("setp.ge.u32 %p1, %r5, %r1");
+        body.line("@%p1 bra DONE");
+        body.line("mul.wide.u32 %rd1, %r5, 4");
+        
+        String[] values = new String[steps.size()];
+        
+        for (int i = 0; i < steps.size(); i++) {
+            Step step = steps.get(i);
+            
+            values[i] = switch (step.kind()) {
+                case LOAD -> load(body, step.slot());
+                case CONSTANT -> {
+                    String value = body.f();
+                    body.line("ld.param.f32 " + value + ", [c" + step.slot() + "]");
+                    yield value;
+                }
+                case APPLY -> apply(body, step.op(), values[step.operands()[0]],
+                    step.operands().length > 1 ? values[step.operands()[1]] : null);
+            };
+        }
+        
+        for (int i = 0; i < outputs.length; i++) {
+            String pointer = body.rd();
+            String global = body.rd();
+            String address = body.rd();
+            
+            body.line("ld.param.u64 " + pointer + ", [out" + i + "]");
+            body.line("cvta.to.global.u64 " + global + ", " + pointer);
+            body.line("add.s64 " + address + ", " + global + ", %rd1");
+            body.line("st.global.f32 [" + address + "], " + values[outputs[i]]);
+        }
+        
+        List<String> parameters = new ArrayList<>();
+        
+        for (int i = 0; i < outputs.length; i++) parameters.add(".param .u64 out" + i);
+        for (int i = 0; i < inputs.size(); i++) parameters.add(".param .u64 in" + i);
+        
+        for (int i = 0; i < inputs.size(); i++) {
+            if (inputs.get(i).access() == Access.BROADCAST) {
+                parameters.add(".param .u32 in" + i + "_inner");
+                parameters.add(".param .u32 in" + i + "_count");
+            }
+        }
+        
+        for (int i = 0; i < constants.size(); i++) parameters.add(".param .f32 c" + i);
+        parameters.add(".param .u32 n");
+        
+        ptx.append("// ").append(key).append('\n');
+        ptx.append(".version 7.0\n.target sm_52\n.address_size 64\n\n");
+        ptx.append(".visible .entry ").append(name()).append("(\n    ");
+        ptx.append(String.join(",\n    ", parameters)).append("\n)\n{\n");
+        ptx.append("    .reg .pred %p<2>;\n");
+        ptx.append("    .reg .b32 %r<").append(body.r).append(">;\n");
+        ptx.append("    .reg .b64 %rd<").append(body.rd).append(">;\n");
+        ptx.append("    .reg .f32 %f<").append(body.f).append(">;\n\n");
+        ptx.append(body.text);
+        ptx.append("DONE:\n    ret;\n}\n");
+        
+        return ptx.toString();
+    }
+    
+    private String load(Emitter body, int slot) {
+        Input input = inputs.get(slot);
+        String pointer = body.rd();
+        String global = body.rd();
+        String value = body.f();
+        
+        body.line("ld.param.u64 " + pointer + ", [in" + slot + "]");
+        body.line("cvta.to.global.u64 " + global + ", " + pointer);
+        
+        switch (input.access()) {
+            case FULL -> {
+                String address = body.rd();
+                body.line("add.s64 " + address + ", " + global + ", %rd1");
+                body.line("ld.global.f32 " + value + ", [" + address + "]");
+            }
+            case SCALAR -> body.line("ld.global.f32 " + value + ", [" + global + "]");
+            case BROADCAST -> {
+                String inner = body.r();
+                String count = body.r();
+                String outer = body.r();
+                String index = body.r();
+                String offset = body.rd();
+                String address = body.rd();
+                
+                body.line("ld.param.u32 " + inner + ", [in" + slot + "_inner]");
+                body.line("ld.param.u32 " + count + ", [in" + slot + "_count]");
+                body.line("div.u32 " + outer + ", %r5, " + inner);
+                body.line("rem.u32 " + index + ", " + outer + ", " + count);
+                body.line("mul.wide.u32 " + offset + ", " + index + ", 4");
+                body.line("add.s64 " + address + ", " + global + ", " + offset);
+                body.line("ld.global.f32 " + value + ", [" + address + "]");
+            }
+        }
+        
+        return value;
+    }
+    
+    private static String apply(Emitter body, TensorOp op, String a, String b) {
+        String result = body.f();
+        
+        switch (op) {
+            case ADD -> body.line("add.f32 " + result + ", " + a + ", " + b);
+            case SUB -> body.line("sub.f32 " + result + ", " + a + ", " + b);
+            case MUL -> body.line("mul.f32 " + result + ", " + a + ", " + b);
+            case DIV -> body.line("div.rn.f32 " + result + ", " + a + ", " + b);
+            case MAX -> body.line("max.f32 " + result + ", " + a + ", " + b);
+            case MIN -> body.line("min.f32 " + result + ", " + a + ", " + b);
+            case NEG -> body.line("neg.f32 " + result + ", " + a);
+            case ABS -> body.line("abs.f32 " + result + ", " + a);
+            case SQRT -> body.line("sqrt.rn.f32 " + result + ", " + a);
+            case RELU -> body.line("max.f32 " + result + ", " + a + ", " + ZERO);
+            case EXP -> {
+                // e^x = 2^(x * log2(e))
+                String scaled = body.f();
+                body.line("mul.f32 " + scaled + ", " + a + ", " + LOG2_E);
+                body.line("ex2.approx.f32 " + result + ", " + scaled);
+            }
+            case LOG -> {
+                // ln(x) = log2(x) * ln(2)
+                String log2 = body.f();
+                body.line("lg2.approx.f32 " + log2 + ", " + a);
+                body.line("mul.f32 " + result + ", " + log2 + ", " + LN_2);
+            }
+            case SIGMOID -> {
+                // 1 / (1 + e^-x)
+                String scaled = body.f();
+                String exp = body.f();
+                String sum = body.f();
+                body.line("mul.f32 " + scaled + ", " + a + ", " + MINUS_LOG2_E);
+                body.line("ex2.approx.f32 " + exp + ", " + scaled);
+                body.line("add.f32 " + sum + ", " + exp + ", " + ONE);
+                body.line("rcp.rn.f32 " + result + ", " + sum);
+            }
+            case TANH -> {
+                // 1 - 2 / (e^2x + 1), which saturates to +-1 instead of overflowing to NaN
+                String scaled = body.f();
+                String exp = body.f();
+                String sum = body.f();
+                String reciprocal = body.f();
+                String term = body.f();
+                body.line("mul.f32 " + scaled + ", " + a + ", " + TWO_LOG2_E);
+                body.line("ex2.approx.f32 " + exp + ", " + scaled);
+                body.line("add.f32 " + sum + ", " + exp + ", " + ONE);
+                body.line("rcp.rn.f32 " + reciprocal + ", " + sum);
+                body.line("mul.f32 " + term + ", " + reciprocal + ", " + MINUS_TWO);
+                body.line("add.f32 " + result + ", " + term + ", " + ONE);
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Kernel body text plus the next free register of each class; {@code %r1..%r5} and {@code %rd1} hold the
+     * element count, the thread's flat index and its byte offset.
+     */
+    private static final class Emitter {
+        
+        private final StringBuilder text = new StringBuilder();
+        private int r = 6;
+        private int rd = 2;
+        private int f = 1;
+        
+        private String r() {
+            return "%r" + r++;
+        }
+        
+        private String rd() {
+            return "%rd" + rd++;
+        }
+        
+        private String f() {
+            return "%f" + f++;
+        }
+        
+        private void line(String instruction) {
+            text.append("    ").append(instruction).append(";\n");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package org.cuda4j.tensor;
+
+/**
+ * The elementwise operations a {@link CudaTensor} expression node can apply.
+ */
+enum TensorOp {
+    
+    ADD(2), SUB(2), MUL(2), DIV(2), MAX(2), MIN(2),
+    NEG(1), ABS(1), EXP(1), LOG(1), SQRT(1), RELU(1), SIGMOID(1), TANH(1);
+    
+    final int arity;
+    
+    TensorOp(int arity) {
+        this.arity = arity;
+    }
+}
\ No newline at end of file
@@ -3,8 +3,10 @@ package org.cuda4j;
 import org.cuda4j.buffer.CudaBuffer;
 import org.cuda4j.buffer.CudaPointer;
 import org.cuda4j.context.CudaContext;
+import org.cuda4j.context.CudaEvent;
 import org.cuda4j.context.CudaFunction;
 import org.cuda4j.context.CudaStream;
+import org.cuda4j.context.OccupancySuggestion;
 import org.cuda4j.device.CudaDevice;
 import org.cuda4j.device.CudaModule;
 import org.jocl.*;
@@ -53,8 +55,9 @@ public class CudaTest {
         CudaBuffer bufB = CUDA.allocateFor(b, N * Float.BYTES);
         CudaBuffer bufC = CUDA.allocateBytes(N * Float.BYTES);
         
-        int blockSize = 256;
-        int gridSize = (N + blockSize - 1) / blockSize;
+        OccupancySuggestion suggestion = function.suggestBlockSize();
+        int blockSize = suggestion.blockSize();
+        int gridSize = suggestion.gridSize(N);
         
         CudaPointer kernelArgs = CudaPointer.from(
             CudaPointer.fromBuffer(bufA),
@@ -63,13 +66,19 @@ public class CudaTest {
             CudaPointer.fromInt(N)
         );
         
+        CudaEvent startEvent = CudaEvent.create();
+        CudaEvent endEvent = CudaEvent.create();
+        
         long start = System.nanoTime();
+        startEvent.record(stream);
         function.launch(gridSize, 1, 1, blockSize, 1, 1, 0, stream, kernelArgs);
+        endEvent.record(stream);
         stream.sync();
         long end = System.nanoTime();
         double took = (end - start) / 1e6;
         
         System.out.println("Took " + took + " millis");
+        System.out.println("Kernel took " + endEvent.elapsedMillis(startEvent) + " millis on the device");
         float[] C = new float[E];
         bufC.copyToHost(C);
         
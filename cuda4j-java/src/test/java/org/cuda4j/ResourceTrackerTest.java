@@ -0,0 +1,127 @@
+package org.cuda4j;
+
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.context.CudaContext;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceTrackerTest {
+    
+    private EmulatedDriver driver;
+    private CudaContext context;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        driver = new EmulatedDriver();
+        CUDA.useDriver(driver);
+        context = CUDA.createSystemDevice(0).createContext();
+    }
+    
+    @AfterEach
+    public void tearDown() throws Throwable {
+        ResourceTracker.disableLeakTracking();
+        context.release();
+    }
+    
+    @Test
+    public void closingHandlesReleasesThemAndTheirBytes() throws Throwable {
+        try (CudaBuffer buffer = CUDA.allocateBytes(4096); CudaStream stream = CUDA.createStream()) {
+            assertEquals(4096, ResourceTracker.liveBytes(context));
+            assertEquals(4096, driver.allocatedBytes());
+            assertTrue(stream.isCompleted());
+        }
+        
+        assertEquals(0, ResourceTracker.liveBytes(context));
+        assertEquals(0, driver.allocatedBytes());
+    }
+    
+    @Test
+    public void bytesAreCountedPerContext() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(1024);
+        CudaContext other = CUDA.createSystemDevice(0).createContext();
+        
+        try {
+            CudaBuffer elsewhere = CUDA.allocateBytes(512);
+            
+            assertEquals(1024, ResourceTracker.liveBytes(context));
+            assertEquals(512, ResourceTracker.liveBytes(other));
+            
+            elsewhere.free();
+        } finally {
+            other.release();
+            context.setCurrent();
+        }
+        
+        buffer.free();
+        assertEquals(0, ResourceTracker.liveBytes(context));
+    }
+    
+    @Test
+    public void unreachableBuffersAreReclaimedOnTheNextAllocation() throws Throwable {
+        long leaked = ResourceTracker.leaked();
+        allocateAndDrop(1 << 20);
+        
+        for (int i = 0; i < 100 && ResourceTracker.leaked() == leaked; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        
+        assertTrue(ResourceTracker.leaked() > leaked);
+        assertEquals(0, ResourceTracker.liveBytes(context));
+        assertEquals(1 << 20, driver.allocatedBytes());
+        
+        try (CudaBuffer buffer = CUDA.allocateBytes(256)) {
+            assertEquals(256, driver.allocatedBytes());
+            assertEquals(0, ResourceTracker.pending());
+        }
+    }
+    
+    @Test
+    public void leakTrackingReportsOutstandingBuffersByCallSite() throws Throwable {
+        ResourceTracker.enableLeakTracking(1);
+        List<CudaBuffer> buffers = allocateThree();
+        
+        List<ResourceTracker.CallSite> outstanding = ResourceTracker.outstanding();
+        ResourceTracker.CallSite site = outstanding.stream()
+            .filter(candidate -> candidate.location().contains("ResourceTrackerTest.allocateThree"))
+            .findFirst()
+            .orElseThrow();
+        
+        assertEquals(3, site.count());
+        assertEquals(3 * 2048, site.bytes());
+        assertTrue(ResourceTracker.report().contains("ResourceTrackerTest.allocateThree"));
+        
+        for (CudaBuffer buffer : buffers) buffer.free();
+        
+        assertTrue(ResourceTracker.outstanding().stream()
+            .noneMatch(candidate -> candidate.location().contains("ResourceTrackerTest.allocateThree")));
+    }
+    
+    @Test
+    public void disabledLeakTrackingRecordsNoCallSites() throws Throwable {
+        assertFalse(ResourceTracker.isLeakTracking());
+        
+        try (CudaBuffer buffer = CUDA.allocateBytes(128)) {
+            assertTrue(ResourceTracker.outstanding().stream()
+                .noneMatch(candidate -> candidate.location().contains("ResourceTrackerTest")));
+        }
+    }
+    
+    private static void allocateAndDrop(long size) throws Throwable {
+        CUDA.allocateBytes(size);
+    }
+    
+    private static List<CudaBuffer> allocateThree() throws Throwable {
+        List<CudaBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) buffers.add(CUDA.allocateBytes(2048));
+        return buffers;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CudaBufferFileTest {
+    
+    private static final long CHUNK = 4096;
+    
+    @TempDir
+    Path directory;
+    
+    private StagingBufferPool pool;
+    private EmulatedDriver driver;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        pool = new StagingBufferPool(new long[] { CHUNK }, 4);
+        driver = new EmulatedDriver();
+        CUDA.useDriver(driver);
+        CUDA.useStagingPool(pool);
+    }
+    
+    @AfterEach
+    public void tearDown() throws Throwable {
+        pool.clear();
+        CUDA.useStagingPool(null);
+    }
+    
+    @Test
+    public void loadsAFileRegionThroughTwoChunks() throws Throwable {
+        byte[] content = new byte[(int) (10 * CHUNK + 123)];
+        for (int i = 0; i < content.length; i++) content[i] = (byte) (i * 31);
+        
+        Path file = directory.resolve("weights.bin");
+        Files.write(file, content);
+        
+        int offset = 777;
+        int length = content.length - offset - 5;
+        CudaStream stream = CUDA.createStream();
+        
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            FileLoad load = CudaBuffer.loadFrom(channel, offset, length, stream);
+            assertEquals(2, pool.allocations());
+            
+            byte[] result = new byte[length];
+            load.buffer().copyToHost(result);
+            
+            assertArrayEquals(Arrays.copyOfRange(content, offset, offset + length), result);
+            assertEquals(length, load.bytes());
+            assertEquals(length, load.buffer().length());
+            assertTrue(load.bytesPerSecond() > 0);
+        }
+    }
+    
+    @Test
+    public void copiesIntoAnOffsetOfAnExistingBuffer() throws Throwable {
+        byte[] content = new byte[1000];
+        Arrays.fill(content, (byte) 7);
+        
+        Path file = directory.resolve("features.bin");
+        Files.write(file, content);
+        
+        CudaBuffer buffer = CUDA.allocateBytes(2000);
+        buffer.copyToDevice(new byte[2000]);
+        
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer.copyFrom(channel, 0, content.length, 500, CUDA.createStream());
+        }
+        
+        byte[] result = new byte[2000];
+        buffer.copyToHost(result);
+        
+        for (int i = 0; i < result.length; i++) {
+            assertEquals(i >= 500 && i < 1500 ? 7 : 0, result[i], "byte " + i);
+        }
+    }
+    
+    @Test
+    public void rejectsRegionsLargerThanTheBuffer() throws Throwable {
+        Path file = directory.resolve("small.bin");
+        Files.write(file, new byte[100]);
+        
+        CudaBuffer buffer = CUDA.allocateBytes(50);
+        
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertThrows(IndexOutOfBoundsException.class, () -> buffer.copyFrom(channel, 0, 100, 0, CUDA.createStream()));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CudaBufferTransferTest {
+    
+    private StagingBufferPool pool;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        pool = new StagingBufferPool();
+        CUDA.useDriver(new EmulatedDriver());
+        CUDA.useStagingPool(pool);
+    }
+    
+    @AfterEach
+    public void tearDown() throws Throwable {
+        pool.clear();
+        CUDA.useStagingPool(null);
+    }
+    
+    @Test
+    public void rangedArrayTransfersFillIncrementally() throws Throwable {
+        float[] data = new float[100];
+        for (int i = 0; i < data.length; i++) data[i] = i;
+        
+        CudaBuffer buffer = CUDA.allocateBytes(data.length * Float.BYTES);
+        
+        for (int i = 0; i < data.length; i += 25) {
+            buffer.copyToDevice(data, i, 25, (long) i * Float.BYTES);
+        }
+        
+        float[] result = new float[10];
+        buffer.copyToHost(result, 0, 10, 40L * Float.BYTES);
+        
+        for (int i = 0; i < result.length; i++) {
+            assertEquals(40 + i, result[i]);
+        }
+    }
+    
+    @Test
+    public void nativeSegmentsBypassStaging() throws Throwable {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment source = arena.allocate(4096);
+            MemorySegment target = arena.allocate(4096);
+            source.set(ValueLayout.JAVA_INT, 1024, 42);
+            
+            CudaBuffer buffer = CUDA.allocateBytes(4096);
+            CudaStream stream = CUDA.createStream();
+            
+            buffer.copyFrom(source, 0, 0, 4096);
+            buffer.copyToAsync(target, 1024, 0, 4, stream);
+            stream.sync();
+            
+            assertEquals(42, target.get(ValueLayout.JAVA_INT, 0));
+            assertEquals(0, pool.acquisitions());
+        }
+    }
+    
+    @Test
+    public void byteBuffersRoundTripAndAdvance() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(64);
+        
+        ByteBuffer direct = ByteBuffer.allocateDirect(16);
+        direct.putLong(0, 123456789L);
+        buffer.copyFrom(direct, 8);
+        assertFalse(direct.hasRemaining());
+        
+        ByteBuffer heap = ByteBuffer.allocate(8);
+        buffer.copyTo(heap, 8);
+        assertFalse(heap.hasRemaining());
+        assertEquals(123456789L, heap.getLong(0));
+    }
+    
+    @Test
+    public void deviceCopiesHonourSliceOffsets() throws Throwable {
+        CudaBuffer source = CUDA.allocateFor(new int[] {1, 2, 3, 4, 5, 6, 7, 8});
+        CudaBuffer target = CUDA.allocateBytes(8 * Integer.BYTES);
+        CudaStream stream = CUDA.createStream();
+        
+        target.fillAsync((byte) 0, stream);
+        source.slice(4 * Integer.BYTES, 4 * Integer.BYTES).copyToAsync(target.slice(Integer.BYTES, 7 * Integer.BYTES), Integer.BYTES, 0, 2 * Integer.BYTES, stream);
+        stream.sync();
+        
+        int[] result = new int[8];
+        target.copyToHost(result);
+        assertArrayEquals(new int[] {0, 6, 7, 0, 0, 0, 0, 0}, result);
+        
+        source.transferTo(target, 3 * Integer.BYTES);
+        target.copyToHost(result);
+        assertArrayEquals(new int[] {1, 2, 3, 0, 0, 0, 0, 0}, result);
+        
+        source.copyTo(target, 6 * Integer.BYTES, 6 * Integer.BYTES, 2 * Integer.BYTES);
+        target.copyToHost(result);
+        assertArrayEquals(new int[] {1, 2, 3, 0, 0, 0, 7, 8}, result);
+        
+        assertThrows(IndexOutOfBoundsException.class, () -> source.copyTo(target.slice(0, 4), 0, 0, 8));
+    }
+    
+    @Test
+    public void fillsWriteBytesAndElements() throws Throwable {
+        CudaStream stream = CUDA.createStream();
+        CudaFloatBuffer floats = CudaFloatBuffer.allocate(6);
+        CudaIntBuffer ints = CudaIntBuffer.allocate(4);
+        
+        floats.fillAsync(1.5f, stream);
+        floats.slice(4, 2).fillAsync(-2, stream);
+        ints.fillAsync(-1, stream);
+        ints.buffer().fillAsync((byte) 0x01, 4, 8, stream);
+        stream.sync();
+        
+        assertArrayEquals(new float[] {1.5f, 1.5f, 1.5f, 1.5f, -2, -2}, floats.toArray());
+        assertArrayEquals(new int[] {-1, 0x01010101, 0x01010101, -1}, ints.toArray());
+        
+        assertThrows(IllegalArgumentException.class, () -> new CudaIntBuffer(ints.buffer().slice(2, 8)).fillAsync(0, stream));
+        assertThrows(IndexOutOfBoundsException.class, () -> ints.buffer().fillAsync((byte) 0, 12, 8, stream));
+    }
+    
+    @Test
+    public void outOfRangeTransfersAreRejected() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(16);
+        
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.copyToDevice(new byte[8], 0, 8, 12));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.copyToHost(new int[8], 4, 8, 0));
+    }
+}
\ No newline at end of file
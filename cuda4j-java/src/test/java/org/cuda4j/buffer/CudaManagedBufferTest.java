@@ -0,0 +1,108 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaContext;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.device.CudaDevice;
+import org.cuda4j.driver.CudaDriver;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.cuda4j.emulator.LatencyModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CudaManagedBufferTest {
+    
+    private EmulatedDriver driver;
+    private CudaDevice device;
+    private CudaContext context;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        driver = new EmulatedDriver(1, 1 << 20, LatencyModel.NONE);
+        CUDA.useDriver(driver);
+        device = CUDA.createSystemDevice(0);
+        context = device.createContext();
+    }
+    
+    @AfterEach
+    public void tearDown() throws Throwable {
+        context.release();
+    }
+    
+    @Test
+    public void hostAndDeviceSeeTheSameMemory() throws Throwable {
+        try (CudaManagedBuffer managed = CUDA.allocateManaged(16 * Float.BYTES)) {
+            for (int i = 0; i < 16; i++) managed.segment().setAtIndex(ValueLayout.JAVA_FLOAT, i, i);
+            
+            float[] onDevice = new float[16];
+            managed.buffer().copyToHost(onDevice);
+            assertEquals(15f, onDevice[15]);
+            
+            managed.buffer().copyToDevice(new float[] {42}, 0, 1, 0);
+            assertEquals(42f, managed.segment().getAtIndex(ValueLayout.JAVA_FLOAT, 0));
+            assertEquals(managed.devicePointer(), managed.segment().address());
+        }
+    }
+    
+    @Test
+    public void managedMemoryMayExceedDeviceMemory() throws Throwable {
+        assertThrows(OutOfMemoryError.class, () -> CUDA.allocateBytes(2 << 20));
+        
+        try (CudaManagedBuffer managed = CUDA.allocateManaged(4 << 20)) {
+            managed.segment().set(ValueLayout.JAVA_BYTE, managed.length() - 1, (byte) 7);
+            assertEquals(0, driver.allocatedBytes(0));
+        }
+    }
+    
+    @Test
+    public void prefetchesMigrateInStreamOrder() throws Throwable {
+        try (CudaStream stream = CUDA.createStream(); CudaManagedBuffer managed = CUDA.allocateManaged(8192)) {
+            assertEquals(CudaDriver.CU_DEVICE_CPU, driver.residency(managed.handle()));
+            
+            managed.prefetchAsync(device, stream);
+            managed.prefetchAsync(device, stream);
+            stream.sync();
+            
+            assertEquals(0, driver.residency(managed.handle()));
+            assertEquals(8192, driver.prefetchedBytes());
+            
+            managed.slice(4096, 4096).prefetchToHostAsync(stream);
+            stream.sync();
+            
+            assertEquals(CudaDriver.CU_DEVICE_CPU, driver.residency(managed.handle()));
+            assertEquals(8192 + 4096, driver.prefetchedBytes());
+        }
+    }
+    
+    @Test
+    public void adviceIsRecorded() throws Throwable {
+        try (CudaManagedBuffer managed = CUDA.allocateManaged(4096)) {
+            managed.advise(CudaManagedBuffer.Advice.READ_MOSTLY, null);
+            managed.advise(CudaManagedBuffer.Advice.PREFERRED_LOCATION, device);
+            managed.advise(CudaManagedBuffer.Advice.ACCESSED_BY, device);
+            
+            assertTrue(driver.isReadMostly(managed.handle()));
+            assertEquals(Integer.valueOf(0), driver.preferredLocation(managed.handle()));
+            
+            managed.clearAdvice(CudaManagedBuffer.Advice.READ_MOSTLY, null);
+            managed.clearAdvice(CudaManagedBuffer.Advice.PREFERRED_LOCATION, null);
+            
+            assertFalse(driver.isReadMostly(managed.handle()));
+            assertNull(driver.preferredLocation(managed.handle()));
+        }
+    }
+    
+    @Test
+    public void hintsNeedManagedMemory() throws Throwable {
+        try (CudaStream stream = CUDA.createStream(); CudaBuffer plain = CUDA.allocateBytes(64)) {
+            CudaManagedBuffer fake = new CudaManagedBuffer(plain, MemorySegment.NULL);
+            assertThrows(RuntimeException.class, () -> fake.prefetchAsync(device, stream));
+        }
+    }
+}
\ No newline at end of file
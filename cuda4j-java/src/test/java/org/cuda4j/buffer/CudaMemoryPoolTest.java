@@ -0,0 +1,128 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.cuda4j.emulator.LatencyModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CudaMemoryPoolTest {
+    
+    private EmulatedDriver driver;
+    private CudaMemoryPool pool;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        driver = new EmulatedDriver(1, 64 << 20, LatencyModel.NONE);
+        pool = new CudaMemoryPool(16 << 20, 8 << 20);
+        CUDA.useDriver(driver);
+        CUDA.useMemoryPool(pool);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        CUDA.useMemoryPool(null);
+    }
+    
+    @Test
+    public void sizesAreRoundedToClasses() {
+        assertEquals(512, CudaMemoryPool.sizeClass(1));
+        assertEquals(1024, CudaMemoryPool.sizeClass(513));
+        assertEquals(1 << 20, CudaMemoryPool.sizeClass(1 << 20));
+        assertEquals(2 << 20, CudaMemoryPool.sizeClass((1 << 20) + 1));
+        assertEquals(4 << 20, CudaMemoryPool.sizeClass((2 << 20) + 1));
+    }
+    
+    @Test
+    public void sameStreamReuseSkipsTheDriver() throws Throwable {
+        CudaStream stream = CUDA.createStream();
+        
+        CudaBuffer first = CUDA.allocateBytes(3000, stream);
+        first.free();
+        CudaBuffer second = CUDA.allocateBytes(4000, stream);
+        
+        assertEquals(first.handle(), second.handle());
+        assertEquals(4000, second.length());
+        assertEquals(1, driver.allocationCount());
+        
+        CudaMemoryPool.Stats stats = pool.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRate(), 1e-9);
+        assertEquals(4096, stats.inUseBytes());
+        assertEquals(1 - 4000 / 4096.0, stats.fragmentation(), 1e-9);
+    }
+    
+    @Test
+    public void otherStreamsReuseAfterSynchronization() throws Throwable {
+        CudaStream producer = CUDA.createStream();
+        CudaStream consumer = CUDA.createStream();
+        
+        CUDA.allocateBytes(1 << 16, producer).free();
+        CUDA.allocateBytes(1 << 16, consumer);
+        
+        assertEquals(1, driver.allocationCount());
+        assertEquals(1, pool.stats().crossStreamHits());
+    }
+    
+    @Test
+    public void destroyedStreamsDoNotPassTheirBlocksToReusedHandles() throws Throwable {
+        CudaStream stream = CUDA.createStream();
+        CudaBuffer buffer = CUDA.allocateBytes(1 << 16, stream);
+        
+        stream.destroy();
+        buffer.free();
+        
+        // a new stream the driver happens to give the same handle
+        CUDA.allocateBytes(1 << 16, new CudaStream(stream.handle()));
+        
+        assertEquals(1, driver.allocationCount());
+        assertEquals(0, pool.stats().hits());
+        assertEquals(1, pool.stats().crossStreamHits());
+    }
+    
+    @Test
+    public void cacheIsTrimmedAboveHighWater() throws Throwable {
+        CudaBuffer[] buffers = new CudaBuffer[5];
+        
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = CUDA.allocateBytes(4 << 20);
+        }
+        
+        for (CudaBuffer buffer : buffers) {
+            buffer.free();
+        }
+        
+        CudaMemoryPool.Stats stats = pool.stats();
+        assertTrue(stats.cachedBytes() <= 8 << 20);
+        assertEquals(stats.cachedBytes(), driver.allocatedBytes());
+        assertEquals(1, stats.trims());
+    }
+    
+    @Test
+    public void driverOutOfMemoryReleasesTheCache() throws Throwable {
+        CUDA.allocateBytes(12 << 20).free();
+        CUDA.allocateBytes(12 << 20).free();
+        assertEquals(12 << 20, pool.stats().cachedBytes());
+        
+        CUDA.allocateBytes(60 << 20);
+        
+        assertEquals(0, pool.stats().cachedBytes());
+        assertEquals(60 << 20, driver.allocatedBytes());
+    }
+    
+    @Test
+    public void swappingDriversReturnsCachedBlocksToTheOldDriver() throws Throwable {
+        CUDA.allocateBytes(4096).free();
+        assertEquals(4096, driver.allocatedBytes());
+        
+        CUDA.useDriver(new EmulatedDriver());
+        
+        assertNull(CUDA.memoryPool());
+        assertEquals(0, driver.allocatedBytes());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CudaPitchedBufferTest {
+    
+    private Arena arena;
+    private CudaStream stream;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        CUDA.useDriver(new EmulatedDriver());
+        arena = Arena.ofConfined();
+        stream = CUDA.createStream();
+    }
+    
+    @AfterEach
+    public void tearDown() throws Throwable {
+        stream.destroy();
+        arena.close();
+    }
+    
+    @Test
+    public void pitchedRowsAreAligned() throws Throwable {
+        try (CudaPitchedBuffer matrix = CUDA.allocatePitched(100 * Float.BYTES, 3, Float.BYTES)) {
+            assertEquals(0, matrix.pitch() % EmulatedDriver.PITCH_ALIGNMENT);
+            assertTrue(matrix.pitch() >= 100 * Float.BYTES);
+            assertEquals(matrix.pitch() * 3, matrix.buffer().length());
+            assertEquals(100 * Float.BYTES, matrix.row(2).length());
+        }
+    }
+    
+    @Test
+    public void tilesRoundTripThroughAPitchedMatrix() throws Throwable {
+        MemorySegment host = matrix(8, 6);
+        MemorySegment back = arena.allocate(8 * 6 * Float.BYTES);
+        long hostPitch = 8 * Float.BYTES;
+        
+        try (CudaPitchedBuffer device = CUDA.allocatePitched(hostPitch, 6, Float.BYTES)) {
+            device.buffer().fillAsync((byte) 0, stream);
+            StridedRegion.of(host, hostPitch).at(2 * Float.BYTES, 1)
+                .copyToAsync(device.region().at(2 * Float.BYTES, 1), 3 * Float.BYTES, 4, stream);
+            device.region().copyToAsync(StridedRegion.of(back, hostPitch), hostPitch, 6, stream).await();
+        }
+        
+        for (int y = 0; y < 6; y++) {
+            for (int x = 0; x < 8; x++) {
+                boolean inTile = x >= 2 && x < 5 && y >= 1 && y < 5;
+                assertEquals(inTile ? y * 8 + x : 0, back.getAtIndex(ValueLayout.JAVA_FLOAT, y * 8 + x));
+            }
+        }
+    }
+    
+    @Test
+    public void deviceTilesCopyBetweenLayouts() throws Throwable {
+        MemorySegment host = matrix(4, 4);
+        long pitch = 4 * Float.BYTES;
+        
+        try (CudaPitchedBuffer padded = CUDA.allocatePitched(pitch, 4, Float.BYTES);
+             CudaFloatBuffer packed = CudaFloatBuffer.allocate(4)) {
+            StridedRegion.of(host, pitch).copyToAsync(padded.region(), pitch, 4, stream);
+            padded.region().at(Float.BYTES, 2).copyToAsync(StridedRegion.of(packed.buffer(), 2 * Float.BYTES), 2 * Float.BYTES, 2, stream);
+            stream.sync();
+            
+            assertArrayEquals(new float[] {9, 10, 13, 14}, packed.toArray());
+            
+            float[] row = new float[4];
+            padded.row(3).copyToHost(row);
+            assertArrayEquals(new float[] {12, 13, 14, 15}, row);
+        }
+    }
+    
+    @Test
+    public void boxesCopyBetweenVolumes() throws Throwable {
+        MemorySegment volume = matrix(4, 3 * 2);
+        MemorySegment box = arena.allocate(2 * 2 * 2 * Float.BYTES);
+        long pitch = 4 * Float.BYTES;
+        
+        try (CudaPitchedBuffer device = CUDA.allocatePitched(pitch, 3 * 2, Float.BYTES)) {
+            StridedRegion.of(volume, pitch, 3).copyToAsync(device.region(3), pitch, 3, 2, stream);
+            device.region(3).at(Float.BYTES, 1, 0)
+                .copyToAsync(StridedRegion.of(box, 2 * Float.BYTES, 2), 2 * Float.BYTES, 2, 2, stream).await();
+        }
+        
+        float[] expected = {5, 6, 9, 10, 17, 18, 21, 22};
+        assertArrayEquals(expected, box.toArray(ValueLayout.JAVA_FLOAT));
+    }
+    
+    @Test
+    public void invalidRegionsAreRejected() throws Throwable {
+        MemorySegment host = matrix(4, 4);
+        long pitch = 4 * Float.BYTES;
+        
+        try (CudaPitchedBuffer device = CUDA.allocatePitched(pitch, 4, Float.BYTES)) {
+            StridedRegion source = StridedRegion.of(host, pitch);
+            
+            assertThrows(IndexOutOfBoundsException.class, () -> source.at(0, 2).copyToAsync(device.region(), pitch, 3, stream));
+            assertThrows(IndexOutOfBoundsException.class, () -> source.copyToAsync(device.region().at(0, 3, 1), pitch, 1, stream));
+            assertThrows(IllegalArgumentException.class, () -> source.copyToAsync(device.region(), pitch + 1, 1, stream));
+            assertThrows(IllegalArgumentException.class, () -> device.region(2).copyToAsync(source, pitch, 3, 2, stream));
+            assertThrows(IllegalArgumentException.class, () -> StridedRegion.of(MemorySegment.ofArray(new float[16]), pitch));
+        }
+    }
+    
+    private MemorySegment matrix(int width, int height) {
+        MemorySegment segment = arena.allocate((long) width * height * Float.BYTES);
+        
+        for (int i = 0; i < width * height; i++) {
+            segment.setAtIndex(ValueLayout.JAVA_FLOAT, i, i);
+        }
+        
+        return segment;
+    }
+}
\ No newline at end of file
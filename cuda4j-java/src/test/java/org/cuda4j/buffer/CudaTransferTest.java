@@ -0,0 +1,140 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaFunction;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.device.CudaModule;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CudaTransferTest {
+    
+    private EmulatedDriver driver;
+    private StagingBufferPool pool;
+    private CountDownLatch release;
+    private CudaFunction blocked;
+    private CudaFunction fault;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        driver = new EmulatedDriver();
+        pool = new StagingBufferPool();
+        release = new CountDownLatch(1);
+        
+        CUDA.useDriver(driver);
+        CUDA.useStagingPool(pool);
+        
+        driver.registerKernel("blocked", launch -> release.await());
+        driver.registerKernel("fault", launch -> {
+            throw new IllegalStateException("fault");
+        });
+        
+        CudaModule module = CUDA.loadModule(new byte[] { 0 });
+        blocked = module.getFunction("blocked");
+        fault = module.getFunction("fault");
+    }
+    
+    @AfterEach
+    public void tearDown() throws Throwable {
+        release.countDown();
+        pool.clear();
+        CUDA.useStagingPool(null);
+    }
+    
+    @Test
+    public void downloadsLandOnlyOnCompletion() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(Integer.BYTES * 4);
+        buffer.copyToDevice(new int[] { 1, 2, 3, 4 });
+        
+        CudaStream stream = CUDA.createStream();
+        int[] result = new int[4];
+        
+        blocked.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+        CudaTransfer transfer = buffer.copyToHostAsync(result, stream);
+        
+        assertFalse(transfer.isDone());
+        assertArrayEquals(new int[4], result);
+        
+        release.countDown();
+        transfer.await();
+        
+        assertTrue(transfer.isDone());
+        assertArrayEquals(new int[] { 1, 2, 3, 4 }, result);
+    }
+    
+    @Test
+    public void futureCompletesWithoutWaiting() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(Float.BYTES * 3);
+        buffer.copyToDevice(new float[] { 0.5f, 1.5f, 2.5f });
+        
+        CudaStream stream = CUDA.createStream();
+        float[] result = new float[3];
+        
+        blocked.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+        CudaTransfer transfer = buffer.copyToHostAsync(result, stream);
+        
+        assertFalse(transfer.future().isDone());
+        release.countDown();
+        transfer.future().get(5, TimeUnit.SECONDS);
+        
+        assertArrayEquals(new float[] { 0.5f, 1.5f, 2.5f }, result);
+    }
+    
+    @Test
+    public void droppedDownloadsStillLandAndReturnTheirStaging() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(Integer.BYTES * 3);
+        buffer.copyToDevice(new int[] { 7, 8, 9 });
+        
+        CudaStream stream = CUDA.createStream();
+        int[] result = new int[3];
+        
+        blocked.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+        buffer.copyToHostAsync(result, stream);
+        
+        release.countDown();
+        stream.sync();
+        
+        assertArrayEquals(new int[] { 7, 8, 9 }, result);
+        
+        pool.reclaim();
+        buffer.copyToHostAsync(new int[3], stream);
+        assertEquals(1, pool.allocations());
+    }
+    
+    @Test
+    public void stagingIsReturnedAfterCompletion() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(1024);
+        CudaStream stream = CUDA.createStream();
+        
+        for (int i = 0; i < 10; i++) {
+            buffer.copyToHostAsync(new byte[1024], stream).await();
+        }
+        
+        assertEquals(1, pool.allocations());
+    }
+    
+    @Test
+    public void faultedStreamsFailDownloadsAndReturnTheirStaging() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(Integer.BYTES * 3);
+        CudaStream stream = CUDA.createStream();
+        
+        fault.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+        CudaTransfer transfer = buffer.copyToHostAsync(new int[3], stream);
+        
+        assertThrows(RuntimeException.class, stream::sync);
+        assertTrue(transfer.future().isCompletedExceptionally());
+        assertThrows(CompletionException.class, transfer::await);
+        
+        pool.reclaim();
+        buffer.copyToHostAsync(new int[3], stream).await();
+        assertEquals(1, pool.allocations());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CudaTypedBufferTest {
+    
+    private EmulatedDriver driver;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        driver = new EmulatedDriver();
+        CUDA.useDriver(driver);
+    }
+    
+    @Test
+    public void allocateForSizesInBytes() throws Throwable {
+        try (CudaBuffer floats = CUDA.allocateFor(new float[100]); CudaBuffer ints = CUDA.allocateFor(new int[50])) {
+            assertEquals(400, floats.length());
+            assertEquals(200, ints.length());
+            assertEquals(600, driver.allocatedBytes());
+        }
+    }
+    
+    @Test
+    public void typedBuffersRoundTrip() throws Throwable {
+        try (CudaDoubleBuffer doubles = CudaDoubleBuffer.of(new double[] {1.5, -2.25, Math.PI});
+             CudaLongBuffer longs = CudaLongBuffer.of(new long[] {Long.MIN_VALUE, 0, Long.MAX_VALUE});
+             CudaHalfBuffer halves = CudaHalfBuffer.of(new short[] {0x3C00, (short) 0xC000})) {
+            assertEquals(3, doubles.length());
+            assertEquals(24, doubles.byteSize());
+            assertArrayEquals(new double[] {1.5, -2.25, Math.PI}, doubles.toArray());
+            assertArrayEquals(new long[] {Long.MIN_VALUE, 0, Long.MAX_VALUE}, longs.toArray());
+            assertArrayEquals(new short[] {0x3C00, (short) 0xC000}, halves.toArray());
+            assertEquals(4, halves.byteSize());
+        }
+    }
+    
+    @Test
+    public void asyncTypedCopies() throws Throwable {
+        try (CudaStream stream = CUDA.createStream(); CudaIntBuffer buffer = CudaIntBuffer.allocate(4, stream)) {
+            buffer.copyToDeviceAsync(new int[] {1, 2, 3, 4}, stream);
+            
+            int[] back = new int[4];
+            buffer.copyToHostAsync(back, stream).await();
+            assertArrayEquals(new int[] {1, 2, 3, 4}, back);
+        }
+    }
+    
+    @Test
+    public void slicesShareTheAllocation() throws Throwable {
+        try (CudaFloatBuffer arena = CudaFloatBuffer.allocate(64)) {
+            long allocations = driver.allocationCount();
+            
+            CudaFloatBuffer first = arena.slice(0, 16);
+            CudaFloatBuffer second = arena.slice(16, 32);
+            CudaFloatBuffer nested = second.slice(8, 8);
+            
+            assertEquals(allocations, driver.allocationCount());
+            assertEquals(arena.devicePointer() + 16 * Float.BYTES, second.devicePointer());
+            assertEquals(arena.devicePointer() + 24 * Float.BYTES, nested.devicePointer());
+            assertSame(arena.buffer(), nested.buffer().parent());
+            
+            float[] ones = new float[8];
+            Arrays.fill(ones, 1);
+            nested.copyToDevice(ones);
+            first.copyToDevice(new float[] {7}, 0, 1, 15);
+            
+            float[] all = arena.toArray();
+            assertEquals(7, all[15]);
+            assertEquals(0, all[23]);
+            for (int i = 24; i < 32; i++) assertEquals(1, all[i]);
+            assertEquals(0, all[32]);
+            
+            assertEquals(8, nested.toArray().length);
+        }
+    }
+    
+    @Test
+    public void slicesAreBoundedAndNeverFreed() throws Throwable {
+        try (CudaFloatBuffer buffer = CudaFloatBuffer.allocate(8)) {
+            CudaFloatBuffer slice = buffer.slice(4, 4);
+            
+            assertThrows(IndexOutOfBoundsException.class, () -> buffer.slice(6, 4));
+            assertThrows(IndexOutOfBoundsException.class, () -> slice.copyToDevice(new float[5]));
+            assertThrows(IllegalStateException.class, slice::free);
+            
+            slice.close();
+            assertEquals(32, driver.allocatedBytes());
+        }
+        
+        assertEquals(0, driver.allocatedBytes());
+    }
+    
+    @Test
+    public void rejectsBuffersThatDoNotHoldWholeElements() throws Throwable {
+        try (CudaBuffer buffer = CUDA.allocateBytes(10)) {
+            assertThrows(IllegalArgumentException.class, () -> new CudaFloatBuffer(buffer));
+            assertEquals(5, new CudaHalfBuffer(buffer).length());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaFunction;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StagingBufferPoolTest {
+    
+    private EmulatedDriver driver;
+    private StagingBufferPool pool;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        driver = new EmulatedDriver();
+        pool = new StagingBufferPool(new long[] { 4096, 65536 }, 2);
+        CUDA.useDriver(driver);
+        CUDA.useStagingPool(pool);
+    }
+    
+    @AfterEach
+    public void tearDown() throws Throwable {
+        pool.clear();
+        CUDA.useStagingPool(null);
+    }
+    
+    @Test
+    public void steadyStateTransfersDoNotAllocate() throws Throwable {
+        float[] data = new float[1000];
+        float[] result = new float[1000];
+        CudaBuffer buffer = CUDA.allocateBytes(4000);
+        
+        buffer.copyToDevice(data);
+        assertEquals(1, pool.allocations());
+        
+        for (int i = 0; i < 100; i++) {
+            data[0] = i;
+            buffer.copyToDevice(data);
+            buffer.copyToHost(result);
+            assertEquals(i, result[0]);
+        }
+        
+        assertEquals(201, pool.acquisitions());
+        assertEquals(1, pool.allocations());
+        assertEquals(1, driver.hostAllocationCount());
+    }
+    
+    @Test
+    public void transfersAreBucketedByChunkClass() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(65536);
+        
+        buffer.copyToDevice(new byte[100]);
+        buffer.copyToDevice(new byte[65536]);
+        buffer.copyToDevice(new byte[4096]);
+        buffer.copyToDevice(new byte[10000]);
+        
+        assertEquals(2, pool.allocations());
+        assertEquals(4096 + 65536, pool.allocatedBytes());
+    }
+    
+    @Test
+    public void oversizedTransfersBypassThePool() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(1 << 20);
+        
+        buffer.copyToDevice(new int[1 << 18]);
+        buffer.copyToHost(new int[1 << 18]);
+        
+        assertEquals(0, pool.allocations());
+        assertEquals(0, pool.allocatedBytes());
+    }
+    
+    @Test
+    public void clearFreesBuffersReleasedByOtherThreads() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(4096);
+        Thread[] threads = new Thread[4];
+        
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    buffer.copyToDevice(new byte[4096]);
+                } catch (Throwable e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            threads[i].start();
+        }
+        
+        for (Thread thread : threads) thread.join();
+        
+        assertTrue(pool.allocatedBytes() > 0);
+        pool.clear();
+        assertEquals(0, pool.allocatedBytes());
+    }
+    
+    @Test
+    public void asyncStagingIsHeldUntilTheStreamDrains() throws Throwable {
+        CountDownLatch release = new CountDownLatch(1);
+        driver.registerKernel("blocked", launch -> release.await());
+        
+        CudaFunction blocked = CUDA.loadModule(new byte[] { 0 }).getFunction("blocked");
+        CudaStream stream = CUDA.createStream();
+        CudaBuffer buffer = CUDA.allocateBytes(1024);
+        
+        blocked.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+        buffer.copyToDeviceAsync(new byte[1024], stream);
+        
+        try (StagingBuffer other = pool.acquire(1024)) {
+            assertEquals(2, pool.allocations());
+        }
+        
+        release.countDown();
+        stream.sync();
+        pool.reclaim();
+        
+        buffer.copyToDevice(new byte[1024]);
+        buffer.copyToDevice(new byte[1024]);
+        assertEquals(2, pool.allocations());
+    }
+    
+    @Test
+    public void swappingDriversFreesCachedBuffersThroughTheOldDriver() throws Throwable {
+        pool.acquire(1024).close();
+        assertEquals(1, pool.allocations());
+        
+        CUDA.useDriver(new EmulatedDriver());
+        assertNotSame(pool, CUDA.stagingPool());
+        
+        try (StagingBuffer buffer = pool.acquire(1024)) {
+            assertEquals(2, pool.allocations());
+        }
+    }
+}
\ No newline at end of file
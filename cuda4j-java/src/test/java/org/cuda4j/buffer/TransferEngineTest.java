@@ -0,0 +1,102 @@
+package org.cuda4j.buffer;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.cuda4j.emulator.LatencyModel;
+import org.cuda4j.emulator.TimelineEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransferEngineTest {
+    
+    private static final long CHUNK = 1000;
+    
+    private EmulatedDriver driver;
+    private TransferEngine engine;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        driver = new EmulatedDriver(1, Long.MAX_VALUE, new LatencyModel(0, 1_000_000, 0));
+        CUDA.useDriver(driver);
+        engine = new TransferEngine(CHUNK, 3, 2);
+    }
+    
+    @AfterEach
+    public void tearDown() throws Throwable {
+        engine.close();
+        CUDA.useTransferEngine(null);
+        CUDA.useStagingPool(null);
+    }
+    
+    @Test
+    public void roundTripsArraysLargerThanTheBudget() throws Throwable {
+        float[] data = new float[10_001];
+        for (int i = 0; i < data.length; i++) data[i] = i * 0.5f;
+        
+        long hostAllocations = driver.hostAllocationCount();
+        CudaBuffer buffer = CUDA.allocateBytes((long) data.length * Float.BYTES);
+        float[] result = new float[data.length];
+        
+        engine.upload(data, buffer);
+        engine.download(buffer, result);
+        
+        assertArrayEquals(data, result);
+        assertEquals(hostAllocations, driver.hostAllocationCount());
+        assertEquals(3 * CHUNK, engine.offHeapBytes());
+    }
+    
+    @Test
+    public void honoursOffsets() throws Throwable {
+        byte[] data = new byte[4500];
+        for (int i = 0; i < data.length; i++) data[i] = (byte) i;
+        
+        CudaBuffer buffer = CUDA.allocateBytes(5000);
+        byte[] result = new byte[5000];
+        
+        buffer.copyToDevice(new byte[5000]);
+        engine.upload(MemorySegment.ofArray(data), 100, buffer, 300, 4000);
+        buffer.copyToHost(result);
+        
+        for (int i = 0; i < result.length; i++) {
+            assertEquals(i >= 300 && i < 4300 ? data[i - 200] : 0, result[i], "byte " + i);
+        }
+    }
+    
+    @Test
+    public void chunksTransferConcurrentlyOnSeparateStreams() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(20 * CHUNK);
+        driver.recordTimeline(true);
+        
+        engine.upload(new byte[(int) (20 * CHUNK)], buffer);
+        
+        List<TimelineEntry> copies = driver.timeline();
+        
+        assertEquals(20, copies.size());
+        assertTrue(copies.stream().anyMatch(a -> copies.stream().anyMatch(b -> a.stream() != b.stream() && a.overlaps(b))));
+    }
+    
+    @Test
+    public void synchronousCopiesAboveTheStagingLimitUseTheEngine() throws Throwable {
+        StagingBufferPool pool = new StagingBufferPool(new long[] { 512 }, 2);
+        CUDA.useStagingPool(pool);
+        CUDA.useTransferEngine(engine);
+        
+        int[] data = new int[5000];
+        for (int i = 0; i < data.length; i++) data[i] = -i;
+        
+        CudaBuffer buffer = CUDA.allocateBytes((long) data.length * Integer.BYTES);
+        int[] result = new int[data.length];
+        
+        buffer.copyToDevice(data);
+        buffer.copyToHost(result);
+        
+        assertArrayEquals(data, result);
+        assertEquals(0, pool.allocations());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package org.cuda4j.context;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.device.CudaDevice;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.lang.foreign.ValueLayout.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutotunerTest {
+    
+    private static final int FASTEST_BLOCK = 128;
+    
+    @TempDir
+    Path directory;
+    
+    private final AtomicInteger lastBlock = new AtomicInteger();
+    private CudaFunction fill;
+    private CudaBuffer output;
+    private CudaStream stream;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        EmulatedDriver driver = new EmulatedDriver();
+        
+        // every block size but one is slowed down, so the tuner has a clear winner
+        driver.registerKernel("fill", launch -> {
+            lastBlock.set(launch.blockX());
+            LockSupport.parkNanos(Math.abs(launch.blockX() - FASTEST_BLOCK) * 20_000L);
+            
+            MemorySegment data = launch.pointer(0);
+            int n = launch.intArg(1);
+            
+            for (long i = 0; i < Math.min(n, launch.threads()); i++) {
+                data.setAtIndex(JAVA_INT, i, (int) i);
+            }
+        }, JAVA_LONG, JAVA_INT);
+        
+        CUDA.useDriver(driver);
+        fill = CUDA.loadModule(new byte[] { 0 }).getFunction("fill");
+        output = CUDA.allocateBytes(1000 * Integer.BYTES);
+        stream = CUDA.createStream();
+    }
+    
+    @AfterEach
+    public void tearDown() throws Throwable {
+        CUDA.useAutotuner(null);
+        output.free();
+        stream.destroy();
+    }
+    
+    @Test
+    public void devicesReportTheirAttributes() throws Throwable {
+        CudaDevice device = CUDA.createSystemDevice(0);
+        
+        assertEquals(EmulatedDriver.MULTIPROCESSOR_COUNT, device.multiprocessorCount());
+        assertEquals(1024, device.maxThreadsPerBlock());
+        assertEquals(32, device.warpSize());
+        assertEquals(48 << 10, device.maxSharedMemoryPerBlock());
+        assertEquals(89, device.computeCapability());
+        assertEquals(0, CudaDevice.current().index());
+    }
+    
+    @Test
+    public void occupancyPrefersTheLargestBlockThatFillsAMultiprocessor() throws Throwable {
+        OccupancySuggestion suggestion = fill.suggestBlockSize();
+        
+        assertEquals(768, suggestion.blockSize());
+        assertEquals(2 * EmulatedDriver.MULTIPROCESSOR_COUNT, suggestion.minGridSize());
+        assertEquals(2, suggestion.gridSize(1000));
+        
+        assertEquals(256, fill.suggestBlockSize(0, 256).blockSize());
+        assertEquals(6, fill.maxActiveBlocksPerMultiprocessor(256, 0));
+        assertEquals(2, fill.maxActiveBlocksPerMultiprocessor(256, 40 << 10));
+        assertEquals(1024, fill.maxThreadsPerBlock());
+    }
+    
+    @Test
+    public void launch1DCoversEveryElement() throws Throwable {
+        try (KernelArgs args = new KernelArgs(JAVA_LONG, JAVA_INT).setBuffer(0, output).setInt(1, 1000)) {
+            assertEquals(0, fill.launch1D(1000, args, stream));
+            stream.sync();
+        }
+        
+        assertEquals(768, lastBlock.get());
+        
+        int[] values = new int[1000];
+        output.copyToHost(values);
+        assertEquals(999, values[999]);
+    }
+    
+    @Test
+    public void tunedBlockSizesArePersistedAndReused() throws Throwable {
+        Path file = directory.resolve("tuning").resolve("autotune.properties");
+        Autotuner tuner = new Autotuner(file, 2);
+        CUDA.useAutotuner(tuner);
+        
+        try (KernelArgs args = new KernelArgs(JAVA_LONG, JAVA_INT).setBuffer(0, output).setInt(1, 1000)) {
+            fill.launch1D(1000, args, stream);
+            fill.launch1D(600, args, stream);
+            stream.sync();
+            
+            assertEquals(FASTEST_BLOCK, lastBlock.get());
+            assertEquals(1, tuner.tunings());
+            assertEquals(1, tuner.hits());
+            assertTrue(Files.isRegularFile(file));
+            
+            Autotuner restarted = new Autotuner(file, 2);
+            CUDA.useAutotuner(restarted);
+            
+            fill.launch1D(1000, args, stream);
+            stream.sync();
+            
+            assertEquals(0, restarted.tunings());
+            assertEquals(1, restarted.hits());
+            assertEquals(tuner.results(), restarted.results());
+            
+            fill.launch1D(10, args, stream);
+            assertEquals(1, restarted.tunings());
+        }
+    }
+    
+    @Test
+    public void bucketsArePowersOfTwo() {
+        assertEquals(0, Autotuner.bucket(1));
+        assertEquals(10, Autotuner.bucket(1000));
+        assertEquals(10, Autotuner.bucket(1024));
+        assertEquals(11, Autotuner.bucket(1025));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+package org.cuda4j.context;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+import static java.lang.foreign.ValueLayout.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandBufferTest {
+    
+    private EmulatedDriver driver;
+    private CudaFunction add;
+    private CudaStream stream;
+    private CommandBuffer commands;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        driver = new EmulatedDriver();
+        driver.registerKernel("add", launch -> {
+            MemorySegment data = launch.pointer(0);
+            
+            for (long i = 0; i < launch.intArg(2); i++) {
+                data.setAtIndex(JAVA_INT, i, data.getAtIndex(JAVA_INT, i) + launch.intArg(1));
+            }
+        }, JAVA_LONG, JAVA_INT, JAVA_INT);
+        
+        CUDA.useDriver(driver);
+        add = CUDA.loadModule(new byte[] { 0 }).getFunction("add");
+        stream = CUDA.createStream();
+        commands = new CommandBuffer();
+    }
+    
+    @AfterEach
+    public void tearDown() throws Throwable {
+        commands.close();
+        stream.destroy();
+    }
+    
+    @Test
+    public void runsEveryCommandInOrderWithOneSubmission() throws Throwable {
+        try (CudaBuffer data = CUDA.allocateBytes(16 * Integer.BYTES);
+             CudaBuffer copy = CUDA.allocateBytes(16 * Integer.BYTES);
+             KernelArgs args = new KernelArgs(JAVA_LONG, JAVA_INT, JAVA_INT);
+             Arena arena = Arena.ofConfined()) {
+            MemorySegment host = arena.allocate(JAVA_INT, 16);
+            CudaEvent done = CudaEvent.create(false);
+            
+            args.setBuffer(0, data).setInt(2, 16);
+            
+            commands.memset(copy, 0, (byte) 0x7F, copy.length())
+                .copyToDevice(data, new int[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16})
+                .launch1D(add, 16, 32, args.setInt(1, 10))
+                .launch1D(add, 16, 32, args.setInt(1, 100))
+                .copy(copy, 0, data.slice(8 * Integer.BYTES, 8 * Integer.BYTES), 0, 8 * Integer.BYTES)
+                .copyToHost(host, 0, copy, 0, copy.length())
+                .record(done);
+            
+            long submissions = driver.commandListCount();
+            assertEquals(7, commands.size());
+            
+            commands.submit(stream);
+            done.synchronize();
+            
+            assertEquals(submissions + 1, driver.commandListCount());
+            assertEquals(119, host.getAtIndex(JAVA_INT, 0));
+            assertEquals(126, host.getAtIndex(JAVA_INT, 7));
+            assertEquals(0x7F7F7F7F, host.getAtIndex(JAVA_INT, 8));
+            
+            done.destroy();
+        }
+    }
+    
+    @Test
+    public void listsCanBeResubmittedAndGrow() throws Throwable {
+        try (CudaBuffer data = CUDA.allocateBytes(Integer.BYTES);
+             KernelArgs args = new KernelArgs(JAVA_LONG, JAVA_INT, JAVA_INT).setInt(1, 1).setInt(2, 1)) {
+            args.setBuffer(0, data);
+            
+            commands.memset(data, 0, (byte) 0, data.length());
+            for (int i = 0; i < 199; i++) commands.launch(add, 1, 1, 1, 1, 1, 1, 0, args);
+            
+            commands.submit(stream);
+            commands.submit(stream);
+            stream.sync();
+            
+            int[] value = new int[1];
+            data.copyToHost(value);
+            assertEquals(199, value[0]);
+            
+            commands.reset();
+            assertEquals(0, commands.size());
+            
+            commands.launch(add, 1, 1, 1, 1, 1, 1, 0, args.setInt(1, 1000)).submit(stream);
+            stream.sync();
+            
+            data.copyToHost(value);
+            assertEquals(1199, value[0]);
+        }
+    }
+    
+    @Test
+    public void failuresReportTheCommandIndex() throws Throwable {
+        CudaBuffer freed = CUDA.allocateBytes(64);
+        freed.free();
+        
+        try (CudaBuffer data = CUDA.allocateBytes(64)) {
+            commands.memset(data, 0, (byte) 1, 64)
+                .memset(freed, 0, (byte) 2, 64)
+                .memset(data, 0, (byte) 3, 64);
+            
+            RuntimeException error = assertThrows(RuntimeException.class, () -> commands.submit(stream));
+            assertTrue(error.getMessage().startsWith("cuMemsetD8Async failed: 400"), error.getMessage());
+            assertTrue(error.getMessage().contains("command 1 of 3"), error.getMessage());
+            
+            stream.sync();
+            byte[] bytes = new byte[64];
+            data.copyToHost(bytes);
+            assertEquals(1, bytes[63]);
+        }
+    }
+    
+    @Test
+    public void hostCopiesIntoTheHeapAreRejected() throws Throwable {
+        try (CudaBuffer data = CUDA.allocateBytes(16)) {
+            assertThrows(IllegalArgumentException.class, () -> commands.copyToHost(MemorySegment.ofArray(new byte[16]), 0, data, 0, 16));
+            assertThrows(IndexOutOfBoundsException.class, () -> commands.memset(data, 8, (byte) 0, 16));
+            assertEquals(0, commands.size());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package org.cuda4j.context;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.buffer.CudaTransfer;
+import org.cuda4j.device.CudaModule;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.cuda4j.emulator.LatencyModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static java.lang.foreign.ValueLayout.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CudaEventTest {
+    
+    private final CountDownLatch release = new CountDownLatch(1);
+    private CudaFunction blocked;
+    private CudaFunction store;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        EmulatedDriver driver = new EmulatedDriver(1, Long.MAX_VALUE, new LatencyModel(2_000_000, 0, Long.MAX_VALUE));
+        driver.registerKernel("blocked", launch -> release.await());
+        driver.registerKernel("store", launch -> launch.pointer(0).set(JAVA_INT, 0, launch.intArg(1)), JAVA_LONG, JAVA_INT);
+        CUDA.useDriver(driver);
+        
+        CudaModule module = CUDA.loadModule(new byte[] { 0 });
+        blocked = module.getFunction("blocked");
+        store = module.getFunction("store");
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+    }
+    
+    @Test
+    public void streamsWaitOnEventsFromOtherStreams() throws Throwable {
+        CudaStream producer = CUDA.createStream();
+        CudaStream consumer = CUDA.createStream();
+        CudaBuffer buffer = CUDA.allocateBytes(Integer.BYTES);
+        int[] result = new int[1];
+        
+        try (KernelArgs args = new KernelArgs(JAVA_LONG, JAVA_INT)) {
+            blocked.launch(1, 1, 1, 1, 1, 1, 0, producer, null);
+            store.launch(1, 1, 1, 1, 1, 1, 0, producer, args.setBuffer(0, buffer).setInt(1, 99).pointer());
+        }
+        
+        CudaEvent ready = CudaEvent.create(false).record(producer);
+        consumer.waitEvent(ready);
+        CudaTransfer transfer = buffer.copyToHostAsync(result, consumer);
+        
+        assertFalse(ready.isCompleted());
+        assertFalse(transfer.isDone());
+        
+        release.countDown();
+        transfer.await();
+        
+        assertTrue(ready.isCompleted());
+        assertEquals(99, result[0]);
+    }
+    
+    @Test
+    public void elapsedTimeIsMeasuredOnTheStream() throws Throwable {
+        release.countDown();
+        CudaStream stream = CUDA.createStream();
+        
+        CudaEvent start = CudaEvent.create().record(stream);
+        blocked.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+        blocked.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+        CudaEvent end = CudaEvent.create().record(stream);
+        
+        end.synchronize();
+        assertTrue(end.elapsedMillis(start) >= 4);
+    }
+    
+    @Test
+    public void timingCanBeDisabled() throws Throwable {
+        CudaStream stream = CUDA.createStream();
+        CudaEvent start = CudaEvent.create(false).record(stream);
+        CudaEvent end = CudaEvent.create(false).record(stream);
+        
+        end.synchronize();
+        assertThrows(RuntimeException.class, () -> end.elapsedMillis(start));
+    }
+}
\ No newline at end of file
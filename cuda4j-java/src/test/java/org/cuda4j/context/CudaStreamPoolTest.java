@@ -0,0 +1,169 @@
+package org.cuda4j.context;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.buffer.CudaTransfer;
+import org.cuda4j.device.CudaModule;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.cuda4j.emulator.LatencyModel;
+import org.cuda4j.emulator.TimelineEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static java.lang.foreign.ValueLayout.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CudaStreamPoolTest {
+    
+    private static final int CHUNKS = 6;
+    private static final int CHUNK_INTS = 256;
+    
+    private final CountDownLatch release = new CountDownLatch(1);
+    private EmulatedDriver driver;
+    private CudaFunction blocked;
+    private CudaFunction increment;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        driver = new EmulatedDriver(1, Long.MAX_VALUE, new LatencyModel(5_000_000, 5_000_000, 0));
+        driver.registerKernel("blocked", launch -> release.await());
+        driver.registerKernel("increment", launch -> {
+            for (int i = 0; i < launch.intArg(1); i++) {
+                launch.pointer(0).setAtIndex(JAVA_INT, i, launch.pointer(0).getAtIndex(JAVA_INT, i) + 1);
+            }
+        }, JAVA_LONG, JAVA_INT);
+        CUDA.useDriver(driver);
+        
+        CudaModule module = CUDA.loadModule(new byte[] { 0 });
+        blocked = module.getFunction("blocked");
+        increment = module.getFunction("increment");
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+    }
+    
+    @Test
+    public void highPriorityStreamsUseTheGreatestPriority() throws Throwable {
+        int[] range = CUDA.getStreamPriorityRange();
+        assertTrue(range[1] < range[0]);
+        
+        try (CudaStreamPool pool = new CudaStreamPool(1, 1, CudaStreamPool.Policy.ROUND_ROBIN, 1)) {
+            assertNotEquals(pool.acquire(CudaStreamPool.Priority.NORMAL), pool.acquire(CudaStreamPool.Priority.HIGH));
+            assertEquals(2, pool.streams().size());
+        }
+    }
+    
+    @Test
+    public void roundRobinCyclesThroughStreams() throws Throwable {
+        try (CudaStreamPool pool = new CudaStreamPool(3)) {
+            CudaStream first = pool.acquire();
+            CudaStream second = pool.acquire();
+            CudaStream third = pool.acquire();
+            
+            assertNotEquals(first, second);
+            assertNotEquals(second, third);
+            assertEquals(first, pool.acquire());
+        }
+    }
+    
+    @Test
+    public void leastLoadedAvoidsBusyStreams() throws Throwable {
+        try (CudaStreamPool pool = new CudaStreamPool(2, 0, CudaStreamPool.Policy.LEAST_LOADED, 4)) {
+            CudaStream busy = pool.acquire();
+            blocked.launch(1, 1, 1, 1, 1, 1, 0, busy, null);
+            pool.release(busy);
+            
+            assertEquals(1, pool.inFlight(busy));
+            assertNotEquals(busy, pool.acquire());
+            
+            release.countDown();
+            pool.sync();
+            assertEquals(0, pool.inFlight(busy));
+        }
+    }
+    
+    @Test
+    public void acquireBlocksAtTheInFlightLimit() throws Throwable {
+        try (CudaStreamPool pool = new CudaStreamPool(1, 0, CudaStreamPool.Policy.ROUND_ROBIN, 1)) {
+            CudaStream stream = pool.acquire();
+            blocked.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+            pool.release(stream);
+            
+            Thread producer = new Thread(() -> {
+                try {
+                    pool.acquire();
+                } catch (Throwable t) {
+                    throw new RuntimeException(t);
+                }
+            });
+            producer.start();
+            producer.join(100);
+            
+            assertTrue(producer.isAlive());
+            
+            release.countDown();
+            producer.join(5_000);
+            
+            assertFalse(producer.isAlive());
+        }
+    }
+    
+    @Test
+    public void pipelineOverlapsCopiesWithCompute() throws Throwable {
+        int depth = 2;
+        CudaBuffer[] slots = new CudaBuffer[depth];
+        int[][] inputs = new int[CHUNKS][CHUNK_INTS];
+        int[][] outputs = new int[CHUNKS][CHUNK_INTS];
+        List<CudaTransfer> downloads = new ArrayList<>();
+        
+        for (int slot = 0; slot < depth; slot++) {
+            slots[slot] = CUDA.allocateBytes((long) CHUNK_INTS * Integer.BYTES);
+        }
+        
+        for (int chunk = 0; chunk < CHUNKS; chunk++) {
+            for (int i = 0; i < CHUNK_INTS; i++) inputs[chunk][i] = chunk * CHUNK_INTS + i;
+        }
+        
+        try (CudaStreamPool pool = new CudaStreamPool(1, 2, CudaStreamPool.Policy.ROUND_ROBIN, 4);
+             CudaPipeline pipeline = pool.pipeline(depth);
+             KernelArgs args = new KernelArgs(JAVA_LONG, JAVA_INT)) {
+            driver.recordTimeline(true);
+            
+            pipeline.run(
+                CHUNKS,
+                (chunk, slot, stream) -> slots[slot].copyToDeviceAsync(inputs[chunk], stream),
+                (chunk, slot, stream) -> increment.launch(
+                    1, 1, 1, 1, 1, 1, 0, stream, args.setBuffer(0, slots[slot]).setInt(1, CHUNK_INTS).pointer()
+                ),
+                (chunk, slot, stream) -> downloads.add(slots[slot].copyToHostAsync(outputs[chunk], stream))
+            );
+        }
+        
+        for (CudaTransfer download : downloads) download.await();
+        
+        for (int chunk = 0; chunk < CHUNKS; chunk++) {
+            for (int i = 0; i < CHUNK_INTS; i++) assertEquals(inputs[chunk][i] + 1, outputs[chunk][i]);
+        }
+        
+        List<TimelineEntry> kernels = new ArrayList<>();
+        List<TimelineEntry> copies = new ArrayList<>();
+        
+        for (TimelineEntry entry : driver.timeline()) {
+            (entry.operation().equals("kernel") ? kernels : copies).add(entry);
+        }
+        
+        assertEquals(CHUNKS, kernels.size());
+        assertEquals(2 * CHUNKS, copies.size());
+        assertTrue(
+            kernels.stream().anyMatch(kernel -> copies.stream().anyMatch(kernel::overlaps)),
+            "copies never ran while a kernel was executing"
+        );
+    }
+}
\ No newline at end of file
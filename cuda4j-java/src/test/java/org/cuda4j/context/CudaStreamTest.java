@@ -0,0 +1,148 @@
+package org.cuda4j.context;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.device.CudaModule;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CudaStreamTest {
+    
+    private final CountDownLatch release = new CountDownLatch(1);
+    private CudaFunction blocked;
+    private CudaFunction fault;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        EmulatedDriver driver = new EmulatedDriver();
+        driver.registerKernel("blocked", launch -> release.await());
+        driver.registerKernel("fault", launch -> {
+            throw new IllegalStateException("fault");
+        });
+        CUDA.useDriver(driver);
+        
+        CudaModule module = CUDA.loadModule(new byte[] { 0 });
+        blocked = module.getFunction("blocked");
+        fault = module.getFunction("fault");
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+    }
+    
+    @Test
+    public void callbacksRunOnTheStreamAfterPrecedingWork() throws Throwable {
+        CudaStream stream = CUDA.createStream();
+        AtomicReference<String> thread = new AtomicReference<>();
+        CountDownLatch called = new CountDownLatch(1);
+        
+        blocked.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+        stream.addCallback(() -> {
+            thread.set(Thread.currentThread().getName());
+            called.countDown();
+        });
+        
+        assertFalse(called.await(50, TimeUnit.MILLISECONDS));
+        
+        release.countDown();
+        
+        assertTrue(called.await(5, TimeUnit.SECONDS));
+        assertTrue(thread.get().startsWith("cuda4j-emulated-stream"));
+        assertEquals(0, HostCallbacks.pending());
+    }
+    
+    @Test
+    public void onCompleteRunsDependentsOffTheDriverThread() throws Throwable {
+        CudaStream stream = CUDA.createStream();
+        
+        blocked.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+        CompletableFuture<String> dependent = stream.onComplete().thenApply(ignored -> Thread.currentThread().getName());
+        
+        assertFalse(dependent.isDone());
+        
+        release.countDown();
+        
+        assertFalse(dependent.get(5, TimeUnit.SECONDS).startsWith("cuda4j-emulated-stream"));
+        assertTrue(stream.isCompleted());
+    }
+    
+    @Test
+    public void virtualThreadsAwaitWithoutHoldingCarriers() throws Throwable {
+        CudaStream stream = CUDA.createStream();
+        int waiters = 10_000;
+        
+        blocked.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(waiters);
+            
+            for (int i = 0; i < waiters; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        stream.await();
+                    } catch (Throwable t) {
+                        throw new RuntimeException(t);
+                    }
+                }));
+            }
+            
+            assertEquals(42, (int) executor.submit(() -> 42).get(5, TimeUnit.SECONDS));
+            assertTrue(futures.stream().noneMatch(Future::isDone));
+            
+            release.countDown();
+            
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        }
+    }
+    
+    @Test
+    public void faultsAreThrownByAwaitAndFailPendingCallbacks() throws Throwable {
+        CudaStream stream = CUDA.createStream();
+        
+        fault.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+        CompletableFuture<Void> completion = stream.onComplete();
+        
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(() -> {
+            try {
+                stream.await();
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        });
+        
+        ExecutionException error = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause().getCause().getMessage().startsWith("cuStreamQuery failed"));
+        assertTrue(completion.isCompletedExceptionally());
+        assertEquals(0, HostCallbacks.pending());
+    }
+    
+    @Test
+    public void awaitGivesUpAfterItsTimeout() throws Throwable {
+        CudaStream stream = CUDA.createStream();
+        
+        blocked.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+        
+        assertFalse(stream.await(50, TimeUnit.MILLISECONDS));
+        
+        release.countDown();
+        
+        assertTrue(stream.await(5, TimeUnit.SECONDS));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package org.cuda4j.context;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.foreign.ValueLayout.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KernelArgsTest {
+    
+    private final AtomicInteger pointerLookups = new AtomicInteger();
+    private CudaFunction scale;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        EmulatedDriver driver = new EmulatedDriver() {
+            @Override
+            public long bufferPtr(MemorySegment buffer) {
+                pointerLookups.incrementAndGet();
+                return super.bufferPtr(buffer);
+            }
+        };
+        
+        driver.registerKernel("scale", launch -> {
+            MemorySegment data = launch.pointer(0);
+            float factor = launch.floatArg(1);
+            int n = launch.intArg(2);
+            
+            for (int i = 0; i < n; i++) {
+                data.setAtIndex(JAVA_FLOAT, i, data.getAtIndex(JAVA_FLOAT, i) * factor);
+            }
+        }, JAVA_LONG, JAVA_FLOAT, JAVA_INT);
+        
+        CUDA.useDriver(driver);
+        scale = CUDA.loadModule(new byte[] { 0 }).getFunction("scale");
+    }
+    
+    @Test
+    public void framesAreReusedAcrossLaunches() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(4 * Float.BYTES);
+        buffer.copyToDevice(new float[] { 1, 2, 3, 4 });
+        CudaStream stream = CUDA.createStream();
+        
+        try (KernelArgs args = new KernelArgs(JAVA_LONG, JAVA_FLOAT, JAVA_INT)) {
+            for (int i = 0; i < 3; i++) {
+                args.setBuffer(0, buffer).setFloat(1, 2).setInt(2, 4);
+                assertEquals(0, scale.launch(1, 1, 1, 4, 1, 1, 0, stream, args.pointer()));
+            }
+            
+            args.setInt(2, 2);
+            assertEquals(0, scale.launch(1, 1, 1, 4, 1, 1, 0, stream, args.pointer()));
+        }
+        
+        stream.sync();
+        
+        float[] result = new float[4];
+        buffer.copyToHost(result);
+        
+        assertArrayEquals(new float[] { 16, 32, 24, 32 }, result);
+        assertEquals(1, pointerLookups.get());
+    }
+    
+    @Test
+    public void slotsAreTyped() {
+        try (KernelArgs args = new KernelArgs(JAVA_LONG, JAVA_FLOAT)) {
+            assertThrows(IllegalArgumentException.class, () -> args.setInt(1, 3));
+            assertThrows(IllegalArgumentException.class, () -> args.setFloat(0, 3));
+            assertThrows(IndexOutOfBoundsException.class, () -> args.setInt(2, 3));
+        }
+    }
+}
\ No newline at end of file
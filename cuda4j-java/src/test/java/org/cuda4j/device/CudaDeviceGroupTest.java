@@ -0,0 +1,165 @@
+package org.cuda4j.device;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.buffer.CudaMemoryPool;
+import org.cuda4j.buffer.ShardedBuffer;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.cuda4j.emulator.LatencyModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CudaDeviceGroupTest {
+    
+    private EmulatedDriver driver;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        driver = new EmulatedDriver(4, 64 << 20, LatencyModel.NONE);
+        CUDA.useDriver(driver);
+    }
+    
+    @Test
+    public void splitsIntoBalancedRanges() {
+        assertArrayEquals(new long[] {0, 3, 6, 8, 10}, ShardedBuffer.split(10, 4));
+        assertArrayEquals(new long[] {0, 1, 2, 2}, ShardedBuffer.split(2, 3));
+    }
+    
+    @Test
+    public void scatterPlacesEachRangeOnItsDevice() throws Throwable {
+        float[] data = new float[1001];
+        for (int i = 0; i < data.length; i++) data[i] = i;
+        
+        try (CudaDeviceGroup group = CudaDeviceGroup.all()) {
+            assertEquals(4, group.size());
+            
+            ShardedBuffer buffer = group.scatter(data);
+            
+            for (int i = 0; i < group.size(); i++) {
+                assertEquals(i, driver.deviceOf(buffer.shard(i).handle()));
+                assertEquals(buffer.count(i) * Float.BYTES, driver.allocatedBytes(i));
+            }
+            
+            assertEquals(3, buffer.deviceOf(1000));
+            assertEquals(0, buffer.deviceOf(0));
+            
+            float[] back = new float[data.length];
+            group.gather(buffer, back);
+            assertArrayEquals(data, back);
+            
+            buffer.free();
+        }
+    }
+    
+    @Test
+    public void allReduceLeavesTheSumOnEveryDevice() throws Throwable {
+        int length = 1037;
+        
+        try (CudaDeviceGroup group = CudaDeviceGroup.all()) {
+            group.enablePeerAccess();
+            ShardedBuffer replicas = group.allocateReplicated(length, Float.BYTES);
+            
+            group.forEach((device, context, stream) -> {
+                float[] values = new float[length];
+                for (int i = 0; i < length; i++) values[i] = (device + 1) * i;
+                replicas.shard(device).copyToDevice(values);
+            });
+            
+            group.allReduce(replicas);
+            
+            for (int device = 0; device < group.size(); device++) {
+                float[] result = new float[length];
+                group.use(device);
+                replicas.shard(device).copyToHost(result);
+                
+                for (int i = 0; i < length; i++) {
+                    assertEquals(10f * i, result[i], "device " + device + ", element " + i);
+                }
+            }
+            
+            assertEquals(0, driver.stagedPeerCopyCount());
+            replicas.free();
+        }
+    }
+    
+    @Test
+    public void allReduceKeepsEveryBlockOnItsDeviceWithAPoolInstalled() throws Throwable {
+        int length = 1037;
+        CUDA.useMemoryPool(new CudaMemoryPool(16 << 20, 8 << 20));
+        
+        try (CudaDeviceGroup group = CudaDeviceGroup.all()) {
+            // blocks freed on device 0 would be handed to the other devices if the group went through the pool
+            group.use(0);
+            List<CudaBuffer> warm = new ArrayList<>();
+            
+            for (int i = 0; i < group.size(); i++) {
+                warm.add(CUDA.allocateBytes(260 * Float.BYTES));
+                warm.add(CUDA.allocateBytes(length * Float.BYTES));
+            }
+            
+            for (CudaBuffer buffer : warm) buffer.free();
+            
+            group.enablePeerAccess();
+            ShardedBuffer replicas = group.allocateReplicated(length, Float.BYTES);
+            
+            group.forEach((device, context, stream) -> {
+                float[] values = new float[length];
+                for (int i = 0; i < length; i++) values[i] = (device + 1) * i;
+                replicas.shard(device).copyToDevice(values);
+            });
+            
+            group.allReduce(replicas);
+            
+            for (int device = 0; device < group.size(); device++) {
+                assertEquals(device, driver.deviceOf(replicas.shard(device).handle()));
+                
+                float[] result = new float[length];
+                group.use(device);
+                replicas.shard(device).copyToHost(result);
+                
+                for (int i = 0; i < length; i++) {
+                    assertEquals(10f * i, result[i], "device " + device + ", element " + i);
+                }
+            }
+            
+            replicas.free();
+        } finally {
+            CUDA.useMemoryPool(null);
+        }
+    }
+    
+    @Test
+    public void peerCopiesAreStagedUntilAccessIsEnabled() throws Throwable {
+        try (CudaDeviceGroup group = CudaDeviceGroup.of(0, 1)) {
+            ShardedBuffer replicas = group.replicate(new float[] {1, 2, 3});
+            assertEquals(1, driver.stagedPeerCopyCount());
+            
+            assertTrue(group.canAccessPeer(0, 1));
+            assertEquals(2, group.enablePeerAccess());
+            assertEquals(2, group.enablePeerAccess());
+            assertTrue(group.hasPeerAccess(1, 0));
+            
+            group.copyPeer(replicas.shard(0), 0, 0, replicas.shard(1), 1, 0, 3 * Float.BYTES);
+            group.sync();
+            
+            assertEquals(2, driver.peerCopyCount());
+            assertEquals(1, driver.stagedPeerCopyCount());
+            
+            float[] back = new float[3];
+            group.gather(replicas, back);
+            assertArrayEquals(new float[] {1, 2, 3}, back);
+            
+            replicas.free();
+        }
+    }
+    
+    @Test
+    public void rejectsMissingDevices() {
+        assertThrows(IllegalArgumentException.class, () -> CudaDeviceGroup.of(0, 7));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package org.cuda4j.device;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.context.CudaFunction;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModuleCacheTest {
+    
+    private static final byte[] PTX = ".version 8.0\n.target sm_89\n.address_size 64\n".getBytes(StandardCharsets.UTF_8);
+    
+    @TempDir
+    Path directory;
+    
+    private EmulatedDriver driver;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        driver = new EmulatedDriver();
+        driver.registerKernel("noop", launch -> {});
+        CUDA.useDriver(driver);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        CUDA.useModuleCache(null);
+    }
+    
+    @Test
+    public void compilesOncePerPtx() throws Throwable {
+        ModuleCache cache = new ModuleCache(directory);
+        
+        cache.load(PTX).unload();
+        cache.load(PTX).unload();
+        new ModuleCache(directory).load(PTX).unload();
+        
+        assertEquals(1, driver.compilationCount());
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.hits());
+        assertTrue(cache.missNanos() > 0);
+        
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.filter(file -> file.toString().endsWith(".cubin")).count());
+        }
+    }
+    
+    @Test
+    public void keysIncludeArchitectureAndDriver() throws Throwable {
+        new ModuleCache(directory).load(PTX).unload();
+        
+        try (Stream<Path> files = Files.list(directory)) {
+            String name = files.findFirst().orElseThrow().getFileName().toString();
+            String suffix = "-sm" + EmulatedDriver.COMPUTE_CAPABILITY_MAJOR + EmulatedDriver.COMPUTE_CAPABILITY_MINOR
+                + "-" + EmulatedDriver.DRIVER_VERSION + ".cubin";
+            
+            assertTrue(name.endsWith(suffix), name);
+        }
+    }
+    
+    @Test
+    public void corruptEntriesAreRecompiled() throws Throwable {
+        ModuleCache cache = new ModuleCache(directory);
+        cache.load(PTX).unload();
+        
+        try (Stream<Path> files = Files.list(directory)) {
+            Files.write(files.findFirst().orElseThrow(), new byte[0]);
+        }
+        
+        cache.load(PTX).unload();
+        
+        assertEquals(2, driver.compilationCount());
+        assertEquals(2, cache.misses());
+    }
+    
+    @Test
+    public void loadModuleUsesTheConfiguredCache() throws Throwable {
+        CUDA.useModuleCache(new ModuleCache(directory));
+        
+        CUDA.loadModule(PTX).unload();
+        CUDA.loadModule(PTX).unload();
+        
+        assertEquals(1, driver.compilationCount());
+        assertEquals(1, CUDA.moduleCache().hits());
+    }
+    
+    @Test
+    public void functionsAreResolvedOncePerModule() throws Throwable {
+        CudaModule module = CUDA.loadModule(PTX);
+        CudaFunction first = module.getFunction("noop");
+        
+        assertSame(first, module.getFunction("noop"));
+        
+        module.unload();
+    }
+}
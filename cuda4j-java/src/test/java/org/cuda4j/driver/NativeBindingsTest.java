@@ -0,0 +1,73 @@
+package org.cuda4j.driver;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the handles of {@link NativeDriver} against the {@code @_cdecl} functions in {@code cuda4j-native}, so a
+ * signature change on either side shows up here instead of as arguments landing in the wrong registers.
+ */
+public class NativeBindingsTest {
+    
+    private static final Path NATIVE = Path.of("..", "cuda4j-native");
+    private static final Pattern EXPORT = Pattern.compile("@_cdecl\\(\"(\\w+)\"\\)\\s*public func \\w+\\(([^)]*)\\)");
+    
+    @Test
+    public void everyHandleMatchesItsExport() throws Exception {
+        Map<String, Integer> exports = exports();
+        
+        for (Field field : NativeDriver.class.getFields()) {
+            if (field.getType() != MethodHandle.class || !Modifier.isStatic(field.getModifiers())) continue;
+            
+            String symbol = field.getName().toLowerCase(Locale.ROOT);
+            MethodHandle handle = (MethodHandle) field.get(null);
+            
+            assertTrue(exports.containsKey(symbol), symbol + " is not exported by cuda4j-native");
+            assertEquals((int) exports.get(symbol), handle.type().parameterCount(), "parameters of " + symbol);
+        }
+    }
+    
+    @Test
+    public void buildScriptsCompileEverySource() throws Exception {
+        try (Stream<Path> sources = Files.list(NATIVE.resolve("src"))) {
+            for (Path source : sources.filter(path -> path.toString().endsWith(".swift")).toList()) {
+                String entry = "src\\" + source.getFileName();
+                
+                for (String script : new String[] { "build.sh", "build.bat" }) {
+                    assertTrue(Files.readString(NATIVE.resolve(script)).contains(entry), script + " does not compile " + entry);
+                }
+            }
+        }
+    }
+    
+    static Map<String, Integer> exports() throws IOException {
+        Map<String, Integer> exports = new HashMap<>();
+        
+        try (Stream<Path> sources = Files.list(NATIVE.resolve("src"))) {
+            for (Path source : sources.filter(path -> path.toString().endsWith(".swift")).toList()) {
+                Matcher matcher = EXPORT.matcher(Files.readString(source));
+                
+                while (matcher.find()) {
+                    String parameters = matcher.group(2).strip();
+                    exports.put(matcher.group(1), parameters.isEmpty() ? 0 : parameters.split(",").length);
+                }
+            }
+        }
+        
+        return exports;
+    }
+}
\ No newline at end of file
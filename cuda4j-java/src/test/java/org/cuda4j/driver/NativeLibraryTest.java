@@ -0,0 +1,68 @@
+package org.cuda4j.driver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NativeLibraryTest {
+    
+    private static final String RESOURCE = "/native-test/libfake.so";
+    
+    @TempDir
+    Path cache;
+    
+    @BeforeEach
+    public void setUp() {
+        System.setProperty("cuda4j.nativeCache", cache.toString());
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty("cuda4j.nativeCache");
+    }
+    
+    @Test
+    public void extractionIsReusedAcrossLoads() throws Exception {
+        Path first = NativeLibrary.extract(RESOURCE);
+        long modified = Files.getLastModifiedTime(first).toMillis();
+        
+        Thread.sleep(20);
+        Path second = NativeLibrary.extract(RESOURCE);
+        
+        assertEquals(first, second);
+        assertTrue(first.startsWith(cache));
+        assertEquals("libfake.so", first.getFileName().toString());
+        assertEquals(modified, Files.getLastModifiedTime(second).toMillis());
+    }
+    
+    @Test
+    public void corruptedCopiesAreReplaced() throws Exception {
+        Path extracted = NativeLibrary.extract(RESOURCE);
+        byte[] original = Files.readAllBytes(extracted);
+        
+        Files.write(extracted, new byte[] { 1, 2, 3 });
+        
+        assertEquals(extracted, NativeLibrary.extract(RESOURCE));
+        assertArrayEquals(original, Files.readAllBytes(extracted));
+    }
+    
+    @Test
+    public void resourceNameMatchesThePlatform() {
+        String name = NativeLibrary.resourceName();
+        
+        assertTrue(name.startsWith("/native/" + NativeLibrary.platform() + "/libcuda4j."));
+        assertTrue(name.endsWith(".so") || name.endsWith(".dll") || name.endsWith(".dylib"));
+    }
+    
+    @Test
+    public void missingLibrariesFailWithTheirPlatform() {
+        UnsatisfiedLinkError error = assertThrows(UnsatisfiedLinkError.class, () -> NativeLibrary.extract("/native/none/libcuda4j.so"));
+        assertTrue(error.getMessage().contains(NativeLibrary.platform()));
+    }
+}
@@ -0,0 +1,224 @@
+package org.cuda4j.emulator;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.buffer.CudaPointer;
+import org.cuda4j.context.CudaFunction;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.context.KernelArgs;
+import org.cuda4j.device.CudaDevice;
+import org.cuda4j.device.CudaModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+
+import static java.lang.foreign.ValueLayout.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmulatedDriverTest {
+    
+    private EmulatedDriver driver;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        driver = new EmulatedDriver(2, 1 << 20, LatencyModel.NONE);
+        driver.registerKernel("vecAdd", launch -> {
+            MemorySegment a = launch.pointer(0);
+            MemorySegment b = launch.pointer(1);
+            MemorySegment c = launch.pointer(2);
+            int n = launch.intArg(3);
+            
+            for (int i = 0; i < n; i++) {
+                c.setAtIndex(JAVA_FLOAT, i, a.getAtIndex(JAVA_FLOAT, i) + b.getAtIndex(JAVA_FLOAT, i));
+            }
+        }, JAVA_LONG, JAVA_LONG, JAVA_LONG, JAVA_INT);
+        CUDA.useDriver(driver);
+    }
+    
+    @Test
+    public void devicesAreEnumerated() throws Throwable {
+        assertEquals(2, CUDA.getDeviceCount());
+        
+        CudaDevice device = CUDA.createSystemDevice(1);
+        assertEquals("cuda4j Emulated Device 1", device.getName());
+        assertNotNull(device.createContext().setCurrent());
+    }
+    
+    @Test
+    public void vectorAddRunsRegisteredKernel() throws Throwable {
+        int n = 1024;
+        float[] a = new float[n];
+        float[] b = new float[n];
+        
+        for (int i = 0; i < n; i++) {
+            a[i] = i;
+            b[i] = i + 1;
+        }
+        
+        CudaModule module = CUDA.loadModule("resources/vector_add.ptx");
+        CudaFunction function = module.getFunction("vecAdd");
+        CudaStream stream = CUDA.createStream();
+        
+        CudaBuffer bufA = CUDA.allocateFor(a, n * Float.BYTES);
+        CudaBuffer bufB = CUDA.allocateFor(b, n * Float.BYTES);
+        CudaBuffer bufC = CUDA.allocateBytes(n * Float.BYTES);
+        
+        CudaPointer kernelArgs = CudaPointer.from(
+            CudaPointer.fromBuffer(bufA),
+            CudaPointer.fromBuffer(bufB),
+            CudaPointer.fromBuffer(bufC),
+            CudaPointer.fromInt(n)
+        );
+        
+        assertEquals(0, function.launch(n / 256, 1, 1, 256, 1, 1, 0, stream, kernelArgs));
+        stream.sync();
+        
+        float[] c = new float[n];
+        bufC.copyToHost(c);
+        
+        for (int i = 0; i < n; i++) {
+            assertEquals(2 * i + 1, c[i]);
+        }
+    }
+    
+    @Test
+    public void unregisteredPtxEntriesAreInterpreted() throws Throwable {
+        String ptx = """
+            .version 7.0
+            .target sm_52
+            .address_size 64
+            
+            .visible .entry scale(
+                .param .u64 data,
+                .param .f32 factor,
+                .param .u32 n
+            )
+            {
+                .reg .pred %p<2>;
+                .reg .b32 %r<3>;
+                .reg .b64 %rd<4>;
+                .reg .f32 %f<3>;
+                
+                ld.param.u32 %r1, [n];
+                mov.u32 %r2, %tid.x;
+                setp.ge.u32 %p1, %r2, %r1;
+                @%p1 bra END;
+                ld.param.u64 %rd1, [data];
+                cvta.to.global.u64 %rd2, %rd1;
+                mul.wide.u32 %rd3, %r2, 4;
+                add.s64 %rd2, %rd2, %rd3;
+                ld.global.f32 %f1, [%rd2];
+                ld.param.f32 %f2, [factor];
+                mul.f32 %f1, %f1, %f2;
+                st.global.f32 [%rd2], %f1;
+            END:
+                ret;
+            }
+            """;
+        
+        CudaModule module = CUDA.loadModule((ptx + '\0').getBytes(StandardCharsets.US_ASCII));
+        CudaFunction scale = module.getFunction("scale");
+        CudaStream stream = CUDA.createStream();
+        
+        assertThrows(RuntimeException.class, () -> module.getFunction("missing"));
+        
+        try (CudaBuffer data = CUDA.allocateFor(new float[] {1, 2, 3, 4});
+             KernelArgs args = new KernelArgs(JAVA_LONG, JAVA_FLOAT, JAVA_INT)) {
+            args.setBuffer(0, data).setFloat(1, 2.5f).setInt(2, 3);
+            
+            assertEquals(0, scale.launch(1, 1, 1, 8, 1, 1, 0, stream, args.pointer()));
+            stream.sync();
+            
+            float[] result = new float[4];
+            data.copyToHost(result);
+            assertArrayEquals(new float[] {2.5f, 5, 7.5f, 4}, result);
+        }
+    }
+    
+    @Test
+    public void streamReportsPendingWork() throws Throwable {
+        CountDownLatch release = new CountDownLatch(1);
+        driver.registerKernel("blocked", launch -> release.await());
+        
+        CudaFunction function = CUDA.loadModule(new byte[] { 0 }).getFunction("blocked");
+        CudaStream stream = CUDA.createStream();
+        
+        function.launch(1, 1, 1, 1, 1, 1, 0, stream, null);
+        assertFalse(stream.isCompleted());
+        
+        release.countDown();
+        stream.sync();
+        assertTrue(stream.isCompleted());
+    }
+    
+    @Test
+    public void freedBuffersStayValidForQueuedWork() throws Throwable {
+        CountDownLatch release = new CountDownLatch(1);
+        driver.registerKernel("write", launch -> {
+            release.await();
+            launch.pointer(0).set(JAVA_INT, 0, 42);
+        }, JAVA_LONG);
+        
+        CudaFunction function = CUDA.loadModule(new byte[] { 0 }).getFunction("write");
+        CudaStream stream = CUDA.createStream();
+        CudaBuffer buffer = CUDA.allocateBytes(Integer.BYTES);
+        
+        try (KernelArgs args = new KernelArgs(JAVA_LONG).setBuffer(0, buffer)) {
+            function.launch(1, 1, 1, 1, 1, 1, 0, stream, args.pointer());
+            buffer.free();
+            
+            release.countDown();
+            stream.sync();
+        }
+    }
+    
+    @Test
+    public void synchronousCopiesLeaveOtherStreamsAlone() throws Throwable {
+        CountDownLatch release = new CountDownLatch(1);
+        driver.registerKernel("fault", launch -> {
+            throw new IllegalStateException("fault");
+        });
+        driver.registerKernel("blocked", launch -> release.await());
+        
+        CudaModule module = CUDA.loadModule(new byte[] { 0 });
+        CudaStream faulted = CUDA.createStream();
+        CudaStream busy = CUDA.createStream();
+        CudaBuffer buffer = CUDA.allocateBytes(Float.BYTES);
+        
+        module.getFunction("fault").launch(1, 1, 1, 1, 1, 1, 0, faulted, null);
+        module.getFunction("blocked").launch(1, 1, 1, 1, 1, 1, 0, busy, null);
+        
+        buffer.copyToDevice(new float[] { 1 });
+        assertFalse(busy.isCompleted());
+        
+        release.countDown();
+        busy.sync();
+        assertThrows(RuntimeException.class, faulted::sync);
+    }
+    
+    @Test
+    public void allocationsAreBoundedByDeviceMemory() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(1 << 19);
+        assertEquals(1 << 19, driver.allocatedBytes());
+        
+        assertThrows(OutOfMemoryError.class, () -> CUDA.allocateBytes(1 << 20));
+        assertEquals(0, driver.memFree(buffer.handle()));
+        assertEquals(0, driver.allocatedBytes());
+    }
+    
+    @Test
+    public void unknownKernelIsNotFound() throws Throwable {
+        CudaModule module = CUDA.loadModule(new byte[] { 0 });
+        assertThrows(RuntimeException.class, () -> module.getFunction("missing"));
+    }
+    
+    @Test
+    public void latencyModelChargesBandwidth() {
+        LatencyModel model = new LatencyModel(0, 1_000, 1_000_000_000L);
+        assertEquals(1_000 + 1_000_000, model.copyNanos(1_000_000));
+        assertEquals(0, LatencyModel.NONE.copyNanos(1 << 30));
+    }
+}
\ No newline at end of file
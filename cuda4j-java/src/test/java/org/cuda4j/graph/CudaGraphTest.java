@@ -0,0 +1,145 @@
+package org.cuda4j.graph;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.context.CudaFunction;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.context.KernelArgs;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.foreign.ValueLayout.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CudaGraphTest {
+    
+    private final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+    private CudaFunction record;
+    private CudaStream stream;
+    private KernelArgs args;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        EmulatedDriver driver = new EmulatedDriver();
+        driver.registerKernel("record", launch -> executed.add(launch.intArg(0)), JAVA_INT);
+        CUDA.useDriver(driver);
+        
+        record = CUDA.loadModule(new byte[] { 0 }).getFunction("record");
+        stream = CUDA.createStream();
+        args = new KernelArgs(JAVA_INT);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        args.close();
+    }
+    
+    @Test
+    public void capturedWorkRunsOnlyOnReplay() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(Integer.BYTES);
+        
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment host = arena.allocate(JAVA_INT);
+            
+            stream.beginCapture();
+            
+            for (int i = 1; i <= 3; i++) {
+                record.launch(1, 1, 1, 1, 1, 1, 0, stream, args.setInt(0, i).pointer());
+            }
+            
+            host.set(JAVA_INT, 0, 42);
+            buffer.copyFromAsync(host, 0, 0, Integer.BYTES, stream);
+            
+            CudaGraph graph = stream.endCapture();
+            stream.sync();
+            assertTrue(executed.isEmpty());
+            
+            CudaGraphExec exec = graph.instantiate();
+            exec.launch(stream);
+            exec.launch(stream);
+            stream.sync();
+            
+            assertEquals(List.of(1, 2, 3, 1, 2, 3), executed);
+            
+            int[] result = new int[1];
+            buffer.copyToHost(result);
+            assertEquals(42, result[0]);
+        }
+    }
+    
+    @Test
+    public void capturingStreamsRefuseOneShotHostWork() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(Integer.BYTES);
+        
+        stream.beginCapture();
+        assertTrue(stream.isCapturing());
+        
+        assertThrows(IllegalStateException.class, () -> buffer.copyToDeviceAsync(new int[] { 1 }, stream));
+        assertThrows(IllegalStateException.class, () -> buffer.copyToHostAsync(new int[1], stream));
+        assertThrows(IllegalStateException.class, () -> stream.addCallback(() -> {}));
+        
+        stream.endCapture();
+        assertFalse(stream.isCapturing());
+        
+        buffer.copyToDeviceAsync(new int[] { 5 }, stream).await();
+        stream.addCallback(() -> {});
+    }
+    
+    @Test
+    public void explicitGraphsRespectDependencies() throws Throwable {
+        CudaBuffer buffer = CUDA.allocateBytes(16);
+        CudaGraph graph = CudaGraph.create();
+        
+        CudaGraphNode fill = graph.addMemsetNode(buffer, 0, (byte) 7, 16);
+        CudaGraphNode left = graph.addKernelNode(record, 1, 1, 1, 1, 1, 1, 0, args.setInt(0, 1).pointer(), fill);
+        CudaGraphNode right = graph.addKernelNode(record, 1, 1, 1, 1, 1, 1, 0, args.setInt(0, 2).pointer(), fill);
+        graph.addKernelNode(record, 1, 1, 1, 1, 1, 1, 0, args.setInt(0, 3).pointer(), right, left);
+        
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment host = arena.allocate(16);
+            graph.addMemcpyNode(host, buffer, 0, 16, fill);
+            
+            graph.instantiate().launch(stream);
+            stream.sync();
+            
+            assertEquals(7, host.get(JAVA_BYTE, 15));
+        }
+        
+        assertEquals(3, executed.size());
+        assertEquals(3, (int) executed.get(2));
+        assertTrue(executed.containsAll(List.of(1, 2)));
+    }
+    
+    @Test
+    public void kernelNodesAreUpdatableBetweenReplays() throws Throwable {
+        CudaGraph graph = CudaGraph.create();
+        CudaGraphNode node = graph.addKernelNode(record, 1, 1, 1, 1, 1, 1, 0, args.setInt(0, 1).pointer());
+        
+        CudaGraphExec exec = graph.instantiate();
+        exec.launch(stream);
+        
+        exec.setKernelNodeParams(node, record, 1, 1, 1, 1, 1, 1, 0, args.setInt(0, 2).pointer());
+        exec.launch(stream);
+        
+        graph.instantiate().launch(stream);
+        stream.sync();
+        
+        assertEquals(List.of(1, 2, 1), executed);
+    }
+    
+    @Test
+    public void foreignDependenciesAreRejected() throws Throwable {
+        CudaGraphNode foreign = CudaGraph.create().addKernelNode(record, 1, 1, 1, 1, 1, 1, 0, args.setInt(0, 1).pointer());
+        CudaGraph graph = CudaGraph.create();
+        
+        assertThrows(RuntimeException.class, () -> graph.addKernelNode(record, 1, 1, 1, 1, 1, 1, 0, args.pointer(), foreign));
+    }
+}
\ No newline at end of file
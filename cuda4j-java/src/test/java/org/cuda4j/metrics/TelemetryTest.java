@@ -0,0 +1,144 @@
+package org.cuda4j.metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaBuffer;
+import org.cuda4j.buffer.CudaMemoryPool;
+import org.cuda4j.context.CudaFunction;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TelemetryTest {
+    
+    private final SimpleMetrics metrics = new SimpleMetrics();
+    private CudaFunction noop;
+    private CudaStream stream;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        EmulatedDriver driver = new EmulatedDriver();
+        driver.registerKernel("noop", launch -> {});
+        CUDA.useDriver(driver);
+        
+        noop = CUDA.loadModule(new byte[] { 0 }).getFunction("noop");
+        stream = CUDA.createStream();
+    }
+    
+    @AfterEach
+    public void tearDown() throws Throwable {
+        CUDA.useMetrics(null);
+        CUDA.useMemoryPool(null);
+        stream.destroy();
+    }
+    
+    @Test
+    public void disabledProbesRecordNothing() {
+        assertSame(CudaMetrics.NONE, CUDA.metrics());
+        assertNull(Telemetry.beginCopy());
+        assertNull(Telemetry.beginLaunch());
+        
+        Telemetry.endCopy(null, Direction.HOST_TO_DEVICE, 1, false);
+    }
+    
+    @Test
+    public void metricsCountCopiesLaunchesAndSyncs() throws Throwable {
+        CUDA.useMetrics(metrics);
+        
+        try (CudaBuffer buffer = CUDA.allocateBytes(64 * Float.BYTES)) {
+            float[] data = new float[64];
+            
+            buffer.copyToDevice(data);
+            buffer.copyToDeviceAsync(data, stream);
+            buffer.copyToHost(data);
+            
+            noop.launch(2, 1, 1, 32, 1, 1, 0, stream, null);
+            noop.launch(2, 1, 1, 32, 1, 1, 0, stream, null);
+            stream.sync();
+        }
+        
+        assertEquals(2 * 64 * Float.BYTES, metrics.copyBytes(Direction.HOST_TO_DEVICE));
+        assertEquals(64 * Float.BYTES, metrics.copyBytes(Direction.DEVICE_TO_HOST));
+        assertEquals(2, metrics.copyLatency(Direction.HOST_TO_DEVICE).count());
+        assertEquals(2, metrics.launches("noop"));
+        assertEquals(1, metrics.syncLatency("stream").count());
+        assertEquals(64 * Float.BYTES, metrics.allocatedBytes());
+        assertEquals(0, metrics.poolHits());
+    }
+    
+    @Test
+    public void allocationsReportPoolHits() throws Throwable {
+        CUDA.useMetrics(metrics);
+        CUDA.useMemoryPool(new CudaMemoryPool(1 << 20, 1 << 20));
+        
+        CUDA.allocateBytes(1024, stream).free();
+        CUDA.allocateBytes(1024, stream).free();
+        
+        assertEquals(2, metrics.allocationLatency().count());
+        assertEquals(1, metrics.poolHits());
+    }
+    
+    @Test
+    public void histogramBucketsByPowersOfTwo() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        
+        for (int i = 0; i < 99; i++) histogram.record(100);
+        histogram.record(5000);
+        
+        assertEquals(100, histogram.count());
+        assertEquals(127, histogram.percentileNanos(0.5));
+        assertEquals(127, histogram.percentileNanos(0.99));
+        assertEquals(8191, histogram.percentileNanos(1.0));
+        assertEquals((99 * 100 + 5000) / 100.0, histogram.meanNanos(), 1e-9);
+    }
+    
+    @Test
+    public void flightRecorderCapturesLaunchesAndCopies(@TempDir Path directory) throws Throwable {
+        Path file = directory.resolve("cuda4j.jfr");
+        
+        try (Recording recording = new Recording()) {
+            recording.enable("org.cuda4j.Launch");
+            recording.enable("org.cuda4j.Copy");
+            recording.start();
+            
+            try (CudaBuffer buffer = CUDA.allocateBytes(256)) {
+                buffer.copyToDevice(new byte[256]);
+                noop.launch(4, 2, 1, 64, 1, 1, 128, stream, null);
+                stream.sync();
+            }
+            
+            recording.stop();
+            recording.dump(file);
+        }
+        
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        
+        RecordedEvent launch = events.stream()
+            .filter(event -> event.getEventType().getName().equals("org.cuda4j.Launch"))
+            .findFirst()
+            .orElseThrow();
+        assertEquals("noop", launch.getString("function"));
+        assertEquals(4, launch.getInt("gridX"));
+        assertEquals(2, launch.getInt("gridY"));
+        assertEquals(64, launch.getInt("blockX"));
+        assertEquals(128, launch.getInt("sharedMemBytes"));
+        
+        RecordedEvent copy = events.stream()
+            .filter(event -> event.getEventType().getName().equals("org.cuda4j.Copy"))
+            .findFirst()
+            .orElseThrow();
+        assertEquals("HOST_TO_DEVICE", copy.getString("direction"));
+        assertEquals(256, copy.getLong("bytes"));
+        assertFalse(copy.getBoolean("async"));
+    }
+}
\ No newline at end of file
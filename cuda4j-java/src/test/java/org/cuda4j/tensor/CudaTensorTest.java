@@ -0,0 +1,185 @@
+package org.cuda4j.tensor;
+
+import org.cuda4j.CUDA;
+import org.cuda4j.buffer.CudaFloatBuffer;
+import org.cuda4j.context.CudaStream;
+import org.cuda4j.emulator.EmulatedDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CudaTensorTest {
+    
+    private static final String GOLDEN = """
+        // in:full const mul:0:1 in:broadcast add:2:3 relu:4 -> 5
+        .version 7.0
+        .target sm_52
+        .address_size 64
+        
+        .visible .entry NAME(
+            .param .u64 out0,
+            .param .u64 in0,
+            .param .u64 in1,
+            .param .u32 in1_inner,
+            .param .u32 in1_count,
+            .param .f32 c0,
+            .param .u32 n
+        )
+        {
+            .reg .pred %p<2>;
+            .reg .b32 %r<10>;
+            .reg .b64 %rd<12>;
+            .reg .f32 %f<7>;
+            
+            ld.param.u32 %r1, [n];
+            mov.u32 %r2, %ctaid.x;
+            mov.u32 %r3, %ntid.x;
+            mov.u32 %r4, %tid.x;
+            mad.lo.s32 %r5, %r2, %r3, %r4;
+            setp.ge.u32 %p1, %r5, %r1;
+            @%p1 bra DONE;
+            mul.wide.u32 %rd1, %r5, 4;
+            ld.param.u64 %rd2, [in0];
+            cvta.to.global.u64 %rd3, %rd2;
+            add.s64 %rd4, %rd3, %rd1;
+            ld.global.f32 %f1, [%rd4];
+            ld.param.f32 %f2, [c0];
+            mul.f32 %f3, %f1, %f2;
+            ld.param.u64 %rd5, [in1];
+            cvta.to.global.u64 %rd6, %rd5;
+            ld.param.u32 %r6, [in1_inner];
+            ld.param.u32 %r7, [in1_count];
+            div.u32 %r8, %r5, %r6;
+            rem.u32 %r9, %r8, %r7;
+            mul.wide.u32 %rd7, %r9, 4;
+            add.s64 %rd8, %rd6, %rd7;
+            ld.global.f32 %f4, [%rd8];
+            add.f32 %f5, %f3, %f4;
+            max.f32 %f6, %f5, 0f00000000;
+            ld.param.u64 %rd9, [out0];
+            cvta.to.global.u64 %rd10, %rd9;
+            add.s64 %rd11, %rd10, %rd1;
+            st.global.f32 [%rd11], %f6;
+        DONE:
+            ret;
+        }
+        """;
+    
+    private CudaStream stream;
+    private CudaFloatBuffer x;
+    private CudaFloatBuffer bias;
+    private CudaFloatBuffer column;
+    
+    @BeforeEach
+    public void setUp() throws Throwable {
+        CUDA.useDriver(new EmulatedDriver());
+        stream = CUDA.createStream();
+        x = CudaFloatBuffer.of(new float[] {-3, -1, 0, 0.5f, 2, 4});
+        bias = CudaFloatBuffer.of(new float[] {1, -1, 0.25f});
+        column = CudaFloatBuffer.of(new float[] {10, -10});
+    }
+    
+    @AfterEach
+    public void tearDown() throws Throwable {
+        column.free();
+        bias.free();
+        x.free();
+        stream.destroy();
+    }
+    
+    @Test
+    public void generatedPtxMatchesTheGolden() {
+        CudaTensor expression = CudaTensor.of(x, 2, 3).mul(2).add(CudaTensor.of(bias)).relu();
+        FusedKernel kernel = FusedKernel.of(expression);
+        
+        assertEquals("in:full const mul:0:1 in:broadcast add:2:3 relu:4 -> 5", kernel.key());
+        assertEquals(GOLDEN.replace("NAME", kernel.name()), kernel.ptx());
+    }
+    
+    @Test
+    public void fusedExpressionsMatchTheHost() throws Throwable {
+        float[] xs = x.toArray();
+        float[] bs = bias.toArray();
+        float[] cs = column.toArray();
+        
+        CudaTensor a = CudaTensor.of(x, 2, 3);
+        CudaTensor dense = a.mul(2).add(CudaTensor.of(bias)).relu().sub(CudaTensor.of(column, 2, 1).sigmoid());
+        CudaTensor curve = a.abs().add(1).log().mul(a.tanh()).div(a.mul(a).add(1).sqrt()).clamp(-0.5f, 0.5f);
+        CudaTensor scaled = a.exp().min(CudaTensor.constant(5)).max(a.neg());
+        
+        float[] denseOut = dense.toArray(stream);
+        float[] curveOut = curve.toArray(stream);
+        float[] scaledOut = scaled.toArray(stream);
+        
+        for (int i = 0; i < xs.length; i++) {
+            float v = xs[i];
+            float expectedDense = Math.max(v * 2 + bs[i % 3], 0) - (float) (1 / (1 + Math.exp(-cs[i / 3])));
+            float expectedCurve = (float) (Math.log(Math.abs(v) + 1) * Math.tanh(v) / Math.sqrt(v * v + 1));
+            float expectedScaled = Math.max(Math.min((float) Math.exp(v), 5), -v);
+            
+            assertEquals(expectedDense, denseOut[i], 1e-5f);
+            assertEquals(Math.max(-0.5f, Math.min(0.5f, expectedCurve)), curveOut[i], 1e-5f);
+            assertEquals(expectedScaled, scaledOut[i], 1e-5f);
+        }
+    }
+    
+    @Test
+    public void outputsOfOneShapeShareOneKernel() throws Throwable {
+        CudaTensor a = CudaTensor.of(x);
+        CudaTensor shared = a.mul(a);
+        long compiled = FusedKernel.compilations();
+        
+        CudaTensor[] results = CudaTensor.materialize(stream, shared.add(1), shared.sub(1), a, CudaTensor.of(bias).neg());
+        stream.sync();
+        
+        assertEquals(compiled + 2, FusedKernel.compilations());
+        assertSame(a, results[2]);
+        assertArrayEquals(new float[] {10, 2, 1, 1.25f, 5, 17}, results[0].buffer().toArray());
+        assertArrayEquals(new float[] {8, 0, -1, -0.75f, 3, 15}, results[1].buffer().toArray());
+        assertArrayEquals(new float[] {-1, 1, -0.25f}, results[3].buffer().toArray());
+        
+        for (CudaTensor result : results) result.close();
+    }
+    
+    @Test
+    public void kernelsAreReusedAcrossDataSizesAndConstants() throws Throwable {
+        try (CudaTensor first = CudaTensor.of(x).mul(3).add(1).materialize(stream)) {
+            long compiled = FusedKernel.compilations();
+            
+            float[] small = CudaTensor.of(bias).mul(-2).add(0.5f).toArray(stream);
+            
+            assertEquals(compiled, FusedKernel.compilations());
+            assertArrayEquals(new float[] {-1.5f, 2.5f, 0}, small);
+            
+            stream.sync();
+            assertArrayEquals(new float[] {-8, -2, 1, 2.5f, 7, 13}, first.buffer().toArray());
+        }
+    }
+    
+    @Test
+    public void materializeIntoCanOverwriteAnInput() throws Throwable {
+        CudaTensor.of(x).relu().materializeInto(x, stream);
+        stream.sync();
+        
+        assertArrayEquals(new float[] {0, 0, 0, 0.5f, 2, 4}, x.toArray());
+    }
+    
+    @Test
+    public void unsupportedShapesAreRejected() throws Throwable {
+        CudaTensor matrix = CudaTensor.of(x, 2, 3);
+        
+        assertThrows(IllegalArgumentException.class, () -> CudaTensor.of(x, 4, 2));
+        assertThrows(IllegalArgumentException.class, () -> matrix.add(CudaTensor.of(column)));
+        assertThrows(IllegalArgumentException.class, () -> FusedKernel.of(matrix.add(1), CudaTensor.of(bias).neg()));
+        
+        try (CudaFloatBuffer cube = CudaFloatBuffer.allocate(12);
+             CudaFloatBuffer corners = CudaFloatBuffer.allocate(4)) {
+            CudaTensor gapped = CudaTensor.of(cube, 2, 3, 2).add(CudaTensor.of(corners, 2, 1, 2));
+            
+            assertArrayEquals(new long[] {2, 3, 2}, gapped.shape());
+            assertThrows(IllegalArgumentException.class, () -> FusedKernel.of(gapped));
+        }
+    }
+}
\ No newline at end of file
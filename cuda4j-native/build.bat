@@ -1,6 +1,6 @@
 @echo off
 swiftc -emit-library ^
-  src\CudaDevice.swift src\CudaUtils.swift src\CudaContext.swift src\CudaBuffer.swift src\CudaStream.swift src\CudaModule.swift src\CudaFunction.swift ^
+  src\CudaDevice.swift src\CudaUtils.swift src\CudaContext.swift src\CudaBuffer.swift src\CudaStream.swift src\CudaModule.swift src\CudaFunction.swift src\CudaGraph.swift src\CudaEvent.swift src\CudaCommandList.swift src\CudaStridedMemory.swift ^
   -I Modules ^
   -I "%CUDA_PATH%\include" ^
   -L "%CUDA_PATH%\lib\x64" ^
@@ -1,4 +1,4 @@
-swiftc -emit-library "src\CudaDevice.swift src\CudaUtils.swift src\CudaContext.swift src\CudaBuffer.swift src\CudaStream.swift src\CudaModule.swift src\CudaFunction.swift" \
+swiftc -emit-library "src\CudaDevice.swift src\CudaUtils.swift src\CudaContext.swift src\CudaBuffer.swift src\CudaStream.swift src\CudaModule.swift src\CudaFunction.swift src\CudaGraph.swift src\CudaEvent.swift src\CudaCommandList.swift src\CudaStridedMemory.swift" \
   -I Modules \
   -I "%CUDA_PATH%\include" \
   -L "%CUDA_PATH%\lib\x64" \
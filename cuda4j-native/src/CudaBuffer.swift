@@ -27,6 +27,44 @@ public func cuda_mem_alloc(size: Int) -> UnsafeMutableRawPointer? {
     return objectToPointer(wrapper)
 }
 
+@_cdecl("cuda_mem_alloc_managed")
+public func cuda_mem_alloc_managed(size: Int, flags: UInt32) -> UnsafeMutableRawPointer? {
+    var dptr: CUdeviceptr = 0
+    let res = cuMemAllocManaged(&dptr, size, flags)
+
+    if res != CUDA_SUCCESS { return nil }
+
+    let wrapper = CudaBufferWrapper(ptr: dptr, size: size)
+    return objectToPointer(wrapper)
+}
+
+@_cdecl("cuda_mem_prefetch_async")
+public func cuda_mem_prefetch_async(
+    bufPtr: UnsafeMutableRawPointer,
+    offset: Int,
+    size: Int,
+    device: Int32,
+    streamPtr: UnsafeMutableRawPointer
+) -> Int32 {
+    let buf: CudaBufferWrapper = pointerToObject(bufPtr)
+    let stream: CudaStreamWrapper = pointerToObject(streamPtr)
+    let res: CUresult = cuMemPrefetchAsync(buf.ptr + CUdeviceptr(offset), size, CUdevice(device), stream.stream)
+    return Int32(res.rawValue)
+}
+
+@_cdecl("cuda_mem_advise")
+public func cuda_mem_advise(
+    bufPtr: UnsafeMutableRawPointer,
+    offset: Int,
+    size: Int,
+    advice: Int32,
+    device: Int32
+) -> Int32 {
+    let buf: CudaBufferWrapper = pointerToObject(bufPtr)
+    let res: CUresult = cuMemAdvise(buf.ptr + CUdeviceptr(offset), size, CUmem_advise(rawValue: UInt32(advice)), CUdevice(device))
+    return Int32(res.rawValue)
+}
+
 @_cdecl("cuda_mem_free")
 public func cuda_mem_free(ptr: UnsafeMutableRawPointer) -> Int32 {
     let wrapper = Unmanaged<CudaBufferWrapper>.fromOpaque(ptr).takeRetainedValue()
@@ -40,9 +78,7 @@ public func cuda_memcpy_htod(
     host: UnsafeRawPointer,
     size: Int
 ) -> Int32 {
-    let wrapper: CudaBufferWrapper = pointerToObject(bufPtr)
-    let result: CUresult = cuMemcpyHtoD_v2(wrapper.ptr, host, size)
-    return Int32(result.rawValue)
+    return cuda_memcpy_htod_v2(bufPtr: bufPtr, offset: 0, host: host, size: size)
 }
 
 @_cdecl("cuda_memcpy_dtoh")
@@ -50,9 +86,34 @@ public func cuda_memcpy_dtoh(
     host: UnsafeMutableRawPointer,
     bufPtr: UnsafeMutableRawPointer,
     size: Int
+) -> Int32 {
+    return cuda_memcpy_dtoh_v2(host: host, bufPtr: bufPtr, offset: 0, size: size)
+}
+
+// The _v2 copies take a byte offset into the buffer. The unversioned symbols keep their original signatures so
+// that Java bindings and libraries of different ages never disagree on argument positions.
+
+@_cdecl("cuda_memcpy_htod_v2")
+public func cuda_memcpy_htod_v2(
+    bufPtr: UnsafeMutableRawPointer,
+    offset: Int,
+    host: UnsafeRawPointer,
+    size: Int
+) -> Int32 {
+    let wrapper: CudaBufferWrapper = pointerToObject(bufPtr)
+    let result: CUresult = cuMemcpyHtoD_v2(wrapper.ptr + CUdeviceptr(offset), host, size)
+    return Int32(result.rawValue)
+}
+
+@_cdecl("cuda_memcpy_dtoh_v2")
+public func cuda_memcpy_dtoh_v2(
+    host: UnsafeMutableRawPointer,
+    bufPtr: UnsafeMutableRawPointer,
+    offset: Int,
+    size: Int
 ) -> Int32 {
     let wrapper: CudaBufferWrapper = pointerToObject(bufPtr)
-    let result: CUresult = cuMemcpyDtoH_v2(host, wrapper.ptr, size)
+    let result: CUresult = cuMemcpyDtoH_v2(host, wrapper.ptr + CUdeviceptr(offset), size)
     return Int32(result.rawValue)
 }
 
@@ -62,10 +123,21 @@ public func cuda_memcpy_dtod(
     dst: UnsafeMutableRawPointer,
     src: UnsafeMutableRawPointer,
     size: Int
+) -> Int32 {
+    return cuda_memcpy_dtod_v2(dst: dst, dstOffset: 0, src: src, srcOffset: 0, size: size)
+}
+
+@_cdecl("cuda_memcpy_dtod_v2")
+public func cuda_memcpy_dtod_v2(
+    dst: UnsafeMutableRawPointer,
+    dstOffset: Int,
+    src: UnsafeMutableRawPointer,
+    srcOffset: Int,
+    size: Int
 ) -> Int32 {
     let dstBuf: CudaBufferWrapper = pointerToObject(dst)
     let srcBuf: CudaBufferWrapper = pointerToObject(src)
-    let result: CUresult = cuMemcpyDtoD_v2(dstBuf.ptr, srcBuf.ptr, size)
+    let result: CUresult = cuMemcpyDtoD_v2(dstBuf.ptr + CUdeviceptr(dstOffset), srcBuf.ptr + CUdeviceptr(srcOffset), size)
     return Int32(result.rawValue)
 }
 
@@ -75,10 +147,21 @@ public func cuda_memcpy_htod_async(
     hostPtr: UnsafeRawPointer,
     size: Int,
     streamPtr: UnsafeMutableRawPointer
+) -> Int32 {
+    return cuda_memcpy_htod_async_v2(bufPtr: bufPtr, offset: 0, hostPtr: hostPtr, size: size, streamPtr: streamPtr)
+}
+
+@_cdecl("cuda_memcpy_htod_async_v2")
+public func cuda_memcpy_htod_async_v2(
+    bufPtr: UnsafeMutableRawPointer,
+    offset: Int,
+    hostPtr: UnsafeRawPointer,
+    size: Int,
+    streamPtr: UnsafeMutableRawPointer
 ) -> Int32 {
     let buf: CudaBufferWrapper = pointerToObject(bufPtr)
     let stream: CudaStreamWrapper = pointerToObject(streamPtr)
-    let res: CUresult = cuMemcpyHtoDAsync_v2(buf.ptr, hostPtr, size, stream.stream)
+    let res: CUresult = cuMemcpyHtoDAsync_v2(buf.ptr + CUdeviceptr(offset), hostPtr, size, stream.stream)
     return Int32(res.rawValue)
 }
 
@@ -88,9 +171,106 @@ public func cuda_memcpy_dtoh_async(
     bufPtr: UnsafeMutableRawPointer,
     size: Int,
     streamPtr: UnsafeMutableRawPointer
+) -> Int32 {
+    return cuda_memcpy_dtoh_async_v2(hostPtr: hostPtr, bufPtr: bufPtr, offset: 0, size: size, streamPtr: streamPtr)
+}
+
+@_cdecl("cuda_memcpy_dtoh_async_v2")
+public func cuda_memcpy_dtoh_async_v2(
+    hostPtr: UnsafeMutableRawPointer,
+    bufPtr: UnsafeMutableRawPointer,
+    offset: Int,
+    size: Int,
+    streamPtr: UnsafeMutableRawPointer
 ) -> Int32 {
     let buf: CudaBufferWrapper = pointerToObject(bufPtr)
     let stream: CudaStreamWrapper = pointerToObject(streamPtr)
-    let res: CUresult = cuMemcpyDtoHAsync_v2(hostPtr, buf.ptr, size, stream.stream)
+    let res: CUresult = cuMemcpyDtoHAsync_v2(hostPtr, buf.ptr + CUdeviceptr(offset), size, stream.stream)
+    return Int32(res.rawValue)
+}
+
+@_cdecl("cuda_memcpy_dtod_async")
+public func cuda_memcpy_dtod_async(
+    dst: UnsafeMutableRawPointer,
+    dstOffset: Int,
+    src: UnsafeMutableRawPointer,
+    srcOffset: Int,
+    size: Int,
+    streamPtr: UnsafeMutableRawPointer
+) -> Int32 {
+    let dstBuf: CudaBufferWrapper = pointerToObject(dst)
+    let srcBuf: CudaBufferWrapper = pointerToObject(src)
+    let stream: CudaStreamWrapper = pointerToObject(streamPtr)
+    let res: CUresult = cuMemcpyDtoDAsync_v2(
+        dstBuf.ptr + CUdeviceptr(dstOffset),
+        srcBuf.ptr + CUdeviceptr(srcOffset),
+        size,
+        stream.stream
+    )
+    return Int32(res.rawValue)
+}
+
+@_cdecl("cuda_memset_async")
+public func cuda_memset_async(
+    bufPtr: UnsafeMutableRawPointer,
+    offset: Int,
+    value: UInt32,
+    elementSize: Int32,
+    count: Int,
+    streamPtr: UnsafeMutableRawPointer
+) -> Int32 {
+    let buf: CudaBufferWrapper = pointerToObject(bufPtr)
+    let stream: CudaStreamWrapper = pointerToObject(streamPtr)
+    let dptr = buf.ptr + CUdeviceptr(offset)
+    let res: CUresult
+
+    switch elementSize {
+    case 1: res = cuMemsetD8Async(dptr, UInt8(truncatingIfNeeded: value), count, stream.stream)
+    case 2: res = cuMemsetD16Async(dptr, UInt16(truncatingIfNeeded: value), count, stream.stream)
+    case 4: res = cuMemsetD32Async(dptr, value, count, stream.stream)
+    default: res = CUDA_ERROR_INVALID_VALUE
+    }
+
+    return Int32(res.rawValue)
+}
+
+@_cdecl("cuda_mem_host_alloc")
+public func cuda_mem_host_alloc(size: Int) -> UnsafeMutableRawPointer? {
+    var ptr: UnsafeMutableRawPointer?
+    let res = cuMemHostAlloc(&ptr, size, 0)
+
+    if res != CUDA_SUCCESS { return nil }
+    return ptr
+}
+
+@_cdecl("cuda_mem_free_host")
+public func cuda_mem_free_host(ptr: UnsafeMutableRawPointer) -> Int32 {
+    let result: CUresult = cuMemFreeHost(ptr)
+    return Int32(result.rawValue)
+}
+
+
+@_cdecl("cuda_memcpy_peer_async")
+public func cuda_memcpy_peer_async(
+    dstPtr: UnsafeMutableRawPointer,
+    dstOffset: Int,
+    dstCtxPtr: UnsafeMutableRawPointer,
+    srcPtr: UnsafeMutableRawPointer,
+    srcOffset: Int,
+    srcCtxPtr: UnsafeMutableRawPointer,
+    size: Int,
+    streamPtr: UnsafeMutableRawPointer
+) -> Int32 {
+    let dst: CudaBufferWrapper = pointerToObject(dstPtr)
+    let src: CudaBufferWrapper = pointerToObject(srcPtr)
+    let dstCtx = Unmanaged<CudaContextWrapper>.fromOpaque(dstCtxPtr).takeUnretainedValue()
+    let srcCtx = Unmanaged<CudaContextWrapper>.fromOpaque(srcCtxPtr).takeUnretainedValue()
+    let stream: CudaStreamWrapper = pointerToObject(streamPtr)
+    let res: CUresult = cuMemcpyPeerAsync(
+        dst.ptr + CUdeviceptr(dstOffset), dstCtx.ctx,
+        src.ptr + CUdeviceptr(srcOffset), srcCtx.ctx,
+        size,
+        stream.stream
+    )
     return Int32(res.rawValue)
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+import Foundation
+import CUDADriver
+
+// Command lists are laid out by CudaDriver.COMMAND_BYTES on the Java side: an Int32 opcode, an Int32 operand
+// and seven 8-byte fields per command.
+
+let commandBytes = 64
+
+let cmdLaunchKernel: Int32 = 1
+let cmdMemcpyHtoD: Int32 = 2
+let cmdMemcpyDtoH: Int32 = 3
+let cmdMemcpyDtoD: Int32 = 4
+let cmdMemset: Int32 = 5
+let cmdEventRecord: Int32 = 6
+let cmdStreamWaitEvent: Int32 = 7
+
+func commandField(_ command: UnsafeRawPointer, _ index: Int) -> UInt64 {
+    return command.load(fromByteOffset: 8 * (index + 1), as: UInt64.self)
+}
+
+func commandObject<T: AnyObject>(_ command: UnsafeRawPointer, _ index: Int) -> T {
+    return pointerToObject(UnsafeMutableRawPointer(bitPattern: UInt(commandField(command, index)))!)
+}
+
+func commandPointer(_ command: UnsafeRawPointer, _ index: Int) -> UnsafeMutableRawPointer? {
+    return UnsafeMutableRawPointer(bitPattern: UInt(commandField(command, index)))
+}
+
+func runCommand(_ command: UnsafeRawPointer, stream: CUstream?) -> CUresult {
+    let opcode = command.load(fromByteOffset: 0, as: Int32.self)
+    let operand = command.load(fromByteOffset: 4, as: Int32.self)
+
+    switch opcode {
+    case cmdLaunchKernel:
+        let function: CudaFunctionWrapper = commandObject(command, 0)
+        let params = commandPointer(command, 1)?.assumingMemoryBound(to: UnsafeMutableRawPointer?.self)
+        let dims = command.advanced(by: 24)
+        return cuLaunchKernel(
+            function.function,
+            dims.load(fromByteOffset: 0, as: UInt32.self),
+            dims.load(fromByteOffset: 4, as: UInt32.self),
+            dims.load(fromByteOffset: 8, as: UInt32.self),
+            dims.load(fromByteOffset: 12, as: UInt32.self),
+            dims.load(fromByteOffset: 16, as: UInt32.self),
+            dims.load(fromByteOffset: 20, as: UInt32.self),
+            UInt32(operand),
+            stream,
+            params,
+            nil
+        )
+    case cmdMemcpyHtoD:
+        let buf: CudaBufferWrapper = commandObject(command, 0)
+        let offset = CUdeviceptr(commandField(command, 1))
+        return cuMemcpyHtoDAsync_v2(buf.ptr + offset, commandPointer(command, 2), Int(commandField(command, 3)), stream)
+    case cmdMemcpyDtoH:
+        let buf: CudaBufferWrapper = commandObject(command, 1)
+        let offset = CUdeviceptr(commandField(command, 2))
+        return cuMemcpyDtoHAsync_v2(commandPointer(command, 0), buf.ptr + offset, Int(commandField(command, 3)), stream)
+    case cmdMemcpyDtoD:
+        let dst: CudaBufferWrapper = commandObject(command, 0)
+        let src: CudaBufferWrapper = commandObject(command, 2)
+        return cuMemcpyDtoDAsync_v2(
+            dst.ptr + CUdeviceptr(commandField(command, 1)),
+            src.ptr + CUdeviceptr(commandField(command, 3)),
+            Int(commandField(command, 4)),
+            stream
+        )
+    case cmdMemset:
+        let buf: CudaBufferWrapper = commandObject(command, 0)
+        let offset = CUdeviceptr(commandField(command, 1))
+        return cuMemsetD8Async(buf.ptr + offset, UInt8(truncatingIfNeeded: operand), Int(commandField(command, 2)), stream)
+    case cmdEventRecord:
+        let event: CudaEventWrapper = commandObject(command, 0)
+        return cuEventRecord(event.event, stream)
+    case cmdStreamWaitEvent:
+        let event: CudaEventWrapper = commandObject(command, 0)
+        return cuStreamWaitEvent(stream, event.event, 0)
+    default:
+        return CUDA_ERROR_INVALID_VALUE
+    }
+}
+
+@_cdecl("cuda_submit_commands")
+public func cuda_submit_commands(
+    commands: UnsafeRawPointer,
+    count: Int32,
+    streamPtr: UnsafeMutableRawPointer?,
+    failedIndex: UnsafeMutablePointer<Int32>
+) -> Int32 {
+    var stream: CUstream? = nil
+
+    if let sPtr = streamPtr {
+        let sWrapper: CudaStreamWrapper = pointerToObject(sPtr)
+        stream = sWrapper.stream
+    }
+
+    for i in 0..<Int(count) {
+        let res = runCommand(commands.advanced(by: i * commandBytes), stream: stream)
+
+        if res != CUDA_SUCCESS {
+            failedIndex.pointee = Int32(i)
+            return Int32(res.rawValue)
+        }
+    }
+
+    return 0
+}
\ No newline at end of file
@@ -38,4 +38,11 @@ public func cuda_destroy_context(ptr: UnsafeMutableRawPointer) {
 public func cuda_context_synchronize() -> Int32 {
     let result: CUresult = cuCtxSynchronize()
     return Int32(result.rawValue)
+}
+
+@_cdecl("cuda_context_enable_peer_access")
+public func cuda_context_enable_peer_access(peerPtr: UnsafeMutableRawPointer) -> Int32 {
+    let peer = Unmanaged<CudaContextWrapper>.fromOpaque(peerPtr).takeUnretainedValue()
+    let result: CUresult = cuCtxEnablePeerAccess(peer.ctx, 0)
+    return Int32(result.rawValue)
 }
\ No newline at end of file
@@ -42,4 +42,56 @@ public func cuda_device_count() -> Int32 {
     var count: Int32 = 0
     cuDeviceGetCount(&count)
     return count
+}
+
+@_cdecl("cuda_compute_capability")
+public func cuda_compute_capability(majorMinor: UnsafeMutablePointer<Int32>) -> Int32 {
+    var device: CUdevice = 0
+    var res = cuCtxGetDevice(&device)
+    if res != CUDA_SUCCESS { return Int32(res.rawValue) }
+
+    res = cuDeviceGetAttribute(majorMinor, CU_DEVICE_ATTRIBUTE_COMPUTE_CAPABILITY_MAJOR, device)
+    if res != CUDA_SUCCESS { return Int32(res.rawValue) }
+
+    res = cuDeviceGetAttribute(majorMinor + 1, CU_DEVICE_ATTRIBUTE_COMPUTE_CAPABILITY_MINOR, device)
+    return Int32(res.rawValue)
+}
+
+@_cdecl("cuda_driver_version")
+public func cuda_driver_version(version: UnsafeMutablePointer<Int32>) -> Int32 {
+    let res: CUresult = cuDriverGetVersion(version)
+    return Int32(res.rawValue)
+}
+
+@_cdecl("cuda_device_get_attribute")
+public func cuda_device_get_attribute(
+    value: UnsafeMutablePointer<Int32>,
+    attribute: Int32,
+    devPtr: UnsafeMutableRawPointer
+) -> Int32 {
+    let device: CudaDeviceWrapper = pointerToObject(devPtr)
+    let res: CUresult = cuDeviceGetAttribute(value, CUdevice_attribute(rawValue: UInt32(attribute)), device.device)
+    return Int32(res.rawValue)
+}
+
+@_cdecl("cuda_context_get_device")
+public func cuda_context_get_device(ordinal: UnsafeMutablePointer<Int32>) -> Int32 {
+    var device: CUdevice = 0
+    let res = cuCtxGetDevice(&device)
+    if res != CUDA_SUCCESS { return Int32(res.rawValue) }
+
+    ordinal.pointee = Int32(device)
+    return Int32(res.rawValue)
+}
+
+@_cdecl("cuda_device_can_access_peer")
+public func cuda_device_can_access_peer(
+    devPtr: UnsafeMutableRawPointer,
+    peerPtr: UnsafeMutableRawPointer,
+    canAccess: UnsafeMutablePointer<Int32>
+) -> Int32 {
+    let device: CudaDeviceWrapper = pointerToObject(devPtr)
+    let peer: CudaDeviceWrapper = pointerToObject(peerPtr)
+    let res: CUresult = cuDeviceCanAccessPeer(canAccess, device.device, peer.device)
+    return Int32(res.rawValue)
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+import Foundation
+import CUDADriver
+
+final class CudaEventWrapper {
+    let event: CUevent
+    init(event: CUevent) {
+        self.event = event
+    }
+}
+
+@_cdecl("cuda_event_create")
+public func cuda_event_create(flags: UInt32) -> UnsafeMutableRawPointer? {
+    var event: CUevent?
+    let res = cuEventCreate(&event, flags)
+    if res != CUDA_SUCCESS || event == nil { return nil }
+    return objectToPointer(CudaEventWrapper(event: event!))
+}
+
+@_cdecl("cuda_event_destroy")
+public func cuda_event_destroy(ptr: UnsafeMutableRawPointer) -> Int32 {
+    let wrapper = Unmanaged<CudaEventWrapper>.fromOpaque(ptr).takeRetainedValue()
+    let result: CUresult = cuEventDestroy_v2(wrapper.event)
+    return Int32(result.rawValue)
+}
+
+@_cdecl("cuda_event_record")
+public func cuda_event_record(
+    eventPtr: UnsafeMutableRawPointer,
+    streamPtr: UnsafeMutableRawPointer?
+) -> Int32 {
+    let event: CudaEventWrapper = pointerToObject(eventPtr)
+    var stream: CUstream? = nil
+
+    if let sPtr = streamPtr {
+        let sWrapper: CudaStreamWrapper = pointerToObject(sPtr)
+        stream = sWrapper.stream
+    }
+
+    let result: CUresult = cuEventRecord(event.event, stream)
+    return Int32(result.rawValue)
+}
+
+@_cdecl("cuda_event_query")
+public func cuda_event_query(ptr: UnsafeMutableRawPointer) -> Int32 {
+    let wrapper: CudaEventWrapper = pointerToObject(ptr)
+    let result: CUresult = cuEventQuery(wrapper.event)
+    return Int32(result.rawValue)
+}
+
+@_cdecl("cuda_event_synchronize")
+public func cuda_event_synchronize(ptr: UnsafeMutableRawPointer) -> Int32 {
+    let wrapper: CudaEventWrapper = pointerToObject(ptr)
+    let result: CUresult = cuEventSynchronize(wrapper.event)
+    return Int32(result.rawValue)
+}
+
+@_cdecl("cuda_event_elapsed_time")
+public func cuda_event_elapsed_time(
+    millis: UnsafeMutablePointer<Float>,
+    startPtr: UnsafeMutableRawPointer,
+    endPtr: UnsafeMutableRawPointer
+) -> Int32 {
+    let start: CudaEventWrapper = pointerToObject(startPtr)
+    let end: CudaEventWrapper = pointerToObject(endPtr)
+    let result: CUresult = cuEventElapsedTime(millis, start.event, end.event)
+    return Int32(result.rawValue)
+}
+
+@_cdecl("cuda_stream_wait_event")
+public func cuda_stream_wait_event(
+    streamPtr: UnsafeMutableRawPointer?,
+    eventPtr: UnsafeMutableRawPointer
+) -> Int32 {
+    let event: CudaEventWrapper = pointerToObject(eventPtr)
+    var stream: CUstream? = nil
+
+    if let sPtr = streamPtr {
+        let sWrapper: CudaStreamWrapper = pointerToObject(sPtr)
+        stream = sWrapper.stream
+    }
+
+    let result: CUresult = cuStreamWaitEvent(stream, event.event, 0)
+    return Int32(result.rawValue)
+}
\ No newline at end of file
@@ -39,4 +39,46 @@ public func cuda_launch_kernel(
         nil
     )
     return Int32(res.rawValue)
+}
+
+@_cdecl("cuda_function_get_attribute")
+public func cuda_function_get_attribute(
+    value: UnsafeMutablePointer<Int32>,
+    attribute: Int32,
+    funcPtr: UnsafeMutableRawPointer
+) -> Int32 {
+    let function: CudaFunctionWrapper = pointerToObject(funcPtr)
+    let res: CUresult = cuFuncGetAttribute(value, CUfunction_attribute(rawValue: UInt32(attribute)), function.function)
+    return Int32(res.rawValue)
+}
+
+@_cdecl("cuda_occupancy_max_potential_block_size")
+public func cuda_occupancy_max_potential_block_size(
+    minGridAndBlockSize: UnsafeMutablePointer<Int32>,
+    funcPtr: UnsafeMutableRawPointer,
+    dynamicSharedMemory: Int,
+    blockSizeLimit: Int32
+) -> Int32 {
+    let function: CudaFunctionWrapper = pointerToObject(funcPtr)
+    let res: CUresult = cuOccupancyMaxPotentialBlockSize(
+        minGridAndBlockSize,
+        minGridAndBlockSize + 1,
+        function.function,
+        nil,
+        dynamicSharedMemory,
+        blockSizeLimit
+    )
+    return Int32(res.rawValue)
+}
+
+@_cdecl("cuda_occupancy_max_active_blocks")
+public func cuda_occupancy_max_active_blocks(
+    blocks: UnsafeMutablePointer<Int32>,
+    funcPtr: UnsafeMutableRawPointer,
+    blockSize: Int32,
+    dynamicSharedMemory: Int
+) -> Int32 {
+    let function: CudaFunctionWrapper = pointerToObject(funcPtr)
+    let res: CUresult = cuOccupancyMaxActiveBlocksPerMultiprocessor(blocks, function.function, blockSize, dynamicSharedMemory)
+    return Int32(res.rawValue)
 }
\ No newline at end of file
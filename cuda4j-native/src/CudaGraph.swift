@@ -0,0 +1,253 @@
+import Foundation
+import CUDADriver
+
+final class CudaGraphWrapper {
+    let graph: CUgraph
+    init(graph: CUgraph) {
+        self.graph = graph
+    }
+}
+
+final class CudaGraphExecWrapper {
+    let exec: CUgraphExec
+    init(exec: CUgraphExec) {
+        self.exec = exec
+    }
+}
+
+// Graph nodes are owned by their graph, so they are handed out as raw CUgraphNode pointers.
+
+func nodeToPointer(_ node: CUgraphNode?) -> UnsafeMutableRawPointer? {
+    guard let node = node else { return nil }
+    return UnsafeMutableRawPointer(node)
+}
+
+func kernelNodeParams(
+    funcPtr: UnsafeMutableRawPointer,
+    gridX: UInt32, gridY: UInt32, gridZ: UInt32,
+    blockX: UInt32, blockY: UInt32, blockZ: UInt32,
+    sharedMemBytes: UInt32,
+    kernelParams: UnsafeMutablePointer<UnsafeMutableRawPointer?>?
+) -> CUDA_KERNEL_NODE_PARAMS_v2 {
+    let function: CudaFunctionWrapper = pointerToObject(funcPtr)
+    var params = CUDA_KERNEL_NODE_PARAMS_v2()
+    params.func = function.function
+    params.gridDimX = gridX
+    params.gridDimY = gridY
+    params.gridDimZ = gridZ
+    params.blockDimX = blockX
+    params.blockDimY = blockY
+    params.blockDimZ = blockZ
+    params.sharedMemBytes = sharedMemBytes
+    params.kernelParams = kernelParams
+    params.extra = nil
+    return params
+}
+
+@_cdecl("cuda_stream_begin_capture")
+public func cuda_stream_begin_capture(streamPtr: UnsafeMutableRawPointer) -> Int32 {
+    let stream: CudaStreamWrapper = pointerToObject(streamPtr)
+    let res = cuStreamBeginCapture_v2(stream.stream, CU_STREAM_CAPTURE_MODE_GLOBAL)
+    return Int32(res.rawValue)
+}
+
+@_cdecl("cuda_stream_end_capture")
+public func cuda_stream_end_capture(streamPtr: UnsafeMutableRawPointer) -> UnsafeMutableRawPointer? {
+    let stream: CudaStreamWrapper = pointerToObject(streamPtr)
+    var graph: CUgraph?
+    let res = cuStreamEndCapture(stream.stream, &graph)
+    if res != CUDA_SUCCESS || graph == nil { return nil }
+    return objectToPointer(CudaGraphWrapper(graph: graph!))
+}
+
+@_cdecl("cuda_graph_create")
+public func cuda_graph_create() -> UnsafeMutableRawPointer? {
+    var graph: CUgraph?
+    let res = cuGraphCreate(&graph, 0)
+    if res != CUDA_SUCCESS || graph == nil { return nil }
+    return objectToPointer(CudaGraphWrapper(graph: graph!))
+}
+
+@_cdecl("cuda_graph_destroy")
+public func cuda_graph_destroy(ptr: UnsafeMutableRawPointer) -> Int32 {
+    let wrapper = Unmanaged<CudaGraphWrapper>.fromOpaque(ptr).takeRetainedValue()
+    let result: CUresult = cuGraphDestroy(wrapper.graph)
+    return Int32(result.rawValue)
+}
+
+@_cdecl("cuda_graph_add_kernel_node")
+public func cuda_graph_add_kernel_node(
+    graphPtr: UnsafeMutableRawPointer,
+    dependencies: UnsafePointer<CUgraphNode?>?,
+    dependencyCount: Int32,
+    funcPtr: UnsafeMutableRawPointer,
+    gridX: UInt32,
+    gridY: UInt32,
+    gridZ: UInt32,
+    blockX: UInt32,
+    blockY: UInt32,
+    blockZ: UInt32,
+    sharedMemBytes: UInt32,
+    kernelParams: UnsafeMutablePointer<UnsafeMutableRawPointer?>?
+) -> UnsafeMutableRawPointer? {
+    let graph: CudaGraphWrapper = pointerToObject(graphPtr)
+    var params = kernelNodeParams(
+        funcPtr: funcPtr,
+        gridX: gridX, gridY: gridY, gridZ: gridZ,
+        blockX: blockX, blockY: blockY, blockZ: blockZ,
+        sharedMemBytes: sharedMemBytes,
+        kernelParams: kernelParams
+    )
+    var node: CUgraphNode?
+    let res = cuGraphAddKernelNode_v2(&node, graph.graph, dependencies, Int(dependencyCount), &params)
+    if res != CUDA_SUCCESS { return nil }
+    return nodeToPointer(node)
+}
+
+@_cdecl("cuda_graph_add_memcpy_htod_node")
+public func cuda_graph_add_memcpy_htod_node(
+    graphPtr: UnsafeMutableRawPointer,
+    dependencies: UnsafePointer<CUgraphNode?>?,
+    dependencyCount: Int32,
+    bufPtr: UnsafeMutableRawPointer,
+    offset: Int,
+    host: UnsafeRawPointer,
+    size: Int
+) -> UnsafeMutableRawPointer? {
+    let graph: CudaGraphWrapper = pointerToObject(graphPtr)
+    let buf: CudaBufferWrapper = pointerToObject(bufPtr)
+    var ctx: CUcontext?
+    cuCtxGetCurrent(&ctx)
+
+    var copy = CUDA_MEMCPY3D()
+    copy.srcMemoryType = CU_MEMORYTYPE_HOST
+    copy.srcHost = host
+    copy.dstMemoryType = CU_MEMORYTYPE_DEVICE
+    copy.dstDevice = buf.ptr + CUdeviceptr(offset)
+    copy.WidthInBytes = size
+    copy.Height = 1
+    copy.Depth = 1
+
+    var node: CUgraphNode?
+    let res = cuGraphAddMemcpyNode(&node, graph.graph, dependencies, Int(dependencyCount), &copy, ctx)
+    if res != CUDA_SUCCESS { return nil }
+    return nodeToPointer(node)
+}
+
+@_cdecl("cuda_graph_add_memcpy_dtoh_node")
+public func cuda_graph_add_memcpy_dtoh_node(
+    graphPtr: UnsafeMutableRawPointer,
+    dependencies: UnsafePointer<CUgraphNode?>?,
+    dependencyCount: Int32,
+    host: UnsafeMutableRawPointer,
+    bufPtr: UnsafeMutableRawPointer,
+    offset: Int,
+    size: Int
+) -> UnsafeMutableRawPointer? {
+    let graph: CudaGraphWrapper = pointerToObject(graphPtr)
+    let buf: CudaBufferWrapper = pointerToObject(bufPtr)
+    var ctx: CUcontext?
+    cuCtxGetCurrent(&ctx)
+
+    var copy = CUDA_MEMCPY3D()
+    copy.srcMemoryType = CU_MEMORYTYPE_DEVICE
+    copy.srcDevice = buf.ptr + CUdeviceptr(offset)
+    copy.dstMemoryType = CU_MEMORYTYPE_HOST
+    copy.dstHost = host
+    copy.WidthInBytes = size
+    copy.Height = 1
+    copy.Depth = 1
+
+    var node: CUgraphNode?
+    let res = cuGraphAddMemcpyNode(&node, graph.graph, dependencies, Int(dependencyCount), &copy, ctx)
+    if res != CUDA_SUCCESS { return nil }
+    return nodeToPointer(node)
+}
+
+@_cdecl("cuda_graph_add_memset_node")
+public func cuda_graph_add_memset_node(
+    graphPtr: UnsafeMutableRawPointer,
+    dependencies: UnsafePointer<CUgraphNode?>?,
+    dependencyCount: Int32,
+    bufPtr: UnsafeMutableRawPointer,
+    offset: Int,
+    value: Int32,
+    size: Int
+) -> UnsafeMutableRawPointer? {
+    let graph: CudaGraphWrapper = pointerToObject(graphPtr)
+    let buf: CudaBufferWrapper = pointerToObject(bufPtr)
+    var ctx: CUcontext?
+    cuCtxGetCurrent(&ctx)
+
+    var params = CUDA_MEMSET_NODE_PARAMS()
+    params.dst = buf.ptr + CUdeviceptr(offset)
+    params.pitch = 0
+    params.value = UInt32(UInt8(truncatingIfNeeded: value))
+    params.elementSize = 1
+    params.width = size
+    params.height = 1
+
+    var node: CUgraphNode?
+    let res = cuGraphAddMemsetNode(&node, graph.graph, dependencies, Int(dependencyCount), &params, ctx)
+    if res != CUDA_SUCCESS { return nil }
+    return nodeToPointer(node)
+}
+
+@_cdecl("cuda_graph_instantiate")
+public func cuda_graph_instantiate(graphPtr: UnsafeMutableRawPointer) -> UnsafeMutableRawPointer? {
+    let graph: CudaGraphWrapper = pointerToObject(graphPtr)
+    var exec: CUgraphExec?
+    let res = cuGraphInstantiateWithFlags(&exec, graph.graph, 0)
+    if res != CUDA_SUCCESS || exec == nil { return nil }
+    return objectToPointer(CudaGraphExecWrapper(exec: exec!))
+}
+
+@_cdecl("cuda_graph_launch")
+public func cuda_graph_launch(
+    execPtr: UnsafeMutableRawPointer,
+    streamPtr: UnsafeMutableRawPointer?
+) -> Int32 {
+    let exec: CudaGraphExecWrapper = pointerToObject(execPtr)
+    var stream: CUstream? = nil
+
+    if let sPtr = streamPtr {
+        let sWrapper: CudaStreamWrapper = pointerToObject(sPtr)
+        stream = sWrapper.stream
+    }
+
+    let res = cuGraphLaunch(exec.exec, stream)
+    return Int32(res.rawValue)
+}
+
+@_cdecl("cuda_graph_exec_kernel_node_set_params")
+public func cuda_graph_exec_kernel_node_set_params(
+    execPtr: UnsafeMutableRawPointer,
+    nodePtr: UnsafeMutableRawPointer,
+    funcPtr: UnsafeMutableRawPointer,
+    gridX: UInt32,
+    gridY: UInt32,
+    gridZ: UInt32,
+    blockX: UInt32,
+    blockY: UInt32,
+    blockZ: UInt32,
+    sharedMemBytes: UInt32,
+    kernelParams: UnsafeMutablePointer<UnsafeMutableRawPointer?>?
+) -> Int32 {
+    let exec: CudaGraphExecWrapper = pointerToObject(execPtr)
+    var params = kernelNodeParams(
+        funcPtr: funcPtr,
+        gridX: gridX, gridY: gridY, gridZ: gridZ,
+        blockX: blockX, blockY: blockY, blockZ: blockZ,
+        sharedMemBytes: sharedMemBytes,
+        kernelParams: kernelParams
+    )
+    let res = cuGraphExecKernelNodeSetParams_v2(exec.exec, OpaquePointer(nodePtr), &params)
+    return Int32(res.rawValue)
+}
+
+@_cdecl("cuda_graph_exec_destroy")
+public func cuda_graph_exec_destroy(ptr: UnsafeMutableRawPointer) -> Int32 {
+    let wrapper = Unmanaged<CudaGraphExecWrapper>.fromOpaque(ptr).takeRetainedValue()
+    let result: CUresult = cuGraphExecDestroy(wrapper.exec)
+    return Int32(result.rawValue)
+}
\ No newline at end of file
@@ -53,4 +53,43 @@ public func cuda_module_get_function(
 
     let wrapper = CudaFunctionWrapper(function: function!)
     return objectToPointer(wrapper)
+}
+
+@_cdecl("cuda_compile_ptx")
+public func cuda_compile_ptx(
+    ptxPtr: UnsafePointer<CChar>,
+    sizeOut: UnsafeMutablePointer<Int>
+) -> UnsafeMutableRawPointer? {
+    var state: CUlinkState?
+
+    guard cuLinkCreate_v2(0, nil, nil, &state) == CUDA_SUCCESS, let link = state else {
+        return nil
+    }
+    defer { cuLinkDestroy(link) }
+
+    let length = strlen(ptxPtr) + 1
+    let ptx = UnsafeMutableRawPointer(mutating: ptxPtr)
+
+    guard cuLinkAddData_v2(link, CU_JIT_INPUT_PTX, ptx, length, "module.ptx", 0, nil, nil) == CUDA_SUCCESS else {
+        return nil
+    }
+
+    var cubin: UnsafeMutableRawPointer?
+    var cubinSize: Int = 0
+
+    guard cuLinkComplete(link, &cubin, &cubinSize) == CUDA_SUCCESS, let image = cubin else {
+        return nil
+    }
+
+    // The cubin belongs to the link state, so hand the caller its own copy
+    let copy = malloc(cubinSize)!
+    memcpy(copy, image, cubinSize)
+    sizeOut.pointee = cubinSize
+    return copy
+}
+
+@_cdecl("cuda_free_image")
+public func cuda_free_image(imagePtr: UnsafeMutableRawPointer) -> Int32 {
+    free(imagePtr)
+    return 0
 }
\ No newline at end of file
@@ -36,4 +36,36 @@ public func cuda_stream_query(ptr: UnsafeMutableRawPointer) -> Int32 {
     let wrapper: CudaStreamWrapper = pointerToObject(ptr)
     let result: CUresult = cuStreamQuery(wrapper.stream)
     return Int32(result.rawValue)
+}
+
+@_cdecl("cuda_stream_create_with_priority")
+public func cuda_stream_create_with_priority(priority: Int32) -> UnsafeMutableRawPointer? {
+    var stream: CUstream?
+    let res = cuStreamCreateWithPriority(&stream, 0, priority)
+    if res != CUDA_SUCCESS || stream == nil { return nil }
+    let wrapper = CudaStreamWrapper(stream: stream!)
+    return objectToPointer(wrapper)
+}
+
+@_cdecl("cuda_stream_priority_range")
+public func cuda_stream_priority_range(range: UnsafeMutablePointer<Int32>) -> Int32 {
+    let result: CUresult = cuCtxGetStreamPriorityRange(range, range + 1)
+    return Int32(result.rawValue)
+}
+
+@_cdecl("cuda_launch_host_func")
+public func cuda_launch_host_func(
+    streamPtr: UnsafeMutableRawPointer?,
+    fn: CUhostFn,
+    userData: UnsafeMutableRawPointer?
+) -> Int32 {
+    var stream: CUstream? = nil
+
+    if let sPtr = streamPtr {
+        let sWrapper: CudaStreamWrapper = pointerToObject(sPtr)
+        stream = sWrapper.stream
+    }
+
+    let result: CUresult = cuLaunchHostFunc(stream, fn, userData)
+    return Int32(result.rawValue)
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+import Foundation
+import CUDADriver
+
+// Memory types as passed from CudaDriver.CU_MEMORYTYPE_*: a host side is a raw address, a device side a
+// CudaBufferWrapper. Offsets are folded into the base pointer so that X and Y positions stay zero.
+
+let memoryTypeHost: Int32 = 1
+
+struct StridedEndpoint {
+    var type: CUmemorytype
+    var host: UnsafeMutableRawPointer?
+    var device: CUdeviceptr
+}
+
+func stridedEndpoint(_ type: Int32, _ ptr: UnsafeMutableRawPointer, _ offset: Int) -> StridedEndpoint {
+    if type == memoryTypeHost {
+        return StridedEndpoint(type: CU_MEMORYTYPE_HOST, host: ptr + offset, device: 0)
+    }
+
+    let buf: CudaBufferWrapper = pointerToObject(ptr)
+    return StridedEndpoint(type: CU_MEMORYTYPE_DEVICE, host: nil, device: buf.ptr + CUdeviceptr(offset))
+}
+
+@_cdecl("cuda_mem_alloc_pitch")
+public func cuda_mem_alloc_pitch(
+    widthBytes: Int,
+    height: Int,
+    elementSize: UInt32,
+    pitchOut: UnsafeMutablePointer<Int>
+) -> UnsafeMutableRawPointer? {
+    var dptr: CUdeviceptr = 0
+    var pitch: Int = 0
+    let res = cuMemAllocPitch_v2(&dptr, &pitch, widthBytes, height, elementSize)
+
+    if res != CUDA_SUCCESS { return nil }
+
+    pitchOut.pointee = pitch
+    let wrapper = CudaBufferWrapper(ptr: dptr, size: pitch * height)
+    return objectToPointer(wrapper)
+}
+
+@_cdecl("cuda_memcpy_2d_async")
+public func cuda_memcpy_2d_async(
+    dstType: Int32,
+    dstPtr: UnsafeMutableRawPointer,
+    dstOffset: Int,
+    dstPitch: Int,
+    srcType: Int32,
+    srcPtr: UnsafeMutableRawPointer,
+    srcOffset: Int,
+    srcPitch: Int,
+    widthBytes: Int,
+    height: Int,
+    streamPtr: UnsafeMutableRawPointer
+) -> Int32 {
+    let dst = stridedEndpoint(dstType, dstPtr, dstOffset)
+    let src = stridedEndpoint(srcType, srcPtr, srcOffset)
+    let stream: CudaStreamWrapper = pointerToObject(streamPtr)
+
+    var copy = CUDA_MEMCPY2D()
+    copy.srcMemoryType = src.type
+    copy.srcHost = UnsafeRawPointer(src.host)
+    copy.srcDevice = src.device
+    copy.srcPitch = srcPitch
+    copy.dstMemoryType = dst.type
+    copy.dstHost = dst.host
+    copy.dstDevice = dst.device
+    copy.dstPitch = dstPitch
+    copy.WidthInBytes = widthBytes
+    copy.Height = height
+
+    let res: CUresult = cuMemcpy2DAsync_v2(&copy, stream.stream)
+    return Int32(res.rawValue)
+}
+
+@_cdecl("cuda_memcpy_3d_async")
+public func cuda_memcpy_3d_async(
+    dstType: Int32,
+    dstPtr: UnsafeMutableRawPointer,
+    dstOffset: Int,
+    dstPitch: Int,
+    dstSliceHeight: Int,
+    srcType: Int32,
+    srcPtr: UnsafeMutableRawPointer,
+    srcOffset: Int,
+    srcPitch: Int,
+    srcSliceHeight: Int,
+    widthBytes: Int,
+    height: Int,
+    depth: Int,
+    streamPtr: UnsafeMutableRawPointer
+) -> Int32 {
+    let dst = stridedEndpoint(dstType, dstPtr, dstOffset)
+    let src = stridedEndpoint(srcType, srcPtr, srcOffset)
+    let stream: CudaStreamWrapper = pointerToObject(streamPtr)
+
+    var copy = CUDA_MEMCPY3D()
+    copy.srcMemoryType = src.type
+    copy.srcHost = UnsafeRawPointer(src.host)
+    copy.srcDevice = src.device
+    copy.srcPitch = srcPitch
+    copy.srcHeight = srcSliceHeight
+    copy.dstMemoryType = dst.type
+    copy.dstHost = dst.host
+    copy.dstDevice = dst.device
+    copy.dstPitch = dstPitch
+    copy.dstHeight = dstSliceHeight
+    copy.WidthInBytes = widthBytes
+    copy.Height = height
+    copy.Depth = depth
+
+    let res: CUresult = cuMemcpy3DAsync_v2(&copy, stream.stream)
+    return Int32(res.rawValue)
+}
\ No newline at end of file